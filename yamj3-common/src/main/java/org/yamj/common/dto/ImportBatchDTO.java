@@ -0,0 +1,117 @@
+/*
+ *      Copyright (c) 2004-2015 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ).
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3
+ *
+ */
+package org.yamj.common.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+/**
+ * Object for importing many directories of a library into the core server with one request.
+ *
+ * The library information is only transferred once for all directories.
+ */
+public class ImportBatchDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    /**
+     * The current version of the batch format; the core rejects batches with a newer version
+     */
+    public static final int CURRENT_VERSION = 1;
+    private int version = CURRENT_VERSION;
+    private String client;
+    private String playerPath;
+    private String baseDirectory;
+    private List<StageDirectoryDTO> stageDirectories = new ArrayList<>();
+
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
+    public String getClient() {
+        return client;
+    }
+
+    public void setClient(String client) {
+        this.client = client;
+    }
+
+    public String getPlayerPath() {
+        return playerPath;
+    }
+
+    public void setPlayerPath(String playerPath) {
+        this.playerPath = playerPath;
+    }
+
+    public String getBaseDirectory() {
+        return baseDirectory;
+    }
+
+    public void setBaseDirectory(String baseDirectory) {
+        this.baseDirectory = baseDirectory;
+    }
+
+    public List<StageDirectoryDTO> getStageDirectories() {
+        return stageDirectories;
+    }
+
+    public void setStageDirectories(List<StageDirectoryDTO> stageDirectories) {
+        this.stageDirectories = stageDirectories;
+    }
+
+    public void addStageDirectory(StageDirectoryDTO stageDirectory) {
+        this.stageDirectories.add(stageDirectory);
+    }
+
+    /**
+     * Creates the ImportDTO of the library for the given stage directory
+     *
+     * @param stageDirectory
+     * @return
+     */
+    public ImportDTO getImportDTO(StageDirectoryDTO stageDirectory) {
+        ImportDTO importDto = new ImportDTO();
+        importDto.setClient(client);
+        importDto.setPlayerPath(playerPath);
+        importDto.setBaseDirectory(baseDirectory);
+        importDto.setStageDirectory(stageDirectory);
+        return importDto;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE)
+            .append("version", version)
+            .append("client", client)
+            .append("baseDirectory", baseDirectory)
+            .append("directories", stageDirectories.size())
+            .toString();
+    }
+}
@@ -37,6 +37,8 @@ public class StageDirectoryDTO implements Serializable {
     private String path;
     private long date;
     private List<StageFileDTO> stageFiles = new ArrayList<>(0);
+    private boolean delta = false;
+    private List<String> deletedFiles = new ArrayList<>(0);
 
     public String getPath() {
         return path;
@@ -66,6 +68,32 @@ public class StageDirectoryDTO implements Serializable {
         this.stageFiles.add(stageFile);
     }
 
+    /**
+     * A delta only contains the stage files which have been changed since the
+     * last scan and the names of the files which have been deleted since then.
+     *
+     * @return true, if this is a delta of the directory
+     */
+    public boolean isDelta() {
+        return delta;
+    }
+
+    public void setDelta(boolean delta) {
+        this.delta = delta;
+    }
+
+    public List<String> getDeletedFiles() {
+        return deletedFiles;
+    }
+
+    public void setDeletedFiles(List<String> deletedFiles) {
+        this.deletedFiles = deletedFiles;
+    }
+
+    public void addDeletedFile(String fileName) {
+        this.deletedFiles.add(fileName);
+    }
+
     @Override
     public String toString() {
         return ToStringBuilder.reflectionToString(this, ToStringStyle.SHORT_PREFIX_STYLE);
@@ -22,9 +22,23 @@
  */
 package org.yamj.common.remote.service;
 
+import java.util.List;
+import org.yamj.common.dto.ImportBatchDTO;
 import org.yamj.common.dto.ImportDTO;
+import org.yamj.common.type.StatusType;
 
 public interface FileImportService {
 
     void importScanned(ImportDTO importDTO);
+
+    /**
+     * Import many directories of a library at once.
+     *
+     * The directories are stored one after the other, so a failing directory
+     * does not affect the others.
+     *
+     * @param batch the batch of directories
+     * @return the status for each directory in the order of the batch, DONE or ERROR
+     */
+    List<StatusType> importScanned(ImportBatchDTO batch);
 }
@@ -56,6 +56,10 @@ public enum StatusType {
      * temporary done
      */
     TEMP_DONE,
+    /**
+     * claimed for processing
+     */
+    PROCESSING,
     /**
      * ignored entry
      */
@@ -25,9 +25,15 @@ package org.yamj.core;
 import static org.yamj.core.CachingNames.*;
 import static org.yamj.core.ServiceConstants.DEFAULT;
 
+import java.lang.management.ManagementFactory;
 import net.sf.ehcache.config.CacheConfiguration;
+import net.sf.ehcache.config.CacheConfiguration.BootstrapCacheLoaderFactoryConfiguration;
+import net.sf.ehcache.config.DiskStoreConfiguration;
 import net.sf.ehcache.config.PersistenceConfiguration;
+import net.sf.ehcache.management.ManagementService;
+import net.sf.ehcache.store.DiskStoreBootstrapCacheLoaderFactory;
 import net.sf.ehcache.store.MemoryStoreEvictionPolicy;
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cache.Cache;
@@ -39,6 +45,7 @@ import org.springframework.cache.interceptor.*;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Scope;
+import org.yamj.common.tools.PropertyTools;
 
 @Configuration
 @EnableCaching
@@ -53,8 +60,16 @@ public class CachingConfiguration implements CachingConfigurer {
     
     @Bean(destroyMethod="shutdown")
     public net.sf.ehcache.CacheManager ehCacheManager() {
+        net.sf.ehcache.config.Configuration config = new net.sf.ehcache.config.Configuration();
+        if (PropertyTools.getBooleanProperty("yamj3.cache.disk.enabled", false)) {
+            final String defaultPath = System.getProperty("yamj3.home", ".") + "/cache";
+            final String diskStorePath = StringUtils.defaultIfBlank(PropertyTools.getProperty("yamj3.cache.disk.path"), defaultPath);
+            LOG.info("Use disk store for caches: {}", diskStorePath);
+            config.diskStore(new DiskStoreConfiguration().path(diskStorePath));
+        }
+        
         return net.sf.ehcache.CacheManager.create(
-            new net.sf.ehcache.config.Configuration()
+            config
                 // default cache
                 .defaultCache(cacheConfig(DEFAULT, 100, TTL_10_MINUTES))
                 .cache(cacheConfig(ATTACHMENTS, 300, TTL_10_MINUTES))
@@ -73,20 +88,27 @@ public class CachingConfiguration implements CachingConfigurer {
                 .cache(cacheConfigDatabase(DB_ARTWORK_IMAGE, 2000, TTL_ONE_DAY))
                 
                 // caches for API objects
-                .cache(cacheConfig(API_GENRES, 5000, TTL_ONE_WEEK))
-                .cache(cacheConfig(API_STUDIOS, 5000, TTL_ONE_WEEK))
-				.cache(cacheConfig(API_LIBRARIES, 5000, TTL_ONE_WEEK))
-                .cache(cacheConfig(API_COUNTRIES, 5000, TTL_ONE_WEEK))
-                .cache(cacheConfig(API_CERTIFICATIONS, 5000, TTL_ONE_WEEK))
-                .cache(cacheConfig(API_EXTERNAL_IDS, 5000, TTL_ONE_WEEK))
-                .cache(cacheConfig(API_RATINGS, 5000, TTL_ONE_WEEK))
-                .cache(cacheConfig(API_AWARDS, 5000, TTL_ONE_WEEK))
-                .cache(cacheConfig(API_BOXEDSETS, 5000, TTL_ONE_WEEK))
-                .cache(cacheConfig(API_TRAILERS, 5000, TTL_ONE_WEEK))
-                .cache(cacheConfig(API_VIDEOSOURCE, 5000, TTL_ONE_WEEK))
+                .cache(cacheConfigApi(API_GENRES, 5000, TTL_ONE_WEEK))
+                .cache(cacheConfigApiEntities(API_STUDIOS, 5000, TTL_ONE_WEEK))
+				.cache(cacheConfigApiEntities(API_LIBRARIES, 5000, TTL_ONE_WEEK))
+                .cache(cacheConfigApi(API_COUNTRIES, 5000, TTL_ONE_WEEK))
+                .cache(cacheConfigApi(API_CERTIFICATIONS, 5000, TTL_ONE_WEEK))
+                .cache(cacheConfigApi(API_EXTERNAL_IDS, 5000, TTL_ONE_WEEK))
+                .cache(cacheConfigApi(API_RATINGS, 5000, TTL_ONE_WEEK))
+                .cache(cacheConfigApi(API_AWARDS, 5000, TTL_ONE_WEEK))
+                .cache(cacheConfigApi(API_BOXEDSETS, 5000, TTL_ONE_WEEK))
+                .cache(cacheConfigApi(API_TRAILERS, 5000, TTL_ONE_WEEK))
+                .cache(cacheConfigApi(API_VIDEOSOURCE, 5000, TTL_ONE_WEEK))
+                .cache(cacheConfigApi(API_RESPONSES, 500, TTL_ONE_DAY))
             );
     }
 
+    @Bean(initMethod="init", destroyMethod="dispose")
+    public ManagementService ehCacheManagementService() {
+        // publish the cache configurations and statistics as MBeans
+        return new ManagementService(ehCacheManager(), ManagementFactory.getPlatformMBeanServer(), true, true, true, true);
+    }
+
     @Scope
     @Bean
     @Override
@@ -112,31 +134,99 @@ public class CachingConfiguration implements CachingConfigurer {
     }
     
     private static CacheConfiguration cacheConfig(String name, int maxEntries, long timeToLiveSeconds) {
-        return new CacheConfiguration()
-            .name(name)
+        return sizedCacheConfig(name, maxEntries)
+            .eternal(false)
+            .timeToIdleSeconds(0)
+            .timeToLiveSeconds(timeToLiveSeconds)
+            .persistence(new PersistenceConfiguration().strategy(PersistenceConfiguration.Strategy.NONE))
+            .memoryStoreEvictionPolicy(MemoryStoreEvictionPolicy.LRU)
+            .statistics(true);
+    }
+
+    private static CacheConfiguration cacheConfigApi(String name, int maxEntries, long timeToLiveSeconds) {
+        return tieredCacheConfig(sizedCacheConfig(name, maxEntries))
+            .eternal(false)
+            .timeToIdleSeconds(0)
+            .timeToLiveSeconds(timeToLiveSeconds)
+            .memoryStoreEvictionPolicy(MemoryStoreEvictionPolicy.LRU)
+            .statistics(true);
+    }
+
+    /**
+     * API caches holding hibernate entities stay on the heap like the database caches.
+     */
+    private static CacheConfiguration cacheConfigApiEntities(String name, int maxEntries, long timeToLiveSeconds) {
+        return sizedCacheConfig(name, maxEntries)
             .eternal(false)
-            .maxEntriesLocalHeap(maxEntries)
             .timeToIdleSeconds(0)
             .timeToLiveSeconds(timeToLiveSeconds)
             .persistence(new PersistenceConfiguration().strategy(PersistenceConfiguration.Strategy.NONE))
             .memoryStoreEvictionPolicy(MemoryStoreEvictionPolicy.LRU)
-            .statistics(false);
+            .statistics(true);
     }
 
+    /**
+     * Database caches hold hibernate entities, so they stay on the heap;
+     * the identifier and audit fields of the entities are not serializable.
+     */
     private static CacheConfiguration cacheConfigDatabase(String name, int maxEntries, long timeToLiveSeconds) {
-        return new CacheConfiguration()
-            .name(name)
+        return sizedCacheConfig(name, maxEntries)
             .eternal(false)
-            .maxEntriesLocalHeap(maxEntries)
             .timeToIdleSeconds(0)
             .timeToLiveSeconds(timeToLiveSeconds)
             .persistence(new PersistenceConfiguration().strategy(PersistenceConfiguration.Strategy.NONE))
             .memoryStoreEvictionPolicy(MemoryStoreEvictionPolicy.LFU)
-            .statistics(false);
+            .statistics(true);
+    }
+
+    /**
+     * Let the cache of API DTOs overflow from heap to a persistent disk store if "yamj3.cache.disk.enabled" is set.
+     * 
+     * The disk store is written on shutdown and loaded into the heap in the background
+     * after a restart, so that the cache is warm right away.
+     */
+    // the replacing restartable persistence strategy is only available in the enterprise edition of ehcache 2.6
+    @SuppressWarnings("deprecation")
+    private static CacheConfiguration tieredCacheConfig(CacheConfiguration config) {
+        if (!PropertyTools.getBooleanProperty("yamj3.cache.disk.enabled", false)) {
+            return config.persistence(new PersistenceConfiguration().strategy(PersistenceConfiguration.Strategy.NONE));
+        }
+        
+        final int maxEntriesOnDisk = PropertyTools.getIntProperty("yamj3.cache.disk.maxEntries", 10000);
+        return config
+            .overflowToDisk(true)
+            .diskPersistent(true)
+            .maxEntriesLocalDisk(maxEntriesOnDisk)
+            .diskSpoolBufferSizeMB(5)
+            .bootstrapCacheLoaderFactory(new BootstrapCacheLoaderFactoryConfiguration()
+                .className(DiskStoreBootstrapCacheLoaderFactory.class.getName())
+                .properties("bootstrapAsynchronously=true"));
+    }
+
+    /**
+     * Size the cache by bytes if "yamj3.cache.&lt;name&gt;.maxBytes" is set (i.e. "20M"),
+     * else by the given number of entries.
+     */
+    private static CacheConfiguration sizedCacheConfig(String name, int maxEntries) {
+        CacheConfiguration config = new CacheConfiguration().name(name);
+        
+        final String maxBytes = PropertyTools.getProperty("yamj3.cache." + name + ".maxBytes");
+        if (StringUtils.isBlank(maxBytes)) {
+            config.setMaxEntriesLocalHeap(maxEntries);
+        } else {
+            LOG.debug("Size cache '{}' with {} bytes", name, maxBytes);
+            config.setMaxBytesLocalHeap(maxBytes);
+        }
+        return config;
     }
 
     @Bean
     public Cache attachmentCache() {
         return cacheManager().getCache(ATTACHMENTS);
     }
+
+    @Bean
+    public Cache responseCache() {
+        return cacheManager().getCache(API_RESPONSES);
+    }
 }
@@ -22,6 +22,7 @@
  */
 package org.yamj.core;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.hibernate5.Hibernate5Module;
 import com.fasterxml.jackson.datatype.joda.JodaMapper;
 import java.io.File;
@@ -40,6 +41,7 @@ import org.springframework.core.io.FileSystemResource;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.ByteArrayHttpMessageConverter;
 import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.ResourceHttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.web.multipart.commons.CommonsMultipartResolver;
 import org.springframework.web.servlet.LocaleResolver;
@@ -51,6 +53,7 @@ import org.yamj.api.common.http.PoolingHttpClient;
 import org.yamj.common.tools.PropertyTools;
 import org.yamj.core.config.ConfigServiceWrapper;
 import org.yamj.core.config.LocaleService;
+import org.yamj.core.web.ResponseCacheInterceptor;
 import org.yamj.plugin.api.NeedsConfigService;
 import org.yamj.plugin.api.NeedsHttpClient;
 import org.yamj.plugin.api.NeedsLocaleService;
@@ -66,6 +69,8 @@ public class YamjConfiguration extends WebMvcConfigurationSupport {
     private LocaleService localeService;
     @Autowired
     private PoolingHttpClient poolingHttpClient;
+    @Autowired
+    private ResponseCacheInterceptor responseCacheInterceptor;
     
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
@@ -90,13 +95,20 @@ public class YamjConfiguration extends WebMvcConfigurationSupport {
 
     @Override
     public void configureMessageConverters(List<HttpMessageConverter<?>> converters) {
-        converters.add(new MappingJackson2HttpMessageConverter(
-           new JodaMapper().registerModule(
-               new Hibernate5Module().configure(Hibernate5Module.Feature.FORCE_LAZY_LOADING, true))));
+        converters.add(new MappingJackson2HttpMessageConverter(jsonObjectMapper()));
         
         ByteArrayHttpMessageConverter byteArrayHttpMessageConverter = new ByteArrayHttpMessageConverter();
         byteArrayHttpMessageConverter.setSupportedMediaTypes(Arrays.asList(new MediaType[]{MediaType.IMAGE_JPEG, MediaType.IMAGE_PNG}));
         converters.add(byteArrayHttpMessageConverter);
+        
+        // streams files like the artwork images
+        converters.add(new ResourceHttpMessageConverter());
+    }
+
+    @Bean
+    public ObjectMapper jsonObjectMapper() {
+        return new JodaMapper().registerModule(
+            new Hibernate5Module().configure(Hibernate5Module.Feature.FORCE_LAZY_LOADING, true));
     }
 
     @Bean
@@ -157,6 +169,7 @@ public class YamjConfiguration extends WebMvcConfigurationSupport {
         LocaleChangeInterceptor interceptor = new LocaleChangeInterceptor();
         interceptor.setParamName("language");
         registry.addInterceptor(interceptor);
+        registry.addInterceptor(responseCacheInterceptor).addPathPatterns("/api/**");
     }
 
     @Bean(destroyMethod="stopPlugins")
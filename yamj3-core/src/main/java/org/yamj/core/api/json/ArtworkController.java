@@ -22,14 +22,19 @@
  */
 package org.yamj.core.api.json;
 
-import java.io.FileInputStream;
+import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
-import org.apache.commons.io.IOUtils;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
@@ -45,7 +50,7 @@ import org.yamj.core.database.service.ArtworkStorageService;
 import org.yamj.core.database.service.CommonStorageService;
 import org.yamj.core.database.service.JsonApiStorageService;
 import org.yamj.core.scheduling.ArtworkProcessScheduler;
-import org.yamj.core.service.artwork.ArtworkProcessorService;
+import org.yamj.core.service.artwork.ArtworkRenderService;
 import org.yamj.core.service.artwork.ArtworkUploadService;
 import org.yamj.core.service.artwork.ImageDTO;
 import org.yamj.core.service.file.FileStorageService;
@@ -68,7 +73,9 @@ public class ArtworkController {
     @Autowired
     private ArtworkStorageService artworkStorageService;
     @Autowired
-    private ArtworkProcessorService artworkLocatedProcessorService;
+    private ArtworkRenderService artworkRenderService;
+    @Value("${yamj3.artwork.render.maxAge:86400}")
+    private long imageMaxAge;
     
     @RequestMapping(value = "/{id}", method = RequestMethod.GET)
     public ApiWrapperSingle<ApiArtworkDTO> getArtwork(@PathVariable("id") Long id) {
@@ -173,19 +180,33 @@ public class ArtworkController {
     }
     
     @RequestMapping(value = "/get/{profile}/{id}", method=RequestMethod.GET, produces = {MediaType.IMAGE_PNG_VALUE, MediaType.IMAGE_JPEG_VALUE})
-    public ResponseEntity<byte[]> getImage(@PathVariable("profile") String profile, @PathVariable("id") Long id) {
+    public ResponseEntity<Resource> getImage(@PathVariable("profile") String profile, @PathVariable("id") Long id) {
         final long start = System.currentTimeMillis();
         try {
-            ImageDTO image = this.artworkLocatedProcessorService.getImage(id, profile);
+            ImageDTO image = this.artworkRenderService.getImage(id, profile);
             if (image == null) {
                 return new ResponseEntity<>(HttpStatus.NOT_FOUND);
             }
             
-            try (FileInputStream fos = new FileInputStream(image.getResource())) {
-                HttpHeaders headers = new HttpHeaders();
-                headers.setContentType(image.getMediaType());
-                return new ResponseEntity<>(IOUtils.toByteArray(fos), headers, HttpStatus.OK);
+            final File file = new File(image.getResource());
+            if (!file.isFile()) {
+                LOG.warn("Image file for ID {} and profile '{}' not found: {}", id, profile, file);
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
             }
+            
+            // the file is streamed; a matching conditional request is answered with 304
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(image.getMediaType());
+            headers.setContentLength(file.length());
+            headers.setLastModified(file.lastModified());
+            headers.setETag("\"" + Long.toHexString(file.lastModified()) + "-" + Long.toHexString(file.length()) + "\"");
+            headers.setCacheControl("public, max-age=" + imageMaxAge);
+            return new ResponseEntity<Resource>(new FileSystemResource(file), headers, HttpStatus.OK);
+        } catch (RejectedExecutionException | CancellationException | TimeoutException ex) {
+            LOG.debug("Image rendering busy for ID {} and profile '{}': {}", id, profile, ex.getMessage());
+            HttpHeaders headers = new HttpHeaders();
+            headers.set("Retry-After", "5");
+            return new ResponseEntity<>(headers, HttpStatus.SERVICE_UNAVAILABLE);
         } catch (Exception ex) {
             LOG.warn("Failed to get image for ID {} and profile '{}': {}", id, profile, ex.getMessage());
             LOG.trace("Image retrieval error", ex);
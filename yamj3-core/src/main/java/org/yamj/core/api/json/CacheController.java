@@ -0,0 +1,83 @@
+/*
+ *      Copyright (c) 2004-2015 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ).
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3
+ *
+ */
+package org.yamj.core.api.json;
+
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+import org.yamj.core.api.model.ApiStatus;
+import org.yamj.core.api.model.CacheStatistics;
+import org.yamj.core.service.cache.CacheTuningService;
+import org.yamj.core.service.tasks.WarmUpTask;
+
+@RestController
+@RequestMapping(value = "/api/cache", produces = "application/json; charset=utf-8")
+public class CacheController {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CacheController.class);
+    @Autowired
+    private CacheTuningService cacheTuningService;
+    @Autowired
+    private WarmUpTask warmUpTask;
+
+    @RequestMapping(value = "/statistics", method = RequestMethod.GET)
+    public List<CacheStatistics> getStatistics() {
+        LOG.debug("Getting statistics of all caches");
+        return cacheTuningService.getStatistics();
+    }
+
+    @RequestMapping(value = "/statistics/{name}", method = RequestMethod.GET)
+    public CacheStatistics getStatistics(@PathVariable("name") String name) {
+        LOG.debug("Getting statistics of cache '{}'", name);
+        return cacheTuningService.getStatistics(name);
+    }
+
+    @RequestMapping(value = "/statistics/clear", method = {RequestMethod.GET, RequestMethod.DELETE})
+    public ApiStatus clearStatistics() {
+        LOG.info("Clearing statistics of all caches");
+        cacheTuningService.clearStatistics();
+        return ApiStatus.ok("Cleared cache statistics");
+    }
+
+    @RequestMapping(value = "/apply", method = {RequestMethod.GET, RequestMethod.PUT})
+    public ApiStatus applySettings() {
+        LOG.info("Applying cache settings");
+        cacheTuningService.applySettings();
+        return ApiStatus.ok("Applied cache settings");
+    }
+
+    @RequestMapping(value = "/warmup", method = RequestMethod.GET)
+    public ApiStatus getWarmUpStatus() {
+        final String progress = warmUpTask.getStepsDone() + " of " + warmUpTask.getStepsTotal() + " steps done";
+        return ApiStatus.ok(warmUpTask.isRunning() ? "Warm up running: " + progress : "Warm up not running: " + progress);
+    }
+
+    @RequestMapping(value = "/warmup/start", method = RequestMethod.GET)
+    public ApiStatus startWarmUp() {
+        LOG.info("Starting cache warm up");
+        warmUpTask.execute(null);
+        return ApiStatus.ok("Started cache warm up");
+    }
+}
@@ -39,6 +39,7 @@ import org.yamj.core.database.model.Studio;
 import org.yamj.core.database.model.Library;
 import org.yamj.core.database.service.JsonApiStorageService;
 import org.yamj.core.scheduling.*;
+import org.yamj.core.web.CacheableResponse;
 
 @RestController
 @RequestMapping(value = "/api", produces = "application/json; charset=utf-8")
@@ -59,6 +60,7 @@ public class CommonController {
     private TrailerProcessScheduler trailerProcessScheduler;
 
     //<editor-fold defaultstate="collapsed" desc="Alphabetical Methods">
+    @CacheableResponse
     @RequestMapping(value = "/alphabetical/list", method = RequestMethod.GET)
     public ApiWrapperList<ApiNameDTO> getAlphabeticals(@ModelAttribute("options") OptionsMultiType options) {
         LOG.debug("Getting alphabetical list - Options: {}", options);
@@ -193,6 +195,7 @@ public class CommonController {
     //</editor-fold>
 
     //<editor-fold defaultstate="collapsed" desc="Genre Methods">
+    @CacheableResponse
     @RequestMapping(value = "/genre", method = RequestMethod.GET)
     public ApiWrapperList<ApiGenreDTO> getGenreFilename(@RequestParam(required = true, defaultValue = "") String filename) {
         LOG.debug("Getting genres for filename '{}'", filename);
@@ -201,6 +204,7 @@ public class CommonController {
         return wrapper.setResults(jsonApiStorageService.getGenreFilename(filename));
     }
 
+    @CacheableResponse
     @RequestMapping(value = "/genre/{name}", method = RequestMethod.GET)
     public ApiWrapperSingle<ApiGenreDTO> getGenre(@PathVariable("name") String name) {
         ApiWrapperSingle<ApiGenreDTO> wrapper = new ApiWrapperSingle<>();
@@ -232,6 +236,7 @@ public class CommonController {
         return wrapper.setResult(result);
     }
 
+    @CacheableResponse
     @RequestMapping(value = "/genres/list", method = RequestMethod.GET)
     public ApiWrapperList<ApiGenreDTO> getGenres(@ModelAttribute("options") OptionsSingleType options) {
         LOG.debug("Getting genre list: used={}, full={}", options.getUsed(), options.getFull());
@@ -289,6 +294,7 @@ public class CommonController {
     //</editor-fold>
 
     //<editor-fold defaultstate="collapsed" desc="Studio Methods">
+    @CacheableResponse
     @RequestMapping(value = "/studio/{name}", method = RequestMethod.GET)
     public ApiWrapperSingle<Studio> getStudio(@PathVariable("name") String name) {
         ApiWrapperSingle<Studio> wrapper = new ApiWrapperSingle<>();
@@ -305,6 +311,7 @@ public class CommonController {
         return wrapper.setResult(studio);
     }
 
+    @CacheableResponse
     @RequestMapping(value = "/studios/list", method = RequestMethod.GET)
     public ApiWrapperList<Studio> getStudios(@ModelAttribute("options") OptionsSingleType options) {
         LOG.debug("Getting studio list - Options: {}", options);
@@ -316,6 +323,7 @@ public class CommonController {
 	
 	// add Library Methods
 	//<editor-fold defaultstate="collapsed" desc="Library Methods">
+    @CacheableResponse
     @RequestMapping(value = "/library/{name}", method = RequestMethod.GET)
     public ApiWrapperSingle<Library> getLibrary(@PathVariable("name") String name) {
         ApiWrapperSingle<Library> wrapper = new ApiWrapperSingle<>();
@@ -332,6 +340,7 @@ public class CommonController {
         return wrapper.setResult(library);
     }
 
+    @CacheableResponse
     @RequestMapping(value = "/libraries/list", method = RequestMethod.GET)
     public ApiWrapperList<Library> getLibraries(@ModelAttribute("options") OptionsSingleType options) {
         LOG.debug("Getting library list - Options: {}", options);
@@ -343,6 +352,7 @@ public class CommonController {
 	// end library
 
     //<editor-fold defaultstate="collapsed" desc="Country Methods">
+    @CacheableResponse
     @RequestMapping(value = "/country", method = RequestMethod.GET)
     public ApiWrapperList<ApiCountryDTO> getCountryFilename(
         @RequestParam(required = true, defaultValue = "") String filename,
@@ -354,6 +364,7 @@ public class CommonController {
         return wrapper.setResults(jsonApiStorageService.getCountryFilename(filename, language));
     }
 
+    @CacheableResponse
     @RequestMapping(value = "/country/{countryCode}", method = RequestMethod.GET)
     public ApiWrapperSingle<ApiCountryDTO> getCountry(
         @PathVariable String countryCode,
@@ -372,6 +383,7 @@ public class CommonController {
         return wrapper.setResult(country);
    }
 
+    @CacheableResponse
     @RequestMapping(value = "/countries/list", method = RequestMethod.GET)
     public ApiWrapperList<ApiCountryDTO> getCountries(@ModelAttribute("options") OptionsSingleType options) {
         LOG.debug("Getting country list - Options: {}", options);
@@ -382,6 +394,7 @@ public class CommonController {
     //</editor-fold>
 
     //<editor-fold defaultstate="collapsed" desc="Award Methods">
+    @CacheableResponse
     @RequestMapping(value = "/awards/list", method = RequestMethod.GET)
     public ApiWrapperList<ApiAwardDTO> getAwards(@ModelAttribute("options") OptionsSingleType options) {
         LOG.debug("Getting award list - Options: {}", options);
@@ -392,6 +405,7 @@ public class CommonController {
     //</editor-fold>
 
     //<editor-fold defaultstate="collapsed" desc="Certification Methods">
+    @CacheableResponse
     @RequestMapping(value ="/certifications/list", method = RequestMethod.GET)
     public ApiWrapperList<ApiCertificationDTO> getCertifications(@ModelAttribute("options") OptionsSingleType options) {
         LOG.debug("Getting certifications list - Options: {}", options);
@@ -402,6 +416,7 @@ public class CommonController {
     //</editor-fold>
 
     //<editor-fold defaultstate="collapsed" desc="VideoSource Methods">
+    @CacheableResponse
     @RequestMapping(value = "/videosources/list", method = RequestMethod.GET)
     public ApiWrapperList<ApiNameDTO> getVideoSources(@ModelAttribute("options") OptionsSingleType options) {
         LOG.debug("Getting video sources list - Options: {}", options);
@@ -412,6 +427,7 @@ public class CommonController {
     //</editor-fold>
 
     //<editor-fold defaultstate="collapsed" desc="Rating Methods">
+    @CacheableResponse
     @RequestMapping(value = "/ratings/list", method = RequestMethod.GET)
     public ApiWrapperList<ApiRatingDTO> getRatings(@ModelAttribute("options") OptionsRating options) {
         LOG.debug("Getting ratings list - Options: {}", options);
@@ -422,6 +438,7 @@ public class CommonController {
     //</editor-fold>
 
     //<editor-fold defaultstate="collapsed" desc="Boxed-Set Methods">
+    @CacheableResponse
     @RequestMapping(value = "/boxset/list", method = RequestMethod.GET)
     public ApiWrapperList<ApiBoxedSetDTO> getBoxSets(@ModelAttribute("options") OptionsBoxedSet options) {
         LOG.debug("Getting boxset list - Options: {}", options);
@@ -430,6 +447,7 @@ public class CommonController {
         return wrapper.setResults(jsonApiStorageService.getBoxedSets(wrapper));
     }
 
+    @CacheableResponse
     @RequestMapping(value = "/boxset/{id}", method = RequestMethod.GET)
     public ApiWrapperSingle<ApiBoxedSetDTO> getBoxSet(@ModelAttribute("options") OptionsBoxedSet options) {
         LOG.debug("Getting boxset - Options: {}", options);
@@ -32,6 +32,7 @@ import org.yamj.core.api.options.OptionsConfig;
 import org.yamj.core.api.wrapper.ApiWrapperList;
 import org.yamj.core.config.ConfigService;
 import org.yamj.core.database.model.Configuration;
+import org.yamj.core.service.cache.CacheTuningService;
 
 @RestController
 @RequestMapping(value = "/api/config", produces = "application/json; charset=utf-8")
@@ -40,6 +41,8 @@ public class ConfigController {
     private static final Logger LOG = LoggerFactory.getLogger(ConfigController.class);
     @Autowired
     private ConfigService configService;
+    @Autowired
+    private CacheTuningService cacheTuningService;
 
     @RequestMapping(value = "/list", method = RequestMethod.GET)
     public ApiWrapperList<Configuration> configList(@ModelAttribute("options") OptionsConfig options) {
@@ -66,6 +69,7 @@ public class ConfigController {
         if (StringUtils.isNotBlank(key) && StringUtils.isNotBlank(value)) {
             LOG.info("Storing config '{}' with value '{}'", key, value);
             configService.setProperty(key, value);
+            applyCacheSettings(key);
             status = ApiStatus.ok("Successfully added '" + key + "' with value '" + value + "'");
         } else {
             status = ApiStatus.badRequest("Invalid key/value specified, configuration not added");
@@ -81,6 +85,7 @@ public class ConfigController {
         if (StringUtils.isNotBlank(key)) {
             LOG.info("Deleting config '{}'", key);
             configService.deleteProperty(key);
+            applyCacheSettings(key);
             status = ApiStatus.ok("Successfully deleted '" + key + "'");
         } else {
             status = ApiStatus.badRequest("Invalid key specified, configuration not deleted");
@@ -97,10 +102,17 @@ public class ConfigController {
         if (StringUtils.isNotBlank(key) && StringUtils.isNotBlank(value)) {
             LOG.info("Updating config '{}' with value '{}'", key, value);
             configService.setProperty(key, value);
+            applyCacheSettings(key);
             status = ApiStatus.ok("Successfully updated '" + key + "' to value '" + value + "'");
         } else {
             status = ApiStatus.badRequest("Invalid key/value specified, configuration not updated");
         }
         return status;
     }
+
+    private void applyCacheSettings(String key) {
+        if (key.startsWith(CacheTuningService.CACHE_PREFIX)) {
+            cacheTuningService.applySettings();
+        }
+    }
 }
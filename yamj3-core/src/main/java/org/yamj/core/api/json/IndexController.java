@@ -25,9 +25,12 @@ package org.yamj.core.api.json;
 import static org.yamj.plugin.api.Constants.ALL;
 import static org.yamj.plugin.api.Constants.DEFAULT_SPLITTER;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import javax.servlet.http.HttpServletResponse;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -41,7 +44,9 @@ import org.yamj.core.api.model.dto.ApiVideoDTO;
 import org.yamj.core.api.options.OptionsId;
 import org.yamj.core.api.options.OptionsIndexVideo;
 import org.yamj.core.api.wrapper.ApiWrapperList;
+import org.yamj.core.api.wrapper.ApiWrapperStream;
 import org.yamj.core.database.service.JsonApiStorageService;
+import org.yamj.core.web.CacheableResponse;
 
 @RestController
 @RequestMapping(value = "/api/index", method = RequestMethod.GET, produces = "application/json; charset=utf-8")
@@ -50,7 +55,10 @@ public class IndexController {
     private static final Logger LOG = LoggerFactory.getLogger(IndexController.class);
     @Autowired
     private JsonApiStorageService jsonApiStorageService;
+    @Autowired
+    private ObjectMapper jsonObjectMapper;
 
+    @CacheableResponse
     @RequestMapping("/video")
     public ApiWrapperList<ApiVideoDTO> getVideoList(@ModelAttribute("options") OptionsIndexVideo options) {
         LOG.debug("Video index: {}", options);
@@ -61,6 +69,25 @@ public class IndexController {
         return wrapper;
     }
 
+    /**
+     * Stream the video index without holding the complete result in memory.
+     * 
+     * The results are written in chunks as they are read from the database,
+     * so this is meant for large exports of the library.
+     */
+    @RequestMapping("/video/stream")
+    public void streamVideoList(@ModelAttribute("options") OptionsIndexVideo options, HttpServletResponse response) throws IOException {
+        LOG.debug("Video index stream: {}", options);
+
+        response.setContentType("application/json; charset=utf-8");
+        ApiWrapperList<ApiVideoDTO> wrapper = new ApiWrapperList<>(options);
+        ApiWrapperStream<ApiVideoDTO> stream = new ApiWrapperStream<>(jsonObjectMapper, wrapper, response.getOutputStream());
+        jsonApiStorageService.streamVideoList(wrapper, options, stream);
+        stream.finish();
+        LOG.debug("Streamed video index with {} entries: {}", stream.getCount(), wrapper.getQueryDuration());
+    }
+
+    @CacheableResponse
     @RequestMapping("/person")
     public ApiWrapperList<ApiPersonDTO> getPersonList(@ModelAttribute("options") OptionsId options) {
         LOG.debug("Person index: {}", options);
@@ -71,6 +98,7 @@ public class IndexController {
         return wrapper;
     }
 
+    @CacheableResponse
     @RequestMapping("/count")
     public List<CountTimestamp> getCount(@RequestParam(required = false, defaultValue = ALL) String type) {
         List<CountTimestamp> results = new ArrayList<>();
@@ -98,6 +126,7 @@ public class IndexController {
         return results;
     }
 
+    @CacheableResponse
     @RequestMapping("/jobs")
     public List<CountGeneric> getJobs(@RequestParam(required = false, defaultValue = ALL) String job) {
         List<CountGeneric> results;
@@ -35,6 +35,7 @@ import org.yamj.core.api.wrapper.ApiWrapperList;
 import org.yamj.core.api.wrapper.ApiWrapperSingle;
 import org.yamj.core.database.service.JsonApiStorageService;
 import org.yamj.core.scheduling.MetadataScanScheduler;
+import org.yamj.core.web.CacheableResponse;
 
 @RestController
 @RequestMapping(value = "/api/person", produces = "application/json; charset=utf-8")
@@ -46,6 +47,7 @@ public class PersonController {
     @Autowired
     private MetadataScanScheduler metadataScanScheduler;
 
+    @CacheableResponse
     @RequestMapping(value = "/{id}", method = RequestMethod.GET)
     public ApiWrapperSingle<ApiPersonDTO> getPerson(@ModelAttribute("options") OptionsId options) {
         ApiWrapperSingle<ApiPersonDTO> wrapper = new ApiWrapperSingle<>(options);
@@ -63,21 +65,25 @@ public class PersonController {
         return jsonApiStorageService.updatePerson(id, update);
     }
 
+    @CacheableResponse
     @RequestMapping(value = "/movie", method = RequestMethod.GET)
     public ApiWrapperList<ApiPersonDTO> getPersonListByMovie(@ModelAttribute("options") OptionsId options) {
         return getPersonListByVideo(MetaDataType.MOVIE, options);
     }
 
+    @CacheableResponse
     @RequestMapping(value = "/series", method = RequestMethod.GET)
     public ApiWrapperList<ApiPersonDTO> getPersonListBySeries(@ModelAttribute("options") OptionsId options) {
         return getPersonListByVideo(MetaDataType.SERIES, options);
     }
 
+    @CacheableResponse
     @RequestMapping(value = "/season", method = RequestMethod.GET)
     public ApiWrapperList<ApiPersonDTO> getPersonListBySeason(@ModelAttribute("options") OptionsId options) {
         return getPersonListByVideo(MetaDataType.SEASON, options);
     }
 
+    @CacheableResponse
     @RequestMapping(value = "/episode", method = RequestMethod.GET)
     public ApiWrapperList<ApiPersonDTO> getPersonListByEpisode(@ModelAttribute("options") OptionsId options) {
         return getPersonListByVideo(MetaDataType.EPISODE, options);
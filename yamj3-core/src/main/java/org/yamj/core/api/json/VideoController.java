@@ -38,6 +38,7 @@ import org.yamj.core.api.wrapper.ApiWrapperList;
 import org.yamj.core.api.wrapper.ApiWrapperSingle;
 import org.yamj.core.database.service.JsonApiStorageService;
 import org.yamj.core.scheduling.MetadataScanScheduler;
+import org.yamj.core.web.CacheableResponse;
 
 @RestController
 @RequestMapping(value = "/api/video", produces = "application/json; charset=utf-8")
@@ -58,6 +59,7 @@ public class VideoController {
      * @param options
      * @return
      */
+    @CacheableResponse
     @RequestMapping(value = "/{type}/{id}", method = RequestMethod.GET)
     public ApiWrapperSingle<ApiVideoDTO> getVideo(@PathVariable("type") String type, @ModelAttribute("options") OptionsIndexVideo options) {
         ApiWrapperSingle<ApiVideoDTO> wrapper = new ApiWrapperSingle<>(options);
@@ -235,6 +237,7 @@ public class VideoController {
      * @param options
      * @return
      */
+    @CacheableResponse
     @RequestMapping(value = "/seriesinfo", method = RequestMethod.GET)
     public ApiWrapperList<ApiSeriesInfoDTO> getSeriesInfo(@ModelAttribute("options") OptionsIdArtwork options) {
         ApiWrapperList<ApiSeriesInfoDTO> wrapper = new ApiWrapperList<>(options);
@@ -257,6 +260,7 @@ public class VideoController {
      * @param options
      * @return
      */
+    @CacheableResponse
     @RequestMapping(value = "/episodes", method = RequestMethod.GET)
     public ApiWrapperList<ApiEpisodeDTO> getEpisodes(@ModelAttribute("options") OptionsEpisode options) {
         LOG.info("Getting episodes for seriesId '{}', seasonId '{}', season '{}'",
@@ -276,6 +280,7 @@ public class VideoController {
      * @param options
      * @return
      */
+    @CacheableResponse
     @RequestMapping(value = "/years/list", method = RequestMethod.GET)
     public ApiWrapperList<ApiYearDecadeDTO> getYears(@ModelAttribute("options") OptionsMultiType options) {
         LOG.debug("Getting year list - Options: {}", options);
@@ -291,6 +296,7 @@ public class VideoController {
      * @param options
      * @return
      */
+    @CacheableResponse
     @RequestMapping(value = "/decades/list", method = RequestMethod.GET)
     public ApiWrapperList<ApiYearDecadeDTO> getDecades(@ModelAttribute("options") OptionsMultiType options) {
         LOG.debug("Getting decade list - Options: {}", options);
@@ -22,13 +22,18 @@
  */
 package org.yamj.core.api.model.builder;
 
+import static org.yamj.core.database.Literals.LITERAL_CREATION;
+import static org.yamj.core.database.Literals.LITERAL_LASTSCAN;
+
 import java.util.*;
 import java.util.Map.Entry;
 import org.apache.commons.lang.math.NumberUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.yamj.common.type.MetaDataType;
+import org.yamj.core.api.model.dto.ApiVideoDTO;
 import org.yamj.core.api.options.OptionsIndexVideo;
 import org.yamj.core.database.model.type.ResolutionType;
+import org.yamj.core.service.facet.FacetMatch;
 
 /**
  * @author modmax
@@ -47,6 +52,21 @@ public class IndexParams {
     private static final String RATING = "rating";
     private static final String NEWEST = "newest";
     private static final String BOXSET = "boxset";
+    // sort keys supported by keyset pagination
+    private static final String KEYSET_ID = "id";
+    private static final String KEYSET_TITLE = "title";
+    private static final String KEYSET_SORT_TITLE = "sorttitle";
+    private static final String KEYSET_ORIGINAL_TITLE = "originaltitle";
+    private static final String KEYSET_VIDEO_YEAR = "videoyear";
+    private static final Map<String, String> KEYSET_EXPRESSIONS = new HashMap<>();
+
+    static {
+        KEYSET_EXPRESSIONS.put(KEYSET_ID, "id");
+        KEYSET_EXPRESSIONS.put(KEYSET_TITLE, "COALESCE(title,'')");
+        KEYSET_EXPRESSIONS.put(KEYSET_SORT_TITLE, "COALESCE(sortTitle,'')");
+        KEYSET_EXPRESSIONS.put(KEYSET_ORIGINAL_TITLE, "COALESCE(originalTitle,'')");
+        KEYSET_EXPRESSIONS.put(KEYSET_VIDEO_YEAR, "COALESCE(videoYear,-1)");
+    }
 
     private final OptionsIndexVideo options;
     private final Map<String, String> includes;
@@ -57,6 +77,9 @@ public class IndexParams {
     private int ratingValue;
     private String newestSource;
     private Date newestDate;
+    private boolean apiIndex;
+    private final Map<MetaDataType, FacetMatch> facetMatches = new EnumMap<>(MetaDataType.class);
+    private final Map<MetaDataType, BitSet> searchMatches = new EnumMap<>(MetaDataType.class);
     
     public IndexParams(OptionsIndexVideo options) {
         this.options = options;
@@ -81,7 +104,17 @@ public class IndexParams {
     }
 
     public String getSortString() {
-        return options.getSortString();
+        if (!isKeyset()) {
+            return options.getSortString();
+        }
+        
+        // keyset pagination needs a total order, so add the type and the id as tie breakers
+        final String direction = isKeysetDescending() ? " DESC" : " ASC";
+        StringBuilder sb = new StringBuilder(" ORDER BY ");
+        sb.append(KEYSET_EXPRESSIONS.get(getKeysetSortKey())).append(direction);
+        sb.append(", videoType").append(direction);
+        sb.append(", id").append(direction);
+        return sb.toString();
     }
 
     public List<DataItem> getDataItems() {
@@ -331,6 +364,11 @@ public class IndexParams {
         return newestDate;
     }
 
+    public boolean isNewestFromFiles() {
+        final String source = getNewestSource();
+        return source != null && !LITERAL_CREATION.equalsIgnoreCase(source) && !LITERAL_LASTSCAN.equalsIgnoreCase(source);
+    }
+
     private void parseNewest(final String value) {
         String[] result = StringUtils.split(value, '-');
         if (result == null || result.length == 0) {
@@ -358,6 +396,114 @@ public class IndexParams {
         }
     }
 
+    // precomputed API index
+    public boolean useApiIndex() {
+        return apiIndex;
+    }
+
+    public void setApiIndex(boolean apiIndex) {
+        this.apiIndex = apiIndex;
+    }
+
+    /**
+     * Determine if the list is restricted by filters which are not covered by the facet engine.
+     */
+    public boolean checkNonFacetFilters() {
+        return getId() > 0L || includeYear() || excludeYear() || getYearStart() > 0 || getYearEnd() > 0
+               || getWatched() != null || checkNewest() || StringUtils.isNotEmpty(getSearchString(false));
+    }
+
+    // facet engine
+    public FacetMatch getFacetMatch(MetaDataType type) {
+        return facetMatches.get(type);
+    }
+
+    public void setFacetMatch(MetaDataType type, FacetMatch facetMatch) {
+        if (facetMatch == null) {
+            facetMatches.remove(type);
+        } else {
+            facetMatches.put(type, facetMatch);
+        }
+    }
+
+    // search index
+    public BitSet getSearchMatch(MetaDataType type) {
+        return searchMatches.get(type);
+    }
+
+    public void setSearchMatch(MetaDataType type, BitSet searchMatch) {
+        if (searchMatch == null) {
+            searchMatches.remove(type);
+        } else {
+            searchMatches.put(type, searchMatch);
+        }
+    }
+
+    // keyset pagination
+    public boolean isKeyset() {
+        return options.isKeyset();
+    }
+
+    /**
+     * Get the sort key for keyset pagination; falls back to the id
+     * if the requested sort field is not supported.
+     */
+    private String getKeysetSortKey() {
+        String sortBy = StringUtils.lowerCase(StringUtils.trimToNull(options.getSortby()));
+        if (sortBy == null || !KEYSET_EXPRESSIONS.containsKey(sortBy)) {
+            return KEYSET_ID;
+        }
+        return sortBy;
+    }
+
+    private boolean isKeysetDescending() {
+        return "DESC".equalsIgnoreCase(options.getSortdir());
+    }
+
+    /**
+     * Get the WHERE clause which skips all entries up to the cursor.
+     *
+     * @return the WHERE clause, which is empty if no cursor is given
+     */
+    public String getKeysetString() {
+        Keyset keyset = Keyset.fromToken(options.getAfter());
+        if (keyset == null) {
+            return "";
+        }
+        
+        final String sortKey = getKeysetSortKey();
+        final boolean numeric = KEYSET_ID.equals(sortKey) || KEYSET_VIDEO_YEAR.equals(sortKey);
+        return " WHERE " + keyset.buildPredicate(parameters, KEYSET_EXPRESSIONS.get(sortKey), numeric, "videoType", "id", isKeysetDescending());
+    }
+
+    /**
+     * Create the cursor pointing to the given video.
+     *
+     * @param video the last video of a page
+     * @return the cursor
+     */
+    public Keyset createKeyset(ApiVideoDTO video) {
+        final Object value;
+        switch (getKeysetSortKey()) {
+            case KEYSET_TITLE:
+                value = video.getTitle();
+                break;
+            case KEYSET_SORT_TITLE:
+                value = video.getSortTitle();
+                break;
+            case KEYSET_ORIGINAL_TITLE:
+                value = video.getOriginalTitle();
+                break;
+            case KEYSET_VIDEO_YEAR:
+                value = (video.getVideoYear() == null ? -1 : video.getVideoYear());
+                break;
+            default:
+                value = video.getId();
+                break;
+        }
+        return new Keyset(value, video.getVideoType(), video.getId());
+    }
+
     public void addParameter(String name, Object value) {
         this.parameters.put(name, value);
     }
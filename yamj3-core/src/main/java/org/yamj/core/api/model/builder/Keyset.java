@@ -0,0 +1,140 @@
+/*
+ *      Copyright (c) 2004-2015 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ).
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3
+ *
+ */
+package org.yamj.core.api.model.builder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.lang.math.NumberUtils;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Cursor for keyset (seek) pagination.
+ *
+ * The cursor holds the sort value, the type and the id of the last entry of a page
+ * and is handed out to the clients as an opaque token.
+ *
+ * @author modmax
+ */
+public final class Keyset {
+
+    public static final String PARAM_VALUE = "keysetValue";
+    public static final String PARAM_TYPE = "keysetType";
+    public static final String PARAM_ID = "keysetId";
+
+    private static final String VERSION = "1";
+    private static final char SEPARATOR = '\n';
+
+    private final String value;
+    private final String type;
+    private final long id;
+
+    public Keyset(Object value, Object type, long id) {
+        this.value = (value == null ? null : value.toString());
+        this.type = (type == null ? null : type.toString());
+        this.id = id;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Create the opaque token for the cursor.
+     *
+     * @return the token
+     */
+    public String toToken() {
+        StringBuilder sb = new StringBuilder(VERSION);
+        sb.append(SEPARATOR).append(StringUtils.trimToEmpty(type));
+        sb.append(SEPARATOR).append(id);
+        sb.append(SEPARATOR).append(StringUtils.defaultString(value));
+        return Base64.encodeBase64URLSafeString(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parse the cursor from a token.
+     *
+     * @param token the token
+     * @return the cursor, or null if the token is blank or invalid
+     */
+    public static Keyset fromToken(String token) {
+        if (StringUtils.isBlank(token) || !Base64.isBase64(token)) {
+            return null;
+        }
+
+        String decoded = new String(Base64.decodeBase64(token), StandardCharsets.UTF_8);
+        String[] parts = StringUtils.splitPreserveAllTokens(decoded, SEPARATOR);
+        if (parts.length != 4 || !VERSION.equals(parts[0]) || !NumberUtils.isDigits(parts[2])) {
+            return null;
+        }
+        return new Keyset(parts[3], StringUtils.trimToNull(parts[1]), NumberUtils.toLong(parts[2]));
+    }
+
+    /**
+     * Build the seek predicate and add the needed parameters.
+     *
+     * The predicate selects all rows which are sorted after this cursor using the
+     * sort expression and the type and the id as tie breakers.
+     *
+     * @param parameters the query parameters to add the cursor values to
+     * @param sortExpression the sort expression
+     * @param numeric true, if the sort expression is numeric
+     * @param typeExpression the type expression; may be null
+     * @param idExpression the id expression
+     * @param descending true, if sorted descending
+     * @return the predicate
+     */
+    public String buildPredicate(Map<String, Object> parameters, String sortExpression, boolean numeric, String typeExpression, String idExpression, boolean descending) {
+        final String compare = descending ? "<" : ">";
+
+        if (numeric) {
+            parameters.put(PARAM_VALUE, NumberUtils.toLong(value));
+        } else {
+            parameters.put(PARAM_VALUE, StringUtils.defaultString(value));
+        }
+        parameters.put(PARAM_ID, id);
+
+        StringBuilder sb = new StringBuilder("(");
+        sb.append(sortExpression).append(compare).append(":").append(PARAM_VALUE);
+        sb.append(" OR (").append(sortExpression).append("=:").append(PARAM_VALUE).append(" AND ");
+        if (typeExpression != null) {
+            parameters.put(PARAM_TYPE, StringUtils.trimToEmpty(type));
+            sb.append("(").append(typeExpression).append(compare).append(":").append(PARAM_TYPE);
+            sb.append(" OR (").append(typeExpression).append("=:").append(PARAM_TYPE).append(" AND ");
+            sb.append(idExpression).append(compare).append(":").append(PARAM_ID).append("))");
+        } else {
+            sb.append(idExpression).append(compare).append(":").append(PARAM_ID);
+        }
+        sb.append("))");
+        return sb.toString();
+    }
+}
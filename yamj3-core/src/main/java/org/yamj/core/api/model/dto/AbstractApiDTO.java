@@ -22,13 +22,16 @@
  */
 package org.yamj.core.api.model.dto;
 
+import java.io.Serializable;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
 
 /**
  * @author stuart.boston
  */
-public abstract class AbstractApiDTO {
+public abstract class AbstractApiDTO implements Serializable {
+
+    private static final long serialVersionUID = -3086325512367311021L;
 
     @Override
     public String toString() {
@@ -27,6 +27,8 @@ package org.yamj.core.api.model.dto;
  */
 public class AbstractApiIdentifiableDTO extends AbstractApiDTO {
 
+    private static final long serialVersionUID = -1347202371653385444L;
+
     private Long id;
 
     public AbstractApiIdentifiableDTO() {
@@ -31,6 +31,8 @@ import org.yamj.plugin.api.model.type.ArtworkType;
 @JsonInclude(Include.NON_DEFAULT)
 public abstract class AbstractMetaDataDTO extends AbstractApiIdentifiableDTO {
 
+    private static final long serialVersionUID = -7856532242839630171L;
+
     private String title;
     private String originalTitle;
     private Integer year = Integer.valueOf(-1);
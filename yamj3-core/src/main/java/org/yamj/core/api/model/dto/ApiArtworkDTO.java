@@ -37,6 +37,8 @@ import org.yamj.plugin.api.model.type.ArtworkType;
 @JsonInclude(Include.NON_DEFAULT)
 public class ApiArtworkDTO extends AbstractApiIdentifiableDTO {
 
+    private static final long serialVersionUID = -286410331088271822L;
+
     private MetaDataType source;
     private Long artworkId;
     private Long locatedId;
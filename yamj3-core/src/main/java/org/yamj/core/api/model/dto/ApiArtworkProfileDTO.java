@@ -31,6 +31,8 @@ import org.yamj.plugin.api.model.type.ArtworkType;
 @JsonInclude(Include.NON_DEFAULT)
 public class ApiArtworkProfileDTO extends AbstractApiIdentifiableDTO {
 
+    private static final long serialVersionUID = -1112537848976828311L;
+
     private String name;
     private ArtworkType artworkType;
     private MetaDataType metaDataType;
@@ -31,6 +31,8 @@ import com.fasterxml.jackson.annotation.JsonInclude.Include;
 @JsonInclude(Include.NON_DEFAULT)
 public class ApiAudioCodecDTO extends AbstractApiDTO {
 
+    private static final long serialVersionUID = -4191851937427866613L;
+
     private String codec;
     private String codecFormat;
     private Integer bitrate = Integer.valueOf(-1);
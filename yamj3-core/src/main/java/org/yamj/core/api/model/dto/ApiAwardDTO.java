@@ -24,9 +24,12 @@ package org.yamj.core.api.model.dto;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import java.io.Serializable;
 
 @JsonInclude(Include.NON_DEFAULT)
-public class ApiAwardDTO {
+public class ApiAwardDTO implements Serializable {
+
+    private static final long serialVersionUID = 5812393217830914452L;
 
     private long id;
     private String event;
@@ -32,6 +32,8 @@ import java.util.List;
 @JsonInclude(Include.NON_DEFAULT)
 public class ApiBoxedSetDTO extends AbstractMetaDataDTO {
 
+    private static final long serialVersionUID = -5094168689321627601L;
+
     private String name;
     private Integer memberCount;
     private List<ApiBoxedSetMemberDTO> members;
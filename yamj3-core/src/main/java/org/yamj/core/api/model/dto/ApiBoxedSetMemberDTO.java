@@ -35,6 +35,8 @@ import org.yamj.common.type.MetaDataType;
 @JsonInclude(Include.NON_DEFAULT)
 public class ApiBoxedSetMemberDTO extends AbstractMetaDataDTO {
 
+    private static final long serialVersionUID = 1470386919399223679L;
+
     private MetaDataType videoType;
     private Integer ordering;
     private String releaseDate;
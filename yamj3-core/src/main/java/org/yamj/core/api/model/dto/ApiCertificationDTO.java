@@ -28,6 +28,8 @@ import com.fasterxml.jackson.annotation.JsonInclude.Include;
 @JsonInclude(Include.NON_DEFAULT)
 public class ApiCertificationDTO extends ApiCountryDTO {
 
+    private static final long serialVersionUID = -1363184665258605503L;
+
     private String certificate;
 
     public ApiCertificationDTO() {
@@ -31,6 +31,8 @@ import com.fasterxml.jackson.annotation.JsonInclude.Include;
 @JsonInclude(Include.NON_DEFAULT)
 public class ApiCountryDTO extends AbstractApiIdentifiableDTO {
 
+    private static final long serialVersionUID = -3252751991135743546L;
+
     private String countryCode;
     private String country;
 
@@ -38,6 +38,8 @@ import org.yamj.plugin.api.model.type.JobType;
 @JsonInclude(Include.NON_DEFAULT) 
 public class ApiEpisodeDTO extends AbstractApiIdentifiableDTO {
 
+    private static final long serialVersionUID = 2438708622683488978L;
+
     private Long seriesId = -1L;
     private Long seasonId = -1L;
     private Long season = -1L;
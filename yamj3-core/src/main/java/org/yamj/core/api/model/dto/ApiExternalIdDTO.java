@@ -28,6 +28,8 @@ package org.yamj.core.api.model.dto;
  */
 public class ApiExternalIdDTO extends AbstractApiIdentifiableDTO {
 
+    private static final long serialVersionUID = -1337784570973851239L;
+
     private String externalId;
     private String sourcedb;
     private boolean skipped;
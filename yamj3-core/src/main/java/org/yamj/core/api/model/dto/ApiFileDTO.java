@@ -40,6 +40,8 @@ import java.util.List;
 @JsonInclude(Include.NON_DEFAULT)
 public class ApiFileDTO extends AbstractApiIdentifiableDTO {
 
+    private static final long serialVersionUID = -7656624781855607674L;
+
     private Boolean extra;
     private Integer part = Integer.valueOf(-1);
     private String partTitle;
@@ -34,6 +34,8 @@ import org.yamj.plugin.api.model.type.ParticipationType;
 @JsonInclude(Include.NON_DEFAULT) 
 public class ApiFilmographyDTO extends AbstractApiDTO {
 
+    private static final long serialVersionUID = 1836763231368073333L;
+
     private ParticipationType type;
     private String job;
     private String role;
@@ -28,6 +28,8 @@ import com.fasterxml.jackson.annotation.JsonInclude.Include;
 @JsonInclude(Include.NON_DEFAULT)
 public class ApiGenreDTO extends AbstractApiIdentifiableDTO {
 
+    private static final long serialVersionUID = 8537221771179438395L;
+
     private String name;
     private String target;
 
@@ -28,6 +28,8 @@ import com.fasterxml.jackson.annotation.JsonInclude.Include;
 @JsonInclude(Include.NON_DEFAULT)
 public class ApiLibraryDTO extends AbstractApiIdentifiableDTO {
 
+    private static final long serialVersionUID = -5218146356204892541L;
+
     private String name;
 
     public ApiLibraryDTO()  {
@@ -28,6 +28,8 @@ import com.fasterxml.jackson.annotation.JsonInclude.Include;
 @JsonInclude(Include.NON_DEFAULT)
 public class ApiListDTO extends AbstractApiDTO {
 
+    private static final long serialVersionUID = -1434053009417095509L;
+
     private Long id;
     private String title;
     private int year;
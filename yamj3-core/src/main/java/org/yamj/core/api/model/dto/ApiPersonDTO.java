@@ -37,6 +37,8 @@ import org.yamj.plugin.api.model.type.JobType;
 @JsonInclude(Include.NON_DEFAULT) 
 public class ApiPersonDTO extends AbstractApiIdentifiableDTO {
 
+    private static final long serialVersionUID = -2959140770405119997L;
+
     private String name;
     private String firstName;
     private String lastName;
@@ -24,12 +24,15 @@ package org.yamj.core.api.model.dto;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import java.io.Serializable;
 
 /**
  * @author modmax
  */
 @JsonInclude(Include.NON_DEFAULT) 
-public class ApiRatingDTO {
+public class ApiRatingDTO implements Serializable {
+
+    private static final long serialVersionUID = -1402885730212741683L;
 
     private String type;
     private String source;
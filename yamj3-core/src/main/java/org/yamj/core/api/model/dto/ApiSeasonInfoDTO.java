@@ -28,6 +28,8 @@ import com.fasterxml.jackson.annotation.JsonInclude.Include;
 @JsonInclude(Include.NON_DEFAULT) 
 public class ApiSeasonInfoDTO extends AbstractMetaDataDTO {
 
+    private static final long serialVersionUID = 1465574805390094432L;
+
     private Long seriesId;
     private Long seasonId;
     private Integer season;
@@ -32,6 +32,8 @@ import org.yamj.core.database.model.Library;
 @JsonInclude(Include.NON_DEFAULT) 
 public class ApiSeriesInfoDTO extends AbstractMetaDataDTO {
 
+    private static final long serialVersionUID = 2896068636106622574L;
+
     private Long seriesId;
     private List<ApiGenreDTO> genres = Collections.emptyList();
     private List<Studio> studios = Collections.emptyList();
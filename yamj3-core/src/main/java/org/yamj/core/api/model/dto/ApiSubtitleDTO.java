@@ -32,6 +32,8 @@ import org.apache.commons.lang3.StringUtils;
 @JsonInclude(Include.NON_DEFAULT)
 public class ApiSubtitleDTO extends AbstractApiDTO {
 
+    private static final long serialVersionUID = -5691893842550179055L;
+
     private String type;
     private String format;
     private String languageCode;
@@ -31,6 +31,8 @@ import org.apache.commons.lang3.StringUtils;
 @JsonInclude(Include.NON_DEFAULT)
 public class ApiTrailerDTO extends AbstractApiIdentifiableDTO {
 
+    private static final long serialVersionUID = 1791744223021845226L;
+
     private String url;
     private String source;
     private String title;
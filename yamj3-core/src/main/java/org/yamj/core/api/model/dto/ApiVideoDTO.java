@@ -39,6 +39,8 @@ import org.yamj.plugin.api.model.type.JobType;
 @JsonInclude(Include.NON_DEFAULT)
 public class ApiVideoDTO extends AbstractMetaDataDTO {
 
+    private static final long serialVersionUID = 9223259140033215831L;
+
     private MetaDataType videoType;
     private String sortTitle;
     private Integer videoYear = -1;
@@ -28,6 +28,8 @@ import com.fasterxml.jackson.annotation.JsonInclude.Include;
 @JsonInclude(Include.NON_DEFAULT)
 public class ApiYearDecadeDTO extends AbstractApiDTO {
 
+    private static final long serialVersionUID = -4098619145036133597L;
+
     private Integer year = -1;
     private Integer decade = -1;
 
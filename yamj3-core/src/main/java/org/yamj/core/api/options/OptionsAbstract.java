@@ -50,6 +50,7 @@ public abstract class OptionsAbstract implements IOptions {
     @JsonIgnore
     private Integer perline = -1;
     private String language;
+    private Boolean skipcount = Boolean.FALSE;
 
     @Override
     public void setStart(Integer start) {
@@ -82,6 +83,11 @@ public abstract class OptionsAbstract implements IOptions {
         this.language = language;
     }
 
+    @Override
+    public void setSkipcount(Boolean skipcount) {
+        this.skipcount = skipcount;
+    }
+
     @Override
     public Integer getStart() {
         int value = start;
@@ -129,6 +135,21 @@ public abstract class OptionsAbstract implements IOptions {
         return language;
     }
 
+    public Boolean getSkipcount() {
+        return skipcount;
+    }
+
+    /**
+     * Determine if the total count of a paged result can be omitted.
+     *
+     * @return true, if the total count should not be calculated
+     */
+    @Override
+    @JsonIgnore
+    public boolean isSkipCount() {
+        return Boolean.TRUE.equals(skipcount);
+    }
+
     @Override
     public String toString() {
         return ToStringBuilder.reflectionToString(this, ToStringStyle.SHORT_PREFIX_STYLE);
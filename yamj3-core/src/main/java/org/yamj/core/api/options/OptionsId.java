@@ -22,6 +22,7 @@
  */
 package org.yamj.core.api.options;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
 
@@ -34,6 +35,7 @@ import com.fasterxml.jackson.annotation.JsonInclude.Include;
 public class OptionsId extends OptionsAbstractSortSearch {
 
     private Long id = -1L;
+    private String after;
 
     public Long getId() {
         return id;
@@ -42,4 +44,42 @@ public class OptionsId extends OptionsAbstractSortSearch {
     public void setId(Long id) {
         this.id = id;
     }
+
+    public String getAfter() {
+        return after;
+    }
+
+    /**
+     * Set the cursor token for keyset pagination.
+     *
+     * A blank token requests the first page of a keyset paged result.
+     *
+     * @param after
+     */
+    public void setAfter(String after) {
+        this.after = after;
+    }
+
+    /**
+     * Determine if keyset pagination is requested.
+     *
+     * @return
+     */
+    @JsonIgnore
+    public boolean isKeyset() {
+        return after != null;
+    }
+
+    @Override
+    public Integer getStart() {
+        // a keyset paged result always starts right after the cursor
+        return isKeyset() ? 0 : super.getStart();
+    }
+
+    @Override
+    @JsonIgnore
+    public boolean isSkipCount() {
+        // counting all entries would defeat the purpose of keyset pagination
+        return isKeyset() || super.isSkipCount();
+    }
 }
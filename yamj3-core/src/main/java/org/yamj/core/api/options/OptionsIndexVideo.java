@@ -42,6 +42,7 @@ public class OptionsIndexVideo extends OptionsIdArtwork {
     private String type;
     private Integer yearStart;
     private Integer yearEnd;
+    private boolean facets;
     
     public String getInclude() {
         return include;
@@ -95,6 +96,14 @@ public class OptionsIndexVideo extends OptionsIdArtwork {
         this.yearEnd = yearEnd;
     }
 
+    public boolean isFacets() {
+        return facets;
+    }
+
+    public void setFacets(boolean facets) {
+        this.facets = facets;
+    }
+
     /**
      * Split the include list into a map of values
      *
@@ -22,8 +22,11 @@
  */
 package org.yamj.core.api.wrapper;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Map;
 import org.apache.commons.collections.CollectionUtils;
 import org.yamj.core.api.model.ApiStatus;
 import org.yamj.core.api.options.IOptions;
@@ -37,6 +40,8 @@ import org.yamj.core.api.options.IOptions;
 public final class ApiWrapperList<T> extends ApiWrapperAbstract {
 
     private Collection<T> results = Collections.emptyList();
+    private String after;
+    private Map<String, Map<String, Integer>> facets;
 
     public ApiWrapperList() {
         super(null);
@@ -50,6 +55,34 @@ public final class ApiWrapperList<T> extends ApiWrapperAbstract {
         return results;
     }
 
+    /**
+     * Get the cursor token for the next page of a keyset paged result.
+     *
+     * @return the token, or null if there is no next page
+     */
+    @JsonInclude(Include.NON_NULL)
+    public String getAfter() {
+        return after;
+    }
+
+    public void setAfter(String after) {
+        this.after = after;
+    }
+
+    /**
+     * Get the number of matching videos per facet value.
+     *
+     * @return the counts, or null if not requested
+     */
+    @JsonInclude(Include.NON_NULL)
+    public Map<String, Map<String, Integer>> getFacets() {
+        return facets;
+    }
+
+    public void setFacets(Map<String, Map<String, Integer>> facets) {
+        this.facets = facets;
+    }
+
     public ApiWrapperList<T> setResults(Collection<T> results) {
         this.results = results;
 
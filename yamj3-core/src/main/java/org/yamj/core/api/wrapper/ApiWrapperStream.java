@@ -0,0 +1,105 @@
+/*
+ *      Copyright (c) 2004-2015 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ).
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3
+ *
+ */
+package org.yamj.core.api.wrapper;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import org.yamj.core.api.model.ApiStatus;
+import org.yamj.core.hibernate.ChunkProcessor;
+
+/**
+ * Writes a list wrapper directly to an output stream.
+ *
+ * The results are written chunk by chunk as they are read from the database;
+ * the other properties of the wrapper follow the results, because the count
+ * is not known before.
+ *
+ * @param <T>
+ */
+public final class ApiWrapperStream<T> implements ChunkProcessor<T> {
+
+    private static final String RESULTS = "results";
+    private final ObjectMapper mapper;
+    private final ApiWrapperList<T> wrapper;
+    private final JsonGenerator generator;
+    private int count = 0;
+
+    public ApiWrapperStream(ObjectMapper mapper, ApiWrapperList<T> wrapper, OutputStream output) throws IOException {
+        this.mapper = mapper;
+        this.wrapper = wrapper;
+        this.generator = mapper.getFactory().createGenerator(output, JsonEncoding.UTF8);
+        // the stream is closed by the container
+        this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        
+        this.generator.writeStartObject();
+        this.generator.writeArrayFieldStart(RESULTS);
+    }
+
+    @Override
+    public void process(List<T> chunk) throws IOException {
+        for (T result : chunk) {
+            generator.writeObject(result);
+        }
+        count += chunk.size();
+        generator.flush();
+    }
+
+    /**
+     * Close the results and write the other properties of the wrapper.
+     * 
+     * @throws IOException
+     */
+    public void finish() throws IOException {
+        generator.writeEndArray();
+
+        wrapper.setCount(count);
+        if (count > wrapper.getTotalCount()) {
+            wrapper.setTotalCount(count);
+        }
+        wrapper.setStatusCheck(count > 0 ? ApiStatus.OK : ApiStatus.NO_RECORD);
+
+        ObjectNode node = mapper.valueToTree(wrapper);
+        node.remove(RESULTS);
+        Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            generator.writeFieldName(field.getKey());
+            generator.writeTree(field.getValue());
+        }
+        
+        generator.writeEndObject();
+        generator.close();
+    }
+
+    public int getCount() {
+        return count;
+    }
+}
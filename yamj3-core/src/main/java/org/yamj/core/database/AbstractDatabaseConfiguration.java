@@ -85,6 +85,9 @@ public abstract class AbstractDatabaseConfiguration implements DatabaseConfigura
     @Value("${yamj3.database.connections.testOnReturn:true}")
     protected boolean testOnReturn;
 
+    @Value("${yamj3.database.batchSize:50}")
+    protected int batchSize;
+
     @Bean
     @Override
     public PlatformTransactionManager transactionManager() throws Exception {
@@ -100,9 +103,18 @@ public abstract class AbstractDatabaseConfiguration implements DatabaseConfigura
         sessionFactoryBean.setDataSource(dataSource());
         sessionFactoryBean.setEntityInterceptor(new AuditInterceptor());
         sessionFactoryBean.setPackagesToScan("org.yamj.core.database.model");
-        sessionFactoryBean.setHibernateProperties(hibernateProperties());
+        sessionFactoryBean.setHibernateProperties(batchProperties(hibernateProperties()));
         return sessionFactoryBean;
     }
+
+    private Properties batchProperties(Properties props) {
+        // group inserts and updates into JDBC batches
+        props.put("hibernate.jdbc.batch_size", Integer.valueOf(batchSize));
+        props.put("hibernate.jdbc.batch_versioned_data", Boolean.TRUE);
+        props.put("hibernate.order_inserts", Boolean.TRUE);
+        props.put("hibernate.order_updates", Boolean.TRUE);
+        return props;
+    }
         
     protected abstract Properties hibernateProperties();
 
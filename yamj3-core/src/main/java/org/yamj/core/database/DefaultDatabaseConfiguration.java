@@ -95,6 +95,10 @@ public class DefaultDatabaseConfiguration extends AbstractDatabaseConfiguration
         basicDataSource.setTestOnReturn(testOnReturn);
         
         basicDataSource.setDefaultTransactionIsolation(TRANSACTION_READ_COMMITTED);
+        if (url.startsWith("jdbc:mysql:")) {
+            // read statements with a fetch size through a server side cursor; see MySQLDatabaseConfiguration
+            basicDataSource.addConnectionProperty("useCursorFetch", "true");
+        }
         
         return basicDataSource;
     }
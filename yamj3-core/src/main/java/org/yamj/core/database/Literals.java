@@ -47,6 +47,7 @@ public final class Literals {
     public static final String LITERAL_GENERATED_ID = "generatedId";
     public static final String LITERAL_ID = "id";
     public static final String LITERAL_IDENTIFIER = "identifier";
+    public static final String LITERAL_IDS = "ids";
     public static final String LITERAL_JOB = "job";
     public static final String LITERAL_LAST_NAME = "lastName"; 
     public static final String LITERAL_LASTSCAN = "lastscan";
@@ -58,6 +59,7 @@ public final class Literals {
     public static final String LITERAL_PLOT = "plot";
     public static final String LITERAL_ORIGINAL_TITLE = "originalTitle";
     public static final String LITERAL_OUTLINE = "outline";
+    public static final String LITERAL_OWNER_ID = "ownerId";
     public static final String LITERAL_RELEASE_DATE = "releaseDate";
     public static final String LITERAL_SEASON = "season";
     public static final String LITERAL_SEASON_ID = "seasonId";
@@ -85,6 +85,9 @@ public class MySQLDatabaseConfiguration extends AbstractDatabaseConfiguration {
         basicDataSource.setTestOnReturn(testOnReturn);
         
         basicDataSource.setDefaultTransactionIsolation(TRANSACTION_READ_COMMITTED);
+        // read statements with a fetch size through a server side cursor instead of buffering
+        // the whole result in the driver; other statements may be executed while the cursor is open
+        basicDataSource.addConnectionProperty("useCursorFetch", "true");
 
         populateDatabase(basicDataSource, "update_mysql.sql");
 
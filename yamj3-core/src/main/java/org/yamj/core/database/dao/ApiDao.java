@@ -27,6 +27,7 @@ import static org.yamj.core.CachingNames.*;
 import static org.yamj.core.database.Literals.*;
 import static org.yamj.plugin.api.model.type.ArtworkType.*;
 
+import java.io.IOException;
 import java.util.*;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.collections.MapUtils;
@@ -36,6 +37,7 @@ import org.hibernate.transform.Transformers;
 import org.hibernate.type.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Repository;
 import org.yamj.common.type.MetaDataType;
@@ -48,23 +50,114 @@ import org.yamj.core.api.wrapper.ApiWrapperList;
 import org.yamj.core.api.wrapper.ApiWrapperSingle;
 import org.yamj.core.database.model.*;
 import org.yamj.core.database.model.type.ResolutionType;
+import org.yamj.core.hibernate.ChunkProcessor;
 import org.yamj.core.hibernate.HibernateDao;
+import org.yamj.core.service.facet.FacetMatch;
+import org.yamj.core.service.facet.FacetService;
+import org.yamj.core.service.search.SearchService;
 import org.yamj.plugin.api.model.type.ArtworkType;
 
 @Repository("apiDao")
 public class ApiDao extends HibernateDao {
 
     private static final Logger LOG = LoggerFactory.getLogger(ApiDao.class);
+    private static final int STREAM_CHUNK_SIZE = 500;
+
+    @Autowired
+    private ApiIndexDao apiIndexDao;
+    @Autowired
+    private FacetService facetService;
+    @Autowired
+    private SearchService searchService;
 
     /**
      * Generate the query and load the results into the wrapper
      *
      * @param wrapper
      */
-    @SuppressWarnings({"unchecked", "rawtypes"})
     public List<ApiVideoDTO> getVideoList(ApiWrapperList<ApiVideoDTO> wrapper, OptionsIndexVideo options) {
+        IndexParams params = createIndexParams(wrapper, options);
+        SqlScalars sqlScalars = generateScalarsForVideoList(params);
+        List<ApiVideoDTO> queryResults = executeQueryWithTransform(ApiVideoDTO.class, sqlScalars, wrapper);
+
+        if (params.isKeyset() && options.getMax() > 0 && queryResults.size() >= options.getMax()) {
+            // there may be more entries, so hand out the cursor for the next page
+            wrapper.setAfter(params.createKeyset(queryResults.get(queryResults.size() - 1)).toToken());
+        }
+
+        addIndexArtworks(queryResults, options);
+        return queryResults;
+    }
+
+    /**
+     * Generate the query and pass the results in chunks to the processor
+     *
+     * @param wrapper
+     * @param options
+     * @param processor
+     * @return the number of processed videos
+     * @throws IOException if the processor failed
+     */
+    public int streamVideoList(ApiWrapperList<ApiVideoDTO> wrapper, final OptionsIndexVideo options, final ChunkProcessor<ApiVideoDTO> processor) throws IOException {
+        IndexParams params = createIndexParams(wrapper, options);
+        SqlScalars sqlScalars = generateScalarsForVideoList(params);
+        return scrollQueryWithTransform(ApiVideoDTO.class, sqlScalars, options, STREAM_CHUNK_SIZE, new ChunkProcessor<ApiVideoDTO>() {
+            @Override
+            public void process(List<ApiVideoDTO> chunk) throws IOException {
+                addIndexArtworks(chunk, options);
+                processor.process(chunk);
+            }
+        });
+    }
+
+    private IndexParams createIndexParams(ApiWrapperList<ApiVideoDTO> wrapper, OptionsIndexVideo options) {
         IndexParams params = new IndexParams(options);
+        params.setApiIndex(apiIndexDao.isIndexReady());
+        if (facetService.isReady() && facetService.hasFilters(params)) {
+            for (MetaDataType type : params.getMetaDataTypes()) {
+                params.setFacetMatch(type, facetService.match(params, type));
+            }
+        }
+        if (searchService.isReady()) {
+            for (MetaDataType type : params.getMetaDataTypes()) {
+                params.setSearchMatch(type, searchService.search(type, options));
+            }
+        }
+        if (options.isFacets()) {
+            // restrict the counts to the listed videos if the list has filters the facet engine does not know
+            final Map<MetaDataType, BitSet> listed = params.checkNonFacetFilters() ? getVideoListIds(params) : null;
+            wrapper.setFacets(facetService.countFacets(params, listed));
+        }
+        return params;
+    }
+
+    /**
+     * Get the ids per type of all videos matching the video list, regardless of paging.
+     */
+    private Map<MetaDataType, BitSet> getVideoListIds(IndexParams params) {
+        StringBuilder sbSQL = new StringBuilder("SELECT idx.id, idx.videoType FROM (");
+        sbSQL.append(generateSqlForVideoUnion(params));
+        sbSQL.append(") idx");
+
+        SqlScalars sqlScalars = new SqlScalars(sbSQL);
+        sqlScalars.addScalar(LITERAL_ID, LongType.INSTANCE);
+        sqlScalars.addScalar(LITERAL_VIDEO_TYPE, StringType.INSTANCE);
+        params.addScalarParameters(sqlScalars);
+
+        Map<MetaDataType, BitSet> result = new EnumMap<>(MetaDataType.class);
+        for (Object[] row : executeQueryWithTransform(Object[].class, sqlScalars)) {
+            final MetaDataType type = MetaDataType.fromString((String) row[1]);
+            BitSet ids = result.get(type);
+            if (ids == null) {
+                ids = new BitSet();
+                result.put(type, ids);
+            }
+            ids.set(((Long) row[0]).intValue());
+        }
+        return result;
+    }
 
+    private static SqlScalars generateScalarsForVideoList(IndexParams params) {
         SqlScalars sqlScalars = new SqlScalars(generateSqlForVideoList(params));
         sqlScalars.addScalar(LITERAL_ID, LongType.INSTANCE);
         sqlScalars.addScalar(LITERAL_VIDEO_TYPE, StringType.INSTANCE);                      
@@ -88,8 +181,11 @@ public class ApiDao extends HibernateDao {
         // add additional parameters
         params.addScalarParameters(sqlScalars);
 
-        List<ApiVideoDTO> queryResults = executeQueryWithTransform(ApiVideoDTO.class, sqlScalars, wrapper);
+        return sqlScalars;
+    }
 
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void addIndexArtworks(List<ApiVideoDTO> queryResults, OptionsIndexVideo options) {
         if (!queryResults.isEmpty() && CollectionUtils.isNotEmpty(options.getArtworkTypes())) {
             LOG.trace("Adding artwork to index videos");
 
@@ -114,8 +210,6 @@ public class ApiDao extends HibernateDao {
 
             addArtworks(metaDataIds, metaDataResults, options);
         }
-        
-        return queryResults;
     }
 
     /**
@@ -127,12 +221,32 @@ public class ApiDao extends HibernateDao {
      * @return
      */
     private static StringBuilder generateSqlForVideoList(IndexParams params) {
-        Set<MetaDataType> mdt = params.getMetaDataTypes();
-        LOG.debug("Getting video list for types: {}", mdt);
+        LOG.debug("Getting video list for types: {}", params.getMetaDataTypes());
         if (CollectionUtils.isNotEmpty(params.getDataItems())) {
             LOG.debug("Additional data items requested: {}", params.getDataItems());
         }
 
+        StringBuilder sbSQL = generateSqlForVideoUnion(params);
+
+        if (params.isKeyset()) {
+            // wrap the union to be able to seek behind the cursor
+            sbSQL.insert(0, "SELECT * FROM (");
+            sbSQL.append(") idx");
+            sbSQL.append(params.getKeysetString());
+        }
+
+        // Add the sort string, this will be empty if there is no sort required
+        sbSQL.append(params.getSortString());
+
+        LOG.debug("SqlForVideoList: {}", sbSQL);
+        return sbSQL;
+    }
+
+    /**
+     * Create the union of the selections for the requested types without paging and sorting
+     */
+    private static StringBuilder generateSqlForVideoUnion(IndexParams params) {
+        Set<MetaDataType> mdt = params.getMetaDataTypes();
         StringBuilder sbSQL = new StringBuilder();
 
         // add the movie entries
@@ -163,11 +277,6 @@ public class ApiDao extends HibernateDao {
             }
             sbSQL.append(generateSqlForVideo(EPISODE, params));
         }
-
-        // Add the sort string, this will be empty if there is no sort required
-        sbSQL.append(params.getSortString());
-
-        LOG.debug("SqlForVideoList: {}", sbSQL);
         return sbSQL;
     }
 
@@ -191,6 +300,8 @@ public class ApiDao extends HibernateDao {
                 sbSQL.append(", vd.create_timestamp AS newest");
             } else if (LITERAL_LASTSCAN.equalsIgnoreCase(source)) {
                 sbSQL.append(", vd.last_scanned AS newest");
+            } else if (params.useApiIndex()) {
+                sbSQL.append(", ai.newest_file_date AS newest");
             } else {
                 params.addParameter(LITERAL_EXTRA, Boolean.FALSE);
 
@@ -202,7 +313,11 @@ public class ApiDao extends HibernateDao {
             }
         }
 
-        sbSQL.append(" FROM videodata vd WHERE vd.episode");
+        sbSQL.append(" FROM videodata vd");
+        if (params.useApiIndex() && params.isNewestFromFiles()) {
+            addApiIndexJoin(type, "vd", sbSQL);
+        }
+        sbSQL.append(" WHERE vd.episode");
         sbSQL.append(type == MOVIE ? "<0" : ">-1");
 
         if (params.getId() > 0L) {
@@ -226,35 +341,8 @@ public class ApiDao extends HibernateDao {
             sbSQL.append(params.getWatched().booleanValue() ? "1" : "0");
         }
 
-        // check genre inclusion/exclusion
-        includeOrExcludeGenre(type, params, sbSQL);
-
-        // check studio inclusion/exclusion
-        includeOrExcludeStudio(type, params, sbSQL);
-		
-		// check library inclusion/exclusion
-        includeOrExcludeLibrary(type, params, sbSQL);
-
-        // check country inclusion/exclusion
-        includeOrExcludeCountry(type, params, sbSQL);
-
-        // check certification inclusion/exclusion
-        includeOrExcludeCertification(type, params, sbSQL);
-
-        // check award inclusion/exclusion
-        includeOrExcludeAward(type, params, sbSQL);
-
-        // check video source inclusion/exclusion
-        includeOrExcludeVideoSource(type, params, sbSQL);
-
-        // check resolution inclusion/exclusion
-        includeOrExcludeResolution(type, params, sbSQL);
-
-        // check rating inclusion/exclusion
-        includeOrExcludeRating(type, params, sbSQL);
-
-        // check boxed set inclusion/exclusion
-        includeOrExcludeBoxedSet(type, params, sbSQL);
+        // check facet inclusion/exclusion
+        includeOrExcludeFacets(type, "vd", params, sbSQL);
 
         // check newest
         final String newestSource = params.getNewestSource();
@@ -274,6 +362,8 @@ public class ApiDao extends HibernateDao {
                 } else {
                     sbSQL.append(" AND vd.last_scanned is not null AND vd.last_scanned < :newestDate");
                 }
+            } else if (params.useApiIndex()) {
+                addNewestFileDate(params.includeNewest(), sbSQL);
             } else {
                 params.addParameter(LITERAL_EXTRA, Boolean.FALSE);
                 
@@ -285,8 +375,9 @@ public class ApiDao extends HibernateDao {
             }
         }
 
-        // add the search string, this will be empty if there is no search required
-        return sbSQL.append(params.getSearchString(false));
+        // add the search, this will be empty if there is no search required
+        includeSearch(type, "vd", params, sbSQL);
+        return sbSQL;
     }
 
     /**
@@ -299,7 +390,11 @@ public class ApiDao extends HibernateDao {
         sbSQL.append(", ser.title, ser.title_original AS originalTitle, ser.title_sort AS sortTitle");
         sbSQL.append(", ser.start_year AS videoYear, null as releaseDate");
         sbSQL.append(", ser.id AS seriesId, null AS seasonId, null AS season, -1 AS episode");
-        sbSQL.append(", (SELECT min(vid.watched) from videodata vid,season sea where vid.season_id=sea.id and sea.series_id=ser.id) as watched");
+        if (params.useApiIndex()) {
+            sbSQL.append(", ai.watched as watched");
+        } else {
+            sbSQL.append(", (SELECT min(vid.watched) from videodata vid,season sea where vid.season_id=sea.id and sea.series_id=ser.id) as watched");
+        }
         sbSQL.append(", ser.create_timestamp as createTimestamp ");
         sbSQL.append(DataItemTools.addSqlDataItems(params.getDataItems(), "ser"));
 
@@ -309,6 +404,8 @@ public class ApiDao extends HibernateDao {
                 sbSQL.append(", ser.create_timestamp AS newest");
             } else if (LITERAL_LASTSCAN.equalsIgnoreCase(source)) {
                 sbSQL.append(", ser.last_scanned AS newest");
+            } else if (params.useApiIndex()) {
+                sbSQL.append(", ai.newest_file_date AS newest");
             } else {
                 params.addParameter(LITERAL_EXTRA, Boolean.FALSE);
 
@@ -321,7 +418,11 @@ public class ApiDao extends HibernateDao {
             }
         }
 
-        sbSQL.append(" FROM series ser WHERE 1=1");
+        sbSQL.append(" FROM series ser");
+        if (params.useApiIndex()) {
+            addApiIndexJoin(SERIES, "ser", sbSQL);
+        }
+        sbSQL.append(" WHERE 1=1");
 
         if (params.getId() > 0L) {
             sbSQL.append(" AND ser.id=").append(params.getId());
@@ -339,42 +440,17 @@ public class ApiDao extends HibernateDao {
             sbSQL.append(" AND ser.start_year<=").append(params.getYearEnd());
         }
 
-        if (params.getWatched() != null) {
+        if (params.getWatched() != null && params.useApiIndex()) {
+            addApiIndexWatched(params.getWatched().booleanValue(), sbSQL);
+        } else if (params.getWatched() != null) {
             sbSQL.append(" AND exists");
             sbSQL.append(" (SELECT 1 FROM videodata v,season sea WHERE v.watched=" );
             sbSQL.append(params.getWatched().booleanValue() ? "1" : "0");
             sbSQL.append(" AND v.season_id=sea.id and sea.series_id=ser.id)");
         }
 
-        // check genre inclusion/exclusion
-        includeOrExcludeGenre(SERIES, params, sbSQL);
-
-        // check studio inclusion/exclusion
-        includeOrExcludeStudio(SERIES, params, sbSQL);
-		
-		// check library inclusion/exclusion
-        includeOrExcludeLibrary(SERIES, params, sbSQL);
-
-        // check country inclusion/exclusion
-        includeOrExcludeCountry(SERIES, params, sbSQL);
-
-        // check certification inclusion/exclusion
-        includeOrExcludeCertification(SERIES, params, sbSQL);
-
-        // check award inclusion/exclusion
-        includeOrExcludeAward(SERIES, params, sbSQL);
-
-        // check video source inclusion/exclusion
-        includeOrExcludeVideoSource(SERIES, params, sbSQL);
-
-        // check resolution inclusion/exclusion
-        includeOrExcludeResolution(SERIES, params, sbSQL);
-
-        // check rating inclusion/exclusion
-        includeOrExcludeRating(SERIES, params, sbSQL);
-
-        // check boxed set inclusion/exclusion
-        includeOrExcludeBoxedSet(SERIES, params, sbSQL);
+        // check facet inclusion/exclusion
+        includeOrExcludeFacets(SERIES, "ser", params, sbSQL);
 
         // check newest
         final String newestSource = params.getNewestSource();
@@ -394,6 +470,8 @@ public class ApiDao extends HibernateDao {
                 } else {
                     sbSQL.append(" AND ser.last_scanned is not null AND ser.last_scanned < :newestDate");
                 }
+            } else if (params.useApiIndex()) {
+                addNewestFileDate(params.includeNewest(), sbSQL);
             } else {
                 params.addParameter(LITERAL_EXTRA, Boolean.FALSE);
                 
@@ -408,8 +486,9 @@ public class ApiDao extends HibernateDao {
             }
         }
 
-        // add the search string, this will be empty if there is no search required
-        return sbSQL.append(params.getSearchString(false));
+        // add the search, this will be empty if there is no search required
+        includeSearch(SERIES, "ser", params, sbSQL);
+        return sbSQL;
     }
 
     /**
@@ -427,7 +506,11 @@ public class ApiDao extends HibernateDao {
         sbSQL.append(", sea.title, sea.title_original AS originalTitle, sea.title_sort AS sortTitle");
         sbSQL.append(", sea.publication_year as videoYear, null as releaseDate");
         sbSQL.append(", sea.series_id AS seriesId, sea.id AS seasonId, sea.season AS season, -1 AS episode");
-        sbSQL.append(", (SELECT min(vid.watched) from videodata vid where vid.season_id=sea.id) as watched");
+        if (params.useApiIndex()) {
+            sbSQL.append(", ai.watched as watched");
+        } else {
+            sbSQL.append(", (SELECT min(vid.watched) from videodata vid where vid.season_id=sea.id) as watched");
+        }
         sbSQL.append(", sea.create_timestamp as createTimestamp ");
         sbSQL.append(DataItemTools.addSqlDataItems(params.getDataItems(), "sea"));
 
@@ -437,6 +520,8 @@ public class ApiDao extends HibernateDao {
                 sbSQL.append(", sea.create_timestamp AS newest");
             } else if (LITERAL_LASTSCAN.equalsIgnoreCase(source)) {
                 sbSQL.append(", sea.last_scanned AS newest");
+            } else if (params.useApiIndex()) {
+                sbSQL.append(", ai.newest_file_date AS newest");
             } else {
                 params.addParameter(LITERAL_EXTRA, Boolean.FALSE);
 
@@ -448,7 +533,11 @@ public class ApiDao extends HibernateDao {
             }
         }
 
-        sbSQL.append(" FROM season sea WHERE 1=1");
+        sbSQL.append(" FROM season sea");
+        if (params.useApiIndex()) {
+            addApiIndexJoin(SEASON, "sea", sbSQL);
+        }
+        sbSQL.append(" WHERE 1=1");
         if (params.getId().longValue() > 0L) {
             sbSQL.append(" AND sea.id=").append(params.getId());
         }
@@ -466,44 +555,16 @@ public class ApiDao extends HibernateDao {
         }
         
         // check watched
-        if (params.getWatched() != null) {
+        if (params.getWatched() != null && params.useApiIndex()) {
+            addApiIndexWatched(params.getWatched().booleanValue(), sbSQL);
+        } else if (params.getWatched() != null) {
             sbSQL.append(" AND exists (SELECT 1 FROM videodata v WHERE v.watched=");
             sbSQL.append(params.getWatched().booleanValue() ? "1" : "0");
             sbSQL.append(" AND v.season_id=sea.id)");
         }
 
-        // check genre inclusion/exclusion
-        includeOrExcludeGenre(SEASON, params, sbSQL);
-
-        // check studio inclusion/exclusion
-        includeOrExcludeStudio(SEASON, params, sbSQL);
-		
-		// check library inclusion/exclusion
-        includeOrExcludeLibrary(SEASON, params, sbSQL);
-
-        // check country inclusion/exclusion
-        includeOrExcludeCountry(SEASON, params, sbSQL);
-
-        // check certification inclusion/exclusion
-        includeOrExcludeCertification(SEASON, params, sbSQL);
-
-        // check award inclusion/exclusion
-        includeOrExcludeAward(SEASON, params, sbSQL);
-
-        // check video source inclusion/exclusion
-        includeOrExcludeVideoSource(SEASON, params, sbSQL);
-
-        // check resolution inclusion/exclusion
-        includeOrExcludeResolution(SEASON, params, sbSQL);
-
-        // check resolution inclusion/exclusion
-        includeOrExcludeRating(SEASON, params, sbSQL);
-
-        // check rating inclusion/exclusion
-        includeOrExcludeRating(SEASON, params, sbSQL);
-
-        // check boxed set inclusion/exclusion
-        includeOrExcludeBoxedSet(SEASON, params, sbSQL);
+        // check facet inclusion/exclusion
+        includeOrExcludeFacets(SEASON, "sea", params, sbSQL);
 
         // check newest
         final String newestSource = params.getNewestSource();
@@ -523,18 +584,48 @@ public class ApiDao extends HibernateDao {
                 } else {
                     sbSQL.append(" AND sea.last_scanned is not null AND sea.last_scanned < :newestDate");
                 }
+            } else if (params.useApiIndex()) {
+                addNewestFileDate(params.includeNewest(), sbSQL);
             } else {
                 params.addParameter(LITERAL_EXTRA, Boolean.FALSE);
                 
                 addExistsOrNot(params.includeNewest(), sbSQL);
-                sbSQL.append("JOIN mediafile mf ON mf.id=sf.mediafile_id JOIN mediafile_videodata mv ON mv.mediafile_id=mf.id ");
+                sbSQL.append("SELECT 1 FROM stage_file sf JOIN mediafile mf ON mf.id=sf.mediafile_id JOIN mediafile_videodata mv ON mv.mediafile_id=mf.id ");
                 sbSQL.append("JOIN videodata vd ON mv.videodata_id=vd.id WHERE vd.season_id=sea.id ");
                 sbSQL.append("AND sf.file_type='VIDEO' AND sf.status!='DUPLICATE' AND mf.extra=:extra AND sf.file_date >= :newestDate)");
             }
         }
 
-        // add the search string, this will be empty if there is no search required
-        return sbSQL.append(params.getSearchString(false));
+        // add the search, this will be empty if there is no search required
+        includeSearch(SEASON, "sea", params, sbSQL);
+        return sbSQL;
+    }
+
+    /**
+     * Join the precomputed values of the API index which replace the correlated sub queries
+     * for the newest file date and the watched flags of series and seasons.
+     */
+    private static void addApiIndexJoin(MetaDataType type, String alias, StringBuilder sb) {
+        sb.append(" LEFT JOIN api_index ai ON ai.metadata_type='").append(type);
+        sb.append("' AND ai.object_id=").append(alias).append(".id");
+    }
+
+    private static void addApiIndexWatched(boolean watched, StringBuilder sb) {
+        if (watched) {
+            // at least one watched video
+            sb.append(" AND ai.any_watched=1");
+        } else {
+            // at least one unwatched video
+            sb.append(" AND ai.watched=0");
+        }
+    }
+
+    private static void addNewestFileDate(boolean include, StringBuilder sb) {
+        if (include) {
+            sb.append(" AND ai.newest_file_date >= :newestDate");
+        } else {
+            sb.append(" AND (ai.newest_file_date is null OR ai.newest_file_date < :newestDate)");
+        }
     }
 
     private static void addExistsOrNot(boolean include, StringBuilder sb) {
@@ -545,6 +636,92 @@ public class ApiDao extends HibernateDao {
         }
     }
 
+    /**
+     * Add the include/exclude filters for genre, studio, library, country, certification,
+     * award, video source, resolution, rating and boxed set.
+     * 
+     * If the facet engine evaluated the filters, then just the matching ids are selected.
+     */
+    private static void includeOrExcludeFacets(MetaDataType type, String alias, IndexParams params, StringBuilder sql) {
+        final FacetMatch facetMatch = params.getFacetMatch(type);
+        if (facetMatch != null) {
+            final BitSet ids = facetMatch.getIds();
+            if (facetMatch.isNegated()) {
+                sql.append(" AND ").append(alias).append(".id<=").append(facetMatch.getMaxId());
+                if (!ids.isEmpty()) {
+                    sql.append(" AND ").append(alias).append(".id NOT IN (");
+                    appendIds(ids, sql);
+                    sql.append(")");
+                }
+            } else if (ids.isEmpty()) {
+                sql.append(" AND 1=0");
+            } else {
+                sql.append(" AND ").append(alias).append(".id IN (");
+                appendIds(ids, sql);
+                sql.append(")");
+            }
+            return;
+        }
+        
+        // check genre inclusion/exclusion
+        includeOrExcludeGenre(type, params, sql);
+
+        // check studio inclusion/exclusion
+        includeOrExcludeStudio(type, params, sql);
+
+        // check library inclusion/exclusion
+        includeOrExcludeLibrary(type, params, sql);
+
+        // check country inclusion/exclusion
+        includeOrExcludeCountry(type, params, sql);
+
+        // check certification inclusion/exclusion
+        includeOrExcludeCertification(type, params, sql);
+
+        // check award inclusion/exclusion
+        includeOrExcludeAward(type, params, sql);
+
+        // check video source inclusion/exclusion
+        includeOrExcludeVideoSource(type, params, sql);
+
+        // check resolution inclusion/exclusion
+        includeOrExcludeResolution(type, params, sql);
+
+        // check rating inclusion/exclusion
+        includeOrExcludeRating(type, params, sql);
+
+        // check boxed set inclusion/exclusion
+        includeOrExcludeBoxedSet(type, params, sql);
+    }
+
+    /**
+     * Add the search; if the search index found the matches, then just the matching ids are selected.
+     */
+    private static void includeSearch(MetaDataType type, String alias, IndexParams params, StringBuilder sql) {
+        final BitSet ids = params.getSearchMatch(type);
+        if (ids == null) {
+            sql.append(params.getSearchString(false));
+        } else if (ids.isEmpty()) {
+            sql.append(" AND 1=0");
+        } else {
+            sql.append(" AND ").append(alias).append(".id IN (");
+            appendIds(ids, sql);
+            sql.append(")");
+        }
+    }
+
+    private static void appendIds(BitSet ids, StringBuilder sql) {
+        boolean first = true;
+        for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+            if (first) {
+                first = false;
+            } else {
+                sql.append(',');
+            }
+            sql.append(id);
+        }
+    }
+
     private static void includeOrExcludeGenre(MetaDataType type, IndexParams params, StringBuilder sql) {
         if (params.checkGenre()) {
 
@@ -1008,8 +1185,15 @@ public class ApiDao extends HibernateDao {
      * @param wrapper
      */
     public List<ApiPersonDTO> getPersonList(ApiWrapperList<ApiPersonDTO> wrapper, OptionsId options) {
-        SqlScalars sqlScalars = generateSqlForPerson(options);
+        SqlScalars sqlScalars = generateSqlForPerson(options, searchService.searchPersons(options, options.getJobTypes()));
         List<ApiPersonDTO> results = executeQueryWithTransform(ApiPersonDTO.class, sqlScalars, wrapper);
+
+        if (options.isKeyset() && options.getMax() > 0 && results.size() >= options.getMax()) {
+            // there may be more entries, so hand out the cursor for the next page
+            ApiPersonDTO last = results.get(results.size() - 1);
+            final Object value = LITERAL_NAME.equalsIgnoreCase(StringUtils.trimToEmpty(options.getSortby())) ? last.getName() : last.getId();
+            wrapper.setAfter(new Keyset(value, null, last.getId()).toToken());
+        }
         
         if (!results.isEmpty()) {
         	
@@ -1047,7 +1231,7 @@ public class ApiDao extends HibernateDao {
      * @param wrapper
      */
     public ApiPersonDTO getPerson(ApiWrapperSingle<ApiPersonDTO> wrapper, OptionsId options) {
-        SqlScalars sqlScalars = generateSqlForPerson(options);
+        SqlScalars sqlScalars = generateSqlForPerson(options, null);
         List<ApiPersonDTO> results = executeQueryWithTransform(ApiPersonDTO.class, sqlScalars, wrapper);
         
         ApiPersonDTO person = null;
@@ -1317,9 +1501,10 @@ public class ApiDao extends HibernateDao {
      * Generate the SQL for the information about a person
      *
      * @param options
+     * @param searchIds the ids found by the search index, or null to search by the database
      * @return
      */
-    private static SqlScalars generateSqlForPerson(OptionsId options) {
+    private static SqlScalars generateSqlForPerson(OptionsId options, BitSet searchIds) {
         SqlScalars sqlScalars = new SqlScalars();
         // Make sure to set the alias for the files for the Transformation into the class
         sqlScalars.addToSql("SELECT DISTINCT p.id,p.name,");
@@ -1350,9 +1535,33 @@ public class ApiDao extends HibernateDao {
             }
 
             // Add the search string
-            sqlScalars.addToSql(options.getSearchString(false));
-            // This will default to blank if there's no sort required
-            sqlScalars.addToSql(options.getSortString());
+            if (searchIds == null) {
+                sqlScalars.addToSql(options.getSearchString(false));
+            } else if (searchIds.isEmpty()) {
+                sqlScalars.addToSql("AND 1=0");
+            } else {
+                StringBuilder sb = new StringBuilder("AND p.id IN (");
+                appendIds(searchIds, sb);
+                sqlScalars.addToSql(sb.append(")").toString());
+            }
+
+            if (options.isKeyset()) {
+                // keyset pagination is supported for the name and the id
+                final boolean byName = LITERAL_NAME.equalsIgnoreCase(StringUtils.trimToEmpty(options.getSortby()));
+                final String sortColumn = byName ? "p.name" : "p.id";
+                final boolean descending = "DESC".equalsIgnoreCase(options.getSortdir());
+
+                Keyset keyset = Keyset.fromToken(options.getAfter());
+                if (keyset != null) {
+                    sqlScalars.addToSql("AND " + keyset.buildPredicate(sqlScalars.getParameters(), sortColumn, !byName, null, "p.id", descending));
+                }
+                
+                final String direction = descending ? " DESC" : " ASC";
+                sqlScalars.addToSql("ORDER BY " + sortColumn + direction + (byName ? ", p.id" + direction : ""));
+            } else {
+                // This will default to blank if there's no sort required
+                sqlScalars.addToSql(options.getSortString());
+            }
         }
 
         sqlScalars.addScalar(LITERAL_ID, LongType.INSTANCE);
@@ -1506,6 +1715,7 @@ public class ApiDao extends HibernateDao {
 
     public ApiVideoDTO getSingleVideo(ApiWrapperSingle<ApiVideoDTO> wrapper, OptionsIndexVideo options) {
         IndexParams params = new IndexParams(options);
+        params.setApiIndex(apiIndexDao.isIndexReady());
         MetaDataType type = MetaDataType.fromString(options.getType());
 
         StringBuilder sql;
@@ -1791,6 +2001,343 @@ public class ApiDao extends HibernateDao {
         return currentSession().getNamedQuery("metadata.externalid."+fixedType.name().toLowerCase()).setParameter(LITERAL_ID, id).list();
     }
 
+    //<editor-fold defaultstate="collapsed" desc="Batch methods for index lists">
+    /**
+     * Get the genres for a list of metadata objects with one query.
+     *
+     * @param type the metadata type of all objects
+     * @param ids the ids of the metadata objects
+     * @return the genres by id
+     */
+    public Map<Long, List<ApiGenreDTO>> getGenresForMetadata(MetaDataType type, Collection<Long> ids) {
+        SqlScalars sqlScalars = new SqlScalars();
+        sqlScalars.addToSql("SELECT DISTINCT o.owner_id AS ownerId,");
+        sqlScalars.addToSql("CASE WHEN g.target_api is not null THEN g.target_api WHEN g.target_xml is not null THEN g.target_xml ELSE g.name END as target");
+        addOwnerRelation(sqlScalars, type, false, "videodata_genres.data_id", "series_genres.series_id");
+        sqlScalars.addToSql("JOIN genre g ON g.id=r.genre_id");
+        sqlScalars.addToSql("ORDER BY ownerId, target");
+        sqlScalars.addScalar(LITERAL_OWNER_ID, LongType.INSTANCE);
+        sqlScalars.addScalar("target", StringType.INSTANCE);
+
+        Map<Long, List<ApiGenreDTO>> result = new HashMap<>();
+        for (Object[] row : executeOwnerQuery(sqlScalars, ids)) {
+            addOwnerValue(result, row, new ApiGenreDTO((String) row[1]));
+        }
+        return result;
+    }
+
+    /**
+     * Get the studios for a list of metadata objects with one query.
+     *
+     * @param type the metadata type of all objects
+     * @param ids the ids of the metadata objects
+     * @return the studios by id
+     */
+    @SuppressWarnings("unchecked")
+    public Map<Long, List<Studio>> getStudiosForMetadata(MetaDataType type, Collection<Long> ids) {
+        final String hql;
+        if (type == SERIES) {
+            hql = "SELECT ser.id, s FROM Series ser JOIN ser.studios s WHERE ser.id IN (:ids) ORDER BY s.name";
+        } else if (type == SEASON) {
+            hql = "SELECT sea.id, s FROM Season sea JOIN sea.series ser JOIN ser.studios s WHERE sea.id IN (:ids) ORDER BY s.name";
+        } else {
+            hql = "SELECT vd.id, s FROM VideoData vd JOIN vd.studios s WHERE vd.id IN (:ids) ORDER BY s.name";
+        }
+
+        Map<Long, List<Studio>> result = new HashMap<>();
+        if (CollectionUtils.isNotEmpty(ids)) {
+            List<Object[]> rows = currentSession().createQuery(hql).setParameterList(LITERAL_IDS, ids).setReadOnly(true).list();
+            for (Object[] row : rows) {
+                addOwnerValue(result, row, (Studio) row[1]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Get the countries for a list of metadata objects with one query.
+     *
+     * @param type the metadata type of all objects
+     * @param ids the ids of the metadata objects
+     * @return the countries by id
+     */
+    public Map<Long, List<ApiCountryDTO>> getCountriesForMetadata(MetaDataType type, Collection<Long> ids) {
+        SqlScalars sqlScalars = new SqlScalars();
+        sqlScalars.addToSql("SELECT o.owner_id AS ownerId, c.id, c.country_code AS countryCode");
+        addOwnerRelation(sqlScalars, type, false, "videodata_countries.data_id", "series_countries.series_id");
+        sqlScalars.addToSql("JOIN country c ON c.id=r.country_id");
+        sqlScalars.addToSql("ORDER BY ownerId");
+        sqlScalars.addScalar(LITERAL_OWNER_ID, LongType.INSTANCE);
+        sqlScalars.addScalar(LITERAL_ID, LongType.INSTANCE);
+        sqlScalars.addScalar("countryCode", StringType.INSTANCE);
+
+        Map<Long, List<ApiCountryDTO>> result = new HashMap<>();
+        for (Object[] row : executeOwnerQuery(sqlScalars, ids)) {
+            addOwnerValue(result, row, new ApiCountryDTO((Long) row[1], (String) row[2]));
+        }
+        return result;
+    }
+
+    /**
+     * Get the certifications for a list of metadata objects with one query.
+     *
+     * @param type the metadata type of all objects
+     * @param ids the ids of the metadata objects
+     * @return the certifications by id
+     */
+    public Map<Long, List<ApiCertificationDTO>> getCertificationsForMetadata(MetaDataType type, Collection<Long> ids) {
+        SqlScalars sqlScalars = new SqlScalars();
+        sqlScalars.addToSql("SELECT o.owner_id AS ownerId, c.id, c.country_code AS countryCode, c.certificate");
+        addOwnerRelation(sqlScalars, type, false, "videodata_certifications.data_id", "series_certifications.series_id");
+        sqlScalars.addToSql("JOIN certification c ON c.id=r.cert_id");
+        sqlScalars.addToSql("ORDER BY ownerId, countryCode, certificate");
+        sqlScalars.addScalar(LITERAL_OWNER_ID, LongType.INSTANCE);
+        sqlScalars.addScalar(LITERAL_ID, LongType.INSTANCE);
+        sqlScalars.addScalar("countryCode", StringType.INSTANCE);
+        sqlScalars.addScalar("certificate", StringType.INSTANCE);
+
+        Map<Long, List<ApiCertificationDTO>> result = new HashMap<>();
+        for (Object[] row : executeOwnerQuery(sqlScalars, ids)) {
+            addOwnerValue(result, row, new ApiCertificationDTO((Long) row[1], (String) row[2], (String) row[3]));
+        }
+        return result;
+    }
+
+    /**
+     * Get the ratings for a list of metadata objects with one query.
+     *
+     * @param type the metadata type of all objects
+     * @param ids the ids of the metadata objects
+     * @return the ratings by id
+     */
+    public Map<Long, List<ApiRatingDTO>> getRatingsForMetadata(MetaDataType type, Collection<Long> ids) {
+        SqlScalars sqlScalars = new SqlScalars();
+        sqlScalars.addToSql("SELECT o.owner_id AS ownerId, r.rating, r.sourcedb AS source, 2 AS sorting");
+        addOwnerRelation(sqlScalars, type, false, "videodata_ratings.videodata_id", "series_ratings.series_id");
+        sqlScalars.addToSql(SQL_UNION);
+        sqlScalars.addToSql("SELECT o.owner_id AS ownerId, round(avg(r.rating)) AS rating, 'combined' AS source, 1 AS sorting");
+        addOwnerRelation(sqlScalars, type, false, "videodata_ratings.videodata_id", "series_ratings.series_id");
+        sqlScalars.addToSql("GROUP BY o.owner_id");
+        sqlScalars.addToSql("ORDER BY ownerId, sorting, source");
+        sqlScalars.addScalar(LITERAL_OWNER_ID, LongType.INSTANCE);
+        sqlScalars.addScalar("rating", IntegerType.INSTANCE);
+        sqlScalars.addScalar(LITERAL_SOURCE, StringType.INSTANCE);
+
+        Map<Long, List<ApiRatingDTO>> result = new HashMap<>();
+        for (Object[] row : executeOwnerQuery(sqlScalars, ids)) {
+            addOwnerValue(result, row, new ApiRatingDTO((String) row[2], (Integer) row[1]));
+        }
+        return result;
+    }
+
+    /**
+     * Get the awards for a list of metadata objects with one query.
+     *
+     * @param type the metadata type of all objects
+     * @param ids the ids of the metadata objects
+     * @return the awards by id
+     */
+    public Map<Long, List<ApiAwardDTO>> getAwardsForMetadata(MetaDataType type, Collection<Long> ids) {
+        SqlScalars sqlScalars = new SqlScalars();
+        sqlScalars.addToSql("SELECT o.owner_id AS ownerId, a.event, a.category, a.sourcedb AS source, r.year, r.won, r.nominated");
+        addOwnerRelation(sqlScalars, type, false, "videodata_awards.videodata_id", "series_awards.series_id");
+        sqlScalars.addToSql("JOIN award a ON a.id=r.award_id");
+        sqlScalars.addToSql("ORDER BY ownerId, year, event");
+        sqlScalars.addScalar(LITERAL_OWNER_ID, LongType.INSTANCE);
+        sqlScalars.addScalar("event", StringType.INSTANCE);
+        sqlScalars.addScalar("category", StringType.INSTANCE);
+        sqlScalars.addScalar(LITERAL_SOURCE, StringType.INSTANCE);
+        sqlScalars.addScalar(LITERAL_YEAR, IntegerType.INSTANCE);
+        sqlScalars.addScalar("won", BooleanType.INSTANCE);
+        sqlScalars.addScalar("nominated", BooleanType.INSTANCE);
+
+        Map<Long, List<ApiAwardDTO>> result = new HashMap<>();
+        for (Object[] row : executeOwnerQuery(sqlScalars, ids)) {
+            addOwnerValue(result, row, new ApiAwardDTO((String) row[1], (String) row[2], (String) row[3], (Integer) row[4], (Boolean) row[5], (Boolean) row[6]));
+        }
+        return result;
+    }
+
+    /**
+     * Get the external IDs for a list of metadata objects with one query.
+     *
+     * @param type the metadata type of all objects
+     * @param ids the ids of the metadata objects
+     * @return the external IDs by id
+     */
+    public Map<Long, List<ApiExternalIdDTO>> getExternalIdsForMetadata(MetaDataType type, Collection<Long> ids) {
+        SqlScalars sqlScalars = new SqlScalars();
+        if (type == SEASON) {
+            sqlScalars.addToSql("SELECT ids.season_id AS ownerId, ids.sourcedb_id AS externalId, ids.sourcedb, 0 as skipped");
+            sqlScalars.addToSql("FROM season_ids ids WHERE ids.season_id IN (:ids)");
+        } else {
+            final String table = (type == SERIES ? "series" : "videodata");
+            sqlScalars.addToSql("SELECT ids." + table + "_id AS ownerId, ids.sourcedb_id AS externalId, ids.sourcedb,");
+            sqlScalars.addToSql("concat(coalesce(o.skip_scan_api,''),';',coalesce(o.skip_scan_nfo,'')) like concat('%',ids.sourcedb,'%') as skipped");
+            sqlScalars.addToSql("FROM " + table + " o JOIN " + table + "_ids ids ON ids." + table + "_id=o.id WHERE o.id IN (:ids)");
+        }
+        sqlScalars.addToSql("ORDER BY ownerId");
+        sqlScalars.addScalar(LITERAL_OWNER_ID, LongType.INSTANCE);
+        sqlScalars.addScalar("externalId", StringType.INSTANCE);
+        sqlScalars.addScalar("sourcedb", StringType.INSTANCE);
+        sqlScalars.addScalar("skipped", BooleanType.INSTANCE);
+
+        Map<Long, List<ApiExternalIdDTO>> result = new HashMap<>();
+        for (Object[] row : executeOwnerQuery(sqlScalars, ids)) {
+            addOwnerValue(result, row, new ApiExternalIdDTO((Long) row[0], (String) row[1], (String) row[2], (Boolean) row[3]));
+        }
+        return result;
+    }
+
+    /**
+     * Get the boxed sets for a list of metadata objects with one query.
+     *
+     * @param type the metadata type of all objects
+     * @param ids the ids of the metadata objects
+     * @return the boxed sets by id
+     */
+    public Map<Long, List<ApiBoxedSetDTO>> getBoxedSetsForMetadata(MetaDataType type, Collection<Long> ids) {
+        SqlScalars sqlScalars = new SqlScalars();
+        sqlScalars.addToSql("SELECT o.owner_id AS ownerId, bs.id, bs.name,");
+        sqlScalars.addToSql("(select count(bo2.id) from boxed_set_order bo2 where bo2.boxedset_id=bs.id) as memberCount");
+        addOwnerRelation(sqlScalars, type, true, "boxed_set_order.videodata_id", "boxed_set_order.series_id");
+        sqlScalars.addToSql("JOIN boxed_set bs ON bs.id=r.boxedset_id");
+        sqlScalars.addToSql("GROUP BY o.owner_id, bs.id, bs.name");
+        sqlScalars.addToSql("ORDER BY ownerId");
+        sqlScalars.addScalar(LITERAL_OWNER_ID, LongType.INSTANCE);
+        sqlScalars.addScalar(LITERAL_ID, LongType.INSTANCE);
+        sqlScalars.addScalar(LITERAL_NAME, StringType.INSTANCE);
+        sqlScalars.addScalar("memberCount", IntegerType.INSTANCE);
+
+        Map<Long, List<ApiBoxedSetDTO>> result = new HashMap<>();
+        for (Object[] row : executeOwnerQuery(sqlScalars, ids)) {
+            addOwnerValue(result, row, new ApiBoxedSetDTO((Long) row[1], (String) row[2], (Integer) row[3]));
+        }
+        return result;
+    }
+
+    /**
+     * Get the trailers for a list of movies or series with one query.
+     *
+     * @param type the metadata type of all objects, MOVIE or SERIES
+     * @param ids the ids of the metadata objects
+     * @return the trailers by id
+     */
+    public Map<Long, List<ApiTrailerDTO>> getTrailersForMetadata(MetaDataType type, Collection<Long> ids) {
+        SqlScalars sqlScalars = new SqlScalars();
+        sqlScalars.addToSql("SELECT o.owner_id AS ownerId, r.id, r.title, r.url, r.source, r.hash_code AS hashCode, r.cache_dir AS cacheDir, r.cache_filename AS cacheFilename");
+        addOwnerRelation(sqlScalars, type, false, "trailer.videodata_id", "trailer.series_id");
+        sqlScalars.addToSql("WHERE r.status" + SQL_IGNORE_STATUS_SET);
+        sqlScalars.addToSql("ORDER BY ownerId, id");
+        sqlScalars.addScalar(LITERAL_OWNER_ID, LongType.INSTANCE);
+        sqlScalars.addScalar(LITERAL_ID, LongType.INSTANCE);
+        sqlScalars.addScalar(LITERAL_TITLE, StringType.INSTANCE);
+        sqlScalars.addScalar("url", StringType.INSTANCE);
+        sqlScalars.addScalar(LITERAL_SOURCE, StringType.INSTANCE);
+        sqlScalars.addScalar("hashCode", StringType.INSTANCE);
+        sqlScalars.addScalar(LITERAL_CACHE_DIR, StringType.INSTANCE);
+        sqlScalars.addScalar(LITERAL_CACHE_FILENAME, StringType.INSTANCE);
+
+        Map<Long, List<ApiTrailerDTO>> result = new HashMap<>();
+        for (Object[] row : executeOwnerQuery(sqlScalars, ids)) {
+            addOwnerValue(result, row, new ApiTrailerDTO((Long) row[1], (String) row[2], (String) row[3], (String) row[4], (String) row[5], (String) row[6], (String) row[7]));
+        }
+        return result;
+    }
+
+    /**
+     * Get the video sources for a list of metadata objects with one query.
+     *
+     * @param type the metadata type of all objects
+     * @param ids the ids of the metadata objects
+     * @return the video source by id, "Multiple" if there is more than one
+     */
+    public Map<Long, String> getVideoSourcesForMetadata(MetaDataType type, Collection<Long> ids) {
+        SqlScalars sqlScalars = new SqlScalars();
+        if (type == SERIES) {
+            sqlScalars.addToSql("SELECT sea.series_id AS ownerId, mf.video_source AS videoSource FROM mediafile_videodata mv");
+        } else if (type == SEASON) {
+            sqlScalars.addToSql("SELECT vd.season_id AS ownerId, mf.video_source AS videoSource FROM mediafile_videodata mv");
+        } else {
+            sqlScalars.addToSql("SELECT mv.videodata_id AS ownerId, mf.video_source AS videoSource FROM mediafile_videodata mv");
+        }
+        sqlScalars.addToSql("JOIN mediafile mf on mf.id=mv.mediafile_id and mf.extra=0 and mf.video_source is not null");
+        if (type == SERIES) {
+            sqlScalars.addToSql("JOIN videodata vd on vd.id=mv.videodata_id JOIN season sea on sea.id=vd.season_id WHERE sea.series_id IN (:ids)");
+        } else if (type == SEASON) {
+            sqlScalars.addToSql("JOIN videodata vd on vd.id=mv.videodata_id WHERE vd.season_id IN (:ids)");
+        } else {
+            sqlScalars.addToSql("WHERE mv.videodata_id IN (:ids)");
+        }
+        sqlScalars.addScalar(LITERAL_OWNER_ID, LongType.INSTANCE);
+        sqlScalars.addScalar("videoSource", StringType.INSTANCE);
+
+        Map<Long, String> result = new HashMap<>();
+        for (Object[] row : executeOwnerQuery(sqlScalars, ids)) {
+            final Long id = (Long) row[0];
+            result.put(id, result.containsKey(id) ? "Multiple" : (String) row[1]);
+        }
+        return result;
+    }
+
+    /**
+     * Add the join of the metadata objects with the relation table of the data item.
+     *
+     * The metadata objects are available with alias "o" and column "owner_id",
+     * the relation table with alias "r".
+     *
+     * @param sqlScalars
+     * @param type the metadata type of the objects
+     * @param episodeOfSeries true if episodes use the relation of their series
+     * @param videoRelation the table and column of the relation to videodata
+     * @param seriesRelation the table and column of the relation to series
+     */
+    private static void addOwnerRelation(SqlScalars sqlScalars, MetaDataType type, boolean episodeOfSeries, String videoRelation, String seriesRelation) {
+        final String relation;
+        if (type == SERIES) {
+            sqlScalars.addToSql("FROM (SELECT ser.id AS owner_id, ser.id AS rel_id FROM series ser WHERE ser.id IN (:ids)) o");
+            relation = seriesRelation;
+        } else if (type == SEASON) {
+            sqlScalars.addToSql("FROM (SELECT sea.id AS owner_id, sea.series_id AS rel_id FROM season sea WHERE sea.id IN (:ids)) o");
+            relation = seriesRelation;
+        } else if (type == EPISODE && episodeOfSeries) {
+            sqlScalars.addToSql("FROM (SELECT vd.id AS owner_id, sea.series_id AS rel_id FROM videodata vd JOIN season sea ON sea.id=vd.season_id WHERE vd.id IN (:ids)) o");
+            relation = seriesRelation;
+        } else {
+            sqlScalars.addToSql("FROM (SELECT vd.id AS owner_id, vd.id AS rel_id FROM videodata vd WHERE vd.id IN (:ids)) o");
+            relation = videoRelation;
+        }
+
+        final int dot = relation.indexOf('.');
+        sqlScalars.addToSql("JOIN " + relation.substring(0, dot) + " r ON r." + relation.substring(dot + 1) + "=o.rel_id");
+    }
+
+    /**
+     * Execute a query for a list of metadata objects; the first column must be the id of the object.
+     *
+     * @param sqlScalars
+     * @param ids
+     * @return
+     */
+    private List<Object[]> executeOwnerQuery(SqlScalars sqlScalars, Collection<Long> ids) {
+        if (CollectionUtils.isEmpty(ids)) {
+            return Collections.emptyList();
+        }
+        sqlScalars.addParameter(LITERAL_IDS, ids);
+        return executeQueryWithTransform(Object[].class, sqlScalars);
+    }
+
+    private static <T> void addOwnerValue(Map<Long, List<T>> result, Object[] row, T value) {
+        final Long id = (Long) row[0];
+        List<T> values = result.get(id);
+        if (values == null) {
+            values = new ArrayList<>();
+            result.put(id, values);
+        }
+        values.add(value);
+    }
+    //</editor-fold>
+
     /**
      * Get a list of the cast for a metadata object.
      * 
@@ -0,0 +1,184 @@
+/*
+ *      Copyright (c) 2004-2015 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ).
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3
+ *
+ */
+package org.yamj.core.database.dao;
+
+import static org.yamj.core.database.Literals.LITERAL_EXTRA;
+import static org.yamj.core.database.Literals.LITERAL_ID;
+import static org.yamj.core.database.Literals.LITERAL_IDS;
+import static org.yamj.core.database.Literals.SQL_IGNORE_STATUS_SET;
+
+import java.util.*;
+import org.hibernate.SQLQuery;
+import org.hibernate.type.LongType;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import org.yamj.core.hibernate.HibernateDao;
+
+/**
+ * Maintains the precomputed values of the api_index table.
+ *
+ * Videos are indexed from their stage files; seasons and series are
+ * aggregated from their episodes.
+ */
+@Repository("apiIndexDao")
+public class ApiIndexDao extends HibernateDao {
+
+    private static final int CHUNK_SIZE = 500;
+    private static final String SQL_INSERT = "INSERT INTO api_index (metadata_type, object_id, newest_file_date, watched, any_watched) ";
+    private static final String SQL_NEWEST_FILE = "(SELECT MAX(sf.file_date) FROM stage_file sf JOIN mediafile mf ON mf.id=sf.mediafile_id "
+                    + "JOIN mediafile_videodata mv ON mv.mediafile_id=mf.id ";
+    private static final String SQL_NEWEST_FILE_FILTER = "sf.file_type='VIDEO' AND sf.status" + SQL_IGNORE_STATUS_SET + "AND mf.extra=:extra)";
+
+    private volatile boolean indexReady = false;
+
+    /**
+     * Indicates if the index has been built completely and may be used for queries.
+     */
+    public boolean isIndexReady() {
+        return indexReady;
+    }
+
+    @Transactional
+    public void rebuildIndex() {
+        currentSession().createSQLQuery("DELETE FROM api_index").executeUpdate();
+        insertVideos(null);
+        insertSeasons(null);
+        insertSeries(null);
+        indexReady = true;
+    }
+
+    /**
+     * Refresh the index entries of all videos which have been changed
+     * since the given date and of their seasons and series.
+     *
+     * @param since the date of the last refresh
+     * @return the number of refreshed videos
+     */
+    @Transactional
+    public int refreshIndex(Date since) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("SELECT vd.id FROM videodata vd WHERE vd.create_timestamp>=:since OR vd.update_timestamp>=:since ");
+        sb.append("UNION SELECT mv.videodata_id FROM mediafile_videodata mv JOIN mediafile mf ON mf.id=mv.mediafile_id ");
+        sb.append("WHERE mf.create_timestamp>=:since OR mf.update_timestamp>=:since ");
+        sb.append("UNION SELECT mv.videodata_id FROM mediafile_videodata mv JOIN stage_file sf ON sf.mediafile_id=mv.mediafile_id ");
+        sb.append("WHERE sf.create_timestamp>=:since OR sf.update_timestamp>=:since");
+        SQLQuery query = currentSession().createSQLQuery(sb.toString());
+        query.setTimestamp("since", since);
+        final List<Long> videoIds = toLongs(query.list());
+        if (videoIds.isEmpty()) {
+            return 0;
+        }
+
+        Set<Long> seasonIds = new HashSet<>();
+        Set<Long> seriesIds = new HashSet<>();
+        for (List<Long> ids : chunks(videoIds)) {
+            seasonIds.addAll(queryIds("SELECT DISTINCT vd.season_id AS id FROM videodata vd WHERE vd.season_id IS NOT NULL AND vd.id IN (:ids)", ids));
+            deleteEntries("'MOVIE','EPISODE'", ids);
+            insertVideos(ids);
+        }
+        for (List<Long> ids : chunks(seasonIds)) {
+            seriesIds.addAll(queryIds("SELECT DISTINCT sea.series_id AS id FROM season sea WHERE sea.id IN (:ids)", ids));
+            deleteEntries("'SEASON'", ids);
+            insertSeasons(ids);
+        }
+        for (List<Long> ids : chunks(seriesIds)) {
+            deleteEntries("'SERIES'", ids);
+            insertSeries(ids);
+        }
+        return videoIds.size();
+    }
+
+    private void insertVideos(Collection<Long> ids) {
+        StringBuilder sb = new StringBuilder(SQL_INSERT);
+        sb.append("SELECT CASE WHEN vd.episode<0 THEN 'MOVIE' ELSE 'EPISODE' END, vd.id, ");
+        sb.append(SQL_NEWEST_FILE).append("WHERE mv.videodata_id=vd.id AND ").append(SQL_NEWEST_FILE_FILTER);
+        sb.append(", vd.watched, vd.watched FROM videodata vd");
+        executeInsert(sb, "vd.id", ids);
+    }
+
+    private void insertSeasons(Collection<Long> ids) {
+        StringBuilder sb = new StringBuilder(SQL_INSERT);
+        sb.append("SELECT 'SEASON', sea.id, ");
+        sb.append(SQL_NEWEST_FILE).append("JOIN videodata vd ON vd.id=mv.videodata_id ");
+        sb.append("WHERE vd.season_id=sea.id AND ").append(SQL_NEWEST_FILE_FILTER);
+        sb.append(", (SELECT MIN(vd.watched) FROM videodata vd WHERE vd.season_id=sea.id)");
+        sb.append(", (SELECT MAX(vd.watched) FROM videodata vd WHERE vd.season_id=sea.id)");
+        sb.append(" FROM season sea");
+        executeInsert(sb, "sea.id", ids);
+    }
+
+    private void insertSeries(Collection<Long> ids) {
+        StringBuilder sb = new StringBuilder(SQL_INSERT);
+        sb.append("SELECT 'SERIES', ser.id, ");
+        sb.append(SQL_NEWEST_FILE).append("JOIN videodata vd ON vd.id=mv.videodata_id JOIN season sea ON sea.id=vd.season_id ");
+        sb.append("WHERE sea.series_id=ser.id AND ").append(SQL_NEWEST_FILE_FILTER);
+        sb.append(", (SELECT MIN(vd.watched) FROM videodata vd JOIN season sea ON sea.id=vd.season_id WHERE sea.series_id=ser.id)");
+        sb.append(", (SELECT MAX(vd.watched) FROM videodata vd JOIN season sea ON sea.id=vd.season_id WHERE sea.series_id=ser.id)");
+        sb.append(" FROM series ser");
+        executeInsert(sb, "ser.id", ids);
+    }
+
+    private void executeInsert(StringBuilder sb, String idColumn, Collection<Long> ids) {
+        if (ids != null) {
+            sb.append(" WHERE ").append(idColumn).append(" IN (:ids)");
+        }
+        SQLQuery query = currentSession().createSQLQuery(sb.toString());
+        query.setBoolean(LITERAL_EXTRA, false);
+        if (ids != null) {
+            query.setParameterList(LITERAL_IDS, ids);
+        }
+        query.executeUpdate();
+    }
+
+    private void deleteEntries(String metaDataTypes, Collection<Long> ids) {
+        SQLQuery query = currentSession().createSQLQuery("DELETE FROM api_index WHERE metadata_type IN (" + metaDataTypes + ") AND object_id IN (:ids)");
+        query.setParameterList(LITERAL_IDS, ids);
+        query.executeUpdate();
+    }
+
+    private List<Long> queryIds(String sql, Collection<Long> ids) {
+        SQLQuery query = currentSession().createSQLQuery(sql);
+        query.addScalar(LITERAL_ID, LongType.INSTANCE);
+        query.setParameterList(LITERAL_IDS, ids);
+        return toLongs(query.list());
+    }
+
+    private static List<Long> toLongs(List<?> values) {
+        List<Long> result = new ArrayList<>(values.size());
+        for (Object value : values) {
+            if (value != null) {
+                result.add(Long.valueOf(((Number) value).longValue()));
+            }
+        }
+        return result;
+    }
+
+    private static List<List<Long>> chunks(Collection<Long> ids) {
+        List<Long> list = new ArrayList<>(ids);
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int i = 0; i < list.size(); i += CHUNK_SIZE) {
+            chunks.add(list.subList(i, Math.min(i + CHUNK_SIZE, list.size())));
+        }
+        return chunks;
+    }
+}
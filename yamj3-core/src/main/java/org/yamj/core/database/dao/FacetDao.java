@@ -0,0 +1,151 @@
+/*
+ *      Copyright (c) 2004-2015 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ).
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3
+ *
+ */
+package org.yamj.core.database.dao;
+
+import static org.yamj.core.database.Literals.LITERAL_EXTRA;
+
+import java.util.List;
+import org.hibernate.SQLQuery;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import org.yamj.core.hibernate.HibernateDao;
+import org.yamj.core.service.facet.FacetType;
+
+/**
+ * Loads the facet values of all videos for the in-memory facet index.
+ *
+ * Each row starts with the meta data type and the id of the object, followed
+ * by the value columns of the facet. Seasons and episodes get the values of
+ * their series, seasons and series get the file values of their episodes.
+ */
+@Repository("facetDao")
+public class FacetDao extends HibernateDao {
+
+    private static final String SQL_VIDEO_TYPE = "CASE WHEN vd.episode<0 THEN 'MOVIE' ELSE 'EPISODE' END";
+
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public List<Object[]> getObjects() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("SELECT ").append(SQL_VIDEO_TYPE).append(", vd.id FROM videodata vd");
+        sb.append(" UNION ALL SELECT 'SEASON', sea.id FROM season sea");
+        sb.append(" UNION ALL SELECT 'SERIES', ser.id FROM series ser");
+        return currentSession().createSQLQuery(sb.toString()).list();
+    }
+
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public List<Object[]> getFacetRows(FacetType facet) {
+        final String sql;
+        switch (facet) {
+            case GENRE:
+                sql = seriesFacet("g.name, g.target_api, g.target_xml",
+                                "rel.data_id", "FROM videodata_genres rel JOIN genre g ON g.id=rel.genre_id",
+                                "FROM series_genres rel JOIN genre g ON g.id=rel.genre_id");
+                break;
+            case STUDIO:
+                sql = seriesFacet("stu.name, stu.id",
+                                "rel.data_id", "FROM videodata_studios rel JOIN studio stu ON stu.id=rel.studio_id",
+                                "FROM series_studios rel JOIN studio stu ON stu.id=rel.studio_id");
+                break;
+            case COUNTRY:
+                sql = seriesFacet("c.country_code",
+                                "rel.data_id", "FROM videodata_countries rel JOIN country c ON c.id=rel.country_id",
+                                "FROM series_countries rel JOIN country c ON c.id=rel.country_id");
+                break;
+            case CERTIFICATION:
+                sql = seriesFacet("rel.cert_id",
+                                "rel.data_id", "FROM videodata_certifications rel",
+                                "FROM series_certifications rel");
+                break;
+            case AWARD:
+                sql = seriesFacet("a.event, a.id",
+                                "rel.videodata_id", "FROM videodata_awards rel JOIN award a ON a.id=rel.award_id",
+                                "FROM series_awards rel JOIN award a ON a.id=rel.award_id");
+                break;
+            case BOXSET:
+                sql = seriesFacet("rel.boxedset_id",
+                                "rel.videodata_id", "FROM boxed_set_order rel",
+                                "FROM boxed_set_order rel");
+                break;
+            case LIBRARY:
+                sql = fileFacet("l.base_directory, l.id",
+                                "FROM stage_file sf JOIN stage_directory sd ON sd.id=sf.directory_id JOIN library l ON l.id=sd.library_id "
+                                + "JOIN mediafile_videodata mv ON mv.mediafile_id=sf.mediafile_id",
+                                "WHERE sf.file_type='VIDEO' AND sf.status NOT IN ('DUPLICATE','DELETED')", true);
+                break;
+            case VIDEOSOURCE:
+                sql = fileFacet("mf.video_source",
+                                "FROM mediafile mf JOIN mediafile_videodata mv ON mv.mediafile_id=mf.id",
+                                "WHERE mf.extra=:extra AND mf.video_source IS NOT NULL", false);
+                break;
+            case RESOLUTION:
+                sql = fileFacet("mf.width",
+                                "FROM mediafile mf JOIN mediafile_videodata mv ON mv.mediafile_id=mf.id",
+                                "WHERE mf.extra=:extra AND mf.width IS NOT NULL", false);
+                break;
+            case RATING:
+                sql = "SELECT " + SQL_VIDEO_TYPE + ", vd.id, rat.sourcedb, rat.rating FROM videodata_ratings rat JOIN videodata vd ON vd.id=rat.videodata_id"
+                    + " UNION ALL SELECT 'SERIES', rat.series_id, rat.sourcedb, rat.rating FROM series_ratings rat"
+                    + " UNION ALL SELECT 'SEASON', sea.id, rat.sourcedb, rat.rating FROM series_ratings rat JOIN season sea ON sea.series_id=rat.series_id";
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported facet: " + facet);
+        }
+
+        SQLQuery query = currentSession().createSQLQuery(sql);
+        if (sql.contains(":extra")) {
+            query.setBoolean(LITERAL_EXTRA, false);
+        }
+        return query.list();
+    }
+
+    /**
+     * Facet of movies and series, which is inherited by the seasons and episodes of a series.
+     */
+    private static String seriesFacet(String columns, String movieId, String movieFrom, String seriesFrom) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("SELECT 'MOVIE', ").append(movieId).append(", ").append(columns).append(" ").append(movieFrom);
+        sb.append(" UNION ALL SELECT 'SERIES', rel.series_id, ").append(columns).append(" ").append(seriesFrom);
+        sb.append(" UNION ALL SELECT 'SEASON', sea.id, ").append(columns).append(" ").append(seriesFrom);
+        sb.append(" JOIN season sea ON sea.series_id=rel.series_id");
+        sb.append(" UNION ALL SELECT 'EPISODE', vd.id, ").append(columns).append(" ").append(seriesFrom);
+        sb.append(" JOIN season sea ON sea.series_id=rel.series_id JOIN videodata vd ON vd.season_id=sea.id");
+        return sb.toString();
+    }
+
+    /**
+     * Facet of the video files, which is aggregated for the seasons and series.
+     */
+    private static String fileFacet(String columns, String from, String where, boolean realEpisodes) {
+        final String episodes = realEpisodes ? " AND vd.episode>0" : " AND vd.episode>-1";
+        StringBuilder sb = new StringBuilder();
+        sb.append("SELECT ").append(SQL_VIDEO_TYPE).append(", vd.id, ").append(columns).append(" ").append(from);
+        sb.append(" JOIN videodata vd ON vd.id=mv.videodata_id ").append(where);
+        sb.append(" UNION ALL SELECT DISTINCT 'SEASON', vd.season_id, ").append(columns).append(" ").append(from);
+        sb.append(" JOIN videodata vd ON vd.id=mv.videodata_id ").append(where).append(episodes);
+        sb.append(" UNION ALL SELECT DISTINCT 'SERIES', sea.series_id, ").append(columns).append(" ").append(from);
+        sb.append(" JOIN videodata vd ON vd.id=mv.videodata_id JOIN season sea ON sea.id=vd.season_id ").append(where).append(episodes);
+        return sb.toString();
+    }
+}
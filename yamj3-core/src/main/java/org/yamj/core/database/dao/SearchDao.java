@@ -0,0 +1,175 @@
+/*
+ *      Copyright (c) 2004-2015 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ).
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3
+ *
+ */
+package org.yamj.core.database.dao;
+
+import static org.yamj.core.database.Literals.LITERAL_ID;
+import static org.yamj.core.database.Literals.LITERAL_IDS;
+import static org.yamj.core.database.Literals.SQL_IGNORE_STATUS_SET;
+
+import java.util.*;
+import org.hibernate.SQLQuery;
+import org.hibernate.type.LongType;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import org.yamj.core.hibernate.HibernateDao;
+
+/**
+ * Loads the searchable texts of videos and persons for the in-memory search index.
+ */
+@Repository("searchDao")
+public class SearchDao extends HibernateDao {
+
+    private static final String SQL_CHANGED = " WHERE %1$s.create_timestamp>=:since OR %1$s.update_timestamp>=:since";
+
+    /**
+     * Get the titles and plots of the videos, seasons and series.
+     *
+     * Each row contains the meta data type, the id, the title, the original title,
+     * the sort title and the plot.
+     *
+     * @param since the date of the last refresh; null for all
+     * @return the rows
+     */
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public List<Object[]> getVideoRows(Date since) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("SELECT CASE WHEN vd.episode<0 THEN 'MOVIE' ELSE 'EPISODE' END, vd.id, vd.title, vd.title_original, vd.title_sort, vd.plot FROM videodata vd");
+        appendChanged("vd", since, sb);
+        sb.append(" UNION ALL SELECT 'SEASON', sea.id, sea.title, sea.title_original, sea.title_sort, sea.plot FROM season sea");
+        appendChanged("sea", since, sb);
+        sb.append(" UNION ALL SELECT 'SERIES', ser.id, ser.title, ser.title_original, ser.title_sort, ser.plot FROM series ser");
+        appendChanged("ser", since, sb);
+
+        SQLQuery query = currentSession().createSQLQuery(sb.toString());
+        if (since != null) {
+            query.setTimestamp("since", since);
+        }
+        return query.list();
+    }
+
+    /**
+     * Get the ids of all videos, seasons and series.
+     *
+     * Each row contains the meta data type and the id.
+     *
+     * @return the rows
+     */
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public List<Object[]> getVideoIds() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("SELECT CASE WHEN vd.episode<0 THEN 'MOVIE' ELSE 'EPISODE' END, vd.id FROM videodata vd");
+        sb.append(" UNION ALL SELECT 'SEASON', sea.id FROM season sea");
+        sb.append(" UNION ALL SELECT 'SERIES', ser.id FROM series ser");
+        return currentSession().createSQLQuery(sb.toString()).list();
+    }
+
+    /**
+     * Get the ids of the valid persons.
+     *
+     * @return the person ids
+     */
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public List<Long> getPersonIds() {
+        SQLQuery query = currentSession().createSQLQuery("SELECT p.id FROM person p WHERE p.status" + SQL_IGNORE_STATUS_SET);
+        query.addScalar(LITERAL_ID, LongType.INSTANCE);
+        return query.list();
+    }
+
+    /**
+     * Get the ids of the persons which have been changed or whose roles may have been changed.
+     *
+     * @param since the date of the last refresh
+     * @return the person ids
+     */
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public List<Long> getChangedPersonIds(Date since) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("SELECT p.id FROM person p");
+        appendChanged("p", since, sb);
+        sb.append(" UNION SELECT c.person_id AS id FROM cast_crew c JOIN videodata vd ON vd.id=c.videodata_id");
+        appendChanged("vd", since, sb);
+
+        SQLQuery query = currentSession().createSQLQuery(sb.toString());
+        query.addScalar(LITERAL_ID, LongType.INSTANCE);
+        query.setTimestamp("since", since);
+        return query.list();
+    }
+
+    /**
+     * Get the names of the valid persons.
+     *
+     * Each row contains the id, the name, the first name and the last name.
+     *
+     * @param ids the person ids; null for all
+     * @return the rows
+     */
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public List<Object[]> getPersonRows(Collection<Long> ids) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("SELECT p.id, p.name, p.first_name, p.last_name FROM person p WHERE p.status").append(SQL_IGNORE_STATUS_SET);
+        if (ids != null) {
+            sb.append("AND p.id IN (:ids)");
+        }
+
+        SQLQuery query = currentSession().createSQLQuery(sb.toString());
+        if (ids != null) {
+            query.setParameterList(LITERAL_IDS, ids);
+        }
+        return query.list();
+    }
+
+    /**
+     * Get the roles of the persons.
+     *
+     * Each row contains the person id, the job and the role.
+     *
+     * @param ids the person ids; null for all
+     * @return the rows
+     */
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public List<Object[]> getRoleRows(Collection<Long> ids) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("SELECT DISTINCT c.person_id, c.job, c.role FROM cast_crew c WHERE c.role IS NOT NULL");
+        if (ids != null) {
+            sb.append(" AND c.person_id IN (:ids)");
+        }
+
+        SQLQuery query = currentSession().createSQLQuery(sb.toString());
+        if (ids != null) {
+            query.setParameterList(LITERAL_IDS, ids);
+        }
+        return query.list();
+    }
+
+    private static void appendChanged(String alias, Date since, StringBuilder sb) {
+        if (since != null) {
+            sb.append(String.format(SQL_CHANGED, alias));
+        }
+    }
+}
@@ -26,12 +26,18 @@ import static org.hibernate.CacheMode.NORMAL;
 import static org.yamj.core.CachingNames.DB_STAGEFILE;
 import static org.yamj.core.database.Literals.*;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.util.*;
 import org.apache.commons.lang.StringEscapeUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.hibernate.Query;
+import org.hibernate.criterion.Order;
 import org.hibernate.criterion.Projections;
 import org.hibernate.criterion.Restrictions;
+import org.hibernate.jdbc.Work;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
@@ -47,6 +53,9 @@ import org.yamj.plugin.api.model.type.ArtworkType;
 @Repository("stagingDao")
 public class StagingDao extends HibernateDao {
 
+    private static final String INSERT_STAGE_FILE = "INSERT INTO stage_file (lock_no, create_timestamp, status, directory_id, base_name, "+
+                    "extension, file_date, file_size, file_type, full_path, content) VALUES (?,?,?,?,?,?,?,?,?,?,?)";
+
     public Library getLibrary(String client, String baseDirectory) {
         return (Library) currentSession().createCriteria(Library.class)
                 .add(Restrictions.eq("client", client))
@@ -76,6 +85,56 @@ public class StagingDao extends HibernateDao {
                 .load();
     }
 
+    @SuppressWarnings("unchecked")
+    public List<StageFile> getStageFiles(StageDirectory stageDirectory) {
+        return currentSession().createCriteria(StageFile.class)
+                .add(Restrictions.eq(LITERAL_STAGE_DIRECTORY, stageDirectory))
+                .list();
+    }
+
+    /**
+     * Insert new stage files with JDBC batching.
+     * 
+     * Hibernate can't batch inserts of entities with identity generated ids, so the
+     * stage files are inserted directly; the given entities are not attached to the session.
+     * 
+     * @param stageFiles the new stage files
+     * @param batchSize the JDBC batch size
+     */
+    public void insertStageFiles(final Collection<StageFile> stageFiles, final int batchSize) {
+        currentSession().flush();
+        currentSession().doWork(new Work() {
+            @Override
+            public void execute(Connection connection) throws SQLException {
+                final Timestamp now = new Timestamp(System.currentTimeMillis());
+                try (PreparedStatement ps = connection.prepareStatement(INSERT_STAGE_FILE)) {
+                    int count = 0;
+                    for (StageFile stageFile : stageFiles) {
+                        ps.setInt(1, 0);
+                        ps.setTimestamp(2, now);
+                        ps.setString(3, stageFile.getStatus().name());
+                        ps.setLong(4, stageFile.getStageDirectory().getId());
+                        ps.setString(5, stageFile.getBaseName());
+                        ps.setString(6, stageFile.getExtension());
+                        ps.setTimestamp(7, new Timestamp(stageFile.getFileDate().getTime()));
+                        ps.setLong(8, stageFile.getFileSize());
+                        ps.setString(9, stageFile.getFileType().name());
+                        ps.setString(10, stageFile.getFullPath());
+                        ps.setString(11, stageFile.getContent());
+                        ps.addBatch();
+                        
+                        if (++count % batchSize == 0) {
+                            ps.executeBatch();
+                        }
+                    }
+                    if (count % batchSize != 0) {
+                        ps.executeBatch();
+                    }
+                }
+            }
+        });
+    }
+
     public Long getNextStageFileId(FileType fileType) {
         return (Long) currentSession().createCriteria(StageFile.class)
                 .add(Restrictions.eq(LITERAL_FILE_TYPE, fileType))    
@@ -88,6 +147,68 @@ public class StagingDao extends HibernateDao {
                 .uniqueResult();
     }
 
+    @SuppressWarnings("unchecked")
+    public List<Long> getNextStageDirectoryIds(FileType fileType, int maxResults) {
+        List<Object[]> objects = currentSession().createCriteria(StageFile.class)
+                .add(Restrictions.eq(LITERAL_FILE_TYPE, fileType))    
+                .add(Restrictions.or(
+                        Restrictions.eq(LITERAL_STATUS, StatusType.NEW),
+                        Restrictions.eq(LITERAL_STATUS, StatusType.UPDATED)))
+                .setProjection(Projections.projectionList()
+                        .add(Projections.groupProperty("stageDirectory.id"))
+                        .add(Projections.min(LITERAL_ID), "minId"))
+                .addOrder(Order.asc("minId"))
+                .setMaxResults(maxResults)
+                .list();
+
+        List<Long> result = new ArrayList<>(objects.size());
+        for (Object[] object : objects) {
+            result.add((Long) object[0]);
+        }
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<Long> getNextStageFileIds(FileType fileType, Long stageDirectoryId, int maxResults) {
+        return currentSession().createCriteria(StageFile.class)
+                .add(Restrictions.eq("stageDirectory.id", stageDirectoryId))
+                .add(Restrictions.eq(LITERAL_FILE_TYPE, fileType))    
+                .add(Restrictions.or(
+                        Restrictions.eq(LITERAL_STATUS, StatusType.NEW),
+                        Restrictions.eq(LITERAL_STATUS, StatusType.UPDATED)))
+                .setProjection(Projections.id())
+                .addOrder(Order.asc(LITERAL_ID))
+                .setMaxResults(maxResults)
+                .list();
+    }
+
+    /**
+     * Claim the given stage files for processing.
+     * 
+     * A stage file is only claimed if it's still NEW or UPDATED, so that
+     * concurrent workers never process the same stage file twice.
+     * 
+     * @param ids the stage file ids to claim
+     * @return the ids which have been claimed successfully
+     */
+    public List<Long> claimStageFiles(Collection<Long> ids) {
+        List<Long> claimed = new ArrayList<>(ids.size());
+        Map<String, Object> params = new HashMap<>(1);
+        for (Long id : ids) {
+            params.put(LITERAL_ID, id);
+            if (executeUpdate(StageFile.UPDATE_STATUS_CLAIM, params) > 0) {
+                claimed.add(id);
+            }
+        }
+        return claimed;
+    }
+
+    public boolean releaseStageFile(Long id) {
+        Map<String, Object> params = new HashMap<>(1);
+        params.put(LITERAL_ID, id);
+        return executeUpdate(StageFile.UPDATE_STATUS_RELEASE, params) > 0;
+    }
+
     @SuppressWarnings("unchecked")
 	public List<Long> getRootDirectories() {
         return currentSession().getNamedQuery(StageDirectory.QUERY_ROOT_DIRECTORIES).list();
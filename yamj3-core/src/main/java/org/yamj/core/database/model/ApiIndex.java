@@ -0,0 +1,112 @@
+/*
+ *      Copyright (c) 2004-2015 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ).
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3
+ *
+ */
+package org.yamj.core.database.model;
+
+import java.io.Serializable;
+import java.util.Date;
+import javax.persistence.*;
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+
+/**
+ * Precomputed values of a movie, series, season or episode for the video index of the API.
+ *
+ * The rows hold the aggregates which would otherwise be calculated by correlated sub
+ * queries for each request; they are maintained by the ApiIndexScheduler.
+ */
+@Entity
+@Table(name = "api_index",
+    indexes = {@Index(name = "IX_APIINDEX_NEWEST", columnList = "newest_file_date")}
+)
+public class ApiIndex implements Serializable {
+
+    private static final long serialVersionUID = -6408711373954727153L;
+
+    @EmbeddedId
+    private ApiIndexPK apiIndexPK;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "newest_file_date")
+    private Date newestFileDate;
+
+    // watched if all videos are watched
+    @Column(name = "watched")
+    private Boolean watched;
+
+    // watched if at least one video is watched
+    @Column(name = "any_watched")
+    private Boolean anyWatched;
+
+    // GETTER and SETTER
+
+    public ApiIndexPK getApiIndexPK() {
+        return apiIndexPK;
+    }
+
+    public void setApiIndexPK(ApiIndexPK apiIndexPK) {
+        this.apiIndexPK = apiIndexPK;
+    }
+
+    public Date getNewestFileDate() {
+        return newestFileDate;
+    }
+
+    public void setNewestFileDate(Date newestFileDate) {
+        this.newestFileDate = newestFileDate;
+    }
+
+    public Boolean getWatched() {
+        return watched;
+    }
+
+    public void setWatched(Boolean watched) {
+        this.watched = watched;
+    }
+
+    public Boolean getAnyWatched() {
+        return anyWatched;
+    }
+
+    public void setAnyWatched(Boolean anyWatched) {
+        this.anyWatched = anyWatched;
+    }
+
+    // EQUALITY CHECKS
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder()
+                .append(getApiIndexPK())
+                .toHashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj instanceof ApiIndex) {
+            return new EqualsBuilder()
+                    .append(getApiIndexPK(), ((ApiIndex)obj).getApiIndexPK())
+                    .isEquals();
+        }
+        return false;
+    }
+}
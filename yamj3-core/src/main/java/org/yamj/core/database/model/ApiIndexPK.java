@@ -0,0 +1,104 @@
+/*
+ *      Copyright (c) 2004-2015 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ).
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3
+ *
+ */
+package org.yamj.core.database.model;
+
+import java.io.Serializable;
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.hibernate.annotations.Type;
+import org.yamj.common.type.MetaDataType;
+
+@Embeddable
+public class ApiIndexPK implements Serializable {
+
+    private static final long serialVersionUID = 4725510836251209614L;
+
+    @Type(type = "metaDataType")
+    @Column(name = "metadata_type", nullable = false, length = 20)
+    private MetaDataType metaDataType;
+
+    @Column(name = "object_id", nullable = false)
+    private long objectId;
+
+    public ApiIndexPK() {
+        // empty constructor
+    }
+
+    public ApiIndexPK(MetaDataType metaDataType, long objectId) {
+        this.metaDataType = metaDataType;
+        this.objectId = objectId;
+    }
+
+    // GETTER AND SETTER
+
+    public MetaDataType getMetaDataType() {
+        return metaDataType;
+    }
+
+    public void setMetaDataType(MetaDataType metaDataType) {
+        this.metaDataType = metaDataType;
+    }
+
+    public long getObjectId() {
+        return objectId;
+    }
+
+    public void setObjectId(long objectId) {
+        this.objectId = objectId;
+    }
+
+    // EQUALITY CHECKS
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder()
+                .append(getMetaDataType())
+                .append(getObjectId())
+                .toHashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (obj instanceof ApiIndexPK) {
+            ApiIndexPK other = (ApiIndexPK) obj;
+            return new EqualsBuilder()
+                    .append(getMetaDataType(), other.getMetaDataType())
+                    .append(getObjectId(), other.getObjectId())
+                    .isEquals();
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("ApiIndexPK [metaDataType=");
+        sb.append(getMetaDataType());
+        sb.append(", objectId=");
+        sb.append(getObjectId());
+        sb.append("]");
+        return sb.toString();
+    }
+}
@@ -44,12 +44,12 @@ import org.yamj.core.database.model.type.FileType;
     ),
     @NamedQuery(name = StageFile.QUERY_VALID_NFOS_VIDEO,
         query = "SELECT distinct sf FROM StageFile sf JOIN FETCH sf.nfoRelations nfrel JOIN nfrel.nfoRelationPK.videoData vd "+
-                "WHERE vd.id=:videodataId AND sf.status in ('NEW','UPDATED','DONE') ORDER BY nfrel.priority DESC"
+                "WHERE vd.id=:videodataId AND sf.status in ('NEW','UPDATED','PROCESSING','DONE') ORDER BY nfrel.priority DESC"
     ),
     @NamedQuery(name = StageFile.QUERY_VALID_NFOS_SERIES,
         query = "SELECT distinct sf FROM StageFile sf JOIN FETCH sf.nfoRelations nfrel "+
                 "JOIN nfrel.nfoRelationPK.videoData vd JOIN vd.season sea JOIN sea.series ser "+
-                "WHERE ser.id=:seriesId AND sf.status in ('NEW','UPDATED','DONE') ORDER BY nfrel.priority DESC"
+                "WHERE ser.id=:seriesId AND sf.status in ('NEW','UPDATED','PROCESSING','DONE') ORDER BY nfrel.priority DESC"
     ),
     @NamedQuery(name = StageFile.QUERY_VIDEOFILES_FOR_SERIES,
         query = "SELECT distinct sf FROM Series ser JOIN ser.seasons sea JOIN sea.videoDatas vd JOIN vd.mediaFiles mf JOIN mf.stageFiles sf "+
@@ -75,6 +75,15 @@ import org.yamj.core.database.model.type.FileType;
     ),
     @NamedQuery(name = StageFile.UPDATE_STATUS_BULK,
         query = "UPDATE StageFile SET status=:status WHERE id in :idList"
+    ),
+    @NamedQuery(name = StageFile.UPDATE_STATUS_CLAIM,
+        query = "UPDATE StageFile SET status='PROCESSING' WHERE id=:id AND status in ('NEW','UPDATED')"
+    ),
+    @NamedQuery(name = StageFile.UPDATE_STATUS_RELEASE,
+        query = "UPDATE StageFile SET status='UPDATED' WHERE id=:id AND status='PROCESSING'"
+    ),
+    @NamedQuery(name = StageFile.UPDATE_STATUS_RELEASE_ALL,
+        query = "UPDATE StageFile SET status='UPDATED' WHERE status='PROCESSING'"
     )
 })
     
@@ -99,6 +108,9 @@ public class StageFile extends AbstractStateful {
     public static final String QUERY_FOR_DELETION = "stageFile.forDeletion";
     public static final String UPDATE_STATUS = "stageFile.updateStatus";
     public static final String UPDATE_STATUS_BULK = "stageFile.updateStatus.bulk";
+    public static final String UPDATE_STATUS_CLAIM = "stageFile.updateStatus.claim";
+    public static final String UPDATE_STATUS_RELEASE = "stageFile.updateStatus.release";
+    public static final String UPDATE_STATUS_RELEASE_ALL = "stageFile.updateStatus.releaseAll";
     
     @NaturalId(mutable = true)
     @ManyToOne(fetch = FetchType.EAGER)
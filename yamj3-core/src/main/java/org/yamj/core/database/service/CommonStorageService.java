@@ -22,6 +22,8 @@
  */
 package org.yamj.core.database.service;
 
+import static org.yamj.common.type.MetaDataType.EPISODE;
+import static org.yamj.common.type.MetaDataType.MOVIE;
 import static org.yamj.common.type.StatusType.*;
 import static org.yamj.core.CachingNames.*;
 import static org.yamj.core.database.model.type.FileType.VIDEO;
@@ -37,12 +39,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.yamj.core.database.dao.StagingDao;
 import org.yamj.core.database.model.*;
 import org.yamj.core.database.model.dto.DeletionDTO;
 import org.yamj.core.service.artwork.ArtworkStorageTools;
+import org.yamj.core.service.cache.ChangeAspect;
+import org.yamj.core.service.cache.ChangeEvent;
 import org.yamj.core.service.file.FileStorageService;
 import org.yamj.core.service.file.StorageType;
 import org.yamj.core.service.various.StagingService;
@@ -60,6 +65,8 @@ public class CommonStorageService {
     private FileStorageService fileStorageService;
     @Autowired
     private StagingService stagingService;
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
 
     @SuppressWarnings("unchecked")
 	@Transactional(readOnly = true)
@@ -459,6 +466,7 @@ public class CommonStorageService {
                 final WatchedDTO watchedDTO = getWatchedDTO(videoData);
                 videoData.setWatched(watchedDTO.isWatched(), watchedDTO.getWatchedDate());
                 this.stagingDao.updateEntity(videoData);
+                applicationEventPublisher.publishEvent(ChangeEvent.of(videoData.isMovie() ? MOVIE : EPISODE, videoData.getId(), ChangeAspect.WATCHED));
             }
         }
         
@@ -478,6 +486,8 @@ public class CommonStorageService {
             params.put("targetXml", entry.getValue());
             this.stagingDao.executeUpdate(Genre.UPDATE_TARGET_XML_SET, params);
         }
+        
+        applicationEventPublisher.publishEvent(ChangeEvent.all(ChangeAspect.GENRE));
     }
 
     @Transactional
@@ -22,13 +22,14 @@
  */
 package org.yamj.core.database.service;
 
-import static org.yamj.core.CachingNames.API_EXTERNAL_IDS;
-import static org.yamj.core.CachingNames.API_GENRES;
 import static org.yamj.core.database.Literals.LITERAL_NAME;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -41,7 +42,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.yamj.common.type.MetaDataType;
@@ -57,6 +58,7 @@ import org.yamj.core.api.model.dto.ApiBoxedSetDTO;
 import org.yamj.core.api.model.dto.ApiCertificationDTO;
 import org.yamj.core.api.model.dto.ApiCountryDTO;
 import org.yamj.core.api.model.dto.ApiEpisodeDTO;
+import org.yamj.core.api.model.dto.ApiExternalIdDTO;
 import org.yamj.core.api.model.dto.ApiFileDTO;
 import org.yamj.core.api.model.dto.ApiFilmographyDTO;
 import org.yamj.core.api.model.dto.ApiGenreDTO;
@@ -65,6 +67,7 @@ import org.yamj.core.api.model.dto.ApiPersonDTO;
 import org.yamj.core.api.model.dto.ApiRatingDTO;
 import org.yamj.core.api.model.dto.ApiSeriesInfoDTO;
 import org.yamj.core.api.model.dto.ApiSubtitleDTO;
+import org.yamj.core.api.model.dto.ApiTrailerDTO;
 import org.yamj.core.api.model.dto.ApiVideoDTO;
 import org.yamj.core.api.model.dto.ApiYearDecadeDTO;
 import org.yamj.core.api.options.OptionsEpisode;
@@ -98,6 +101,9 @@ import org.yamj.core.database.model.Trailer;
 import org.yamj.core.database.model.VideoData;
 import org.yamj.core.database.model.player.PlayerInfo;
 import org.yamj.core.database.model.player.PlayerPath;
+import org.yamj.core.hibernate.ChunkProcessor;
+import org.yamj.core.service.cache.ChangeAspect;
+import org.yamj.core.service.cache.ChangeEvent;
 import org.yamj.core.service.metadata.online.OnlineScannerService;
 import org.yamj.core.tools.OverrideTools;
 import org.yamj.plugin.api.model.type.JobType;
@@ -125,75 +131,149 @@ public class JsonApiStorageService {
     private MetadataStorageService metadataStorageService;
     @Autowired
     private OnlineScannerService onlineScannerService;
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
 
     
     //<editor-fold defaultstate="collapsed" desc="Index Methods">
     public List<ApiVideoDTO> getVideoList(ApiWrapperList<ApiVideoDTO> wrapper, OptionsIndexVideo options) {
         List<ApiVideoDTO> results = apiDao.getVideoList(wrapper, options);
-        
+        addVideoDataItems(results, options);
+        return results;
+    }
+
+    /**
+     * Stream the video list; the data items are loaded for each chunk of videos.
+     */
+    public int streamVideoList(ApiWrapperList<ApiVideoDTO> wrapper, final OptionsIndexVideo options, final ChunkProcessor<ApiVideoDTO> processor) throws IOException {
+        return apiDao.streamVideoList(wrapper, options, new ChunkProcessor<ApiVideoDTO>() {
+            @Override
+            public void process(List<ApiVideoDTO> chunk) throws IOException {
+                addVideoDataItems(chunk, options);
+                processor.process(chunk);
+            }
+        });
+    }
+
+    private void addVideoDataItems(List<ApiVideoDTO> results, OptionsIndexVideo options) {
+        if (results.isEmpty()) {
+            return;
+        }
+
+        // each data item is loaded with one query for all videos of a type
+        Map<MetaDataType, List<ApiVideoDTO>> videosByType = new EnumMap<>(MetaDataType.class);
         for (ApiVideoDTO video : results) {
-            for (DataItem dataItem : options.splitDataItems()) {
+            List<ApiVideoDTO> videos = videosByType.get(video.getVideoType());
+            if (videos == null) {
+                videos = new ArrayList<>();
+                videosByType.put(video.getVideoType(), videos);
+            }
+            videos.add(video);
+        }
+
+        for (DataItem dataItem : options.splitDataItems()) {
+            for (Map.Entry<MetaDataType, List<ApiVideoDTO>> entry : videosByType.entrySet()) {
+                final MetaDataType type = entry.getKey();
+                final List<ApiVideoDTO> videos = entry.getValue();
+                final List<Long> ids = new ArrayList<>(videos.size());
+                for (ApiVideoDTO video : videos) {
+                    ids.add(video.getId());
+                }
+
                 switch (dataItem) {
                     case GENRE:
-                        if (MetaDataType.EPISODE != video.getVideoType()) {
-                            video.setGenres(apiDao.getGenresForMetadata(video.getVideoType(), video.getId()));
+                        if (MetaDataType.EPISODE != type) {
+                            Map<Long, List<ApiGenreDTO>> genres = apiDao.getGenresForMetadata(type, ids);
+                            for (ApiVideoDTO video : videos) {
+                                video.setGenres(valuesForId(genres, video.getId()));
+                            }
                         }
                         break;
                     case STUDIO:
-                        if (MetaDataType.EPISODE != video.getVideoType()) {
-                            video.setStudios(apiDao.getStudiosForMetadata(video.getVideoType(), video.getId()));
+                        if (MetaDataType.EPISODE != type) {
+                            Map<Long, List<Studio>> studios = apiDao.getStudiosForMetadata(type, ids);
+                            for (ApiVideoDTO video : videos) {
+                                video.setStudios(valuesForId(studios, video.getId()));
+                            }
                         }
                         break;
-					// case LIBRARY
-					case LIBRARY:
-					//	LOG.debug("JsonApiStorageService Index Method");
-                        if (MetaDataType.EPISODE != video.getVideoType()) {
-						//	LOG.debug("JsonApiStorageService video.setLibraries  MetaDataType.EPISODE != video.getVideoType");
-                            video.setLibraries(apiDao.getLibrariesForMetadata(video.getVideoType(), video.getId()));
+                    case LIBRARY:
+                        if (MetaDataType.EPISODE != type) {
+                            // the libraries are the same for all videos
+                            List<Library> libraries = apiDao.getLibrariesForMetadata(type, ids.get(0));
+                            for (ApiVideoDTO video : videos) {
+                                video.setLibraries(libraries);
+                            }
                         }
                         break;
-					// end library
                     case COUNTRY:
-                        if (MetaDataType.EPISODE != video.getVideoType()) {
-                            video.setCountries(apiDao.getCountriesForMetadata(video.getVideoType(), video.getId()));
-                            localizeCountries(video.getCountries(), options.getLanguage());
+                        if (MetaDataType.EPISODE != type) {
+                            Map<Long, List<ApiCountryDTO>> countries = apiDao.getCountriesForMetadata(type, ids);
+                            for (ApiVideoDTO video : videos) {
+                                video.setCountries(valuesForId(countries, video.getId()));
+                                localizeCountries(video.getCountries(), options.getLanguage());
+                            }
                         }
                         break;
                     case CERTIFICATION:
-                        if (MetaDataType.EPISODE != video.getVideoType()) {
-                            video.setCertifications(apiDao.getCertificationsForMetadata(video.getVideoType(), video.getId()));
-                            localizeCertifications(video.getCertifications(), options.getLanguage());
+                        if (MetaDataType.EPISODE != type) {
+                            Map<Long, List<ApiCertificationDTO>> certifications = apiDao.getCertificationsForMetadata(type, ids);
+                            for (ApiVideoDTO video : videos) {
+                                video.setCertifications(valuesForId(certifications, video.getId()));
+                                localizeCertifications(video.getCertifications(), options.getLanguage());
+                            }
                         }
                         break;
                     case AWARD:
-                        if (MetaDataType.EPISODE != video.getVideoType()) {
-                            video.setAwards(apiDao.getAwardsForMetadata(video.getVideoType(), video.getId()));
+                        if (MetaDataType.EPISODE != type) {
+                            Map<Long, List<ApiAwardDTO>> awards = apiDao.getAwardsForMetadata(type, ids);
+                            for (ApiVideoDTO video : videos) {
+                                video.setAwards(valuesForId(awards, video.getId()));
+                            }
                         }
                         break;
                     case RATING:
-                        video.setRatings(apiDao.getRatingsForMetadata(video.getVideoType(), video.getId()));
+                        Map<Long, List<ApiRatingDTO>> ratings = apiDao.getRatingsForMetadata(type, ids);
+                        for (ApiVideoDTO video : videos) {
+                            video.setRatings(valuesForId(ratings, video.getId()));
+                        }
                         break;
                     case EXTERNALID:
-                        video.setExternalIds(apiDao.getExternalIdsForMetadata(video.getVideoType(), video.getId()));
+                        Map<Long, List<ApiExternalIdDTO>> externalIds = apiDao.getExternalIdsForMetadata(type, ids);
+                        for (ApiVideoDTO video : videos) {
+                            video.setExternalIds(valuesForId(externalIds, video.getId()));
+                        }
                         break;
                     case BOXSET:
-                        video.setBoxedSets(apiDao.getBoxedSetsForMetadata(video.getVideoType(), video.getId()));
+                        Map<Long, List<ApiBoxedSetDTO>> boxedSets = apiDao.getBoxedSetsForMetadata(type, ids);
+                        for (ApiVideoDTO video : videos) {
+                            video.setBoxedSets(valuesForId(boxedSets, video.getId()));
+                        }
                         break;
                     case TRAILER:
-                        if (MetaDataType.SERIES == video.getVideoType() || MetaDataType.MOVIE.equals(video.getVideoType())) {
-                            video.setTrailers(apiDao.getTrailersForMetadata(video.getVideoType(), video.getId()));
+                        if (MetaDataType.SERIES == type || MetaDataType.MOVIE == type) {
+                            Map<Long, List<ApiTrailerDTO>> trailers = apiDao.getTrailersForMetadata(type, ids);
+                            for (ApiVideoDTO video : videos) {
+                                video.setTrailers(valuesForId(trailers, video.getId()));
+                            }
                         }
                         break;
                     case VIDEOSOURCE:
-                        video.setVideoSource(apiDao.getVideoSourceForMetadata(video.getVideoType(), video.getId()));
+                        Map<Long, String> videoSources = apiDao.getVideoSourcesForMetadata(type, ids);
+                        for (ApiVideoDTO video : videos) {
+                            video.setVideoSource(videoSources.get(video.getId()));
+                        }
                         break;
                     default:
                         break;
                 }
             }
         }
-        
-        return results;
+    }
+
+    private static <T> List<T> valuesForId(Map<Long, List<T>> values, Long id) {
+        List<T> result = values.get(id);
+        return result == null ? new ArrayList<T>(0) : result;
     }
 
     public CountTimestamp getCountTimestamp(MetaDataType type) {
@@ -560,11 +640,11 @@ public class JsonApiStorageService {
         genre = new Genre(name);
         genre.setTargetApi(targetApi);
         this.commonDao.saveEntity(genre);
+        applicationEventPublisher.publishEvent(ChangeEvent.all(ChangeAspect.GENRE));
         return true;
     }
 
     @Transactional
-    @CacheEvict(value=API_GENRES, allEntries=true)
     public boolean updateGenre(long id, String targetApi) {
         Genre genre = commonDao.getGenre(id);
         if (genre == null) {
@@ -572,11 +652,11 @@ public class JsonApiStorageService {
         }
         genre.setTargetApi(StringUtils.trimToNull(targetApi));
         this.commonDao.updateEntity(genre);
+        applicationEventPublisher.publishEvent(ChangeEvent.all(ChangeAspect.GENRE));
         return true;
     }
 
     @Transactional
-    @CacheEvict(value=API_GENRES, allEntries=true)
     public boolean updateGenre(String name, String targetApi) {
         Genre genre = commonDao.getGenre(name);
         if (genre == null) {
@@ -584,49 +664,80 @@ public class JsonApiStorageService {
         }
         genre.setTargetApi(StringUtils.trimToNull(targetApi));
         this.commonDao.updateEntity(genre);
+        applicationEventPublisher.publishEvent(ChangeEvent.all(ChangeAspect.GENRE));
         return true;
     }
     //</editor-fold>
 
     public  List<ApiEpisodeDTO> getEpisodeList(ApiWrapperList<ApiEpisodeDTO> wrapper, OptionsEpisode options) {
         List<ApiEpisodeDTO> results = apiDao.getEpisodeList(wrapper, options);
-        
+        if (results.isEmpty()) {
+            return results;
+        }
+
+        // each data item is loaded with one query for all episodes
+        final Set<Long> seriesIds = new HashSet<>();
+        final List<Long> episodeIds = new ArrayList<>(results.size());
         for (ApiEpisodeDTO episode : results) {
-            for (DataItem dataItem : options.splitDataItems()) {
-                switch(dataItem) {
-                    case GENRE:
-                        episode.setGenres(apiDao.getGenresForMetadata(MetaDataType.SERIES, episode.getSeriesId()));
-                        break;
-                    case STUDIO:
-                        episode.setStudios(apiDao.getStudiosForMetadata(MetaDataType.SERIES, episode.getSeriesId()));
-                        break;
-					// add case LIBRARY
-					case LIBRARY:
-					//	LOG.debug("JsonApiStorageService episode.setLibraries case ");
-                        episode.setLibraries(apiDao.getLibrariesForMetadata(MetaDataType.SERIES, episode.getSeriesId()));
-                        break;
-					// end library
-                    case COUNTRY:
-                        episode.setCountries(apiDao.getCountriesForMetadata(MetaDataType.SERIES, episode.getSeriesId()));
+            seriesIds.add(episode.getSeriesId());
+            episodeIds.add(episode.getId());
+        }
+
+        for (DataItem dataItem : options.splitDataItems()) {
+            switch(dataItem) {
+                case GENRE:
+                    Map<Long, List<ApiGenreDTO>> genres = apiDao.getGenresForMetadata(MetaDataType.SERIES, seriesIds);
+                    for (ApiEpisodeDTO episode : results) {
+                        episode.setGenres(valuesForId(genres, episode.getSeriesId()));
+                    }
+                    break;
+                case STUDIO:
+                    Map<Long, List<Studio>> studios = apiDao.getStudiosForMetadata(MetaDataType.SERIES, seriesIds);
+                    for (ApiEpisodeDTO episode : results) {
+                        episode.setStudios(valuesForId(studios, episode.getSeriesId()));
+                    }
+                    break;
+                case LIBRARY:
+                    // the libraries are the same for all episodes
+                    List<Library> libraries = apiDao.getLibrariesForMetadata(MetaDataType.SERIES, results.get(0).getSeriesId());
+                    for (ApiEpisodeDTO episode : results) {
+                        episode.setLibraries(libraries);
+                    }
+                    break;
+                case COUNTRY:
+                    Map<Long, List<ApiCountryDTO>> countries = apiDao.getCountriesForMetadata(MetaDataType.SERIES, seriesIds);
+                    for (ApiEpisodeDTO episode : results) {
+                        episode.setCountries(valuesForId(countries, episode.getSeriesId()));
                         localizeCountries(episode.getCountries(), options.getLanguage());
-                        break;
-                    case CERTIFICATION:
-                        episode.setCertifications(apiDao.getCertificationsForMetadata(MetaDataType.SERIES, episode.getSeriesId()));
+                    }
+                    break;
+                case CERTIFICATION:
+                    Map<Long, List<ApiCertificationDTO>> certifications = apiDao.getCertificationsForMetadata(MetaDataType.SERIES, seriesIds);
+                    for (ApiEpisodeDTO episode : results) {
+                        episode.setCertifications(valuesForId(certifications, episode.getSeriesId()));
                         localizeCertifications(episode.getCertifications(), options.getLanguage());
-                        break;
-                    case RATING:
-                        episode.setRatings(apiDao.getRatingsForMetadata(MetaDataType.EPISODE, episode.getId()));
-                        break;
-                    case AWARD:
-                        episode.setAwards(apiDao.getAwardsForMetadata(MetaDataType.SERIES, episode.getSeriesId()));
-                        break;
-                    case FILES:
+                    }
+                    break;
+                case RATING:
+                    Map<Long, List<ApiRatingDTO>> ratings = apiDao.getRatingsForMetadata(MetaDataType.EPISODE, episodeIds);
+                    for (ApiEpisodeDTO episode : results) {
+                        episode.setRatings(valuesForId(ratings, episode.getId()));
+                    }
+                    break;
+                case AWARD:
+                    Map<Long, List<ApiAwardDTO>> awards = apiDao.getAwardsForMetadata(MetaDataType.SERIES, seriesIds);
+                    for (ApiEpisodeDTO episode : results) {
+                        episode.setAwards(valuesForId(awards, episode.getSeriesId()));
+                    }
+                    break;
+                case FILES:
+                    for (ApiEpisodeDTO episode : results) {
                         episode.setFiles(apiDao.getFilesForMetadata(MetaDataType.EPISODE, episode.getId()));
                         localizeFiles(episode.getFiles(), options.getLanguage());
-                        break;
-                    default:
-                        break;
-                }
+                    }
+                    break;
+                default:
+                    break;
             }
         }
         
@@ -784,6 +895,7 @@ public class JsonApiStorageService {
         videoData.setTopRank(update.getTopRank());
 
         metadataDao.updateEntity(videoData);
+        applicationEventPublisher.publishEvent(ChangeEvent.of(videoData.isMovie() ? MetaDataType.MOVIE : MetaDataType.EPISODE, id, ChangeAspect.METADATA));
         return ApiStatus.ok("Updated video with ID "+id);
     }
 
@@ -816,6 +928,7 @@ public class JsonApiStorageService {
         }
         
         metadataDao.updateEntity(series);
+        applicationEventPublisher.publishEvent(ChangeEvent.of(MetaDataType.SERIES, id, ChangeAspect.METADATA));
         return ApiStatus.ok("Updated series with ID "+id);
     }
     
@@ -847,6 +960,7 @@ public class JsonApiStorageService {
         }
         
         metadataDao.updateEntity(season);
+        applicationEventPublisher.publishEvent(ChangeEvent.of(MetaDataType.SEASON, id, ChangeAspect.METADATA));
         return ApiStatus.ok("Updated season with ID "+id);
     }
 
@@ -976,6 +1090,7 @@ public class JsonApiStorageService {
             // this will also set watched status to watched flag due the actual date
             videoData.setWatchedApi(watched, watchedApiDate);
         }
+        applicationEventPublisher.publishEvent(ChangeEvent.of(type, id, ChangeAspect.WATCHED));
     }
     //</editor-fold>
 
@@ -1302,7 +1417,6 @@ public class JsonApiStorageService {
     }
 
     @Transactional
-    @CacheEvict(value=API_EXTERNAL_IDS, key="{#type, #id}")
     public ApiStatus updateExternalId(MetaDataType type, Long id, String sourceDb, String sourceDbId) {
         // first check if source is known
         if (!onlineScannerService.isKnownScanner(type, sourceDb)) {
@@ -1355,6 +1469,7 @@ public class JsonApiStorageService {
                 this.metadataStorageService.handleModifiedSources(videoData);
             }
         }
+        applicationEventPublisher.publishEvent(ChangeEvent.of(type, id, ChangeAspect.EXTERNAL_ID));
         
         StringBuilder sb = new StringBuilder();
         sb.append(StringUtils.isBlank(sourceDbId)?"Removed":"Updated");
@@ -1403,6 +1518,7 @@ public class JsonApiStorageService {
             trailer.setStatus(status);
         }
         commonDao.updateEntity(trailer);
+        applicationEventPublisher.publishEvent(ChangeEvent.all(ChangeAspect.TRAILER));
         
         StringBuilder sb = new StringBuilder();
         sb.append("Set status ");
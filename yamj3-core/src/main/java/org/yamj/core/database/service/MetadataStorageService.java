@@ -22,7 +22,6 @@
  */
 package org.yamj.core.database.service;
 
-import static org.yamj.core.CachingNames.*;
 import static org.yamj.core.ServiceConstants.STORAGE_ERROR;
 import static org.yamj.core.tools.YamjTools.getEqualObject;
 
@@ -37,6 +36,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.dao.support.DataAccessUtils;
 import org.springframework.stereotype.Service;
@@ -52,6 +52,8 @@ import org.yamj.core.database.model.award.MovieAward;
 import org.yamj.core.database.model.award.SeriesAward;
 import org.yamj.core.database.model.dto.*;
 import org.yamj.core.database.model.type.OverrideFlag;
+import org.yamj.core.service.cache.ChangeAspect;
+import org.yamj.core.service.cache.ChangeEvent;
 import org.yamj.core.tools.GenreXmlTools;
 import org.yamj.plugin.api.model.type.ArtworkType;
 
@@ -73,6 +75,8 @@ public class MetadataStorageService {
     private CommonDao commonDao;
     @Autowired
     private MetadataDao metadataDao;
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
 
     @Transactional(readOnly = true)
     public List<QueueDTO> getMetaDataQueueForScanning(final int maxResults) {
@@ -280,6 +284,8 @@ public class MetadataStorageService {
 
         // update artwork
         this.updateLocatedArtwork(person);
+
+        applicationEventPublisher.publishEvent(ChangeEvent.of(MetaDataType.PERSON, person.getId(), ChangeAspect.METADATA, ChangeAspect.ARTWORK));
     }
 
     @Transactional(timeout=300)
@@ -345,6 +351,8 @@ public class MetadataStorageService {
 
         // update artwork
         updateLocatedArtwork(videoData);
+
+        applicationEventPublisher.publishEvent(ChangeEvent.scanned(videoData.isMovie() ? MetaDataType.MOVIE : MetaDataType.EPISODE, videoData.getId()));
     }
 
     @Transactional(timeout=300)
@@ -374,6 +382,8 @@ public class MetadataStorageService {
         // update artwork
         updateLocatedArtwork(series);
 
+        applicationEventPublisher.publishEvent(ChangeEvent.scanned(MetaDataType.SERIES, series.getId()));
+
         // update underlying seasons and episodes
         for (Season season : series.getSeasons()) {
             // replace temporary done
@@ -384,9 +394,13 @@ public class MetadataStorageService {
                 season.setLastScanned(series.getLastScanned());
             }
             metadataDao.updateEntity(season);
+            applicationEventPublisher.publishEvent(ChangeEvent.scanned(MetaDataType.SEASON, season.getId()));
 
             for (VideoData videoData : season.getVideoDatas()) {
-                if (!StatusType.DONE.equals(videoData.getStatus())) {
+                if (StatusType.DONE.equals(videoData.getStatus())) {
+                    // aggregated values of the series may change as well
+                    applicationEventPublisher.publishEvent(ChangeEvent.scanned(MetaDataType.EPISODE, videoData.getId()));
+                } else {
                     videoData.setTvEpisodeFinished();
                     updateScannedMetaData(videoData);
                 }
@@ -664,6 +678,8 @@ public class MetadataStorageService {
                     
                     videoData.addBoxedSet(boxedSetOrder);
                     this.commonDao.saveEntity(boxedSetOrder);
+                    // the other members of the boxed set have changed as well
+                    applicationEventPublisher.publishEvent(ChangeEvent.all(ChangeAspect.BOXED_SET));
                 }
             } else {
                 boxedSetOrder.update(dto);
@@ -704,6 +720,8 @@ public class MetadataStorageService {
                     
                     series.addBoxedSet(boxedSetOrder);
                     this.commonDao.saveEntity(boxedSetOrder);
+                    // the other members of the boxed set have changed as well
+                    applicationEventPublisher.publishEvent(ChangeEvent.all(ChangeAspect.BOXED_SET));
                 }
             } else {
                 boxedSetOrder.update(dto);
@@ -1134,9 +1152,4 @@ public class MetadataStorageService {
         person.setFilmographyStatus(StatusType.NEW);
         this.commonDao.updateEntity(person);
     }
-    
-    @CacheEvict(value={API_GENRES,API_STUDIOS,API_COUNTRIES,API_CERTIFICATIONS,API_EXTERNAL_IDS,API_RATINGS,API_AWARDS,API_BOXEDSETS,API_TRAILERS,API_VIDEOSOURCE}, key="{#type, #id}")
-    public void evictApiCaches(MetaDataType type, Long id) {
-        // just for evicting caches
-    }    
 }
@@ -22,6 +22,7 @@
  */
 package org.yamj.core.hibernate;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.math.BigDecimal;
 import java.math.BigInteger;
@@ -33,6 +34,7 @@ import org.hibernate.*;
 import org.hibernate.criterion.MatchMode;
 import org.hibernate.criterion.Order;
 import org.hibernate.criterion.Restrictions;
+import org.hibernate.transform.ResultTransformer;
 import org.hibernate.transform.Transformers;
 import org.hibernate.type.BasicType;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -459,7 +461,10 @@ public abstract class HibernateDao {
      *
      * Gets the options from the wrapper for start and max
      *
-     * Puts the total count returned from the query into the wrapper
+     * Puts the total count returned from the query into the wrapper.
+     * If paging is requested the total count is determined by a separate
+     * count statement and only the requested page is fetched; the count
+     * statement is omitted if the options request to skip the total count.
      *
      * @param entityClass
      * @param sqlScalars
@@ -473,15 +478,7 @@ public abstract class HibernateDao {
         query.setReadOnly(true).setCacheable(true);
         
         // add parameters
-        for (Map.Entry<String, Object> entry : sqlScalars.getParameters().entrySet()) {
-            if (entry.getValue() instanceof Collection) {
-                query.setParameterList(entry.getKey(), (Collection) entry.getValue());
-            } else if (entry.getValue() instanceof Object[]) {
-                query.setParameterList(entry.getKey(), (Object[]) entry.getValue());
-            } else {
-                query.setParameter(entry.getKey(), entry.getValue());
-            }
-        }
+        applySqlParameters(query, sqlScalars.getParameters());
 
         // populate scalars
         for (Map.Entry<String, BasicType> entry : sqlScalars.getScalars().entrySet()) {
@@ -502,29 +499,119 @@ public abstract class HibernateDao {
             query.setResultTransformer(Transformers.aliasToBean(entityClass));
         }
 
-        // run query
-		List<T> queryResults = query.list();
+        IOptions options = (wrapper == null ? null : wrapper.getOptions());
+        if (options == null || (options.getStart() <= 0 && options.getMax() <= 0)) {
+            // no paging, so the total count is the size of the full list
+            List<T> queryResults = query.list();
+            if (wrapper != null) {
+                wrapper.setTotalCount(queryResults.size());
+            }
+            return queryResults;
+        }
 
-        // if the wrapper is populated, then run the query to get the maximum results
-        if (wrapper != null) {
-            wrapper.setTotalCount(queryResults.size());
+        // determine the total count without materializing the full list
+        if (!options.isSkipCount()) {
+            wrapper.setTotalCount(executeCountQuery(sqlScalars));
+        }
+        
+        // fetch only the requested page
+        if (options.getStart() > 0) {
+            query.setFirstResult(options.getStart());
+        }
+        if (options.getMax() > 0) {
+            query.setMaxResults(options.getMax());
+        }
+        return query.list();
+    }
 
-            // if there is a start or max set, we will need to re-run the query after setting the options
-            IOptions options = wrapper.getOptions();
-            if (options != null && (options.getStart() > 0 || options.getMax() > 0)) {
-                if (options.getStart() > 0) {
-                    query.setFirstResult(options.getStart());
-                }
+    /**
+     * Execute a query and pass the results in chunks to the processor
+     *
+     * The rows are read with a forward only cursor, so that the complete
+     * result must not be held in memory. MySQL only uses a cursor for the
+     * fetch size with "useCursorFetch" set on the connection; see MySQLDatabaseConfiguration.
+     * That keeps further queries of the processor on the same connection possible,
+     * which a streaming result with a fetch size of Integer.MIN_VALUE would forbid.
+     *
+     * @param entityClass
+     * @param sqlScalars
+     * @param options the options for start and max; may be null
+     * @param chunkSize the number of rows passed to the processor at once
+     * @param processor
+     * @return the number of processed rows
+     * @throws IOException if the processor failed
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    public <T> int scrollQueryWithTransform(Class<T> entityClass, SqlScalars sqlScalars, IOptions options, int chunkSize, ChunkProcessor<T> processor) throws IOException { //NOSONAR
+        SQLQuery query = currentSession().createSQLQuery(sqlScalars.getSql());
+        query.setReadOnly(true).setFetchSize(chunkSize);
+        applySqlParameters(query, sqlScalars.getParameters());
+
+        // populate scalars and remember their order for the transformation
+        List<String> aliases = new ArrayList<>(sqlScalars.getScalars().size());
+        for (Map.Entry<String, BasicType> entry : sqlScalars.getScalars().entrySet()) {
+            if (entry.getValue() == null) {
+                query.addScalar(entry.getKey());
+            } else {
+                query.addScalar(entry.getKey(), entry.getValue());
+            }
+            aliases.add(entry.getKey());
+        }
+        final String[] aliasArray = aliases.toArray(new String[aliases.size()]);
+        final ResultTransformer transformer = Transformers.aliasToBean(entityClass);
+
+        if (options != null && options.getStart() > 0) {
+            query.setFirstResult(options.getStart());
+        }
+        if (options != null && options.getMax() > 0) {
+            query.setMaxResults(options.getMax());
+        }
 
-                if (options.getMax() > 0) {
-                    query.setMaxResults(options.getMax());
+        int processed = 0;
+        ScrollableResults results = query.scroll(ScrollMode.FORWARD_ONLY);
+        try {
+            List<T> chunk = new ArrayList<>(chunkSize);
+            while (results.next()) {
+                chunk.add((T) transformer.transformTuple(results.get(), aliasArray));
+                if (chunk.size() >= chunkSize) {
+                    processor.process(chunk);
+                    processed += chunk.size();
+                    chunk = new ArrayList<>(chunkSize);
                 }
-                
-                // this will get the trimmed list
-                queryResults = query.list();
             }
+            if (!chunk.isEmpty()) {
+                processor.process(chunk);
+                processed += chunk.size();
+            }
+        } finally {
+            results.close();
         }
+        return processed;
+    }
 
-        return queryResults;
+    /**
+     * Count the rows of a query by wrapping it into a generated count statement.
+     *
+     * @param sqlScalars
+     * @return the number of rows the query would return
+     */
+    public int executeCountQuery(SqlScalars sqlScalars) {
+        SQLQuery query = currentSession().createSQLQuery("SELECT COUNT(*) FROM (" + sqlScalars.getSql() + ") cnt");
+        query.setReadOnly(true).setCacheable(true);
+        applySqlParameters(query, sqlScalars.getParameters());
+        return convertRowElementToInteger(query.uniqueResult());
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static void applySqlParameters(SQLQuery query, Map<String, Object> parameters) {
+        for (Map.Entry<String, Object> entry : parameters.entrySet()) {
+            if (entry.getValue() instanceof Collection) {
+                query.setParameterList(entry.getKey(), (Collection) entry.getValue());
+            } else if (entry.getValue() instanceof Object[]) {
+                query.setParameterList(entry.getKey(), (Object[]) entry.getValue());
+            } else {
+                query.setParameter(entry.getKey(), entry.getValue());
+            }
+        }
     }
 }
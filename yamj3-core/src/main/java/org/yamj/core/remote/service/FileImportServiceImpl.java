@@ -22,13 +22,20 @@
  */
 package org.yamj.core.remote.service;
 
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.commons.collections.CollectionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.yamj.common.dto.ImportBatchDTO;
 import org.yamj.common.dto.ImportDTO;
+import org.yamj.common.dto.StageDirectoryDTO;
 import org.yamj.common.remote.service.FileImportService;
+import org.yamj.common.type.StatusType;
 import org.yamj.core.database.model.Library;
+import org.yamj.core.scheduling.DeletionScheduler;
 import org.yamj.core.scheduling.ImportScheduler;
 import org.yamj.core.service.various.StagingService;
 
@@ -40,6 +47,8 @@ public class FileImportServiceImpl implements FileImportService {
     private StagingService stagingService;
     @Autowired
     private ImportScheduler importScheduler;
+    @Autowired
+    private DeletionScheduler deletionScheduler;
     
     @Override
     public void importScanned(ImportDTO importDTO) {
@@ -50,9 +59,52 @@ public class FileImportServiceImpl implements FileImportService {
             stagingService.storeStageDirectory(importDTO.getStageDirectory(), library);
             LOG.debug("Imported scanned directory: {}", importDTO.getStageDirectory().getPath());
             importScheduler.trigger();
+            
+            if (CollectionUtils.isNotEmpty(importDTO.getStageDirectory().getDeletedFiles())) {
+                deletionScheduler.trigger();
+            }
         } catch (Exception error) {
             LOG.error("Failed to import scanned directory: {}", importDTO.getStageDirectory().getPath(), error);
             throw new RuntimeException("Failed to import scanned directory: "+importDTO.getStageDirectory().getPath()); //NOSONAR
         }
     }
+
+    @Override
+    public List<StatusType> importScanned(ImportBatchDTO batch) {
+        if (batch.getVersion() > ImportBatchDTO.CURRENT_VERSION) {
+            throw new IllegalArgumentException("Unsupported import batch version: " + batch.getVersion());
+        }
+
+        Library library;
+        try {
+            library = stagingService.storeLibrary(batch.getImportDTO(null));
+            LOG.debug("Imported scanned library: {}", library);
+        } catch (Exception error) {
+            LOG.error("Failed to import scanned library: {}", batch.getBaseDirectory(), error);
+            throw new RuntimeException("Failed to import scanned library: "+batch.getBaseDirectory()); //NOSONAR
+        }
+
+        // store the directories one by one, so that the import can start with the first ones
+        List<StatusType> result = new ArrayList<>(batch.getStageDirectories().size());
+        boolean deletedFiles = false;
+        for (StageDirectoryDTO stageDirectory : batch.getStageDirectories()) {
+            try {
+                stagingService.storeStageDirectory(stageDirectory, library);
+                LOG.debug("Imported scanned directory: {}", stageDirectory.getPath());
+                result.add(StatusType.DONE);
+                importScheduler.trigger();
+
+                deletedFiles = deletedFiles || CollectionUtils.isNotEmpty(stageDirectory.getDeletedFiles());
+            } catch (Exception error) {
+                LOG.error("Failed to import scanned directory: {}", stageDirectory.getPath(), error);
+                result.add(StatusType.ERROR);
+            }
+        }
+        LOG.info("Imported batch of {} directories for library {}", result.size(), batch.getBaseDirectory());
+
+        if (deletedFiles) {
+            deletionScheduler.trigger();
+        }
+        return result;
+    }
 }
@@ -50,7 +50,7 @@ public class RemoteServiceConfiguration  {
 
     @Bean(name="/FileImportService")
     public HttpInvokerServiceExporter fileImportServiceExporter() {
-        HttpInvokerServiceExporter httpInvokerServiceExporter = new HttpInvokerServiceExporter();
+        HttpInvokerServiceExporter httpInvokerServiceExporter = new GzipHttpInvokerServiceExporter();
         httpInvokerServiceExporter.setService(fileImportService);
         httpInvokerServiceExporter.setServiceInterface(FileImportService.class);
         return httpInvokerServiceExporter;
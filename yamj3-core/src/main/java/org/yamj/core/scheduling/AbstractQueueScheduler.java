@@ -23,34 +23,15 @@
 package org.yamj.core.scheduling;
 
 import java.util.Collection;
-import java.util.concurrent.*;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.yamj.core.database.model.dto.QueueDTO;
 
 public abstract class AbstractQueueScheduler {
 
-    protected void threadedProcessing(Collection<QueueDTO> queueElements, int maxThreads, IQueueProcessService service) {
-        final BlockingQueue<QueueDTO> queue = new LinkedBlockingQueue<>(queueElements);
-
-        if (maxThreads > 1) {
-            // instantiate executor if more then 1 thread should be used
-            final ExecutorService executor = Executors.newFixedThreadPool(maxThreads);
-            for (int i = 0; i < maxThreads; i++) {
-                executor.execute(new QueueProcessRunner(queue, service));
-            }
-            
-            executor.shutdown();
+    @Autowired
+    private QueueProcessEngine queueProcessEngine;
     
-            // run until all workers have finished
-            while (!executor.isTerminated()) {
-                try {
-                    TimeUnit.SECONDS.sleep(5);
-                } catch (InterruptedException ignore) {
-                    // interrupt in sleep can be ignored
-                }
-            }
-        } else {
-            // single threaded processing
-            new QueueProcessRunner(queue, service).run();
-        }
+    protected boolean threadedProcessing(String queueName, Collection<QueueDTO> queueElements, IQueueProvider provider, IQueueProcessService service) {
+        return queueProcessEngine.process(queueName, queueElements, provider, service);
     }
 }
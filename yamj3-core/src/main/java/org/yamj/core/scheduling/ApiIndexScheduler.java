@@ -0,0 +1,168 @@
+/*
+ *      Copyright (c) 2004-2015 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ).
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3
+ *
+ */
+package org.yamj.core.scheduling;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.yamj.core.database.dao.ApiIndexDao;
+import org.yamj.core.service.facet.FacetService;
+import org.yamj.core.service.search.SearchService;
+import org.yamj.core.web.ResponseCacheService;
+
+@Component
+public class ApiIndexScheduler implements Runnable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ApiIndexScheduler.class);
+    private static final ReentrantLock INDEX_LOCK = new ReentrantLock();
+    // overlap of the refresh windows, so that changes committed during a refresh are not lost
+    private static final long REFRESH_OVERLAP = 120000L;
+
+    @Autowired
+    private ApiIndexDao apiIndexDao;
+    @Autowired
+    private FacetService facetService;
+    @Autowired
+    private SearchService searchService;
+    @Autowired
+    private ResponseCacheService responseCacheService;
+    @Autowired
+    private SchedulerEventBus schedulerEventBus;
+
+    // start with a complete rebuild of the index
+    private final AtomicBoolean watchProcess = new AtomicBoolean(true);
+    private final AtomicBoolean rebuild = new AtomicBoolean(true);
+    private final AtomicBoolean rebuildFacets = new AtomicBoolean(false);
+    private Date lastRefresh;
+
+    public void trigger() {
+        LOG.trace("Trigger API index refresh");
+        watchProcess.set(true);
+        schedulerEventBus.wakeUp(this);
+    }
+
+    /**
+     * Trigger a refresh which rebuilds the facets in any case.
+     * 
+     * Changes of series and seasons alone do not touch the refreshed rows of the
+     * API index, but their values are part of the facets.
+     */
+    public void triggerFacetRebuild() {
+        LOG.trace("Trigger API facet rebuild");
+        rebuildFacets.set(true);
+        trigger();
+    }
+
+    public void triggerRebuild() {
+        LOG.trace("Trigger API index rebuild");
+        rebuild.set(true);
+        trigger();
+    }
+
+    @Scheduled(initialDelay = 15000, fixedDelay = 60000)
+    @Override
+    public void run() {
+        if (watchProcess.get() && INDEX_LOCK.tryLock()) {
+            boolean refreshed = false;
+            try {
+                // reset before processing, so that new triggers are not lost
+                watchProcess.set(false);
+                refreshed = refreshIndex();
+                // imports, deletions and watched flags change the API responses
+                responseCacheService.invalidate();
+            } finally {
+                INDEX_LOCK.unlock();
+            }
+
+            if (watchProcess.get()) {
+                // continue right away if triggered again while running
+                schedulerEventBus.wakeUp(this);
+            } else if (!refreshed) {
+                // retry with the next scheduled run
+                watchProcess.set(true);
+            }
+        }
+    }
+
+    /**
+     * Refresh the API index and the in-memory indexes.
+     * 
+     * @return false if the API index could not be refreshed
+     */
+    private boolean refreshIndex() {
+        final Date start = new Date(System.currentTimeMillis() - REFRESH_OVERLAP);
+        final Date since = lastRefresh;
+        final boolean rebuildIndex = rebuild.getAndSet(false) || since == null;
+        boolean changed = rebuildIndex;
+        boolean success = false;
+        try {
+            if (rebuildIndex) {
+                apiIndexDao.rebuildIndex();
+                LOG.info("Rebuilt API index");
+            } else {
+                int refreshed = apiIndexDao.refreshIndex(since);
+                LOG.debug("Refreshed API index for {} videos", refreshed);
+                changed = refreshed > 0;
+            }
+            lastRefresh = start;
+            success = true;
+        } catch (Exception ex) {
+            LOG.error("Failed to refresh API index", ex);
+            if (rebuildIndex) {
+                rebuild.set(true);
+            }
+        }
+
+        final boolean facetsChanged = rebuildFacets.getAndSet(false);
+        if (changed || facetsChanged || (facetService.isEnabled() && !facetService.isReady())) {
+            try {
+                // take a new snapshot of the facet values
+                facetService.rebuildIndex();
+            } catch (Exception ex) {
+                LOG.error("Failed to rebuild facet index", ex);
+                if (facetsChanged) {
+                    rebuildFacets.set(true);
+                }
+            }
+        }
+
+        if (searchService.isEnabled()) {
+            try {
+                if (rebuildIndex) {
+                    searchService.rebuildIndex();
+                } else {
+                    // persons are not part of the API index, so always refresh the search index
+                    searchService.refreshIndex(since);
+                }
+            } catch (Exception ex) {
+                LOG.error("Failed to refresh search index", ex);
+            }
+        }
+        return success;
+    }
+}
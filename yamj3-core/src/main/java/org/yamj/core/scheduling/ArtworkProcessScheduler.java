@@ -29,15 +29,18 @@ import org.apache.commons.collections.CollectionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.yamj.core.config.ConfigService;
 import org.yamj.core.database.model.dto.QueueDTO;
 import org.yamj.core.database.service.ArtworkStorageService;
 import org.yamj.core.service.artwork.ArtworkProcessorService;
+import org.yamj.core.service.cache.ChangeAspect;
+import org.yamj.core.service.cache.ChangeEvent;
 
 @Component
-public class ArtworkProcessScheduler extends AbstractQueueScheduler {
+public class ArtworkProcessScheduler extends AbstractQueueScheduler implements Runnable {
 
     private static final Logger LOG = LoggerFactory.getLogger(ArtworkProcessScheduler.class);
     private static final ReentrantLock PROCESS_LOCK = new ReentrantLock();
@@ -48,6 +51,10 @@ public class ArtworkProcessScheduler extends AbstractQueueScheduler {
     private ArtworkStorageService artworkStorageService;
     @Autowired
     private ArtworkProcessorService artworkProcessorService;
+    @Autowired
+    private SchedulerEventBus schedulerEventBus;
+    @Autowired
+    private ApplicationEventPublisher applicationEventPublisher;
 
     private boolean messageDisabled = false; // Have we already printed the disabled message
     private final AtomicBoolean watchProcess = new AtomicBoolean(false);
@@ -56,20 +63,30 @@ public class ArtworkProcessScheduler extends AbstractQueueScheduler {
     public void trigger() {
         LOG.trace("Trigger artwork process");
         watchProcess.set(true);
+        schedulerEventBus.wakeUp(this);
     }
 
-    @Scheduled(initialDelay = 6000, fixedDelay = 1000)
+    @Scheduled(initialDelay = 6000, fixedDelay = 60000)
+    @Override
     public void run() {
         if (watchProcess.get() && PROCESS_LOCK.tryLock()) {
+            boolean progress = false;
             try {
-                processArtwork();
+                progress = processArtwork();
             } finally {
                 PROCESS_LOCK.unlock();
             }
+
+            // continue right away if the queue has been changed; elements which
+            // could not be processed are left for the next scheduled run
+            if (progress && watchProcess.get()) {
+                schedulerEventBus.wakeUp(this);
+            }
         }
     }
     
-    private void processArtwork() {
+    private boolean processArtwork() {
+        boolean progress = false;
         int maxThreads = configService.getIntProperty("yamj3.scheduler.artworkprocess.maxThreads", 1);
         if (maxThreads <= 0) {
             if (!messageDisabled) {
@@ -77,7 +94,7 @@ public class ArtworkProcessScheduler extends AbstractQueueScheduler {
                 LOG.info("Artwork processing is disabled");
             }
             watchProcess.set(false);
-            return;
+            return false;
         }
         
         if (messageDisabled) {
@@ -93,8 +110,16 @@ public class ArtworkProcessScheduler extends AbstractQueueScheduler {
             watchProcess.set(false);
         } else {
             LOG.info("Found {} artwork objects to process; process with {} threads", queueElements.size(), maxThreads);
-            this.threadedProcessing(queueElements, maxThreads, artworkProcessorService);
+            progress = threadedProcessing("artworkprocess", queueElements, new IQueueProvider() {
+                @Override
+                public List<QueueDTO> getQueueElements(int maxResults) {
+                    return artworkStorageService.getArtworkQueueForProcessing(maxResults);
+                }
+            }, artworkProcessorService);
             LOG.debug("Finished artwork processing");
+            // the generated images are part of the API responses
+            applicationEventPublisher.publishEvent(ChangeEvent.all(ChangeAspect.ARTWORK));
         }
+        return progress;
     }
 }
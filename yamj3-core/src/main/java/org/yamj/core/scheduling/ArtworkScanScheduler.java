@@ -37,7 +37,7 @@ import org.yamj.core.database.service.ArtworkStorageService;
 import org.yamj.core.service.artwork.ArtworkScannerService;
 
 @Component
-public class ArtworkScanScheduler extends AbstractQueueScheduler {
+public class ArtworkScanScheduler extends AbstractQueueScheduler implements Runnable {
 
     private static final Logger LOG = LoggerFactory.getLogger(ArtworkScanScheduler.class);
     private static final ReentrantLock PROCESS_LOCK = new ReentrantLock();
@@ -50,6 +50,8 @@ public class ArtworkScanScheduler extends AbstractQueueScheduler {
     private ArtworkScannerService artworkScannerService;
     @Autowired
     private ArtworkProcessScheduler artworkProcessScheduler;
+    @Autowired
+    private SchedulerEventBus schedulerEventBus;
     
     private boolean messageDisabled = false; // Have we already printed the disabled message
     private final AtomicBoolean watchProcess = new AtomicBoolean(false);
@@ -58,20 +60,30 @@ public class ArtworkScanScheduler extends AbstractQueueScheduler {
     public void trigger() {
         LOG.trace("Trigger artwork scan");
         watchProcess.set(true);
+        schedulerEventBus.wakeUp(this);
     }
 
-    @Scheduled(initialDelay = 6000, fixedDelay = 1000)
+    @Scheduled(initialDelay = 6000, fixedDelay = 60000)
+    @Override
     public void run() {
         if (watchProcess.get() && PROCESS_LOCK.tryLock()) {
+            boolean progress = false;
             try {
-                scanArtwork();
+                progress = scanArtwork();
             } finally {
                 PROCESS_LOCK.unlock();
             }
+
+            // continue right away if the queue has been changed; elements which
+            // could not be processed are left for the next scheduled run
+            if (progress && watchProcess.get()) {
+                schedulerEventBus.wakeUp(this);
+            }
         }
     }
     
-    private void scanArtwork() {
+    private boolean scanArtwork() {
+        boolean progress = false;
         int maxThreads = configService.getIntProperty("yamj3.scheduler.artworkscan.maxThreads", 1);
         if (maxThreads <= 0) {
             if (!messageDisabled) {
@@ -87,8 +99,8 @@ public class ArtworkScanScheduler extends AbstractQueueScheduler {
     
             // determine if photo scanning is enabled (local and online), cause not querying photo artwork
             // will significantly reduce the amount of artwork to scan
-            boolean scanPhoto = configService.getBooleanProperty("yamj3.artwork.scan.local.photo", true);
-            scanPhoto = scanPhoto && configService.getBooleanProperty("yamj3.artwork.scan.online.photo", true);
+            final boolean scanPhoto = configService.getBooleanProperty("yamj3.artwork.scan.local.photo", true)
+                            && configService.getBooleanProperty("yamj3.artwork.scan.online.photo", true);
 
             // process located or generated artwork
             int maxResults = Math.max(1,configService.getIntProperty("yamj3.scheduler.artworkscan.maxResults", 60));
@@ -98,12 +110,18 @@ public class ArtworkScanScheduler extends AbstractQueueScheduler {
                 watchProcess.set(false);
             } else {
                 LOG.info("Found {} artwork objects to scan; process with {} threads", queueElements.size(), maxThreads);
-                this.threadedProcessing(queueElements, maxThreads, artworkScannerService);
+                progress = threadedProcessing("artworkscan", queueElements, new IQueueProvider() {
+                    @Override
+                    public List<QueueDTO> getQueueElements(int maxResults) {
+                        return artworkStorageService.getArtworkQueueForScanning(maxResults, scanPhoto);
+                    }
+                }, artworkScannerService);
                 LOG.debug("Finished artwork scanning");
             }
         }
         
         // trigger artwork processing
         artworkProcessScheduler.trigger();
+        return progress;
     }
 }
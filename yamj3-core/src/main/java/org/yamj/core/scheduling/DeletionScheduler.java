@@ -23,6 +23,7 @@
 package org.yamj.core.scheduling;
 
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -31,24 +32,40 @@ import org.springframework.stereotype.Component;
 import org.yamj.core.service.various.DeletionService;
 
 @Component
-public class DeletionScheduler {
+public class DeletionScheduler implements Runnable {
 
     private static final Logger LOG = LoggerFactory.getLogger(DeletionScheduler.class);
+    private static final ReentrantLock DELETION_LOCK = new ReentrantLock();
     
     @Autowired
     private DeletionService deletionService;
+    @Autowired
+    private SchedulerEventBus schedulerEventBus;
     
     private final AtomicBoolean watchProcess = new AtomicBoolean(false);
 
     public void trigger() {
         LOG.trace("Trigger deletion process");
         watchProcess.set(true);
+        schedulerEventBus.wakeUp(this);
     }
 
-    @Scheduled(initialDelay = 30000, fixedDelay = 1000)
+    @Scheduled(initialDelay = 30000, fixedDelay = 60000)
+    @Override
     public void run() {
-        if (watchProcess.getAndSet(false)) {
-            deletionService.executeAllDeletions();
+        if (watchProcess.get() && DELETION_LOCK.tryLock()) {
+            try {
+                if (watchProcess.getAndSet(false)) {
+                    deletionService.executeAllDeletions();
+                }
+            } finally {
+                DELETION_LOCK.unlock();
+            }
+
+            // continue right away if triggered again while running
+            if (watchProcess.get()) {
+                schedulerEventBus.wakeUp(this);
+            }
         }
     }
 }
@@ -23,27 +23,37 @@
 package org.yamj.core.scheduling;
 
 import static org.yamj.core.database.model.type.FileType.*;
+import static org.yamj.core.tools.ExceptionTools.isConstraintViolation;
 import static org.yamj.core.tools.ExceptionTools.isLockingError;
 
+import java.util.*;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantLock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.yamj.core.config.ConfigService;
+import org.yamj.core.database.model.dto.QueueDTO;
+import org.yamj.core.database.model.type.FileType;
 import org.yamj.core.service.mediaimport.MediaImportService;
 
 @Component
-public class ImportScheduler {
+public class ImportScheduler implements Runnable {
 
     private static final Logger LOG = LoggerFactory.getLogger(ImportScheduler.class);
     private static final ReentrantLock IMPORT_LOCK = new ReentrantLock();
     private static final String STAGING_ERROR = "Staging Error";
     private static final String DATABASE_ERROR = "Database Error";
+    private static final String QUEUE_NAME = "mediaimport";
+    private static final int MAX_ATTEMPTS = 3;
 
     // start with an initial media import
     private final AtomicBoolean watchProcess = new AtomicBoolean(true);
+    // release claims which may be left over from an aborted parallel import
+    private final AtomicBoolean releaseClaims = new AtomicBoolean(true);
 
     @Autowired
     private MediaImportService mediaImportService;
@@ -53,21 +63,245 @@ public class ImportScheduler {
     private MediaFileScanScheduler mediaFileScanScheduler;
     @Autowired
     private ArtworkProcessScheduler artworkProcessScheduler;
+    @Autowired
+    private ApiIndexScheduler apiIndexScheduler;
+    @Autowired
+    private SchedulerEventBus schedulerEventBus;
+    @Autowired
+    private QueueProcessEngine queueProcessEngine;
+    @Autowired
+    private ConfigService configService;
     
     public void trigger() {
         LOG.trace("Trigger media import");
         watchProcess.set(true);
+        schedulerEventBus.wakeUp(this);
     }
 
-    @Scheduled(initialDelay = 2000, fixedDelay = 1000)
+    @Scheduled(initialDelay = 2000, fixedDelay = 60000)
+    @Override
     public void run() {
         if (watchProcess.get() && IMPORT_LOCK.tryLock()) {
             try {
-                processStageFiles();
+                // reset before processing, so that new triggers are not lost
+                watchProcess.set(false);
+                releaseClaims();
+                
+                if (configService.getIntProperty("yamj3.scheduler.mediaimport.maxThreads", 1) > 1) {
+                    processStageFilesParallel();
+                } else {
+                    processStageFiles();
+                }
+                
+                // refresh the API index with the imported files
+                apiIndexScheduler.trigger();
             } finally {
                 IMPORT_LOCK.unlock();
             }
-            watchProcess.set(false);
+
+            // continue right away if triggered again while running
+            if (watchProcess.get()) {
+                schedulerEventBus.wakeUp(this);
+            }
+        }
+    }
+
+    private void releaseClaims() {
+        if (releaseClaims.get()) {
+            try {
+                int released = mediaImportService.releaseAllStageFiles();
+                if (released > 0) {
+                    LOG.info("Released {} stage files left in processing", released);
+                }
+                releaseClaims.set(false);
+            } catch (Exception ex) {
+                LOG.warn("Failed to release stage files left in processing", ex);
+            }
+        }
+    }
+
+    private void processStageFilesParallel() {
+        // PROCESS VIDEOS
+        if (processStageFilesParallel(VIDEO) > 0) {
+            // trigger scan of media files and meta data if video files has been processed
+            mediaFileScanScheduler.trigger();
+            metadataScanScheduler.triggerScanVideo();
+        }
+        
+        // PROCESS NFOS
+        if (processStageFilesParallel(NFO) > 0) {
+            // trigger scan of meta data when NFOs has been processed
+            metadataScanScheduler.triggerScanVideo();
+        }
+
+        // PROCESS IMAGES
+        if (processStageFilesParallel(IMAGE) > 0) {
+            // trigger artwork process if images has been processed
+            artworkProcessScheduler.trigger();
+        }
+
+        // PROCESS WATCHED
+        processStageFilesParallel(WATCHED);
+
+        // PROCESS SUBTITLE
+        processStageFilesParallel(SUBTITLE);
+    }
+
+    /**
+     * Import the stage files of the given type in parallel.
+     * 
+     * The queue elements are stage directories; each worker claims the stage files
+     * of a directory in batches, so that stage files of the same directory are
+     * imported in order while independent directories are imported concurrently.
+     * 
+     * @param fileType the file type to import
+     * @return the number of imported stage files
+     */
+    private int processStageFilesParallel(final FileType fileType) {
+        final int maxResults = configService.getIntProperty("yamj3.scheduler.mediaimport.maxResults", 20);
+        final int batchSize = Math.max(1, configService.getIntProperty("yamj3.scheduler.mediaimport.batchSize", 20));
+        
+        final List<QueueDTO> queueElements = mediaImportService.getStageDirectoryQueue(fileType, maxResults);
+        if (queueElements.isEmpty()) {
+            LOG.trace("No {} stage files found to import", fileType.name().toLowerCase());
+            return 0;
+        }
+
+        final long start = System.currentTimeMillis();
+        final StageFileImporter importer = new StageFileImporter(fileType, batchSize);
+        queueProcessEngine.process(QUEUE_NAME, queueElements, new IQueueProvider() {
+            @Override
+            public List<QueueDTO> getQueueElements(int maxElements) {
+                return mediaImportService.getStageDirectoryQueue(fileType, maxElements);
+            }
+        }, importer);
+        
+        final int imported = importer.getImported();
+        final long duration = Math.max(1L, System.currentTimeMillis() - start);
+        LOG.info("Imported {} {} stage files in {} ms ({} files/s), {} failed", 
+                        imported, fileType.name().toLowerCase(), duration, (imported * 1000L) / duration, importer.getFailed());
+        return imported;
+    }
+
+    private void importStageFile(FileType fileType, Long id) {
+        switch (fileType) {
+        case VIDEO:
+            mediaImportService.processVideo(id);
+            break;
+        case NFO:
+            mediaImportService.processNfo(id);
+            break;
+        case IMAGE:
+            mediaImportService.processImage(id);
+            break;
+        case WATCHED:
+            mediaImportService.processWatched(id);
+            break;
+        case SUBTITLE:
+            mediaImportService.processSubtitle(id);
+            break;
+        default:
+            throw new IllegalArgumentException("Import of " + fileType + " stage files not supported");
+        }
+    }
+    
+    /**
+     * Imports the stage files of one stage directory per queue element.
+     */
+    private class StageFileImporter implements IQueueProcessService {
+
+        private final FileType fileType;
+        private final String typeName;
+        private final int batchSize;
+        private final AtomicInteger imported = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        
+        public StageFileImporter(FileType fileType, int batchSize) {
+            this.fileType = fileType;
+            this.typeName = fileType.name().toLowerCase();
+            this.batchSize = batchSize;
+        }
+
+        public int getImported() {
+            return imported.get();
+        }
+
+        public int getFailed() {
+            return failed.get();
+        }
+
+        @Override
+        public void processQueueElement(QueueDTO queueElement) {
+            // stage files which should not be retried in this run
+            final Set<Long> skipIds = new HashSet<>();
+            final Map<Long, Integer> attempts = new HashMap<>();
+            
+            List<Long> ids;
+            while (!(ids = mediaImportService.claimStageFiles(fileType, queueElement.getId(), batchSize, skipIds)).isEmpty()) {
+                LOG.trace("Claimed {} {} stage files in directory {}", ids.size(), typeName, queueElement.getId());
+                
+                for (Long id : ids) {
+                    try {
+                        LOG.trace("Process {} stage file: {}", typeName, id);
+                        importStageFile(fileType, id);
+                        LOG.info("Processed {} stage file: {}", typeName, id);
+                        imported();
+                    } catch (Exception error) {
+                        Integer attempt = attempts.get(id);
+                        attempt = (attempt == null) ? 1 : attempt + 1;
+                        attempts.put(id, attempt);
+                        
+                        if (isLockingError(error) || (isConstraintViolation(error) && attempt < MAX_ATTEMPTS)) {
+                            // concurrent import of related stage file; so just try again
+                            LOG.warn("Locking error during import of {} stage file {}", typeName, id);
+                            if (attempt >= MAX_ATTEMPTS) {
+                                // leave it for the next run
+                                skipIds.add(id);
+                            }
+                            release(id);
+                        } else {
+                            LOG.error("Failed to process {} stage file {}", typeName, id);
+                            LOG.warn(STAGING_ERROR, error);
+                            failed.incrementAndGet();
+                            
+                            try {
+                                mediaImportService.processingError(id);
+                            } catch (Exception ex) {
+                                // leave status as it is in any error case
+                                LOG.trace(DATABASE_ERROR, ex);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        private void imported() {
+            final int counter = imported.incrementAndGet();
+            if ((counter % 20) == 0) {
+                if (VIDEO == fileType) {
+                    // trigger media file scan after 20 processed videos
+                    mediaFileScanScheduler.trigger();
+                } else if (IMAGE == fileType) {
+                    // trigger artwork process after 20 processed images
+                    artworkProcessScheduler.trigger();
+                }
+            }
+        }
+
+        private void release(Long id) {
+            try {
+                mediaImportService.releaseStageFile(id);
+            } catch (Exception ex) {
+                // will be released on next startup
+                LOG.trace(DATABASE_ERROR, ex);
+            }
+        }
+        
+        @Override
+        public void processErrorOccurred(QueueDTO queueElement, Exception error) {
+            LOG.error("Failed to import {} stage files in directory {}", typeName, queueElement.getId());
+            LOG.warn(STAGING_ERROR, error);
         }
     }
 
@@ -37,7 +37,7 @@ import org.yamj.core.database.service.MediaStorageService;
 import org.yamj.core.service.mediainfo.MediaInfoService;
 
 @Component
-public class MediaFileScanScheduler extends AbstractQueueScheduler {
+public class MediaFileScanScheduler extends AbstractQueueScheduler implements Runnable {
 
     private static final Logger LOG = LoggerFactory.getLogger(MediaFileScanScheduler.class);
     private static final ReentrantLock PROCESS_LOCK = new ReentrantLock();
@@ -48,6 +48,8 @@ public class MediaFileScanScheduler extends AbstractQueueScheduler {
     private MediaStorageService mediaStorageService;
     @Autowired
     private MediaInfoService mediaInfoService;
+    @Autowired
+    private SchedulerEventBus schedulerEventBus;
     
     private boolean messageDisabled = false; // Have we already printed the disabled message
     private final AtomicBoolean watchProcess = new AtomicBoolean(false);
@@ -56,20 +58,30 @@ public class MediaFileScanScheduler extends AbstractQueueScheduler {
     public void trigger() {
         LOG.trace("Trigger media file scan");
         watchProcess.set(true);
+        schedulerEventBus.wakeUp(this);
     }
 
-    @Scheduled(initialDelay = 6000, fixedDelay = 1000)
+    @Scheduled(initialDelay = 6000, fixedDelay = 60000)
+    @Override
     public void run() {
         if (watchProcess.get() && PROCESS_LOCK.tryLock()) {
+            boolean progress = false;
             try {
-                scanMediaFiles();
+                progress = scanMediaFiles();
             } finally {
                 PROCESS_LOCK.unlock();
             }
+
+            // continue right away if the queue has been changed; elements which
+            // could not be processed are left for the next scheduled run
+            if (progress && watchProcess.get()) {
+                schedulerEventBus.wakeUp(this);
+            }
         }
     }
     
-    private void scanMediaFiles() {
+    private boolean scanMediaFiles() {
+        boolean progress = false;
         int maxThreads = configService.getIntProperty("yamj3.scheduler.mediafilescan.maxThreads", 1);
         if (maxThreads <= 0) {
             if (!messageDisabled) {
@@ -77,7 +89,7 @@ public class MediaFileScanScheduler extends AbstractQueueScheduler {
                 LOG.info("Media file scanning is disabled");
             }
             watchProcess.set(false);
-            return;
+            return false;
         }
         
         if (messageDisabled) {
@@ -92,8 +104,14 @@ public class MediaFileScanScheduler extends AbstractQueueScheduler {
             watchProcess.set(false);
         } else {
             LOG.info("Found {} media files to process; scan with {} threads", queueElements.size(), maxThreads);
-            threadedProcessing(queueElements, maxThreads, mediaInfoService);
+            progress = threadedProcessing("mediafilescan", queueElements, new IQueueProvider() {
+                @Override
+                public List<QueueDTO> getQueueElements(int maxResults) {
+                    return mediaStorageService.getMediaFileQueue(maxResults);
+                }
+            }, mediaInfoService);
             LOG.debug("Finished media file scanning");
         }
+        return progress;
     }
 }
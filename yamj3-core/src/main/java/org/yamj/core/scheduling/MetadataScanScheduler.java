@@ -40,7 +40,7 @@ import org.yamj.core.database.service.MetadataStorageService;
 import org.yamj.core.service.metadata.MetadataScannerService;
 
 @Component
-public class MetadataScanScheduler extends AbstractQueueScheduler {
+public class MetadataScanScheduler extends AbstractQueueScheduler implements Runnable {
 
     private static final Logger LOG = LoggerFactory.getLogger(MetadataScanScheduler.class);
     private static final ReentrantLock SCANNING_LOCK = new ReentrantLock();
@@ -57,6 +57,8 @@ public class MetadataScanScheduler extends AbstractQueueScheduler {
     private TrailerScanScheduler trailerScanScheduler;
     @Autowired
     private ExecutionTaskStorageService executionTaskStorageService;
+    @Autowired
+    private SchedulerEventBus schedulerEventBus;
     
     private boolean messageDisabledVideo = false;       // Have we already printed the disabled message
     private boolean messageDisabledPeople = false;       // Have we already printed the disabled message
@@ -73,43 +75,56 @@ public class MetadataScanScheduler extends AbstractQueueScheduler {
         watchScanVideo.set(true);
         watchScanPeople.set(true);
         watchScanFilmography.set(true);
+        schedulerEventBus.wakeUp(this);
     }
     
     public void triggerScanVideo() {
         LOG.trace("Trigger video scan");
         watchScanVideo.set(true);
+        schedulerEventBus.wakeUp(this);
     }
     
     public void triggerScanPeople() {
         LOG.trace("Trigger people scan");
         watchScanPeople.set(true);
+        schedulerEventBus.wakeUp(this);
     }
 
     public void triggerScanFilmography() {
         LOG.trace("Trigger filmogprahy scan");
         watchScanFilmography.set(true);
+        schedulerEventBus.wakeUp(this);
     }
 
-    @Scheduled(initialDelay = 2000, fixedDelay = 1000)
-    public void runAllScans() {
+    @Scheduled(initialDelay = 2000, fixedDelay = 60000)
+    @Override
+    public void run() {
         if (SCANNING_LOCK.tryLock()) {
+            boolean progress = false;
             try {
                 if (watchScanVideo.get()) {
-                    scanVideo();
+                    progress |= scanVideo();
                 }
                 if (watchScanPeople.get()) {
-                    scanPeople();
+                    progress |= scanPeople();
                 }
                 if (watchScanFilmography.get()) {
-                    scanFilmography();
+                    progress |= scanFilmography();
                 }
             } finally {
                 SCANNING_LOCK.unlock();
             }
+
+            // continue right away if the queues have been changed; elements which
+            // could not be processed are left for the next scheduled run
+            if (progress && (watchScanVideo.get() || watchScanPeople.get() || watchScanFilmography.get())) {
+                schedulerEventBus.wakeUp(this);
+            }
         }
     }
 
-    private void scanVideo() {
+    private boolean scanVideo() {
+        boolean progress = false;
         int maxThreads = configService.getIntProperty("yamj3.scheduler.metadatascan.maxThreads", 1);
         if (maxThreads <= 0) {
             if (!messageDisabledVideo) {
@@ -150,7 +165,12 @@ public class MetadataScanScheduler extends AbstractQueueScheduler {
                 
             } else {
                 LOG.info("Found {} metadata objects to process; scan with {} threads", queueElements.size(), maxThreads);
-                threadedProcessing(queueElements, maxThreads, metadataScannerService);
+                progress = threadedProcessing("metadatascan", queueElements, new IQueueProvider() {
+                    @Override
+                    public List<QueueDTO> getQueueElements(int maxResults) {
+                        return metadataStorageService.getMetaDataQueueForScanning(maxResults);
+                    }
+                }, metadataScannerService);
                 LOG.debug("Finished metadata scanning");
                 videosHasBeenScanned = true;
             }
@@ -162,9 +182,11 @@ public class MetadataScanScheduler extends AbstractQueueScheduler {
         artworkScanScheduler.trigger();
         // trigger trailer scan
         trailerScanScheduler.trigger();
+        return progress;
     }
 
-    private void scanPeople() {
+    private boolean scanPeople() {
+        boolean progress = false;
         int maxThreads = configService.getIntProperty("yamj3.scheduler.peoplescan.maxThreads", 1);
         if (maxThreads <= 0) {
             if (!messageDisabledPeople) {
@@ -187,7 +209,12 @@ public class MetadataScanScheduler extends AbstractQueueScheduler {
                 watchScanFilmography.set(true);
             } else {
                 LOG.info("Found {} people objects to process; scan with {} threads", queueElements.size(), maxThreads);
-                threadedProcessing(queueElements, maxThreads, metadataScannerService);
+                progress = threadedProcessing("peoplescan", queueElements, new IQueueProvider() {
+                    @Override
+                    public List<QueueDTO> getQueueElements(int maxResults) {
+                        return metadataStorageService.getPersonQueueForScanning(maxResults);
+                    }
+                }, metadataScannerService);
                 LOG.debug("Finished people data scanning");
             }
         }
@@ -196,9 +223,10 @@ public class MetadataScanScheduler extends AbstractQueueScheduler {
         watchScanFilmography.set(true);
         // trigger artwork scan
         artworkScanScheduler.trigger();
+        return progress;
     }
 
-    private void scanFilmography() {
+    private boolean scanFilmography() {
         int maxThreads = configService.getIntProperty("yamj3.scheduler.filmographyscan.maxThreads", 1);
         if (maxThreads <= 0) { 
             if (!messageDisabledFilmography) {
@@ -206,7 +234,7 @@ public class MetadataScanScheduler extends AbstractQueueScheduler {
                 LOG.info("Filmography scanning is disabled");
             }
             watchScanFilmography.set(false);
-            return;
+            return false;
         }
         
         if (messageDisabledFilmography) {
@@ -219,11 +247,17 @@ public class MetadataScanScheduler extends AbstractQueueScheduler {
         if (CollectionUtils.isEmpty(queueElements)) {
             LOG.trace("No filmography data found to scan");
             watchScanFilmography.set(false);
-            return;
+            return false;
         }
 
         LOG.info("Found {} filmography objects to process; scan with {} threads", queueElements.size(), maxThreads);
-        threadedProcessing(queueElements, maxThreads, metadataScannerService);
+        final boolean progress = threadedProcessing("filmographyscan", queueElements, new IQueueProvider() {
+            @Override
+            public List<QueueDTO> getQueueElements(int maxResults) {
+                return metadataStorageService.getFilmographyQueueForScanning(maxResults);
+            }
+        }, metadataScannerService);
         LOG.debug("Finished filmography data scanning");
+        return progress;
     }
 }
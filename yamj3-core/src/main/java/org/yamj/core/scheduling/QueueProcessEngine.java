@@ -0,0 +1,180 @@
+/*
+ *      Copyright (c) 2004-2015 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ).
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3
+ *
+ */
+package org.yamj.core.scheduling;
+
+import java.util.*;
+import java.util.concurrent.*;
+import javax.annotation.PreDestroy;
+import org.apache.commons.collections.CollectionUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.yamj.core.config.ConfigService;
+import org.yamj.core.database.model.dto.QueueDTO;
+
+/**
+ * Long-lived processing engine for the queues.
+ * 
+ * Each queue has its own worker pool which lives across the scheduler runs. The
+ * queue is processed in a bounded window of in-flight elements which will be
+ * refilled from the database as soon as workers become free. The pool size and
+ * the window size are re-read from the configuration on every refill.
+ */
+@Component
+public class QueueProcessEngine {
+
+    private static final Logger LOG = LoggerFactory.getLogger(QueueProcessEngine.class);
+    private static final String CONFIG_PREFIX = "yamj3.scheduler.";
+    private static final long IDLE_TIMEOUT = 60L;
+
+    private final ConcurrentMap<String, ThreadPoolExecutor> executors = new ConcurrentHashMap<>();
+
+    @Autowired
+    private ConfigService configService;
+
+    @PreDestroy
+    public void destroy() {
+        for (ThreadPoolExecutor executor : executors.values()) {
+            executor.shutdownNow();
+        }
+        executors.clear();
+    }
+    
+    /**
+     * Process the queue until no more new elements are available.
+     * 
+     * @param queueName the name of the queue; used for the configuration keys
+     * @param queueElements the initial elements to process
+     * @param provider the provider for refilling the queue
+     * @param service the service to process the elements
+     * @return true if at least one processed element has left the queue, else false
+     */
+    public boolean process(String queueName, Collection<QueueDTO> queueElements, IQueueProvider provider, IQueueProcessService service) {
+        final BlockingQueue<QueueDTO> finished = new LinkedBlockingQueue<>();
+        final Set<QueueDTO> inFlight = new HashSet<>();
+        final Set<QueueDTO> submitted = new HashSet<>();
+        final int defaultResults = Math.max(1, CollectionUtils.size(queueElements));
+        
+        int processed = 0;
+        boolean exhausted = false;
+        Collection<QueueDTO> nextElements = queueElements;
+        
+        while (true) {
+            final int maxThreads = configService.getIntProperty(CONFIG_PREFIX + queueName + ".maxThreads", 1);
+            final int maxResults = Math.max(1, configService.getIntProperty(CONFIG_PREFIX + queueName + ".maxResults", defaultResults));
+
+            if (maxThreads <= 0) {
+                // processing has been disabled, so just let the running elements finish
+                exhausted = true;
+            } else if (!exhausted && inFlight.size() <= maxResults / 2) {
+                if (nextElements == null) {
+                    // fetch enough elements to skip the ones which are still in progress
+                    nextElements = provider.getQueueElements(maxResults + inFlight.size());
+                }
+                
+                final ThreadPoolExecutor executor = getExecutor(queueName, maxThreads);
+                int added = 0;
+                for (QueueDTO queueElement : nextElements) {
+                    if (inFlight.size() >= maxResults) {
+                        break;
+                    }
+                    // elements which are not updated by the service will be picked up on the next run
+                    if (submitted.add(queueElement)) {
+                        inFlight.add(queueElement);
+                        executor.execute(new QueueProcessRunner(queueElement, service, finished));
+                        added++;
+                    }
+                }
+                nextElements = null;
+                
+                if (added == 0) {
+                    exhausted = true;
+                } else {
+                    LOG.trace("Added {} elements to queue '{}' with {} elements in progress", added, queueName, inFlight.size());
+                }
+            }
+            
+            if (inFlight.isEmpty()) {
+                break;
+            }
+            
+            // wait until at least one worker is free again
+            try {
+                QueueDTO done = finished.take();
+                inFlight.remove(done);
+                processed++;
+                while ((done = finished.poll()) != null) {
+                    inFlight.remove(done);
+                    processed++;
+                }
+            } catch (InterruptedException ex) {
+                LOG.debug("Processing of queue '{}' interrupted", queueName);
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        
+        LOG.debug("Processed {} elements of queue '{}'", processed, queueName);
+        if (processed == 0) {
+            return false;
+        }
+        
+        // elements which failed without a change of their status are delivered again, so the
+        // queue has only been changed if at least one processed element has left the queue
+        return !provider.getQueueElements(submitted.size()).containsAll(submitted);
+    }
+
+    /**
+     * Get the executor for the queue and adjust the thread count if needed.
+     */
+    private ThreadPoolExecutor getExecutor(String queueName, int maxThreads) {
+        ThreadPoolExecutor executor = executors.get(queueName);
+        if (executor == null) {
+            executor = new ThreadPoolExecutor(maxThreads, maxThreads, IDLE_TIMEOUT, TimeUnit.SECONDS, 
+                            new LinkedBlockingQueue<Runnable>(), new CustomizableThreadFactory(queueName + "-"));
+            // let threads die if the queue is idle
+            executor.allowCoreThreadTimeOut(true);
+            
+            ThreadPoolExecutor existing = executors.putIfAbsent(queueName, executor);
+            if (existing != null) {
+                executor.shutdown();
+                executor = existing;
+            }
+        }
+
+        if (executor.getMaximumPoolSize() != maxThreads) {
+            LOG.info("Resize worker pool of queue '{}' from {} to {} threads", queueName, executor.getMaximumPoolSize(), maxThreads);
+            if (maxThreads > executor.getMaximumPoolSize()) {
+                executor.setMaximumPoolSize(maxThreads);
+                executor.setCorePoolSize(maxThreads);
+            } else {
+                executor.setCorePoolSize(maxThreads);
+                executor.setMaximumPoolSize(maxThreads);
+            }
+        }
+        
+        return executor;
+    }
+}
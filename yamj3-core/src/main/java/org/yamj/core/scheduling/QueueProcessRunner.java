@@ -30,28 +30,30 @@ import org.yamj.core.database.model.dto.QueueDTO;
 public class QueueProcessRunner implements Runnable {
 
     private static final Logger LOG = LoggerFactory.getLogger(QueueProcessRunner.class);
-    private final BlockingQueue<QueueDTO> queue;
+    private final QueueDTO queueElement;
     private final IQueueProcessService service;
+    private final BlockingQueue<QueueDTO> finished;
 
-    public QueueProcessRunner(BlockingQueue<QueueDTO> queue, IQueueProcessService service) {
-        this.queue = queue;
+    public QueueProcessRunner(QueueDTO queueElement, IQueueProcessService service, BlockingQueue<QueueDTO> finished) {
+        this.queueElement = queueElement;
         this.service = service;
+        this.finished = finished;
     }
 
     @Override
     public void run() {
-        QueueDTO queueElement;
-        while ((queueElement = queue.poll()) != null) {
+        try {
+            service.processQueueElement(queueElement);
+        } catch (Exception error) {
             try {
-                service.processQueueElement(queueElement);
-            } catch (Exception error) {
-                try {
-                    service.processErrorOccurred(queueElement, error);
-                } catch (Exception ex) {
-                    // leave status as it is in any error case
-                    LOG.trace("Database error", ex);
-                }
+                service.processErrorOccurred(queueElement, error);
+            } catch (Exception ex) {
+                // leave status as it is in any error case
+                LOG.trace("Database error", ex);
             }
+        } finally {
+            // notify the engine that the worker is free again
+            finished.add(queueElement);
         }
     }
 }
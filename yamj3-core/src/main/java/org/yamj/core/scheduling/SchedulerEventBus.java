@@ -0,0 +1,95 @@
+/*
+ *      Copyright (c) 2004-2015 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ).
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3
+ *
+ */
+package org.yamj.core.scheduling;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-process event bus to wake up the scheduler stages.
+ * 
+ * A triggered stage is handed over to the scheduler executor immediately instead of
+ * waiting for the next poll. Wake ups are coalesced: as long as a stage is waiting
+ * for execution, further wake ups of that stage are ignored.
+ */
+@Component
+public class SchedulerEventBus {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SchedulerEventBus.class);
+    
+    private final ConcurrentMap<Runnable, AtomicBoolean> pendingStages = new ConcurrentHashMap<>();
+
+    @Autowired
+    private ScheduledExecutorService scheduledExecutorService;
+
+    /**
+     * Wake up the given stage.
+     * 
+     * @param stage the stage to run
+     */
+    public void wakeUp(final Runnable stage) {
+        final AtomicBoolean pending = getPending(stage);
+        if (!pending.compareAndSet(false, true)) {
+            LOG.trace("Stage {} already waiting for execution", stage.getClass().getSimpleName());
+            return;
+        }
+        
+        try {
+            scheduledExecutorService.execute(new Runnable() {
+                @Override
+                public void run() {
+                    // new wake ups must lead to a new execution from now on
+                    pending.set(false);
+                    try {
+                        stage.run();
+                    } catch (Exception ex) {
+                        LOG.error("Failed to execute stage " + stage.getClass().getSimpleName(), ex);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException ex) {
+            // executor is shutting down; the scheduled poll will pick it up if possible
+            LOG.trace("Wake up of stage rejected", ex);
+            pending.set(false);
+        }
+    }
+    
+    private AtomicBoolean getPending(Runnable stage) {
+        AtomicBoolean pending = pendingStages.get(stage);
+        if (pending == null) {
+            pending = new AtomicBoolean(false);
+            AtomicBoolean existing = pendingStages.putIfAbsent(stage, pending);
+            if (existing != null) {
+                pending = existing;
+            }
+        }
+        return pending;
+    }
+}
@@ -37,7 +37,7 @@ import org.yamj.core.database.service.TrailerStorageService;
 import org.yamj.core.service.trailer.TrailerProcessorService;
 
 @Component
-public class TrailerProcessScheduler extends AbstractQueueScheduler {
+public class TrailerProcessScheduler extends AbstractQueueScheduler implements Runnable {
 
     private static final Logger LOG = LoggerFactory.getLogger(TrailerProcessScheduler.class);
     private static final ReentrantLock PROCESS_LOCK = new ReentrantLock();
@@ -48,6 +48,8 @@ public class TrailerProcessScheduler extends AbstractQueueScheduler {
     private TrailerStorageService trailerStorageService;
     @Autowired
     private TrailerProcessorService trailerProcessorService;
+    @Autowired
+    private SchedulerEventBus schedulerEventBus;
     
     private boolean messageDisabled = false; // Have we already printed the disabled message
     private final AtomicBoolean watchProcess = new AtomicBoolean(false);
@@ -56,20 +58,30 @@ public class TrailerProcessScheduler extends AbstractQueueScheduler {
     public void trigger() {
         LOG.trace("Trigger trailer processing");
         watchProcess.set(true);
+        schedulerEventBus.wakeUp(this);
     }
 
-    @Scheduled(initialDelay = 6000, fixedDelay = 1000)
+    @Scheduled(initialDelay = 6000, fixedDelay = 60000)
+    @Override
     public void run() {
         if (watchProcess.get() && PROCESS_LOCK.tryLock()) {
+            boolean progress = false;
             try {
-                processTrailer();
+                progress = processTrailer();
             } finally {
                 PROCESS_LOCK.unlock();
             }
+
+            // continue right away if the queue has been changed; elements which
+            // could not be processed are left for the next scheduled run
+            if (progress && watchProcess.get()) {
+                schedulerEventBus.wakeUp(this);
+            }
         }
     }
     
-    private void processTrailer() {
+    private boolean processTrailer() {
+        boolean progress = false;
         int maxThreads = configService.getIntProperty("yamj3.scheduler.trailerprocess.maxThreads", 0);
         if (maxThreads <= 0) {
             if (!messageDisabled) {
@@ -77,7 +89,7 @@ public class TrailerProcessScheduler extends AbstractQueueScheduler {
                 LOG.info("Trailer processing is disabled");
             }
             watchProcess.set(false);
-            return;
+            return false;
         }
         
         if (messageDisabled) {
@@ -92,8 +104,14 @@ public class TrailerProcessScheduler extends AbstractQueueScheduler {
             watchProcess.set(false);
         } else {
             LOG.info("Found {} trailer objects to process; process with {} threads", queueElements.size(), maxThreads);
-            this.threadedProcessing(queueElements, maxThreads, trailerProcessorService);
+            progress = threadedProcessing("trailerprocess", queueElements, new IQueueProvider() {
+                @Override
+                public List<QueueDTO> getQueueElements(int maxResults) {
+                    return trailerStorageService.getTrailerQueueForProcessing(maxResults);
+                }
+            }, trailerProcessorService);
             LOG.debug("Finished trailer processing");
         }
+        return progress;
     }
 }
@@ -37,7 +37,7 @@ import org.yamj.core.database.service.TrailerStorageService;
 import org.yamj.core.service.trailer.TrailerScannerService;
 
 @Component
-public class TrailerScanScheduler extends AbstractQueueScheduler {
+public class TrailerScanScheduler extends AbstractQueueScheduler implements Runnable {
 
     private static final Logger LOG = LoggerFactory.getLogger(TrailerScanScheduler.class);
     private static final ReentrantLock PROCESS_LOCK = new ReentrantLock();
@@ -50,6 +50,8 @@ public class TrailerScanScheduler extends AbstractQueueScheduler {
     private TrailerStorageService trailerStorageService;
     @Autowired
     private TrailerProcessScheduler trailerProcessScheduler;
+    @Autowired
+    private SchedulerEventBus schedulerEventBus;
     
     private boolean messageDisabled = false; // Have we already printed the disabled message
     private final AtomicBoolean watchProcess = new AtomicBoolean(false);
@@ -58,20 +60,30 @@ public class TrailerScanScheduler extends AbstractQueueScheduler {
     public void trigger() {
         LOG.trace("Trigger trailer scan");
         watchProcess.set(true);
+        schedulerEventBus.wakeUp(this);
     }
 
-    @Scheduled(initialDelay = 20000, fixedDelay = 1000)
+    @Scheduled(initialDelay = 20000, fixedDelay = 60000)
+    @Override
     public void run() {
         if (watchProcess.get() && PROCESS_LOCK.tryLock()) {
+            boolean progress = false;
             try {
-                scanTrailer();
+                progress = scanTrailer();
             } finally {
                 PROCESS_LOCK.unlock();
             }
+
+            // continue right away if the queue has been changed; elements which
+            // could not be processed are left for the next scheduled run
+            if (progress && watchProcess.get()) {
+                schedulerEventBus.wakeUp(this);
+            }
         }
     }
     
-    private void scanTrailer() {
+    private boolean scanTrailer() {
+        boolean progress = false;
         int maxThreads = configService.getIntProperty("yamj3.scheduler.trailerscan.maxThreads", 0);
         if (maxThreads <= 0) {
             if (!messageDisabled) {
@@ -93,12 +105,18 @@ public class TrailerScanScheduler extends AbstractQueueScheduler {
                 watchProcess.set(false);
             } else {
                 LOG.info("Found {} trailer objects to process; scan with {} threads", queueElements.size(), maxThreads);
-                threadedProcessing(queueElements, maxThreads, trailerScannerService);
+                progress = threadedProcessing("trailerscan", queueElements, new IQueueProvider() {
+                    @Override
+                    public List<QueueDTO> getQueueElements(int maxResults) {
+                        return trailerStorageService.getTrailerQueueForScanning(maxResults);
+                    }
+                }, trailerScannerService);
                 LOG.debug("Finished trailer scanning");
             }
         }
         
         // trigger trailer processing
         trailerProcessScheduler.trigger();
+        return progress;
     }
 }
@@ -29,17 +29,27 @@ import static org.yamj.core.service.artwork.ArtworkStorageTools.SOURCE_UPLOAD;
 import java.awt.Dimension;
 import java.awt.image.BufferedImage;
 import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.net.URL;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.*;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.sanselan.ImageReadException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.DependsOn;
 import org.springframework.dao.IncorrectResultSizeDataAccessException;
 import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 import org.yamj.common.type.MetaDataType;
 import org.yamj.common.type.StatusType;
@@ -55,6 +65,7 @@ import org.yamj.core.service.file.FileTools;
 import org.yamj.core.service.file.StorageType;
 import org.yamj.core.tools.image.GraphicTools;
 import org.yamj.plugin.api.model.type.ArtworkType;
+import org.yamj.plugin.api.model.type.ImageType;
 
 @Service("artworkProcessorService")
 @DependsOn("artworkInitialization")
@@ -66,6 +77,26 @@ public class ArtworkProcessorService implements IQueueProcessService {
     private ArtworkStorageService artworkStorageService;
     @Autowired
     private FileStorageService fileStorageService;
+    @Value("${yamj3.artwork.encode.threads:0}")
+    private int encodeThreads;
+
+    private ThreadPoolExecutor encodeExecutor;
+
+    @PostConstruct
+    public void init() {
+        final int threads = encodeThreads > 0 ? encodeThreads : Math.max(2, Runtime.getRuntime().availableProcessors());
+        LOG.debug("Use {} threads for encoding of artwork images", threads);
+        
+        encodeExecutor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<Runnable>(), new CustomizableThreadFactory("artwork-encode-"));
+        // let threads die if no artwork is processed
+        encodeExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        encodeExecutor.shutdownNow();
+    }
 
     @Override
     public void processQueueElement(QueueDTO queueElement) {
@@ -88,15 +119,6 @@ public class ArtworkProcessorService implements IQueueProcessService {
             // just processed if cache file name not stored before
             // which means that no original image has been created
             
-            // validate artwork
-            boolean valid = checkArtworkQuality(located);
-            if (!valid) {
-                LOG.warn("Located artwork {} is not valid", located);
-                located.setStatus(StatusType.INVALID);
-                artworkStorageService.updateArtworkLocated(located);
-                return;
-            }
-    
             if (SOURCE_UPLOAD.equals(located.getSource())) {
                 LOG.info("Located artwork {} needs an upload", located);
                 located.setStatus(StatusType.INVALID);
@@ -119,8 +141,15 @@ public class ArtworkProcessorService implements IQueueProcessService {
                         stored = fileStorageService.store(storageType, cacheFilename, located.getStageFile());
                     }
                 } else {
-                    stored = fileStorageService.store(storageType, cacheFilename, new URL(located.getUrl()));
+                    // download and validate artwork in one go
+                    stored = this.storeOnlineArtwork(storageType, located, cacheFilename);
                 }
+            } catch (ImageReadException ex) {
+                LOG.warn("Located artwork {} is not valid: {}", located, ex.getMessage());
+                LOG.trace("Invalid image error", ex);
+                located.setStatus(StatusType.INVALID);
+                artworkStorageService.updateArtworkLocated(located);
+                return;
             } catch (IOException ex) {
                 LOG.error("{}: {}", STORAGE_ERROR, ex.getMessage());
                 LOG.trace(STORAGE_ERROR, ex);
@@ -147,10 +176,10 @@ public class ArtworkProcessorService implements IQueueProcessService {
 
         // after that: try preProcessing of images
         List<ArtworkProfile> profiles = artworkStorageService.getPreProcessArtworkProfiles(located);
-        for (ArtworkProfile profile : profiles) {
+        if (!profiles.isEmpty()) {
             try {
-                // generate image for a profiles
-                generateImage(located, profile);
+                // generate images for all profiles
+                generateImages(located, profiles);
             } catch (IOException ex)  {
                 LOG.warn("Original image is not found: {}/{}", located.getCacheDirectory(), located.getCacheFilename());
                 LOG.trace(IMAGE_GENERATION_ERROR, ex);
@@ -159,29 +188,20 @@ public class ArtworkProcessorService implements IQueueProcessService {
                 located.setCacheDirectory(null);
                 located.setCacheFilename(null);
                 located.setStatus(StatusType.UPDATED);
-
-                // no further processing for that located image
-                break;
             } catch (OutOfMemoryError ex) {
                 LOG.error("Failed to load/transform image due to memory constraints: {}", located);
                 LOG.trace("Out of memory", ex);
 
                 // mark located artwork as error
                 located.setStatus(StatusType.ERROR);
-
-                // no further processing for that located image
-                break;
-             } catch (ImageReadException ex) {
+            } catch (ImageReadException ex) {
                 LOG.warn("Original image is invalid: {}", located);
                 LOG.trace("Invalid image error", ex);
 
                 // mark located artwork as invalid
                 located.setStatus(StatusType.INVALID);
-
-                // no further processing for that located image
-                break;
-            } catch (Exception ex) {
-                LOG.error("Failed to generate image for {} with profile {}", located, profile.getProfileName());
+            } catch (RuntimeException ex) {
+                LOG.error("Failed to generate images for {}", located);
                 LOG.warn(IMAGE_GENERATION_ERROR, ex);
             }
         }
@@ -236,6 +256,20 @@ public class ArtworkProcessorService implements IQueueProcessService {
         return fileStorageService.store(storageType, cacheFilename, located.getStageFile(), attachmentId);
     }
     
+    private boolean storeOnlineArtwork(StorageType storageType, ArtworkLocated located, String cacheFilename) throws IOException, ImageReadException { //NOSONAR
+        final Dimension dimension = fileStorageService.storeImage(storageType, cacheFilename, new URL(located.getUrl()));
+        if (dimension == null) {
+            return false;
+        }
+        
+        // set values for later usage
+        if (located.getWidth() <= 0 || located.getHeight() <= 0) {
+            located.setWidth(dimension.width);
+            located.setHeight(dimension.height);
+        }
+        return true;
+    }
+    
     private ArtworkGenerated generateImage(ArtworkLocated located, ArtworkProfile profile) throws IOException, ImageReadException { //NOSONAR
         // build cache filename
         final String cacheFilename = ArtworkStorageTools.buildCacheFilename(located, profile);
@@ -243,6 +277,52 @@ public class ArtworkProcessorService implements IQueueProcessService {
         // create and store image
         createAndStoreImage(located, profile, cacheFilename);
         
+        return storeArtworkGenerated(located, profile, cacheFilename);
+    }
+
+    /**
+     * Generate the images of several profiles from one decoded original.
+     * 
+     * The profile images are drawn and encoded in parallel; a failure of one
+     * profile does not prevent the others from being stored.
+     */
+    private void generateImages(final ArtworkLocated located, List<ArtworkProfile> profiles) throws IOException, ImageReadException { //NOSONAR
+        final BufferedImage imageGraphic = loadOriginalImage(located, profiles);
+
+        Map<ArtworkProfile, Future<String>> encodings = new LinkedHashMap<>(profiles.size());
+        for (final ArtworkProfile profile : profiles) {
+            encodings.put(profile, encodeExecutor.submit(new Callable<String>() {
+                @Override
+                public String call() throws Exception {
+                    final String cacheFilename = ArtworkStorageTools.buildCacheFilename(located, profile);
+                    storeImage(imageGraphic, located, profile, cacheFilename);
+                    return cacheFilename;
+                }
+            }));
+        }
+
+        for (Entry<ArtworkProfile, Future<String>> entry : encodings.entrySet()) {
+            final ArtworkProfile profile = entry.getKey();
+            try {
+                storeArtworkGenerated(located, profile, entry.getValue().get());
+            } catch (InterruptedException ex) { //NOSONAR
+                LOG.debug("Image generation interrupted for {}", located);
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException ex) {
+                if (ex.getCause() instanceof Error) {
+                    throw (Error) ex.getCause();
+                }
+                LOG.error("Failed to generate image for {} with profile {}", located, profile.getProfileName());
+                LOG.warn(IMAGE_GENERATION_ERROR, ex.getCause());
+            } catch (Exception ex) {
+                LOG.error("Failed to generate image for {} with profile {}", located, profile.getProfileName());
+                LOG.warn(IMAGE_GENERATION_ERROR, ex);
+            }
+        }
+    }
+
+    private ArtworkGenerated storeArtworkGenerated(ArtworkLocated located, ArtworkProfile profile, String cacheFilename) {
         try {
             final String cacheDir = StringUtils.removeEnd(FileTools.createDirHash(cacheFilename), File.separator + cacheFilename);
             return artworkStorageService.storeArtworkGenerated(located, profile, cacheDir, cacheFilename);
@@ -255,50 +335,34 @@ public class ArtworkProcessorService implements IQueueProcessService {
         }
     }
 
-    private static boolean checkArtworkQuality(ArtworkLocated located) {
-        if (StringUtils.isNotBlank(located.getUrl())) {
-
-            if (located.getWidth() <= 0 || located.getHeight() <= 0) {
-                // retrieve dimension
-                try {
-                    // get dimension
-                    Dimension dimension = GraphicTools.getDimension(located.getUrl());
-                    if (dimension.getHeight() <= 0 || dimension.getWidth() <= 0) {
-                        LOG.warn("No valid image dimension determined: {}", located);
-                        return false;
-                    }
-
-                    // set values for later usage
-                    located.setWidth((int) dimension.getWidth());
-                    located.setHeight((int) dimension.getHeight());
-                } catch (IOException ex) {
-                    LOG.warn("Could not determine image dimension cause invalid image: {}", located);
-                    LOG.trace("Invalid image error", ex);
-                    return false;
-                }
-            }
-
-            // TODO check quality of artwork?
-        } else {
-            // TODO stage file needs no image validation??
-            LOG.trace("Located URL was blank for {}", located);
+    /**
+     * Get an already generated image.
+     *
+     * @param id the id of the located artwork
+     * @param profileName the name of the profile
+     * @return the image or null if the image has not been generated yet
+     */
+    public ImageDTO getGeneratedImage(Long id, String profileName) {
+        ArtworkGenerated generated = this.artworkStorageService.getArtworkGenerated(id, profileName);
+        if (generated == null) {
+            return null;
         }
-
-        return true;
+        
+        ImageDTO result = new ImageDTO();
+        final StorageType storageType = ArtworkStorageTools.getStorageType(generated.getArtworkProfile().getArtworkType());
+        result.setResource(this.fileStorageService.getStorageName(storageType, generated.getFullCacheFilename()));
+        result.setMediaType(MediaType.IMAGE_JPEG);
+        return result;
     }
     
     public ImageDTO getImage(Long id, String profileName) throws IOException, ImageReadException { //NOSONAR
-        ImageDTO result = new ImageDTO();
-
-        ArtworkGenerated generated = this.artworkStorageService.getArtworkGenerated(id, profileName);
-        if (generated != null) {
-            final StorageType storageType = ArtworkStorageTools.getStorageType(generated.getArtworkProfile().getArtworkType());
-            result.setResource(this.fileStorageService.getStorageName(storageType, generated.getFullCacheFilename()));
-            result.setMediaType(MediaType.IMAGE_JPEG);
+        ImageDTO result = getGeneratedImage(id, profileName);
+        if (result != null) {
             return result;
         }
 
         // if no generated image found then create one
+        result = new ImageDTO();
         ArtworkLocated located;
         try {
             located = this.artworkStorageService.getRequiredArtworkLocated(id);
@@ -320,7 +384,7 @@ public class ArtworkProcessorService implements IQueueProcessService {
         }
         
         // create the image and the database entry
-        generated = this.generateImage(located, profile);
+        ArtworkGenerated generated = this.generateImage(located, profile);
         
         // return the image
         final StorageType storageType = ArtworkStorageTools.getStorageType(located);
@@ -330,16 +394,55 @@ public class ArtworkProcessorService implements IQueueProcessService {
     }
 
     private void createAndStoreImage(ArtworkLocated located, ArtworkProfile profile, String cacheFilename) throws IOException, ImageReadException { 
-        final StorageType storageType = ArtworkStorageTools.getStorageType(profile);
-        
-        LOG.trace("Generate image for {} with profile {}", located, profile.getProfileName());
-        BufferedImage imageGraphic = GraphicTools.loadJPEGImage(this.fileStorageService.getFile(storageType, located.getCacheFilename()));
-    
+        BufferedImage imageGraphic = loadOriginalImage(located, Collections.singletonList(profile));
+        storeImage(imageGraphic, located, profile, cacheFilename);
+    }
+
+    /**
+     * Decode the original image just once for the given profiles.
+     * 
+     * The image is decoded with source subsampling, so that it is only as large
+     * as needed for the largest of the profiles.
+     */
+    private BufferedImage loadOriginalImage(ArtworkLocated located, List<ArtworkProfile> profiles) throws IOException, ImageReadException { //NOSONAR
+        final StorageType storageType = ArtworkStorageTools.getStorageType(profiles.get(0));
+        final File originalFile = this.fileStorageService.getFile(storageType, located.getCacheFilename());
+        if (!originalFile.exists()) {
+            throw new FileNotFoundException("Image file '" + originalFile.getName() + "' does not exist");
+        }
+
         // set dimension of original image if not done before
+        if (located.getWidth() <= 0 || located.getHeight() <= 0) {
+            try {
+                Dimension dimension = GraphicTools.getDimension(originalFile);
+                located.setWidth((int) dimension.getWidth());
+                located.setHeight((int) dimension.getHeight());
+            } catch (IOException ex) {
+                LOG.trace("Could not read dimension of original image: {}", ex.getMessage());
+            }
+        }
+
+        int subsampling = Integer.MAX_VALUE;
+        for (ArtworkProfile profile : profiles) {
+            final float rcqFactor = profile.getRounderCornerQuality();
+            subsampling = Math.min(subsampling, GraphicTools.getSubsampling(located.getWidth(), located.getHeight(),
+                            (int) (profile.getWidth() * rcqFactor), (int) (profile.getHeight() * rcqFactor)));
+        }
+
+        LOG.trace("Decode original image for {} with subsampling {}", located, subsampling);
+        BufferedImage imageGraphic = GraphicTools.loadJPEGImage(originalFile, subsampling);
+
+        // dimension could not be read from the header
         if (located.getWidth() <= 0 || located.getHeight() <= 0) {
             located.setWidth(imageGraphic.getWidth());
             located.setHeight(imageGraphic.getHeight());
         }
+        return imageGraphic;
+    }
+
+    private void storeImage(BufferedImage imageGraphic, ArtworkLocated located, ArtworkProfile profile, String cacheFilename) throws IOException {
+        final StorageType storageType = ArtworkStorageTools.getStorageType(profile);
+        LOG.trace("Generate image for {} with profile {}", located, profile.getProfileName());
     
         // draw the image
         BufferedImage image = drawImage(imageGraphic, profile);
@@ -357,21 +460,23 @@ public class ArtworkProcessorService implements IQueueProcessService {
         int origHeight = imageGraphic.getHeight();
         float ratio = profile.getRatio();
         float rcqFactor = profile.getRounderCornerQuality();
+        // JPEG has no alpha channel, so scale directly into RGB
+        int imageType = ImageType.PNG == profile.getImageType() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
 
         if (ScalingType.NORMALIZE == profile.getScalingType()) {
             if (origWidth < profile.getWidth() && origHeight < profile.getWidth()) {
                 // normalize image if below profile settings
-                bi = GraphicTools.scaleToSizeNormalized((int) (origHeight * rcqFactor * ratio), (int) (origHeight * rcqFactor), bi);
+                bi = GraphicTools.scaleToSizeNormalized((int) (origHeight * rcqFactor * ratio), (int) (origHeight * rcqFactor), bi, imageType);
             } else {
                 // normalize image
-                bi = GraphicTools.scaleToSizeNormalized((int) (profile.getWidth() * rcqFactor), (int) (profile.getHeight() * rcqFactor), bi);
+                bi = GraphicTools.scaleToSizeNormalized((int) (profile.getWidth() * rcqFactor), (int) (profile.getHeight() * rcqFactor), bi, imageType);
             }
         } else if (ScalingType.STRETCH == profile.getScalingType()) {
             // stretch image
-            bi = GraphicTools.scaleToSizeStretch((int) (profile.getWidth() * rcqFactor), (int) (profile.getHeight() * rcqFactor), bi);
+            bi = GraphicTools.scaleToSizeStretch((int) (profile.getWidth() * rcqFactor), (int) (profile.getHeight() * rcqFactor), bi, imageType);
         } else if ((origWidth != profile.getWidth()) || (origHeight != profile.getHeight())) {
             // scale image to given size
-            bi = GraphicTools.scaleToSize((int) (profile.getWidth() * rcqFactor), (int) (profile.getHeight() * rcqFactor), bi);
+            bi = GraphicTools.scaleToSize((int) (profile.getWidth() * rcqFactor), (int) (profile.getHeight() * rcqFactor), bi, imageType);
         }
 
         // return image
@@ -0,0 +1,149 @@
+/*
+ *      Copyright (c) 2004-2015 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ).
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3
+ *
+ */
+package org.yamj.core.service.artwork;
+
+import java.io.IOException;
+import java.util.concurrent.*;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import org.apache.sanselan.ImageReadException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Renders missing profile images for API requests.
+ * 
+ * The images are rendered on a bounded pool instead of the request threads.
+ * Concurrent requests for the same image wait for the same rendering, and
+ * requests are rejected if the queue of the pool is full.
+ */
+@Service("artworkRenderService")
+public class ArtworkRenderService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ArtworkRenderService.class);
+
+    private final ConcurrentMap<String, FutureTask<ImageDTO>> renderings = new ConcurrentHashMap<>();
+    private ThreadPoolExecutor renderExecutor;
+
+    @Autowired
+    private ArtworkProcessorService artworkProcessorService;
+    @Value("${yamj3.artwork.render.threads:2}")
+    private int renderThreads;
+    @Value("${yamj3.artwork.render.queueSize:50}")
+    private int queueSize;
+    @Value("${yamj3.artwork.render.timeout:30000}")
+    private long renderTimeout;
+
+    @PostConstruct
+    public void init() {
+        final int threads = Math.max(1, renderThreads);
+        LOG.debug("Use {} threads and a queue of {} for rendering of artwork images", threads, queueSize);
+        
+        renderExecutor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+                        new ArrayBlockingQueue<Runnable>(Math.max(1, queueSize)), new CustomizableThreadFactory("artwork-render-"));
+        // let threads die if no image is rendered
+        renderExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        renderExecutor.shutdownNow();
+    }
+
+    /**
+     * Get the image of a located artwork for a profile; render the image if not done before.
+     *
+     * @param id the id of the located artwork
+     * @param profileName the name of the profile
+     * @return the image or null if the artwork or the profile does not exist
+     * @throws IOException
+     * @throws ImageReadException
+     * @throws TimeoutException if the rendering did not finish in time
+     * @throws RejectedExecutionException if the render queue is full
+     * @throws CancellationException if the rendering has been rejected for another request
+     */
+    public ImageDTO getImage(final Long id, final String profileName) throws IOException, ImageReadException, TimeoutException { //NOSONAR
+        ImageDTO image = artworkProcessorService.getGeneratedImage(id, profileName);
+        if (image != null) {
+            return image;
+        }
+
+        final String key = id + "/" + profileName;
+        FutureTask<ImageDTO> rendering = renderings.get(key);
+        if (rendering == null) {
+            final FutureTask<ImageDTO> newRendering = new FutureTask<ImageDTO>(new Callable<ImageDTO>() {
+                @Override
+                public ImageDTO call() throws Exception {
+                    return artworkProcessorService.getImage(id, profileName);
+                }
+            }) {
+                @Override
+                protected void done() {
+                    // later requests will find the generated image
+                    renderings.remove(key, this);
+                }
+            };
+            
+            rendering = renderings.putIfAbsent(key, newRendering);
+            if (rendering == null) {
+                rendering = newRendering;
+                try {
+                    renderExecutor.execute(newRendering);
+                } catch (RejectedExecutionException ex) {
+                    // release the requests which are already waiting for this rendering
+                    newRendering.cancel(false);
+                    throw ex;
+                }
+            } else {
+                LOG.trace("Wait for running rendering of {}", key);
+            }
+        }
+        
+        try {
+            return rendering.get(renderTimeout, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            // don't let a hanging rendering block the following requests
+            renderings.remove(key, rendering);
+            throw ex;
+        } catch (InterruptedException ex) { //NOSONAR
+            Thread.currentThread().interrupt();
+            throw new TimeoutException("Interrupted while waiting for rendering of " + key);
+        } catch (ExecutionException ex) {
+            final Throwable cause = ex.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof ImageReadException) {
+                throw (ImageReadException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException("Rendering of " + key + " failed", cause);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ *      Copyright (c) 2004-2015 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ).
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3
+ *
+ */
+package org.yamj.core.service.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.yamj.common.type.MetaDataType;
+import org.yamj.core.scheduling.ApiIndexScheduler;
+import org.yamj.core.web.ResponseCacheService;
+
+/**
+ * Evicts exactly the cache entries of a changed metadata object.
+ * 
+ * The event is handled after the publishing transaction has been committed,
+ * so that a concurrent request can not cache the old data again.
+ */
+@Component
+public class CacheInvalidationListener {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CacheInvalidationListener.class);
+
+    @Autowired
+    private CacheManager cacheManager;
+    @Autowired
+    private ResponseCacheService responseCacheService;
+    @Autowired
+    private ApiIndexScheduler apiIndexScheduler;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(ChangeEvent event) {
+        LOG.trace("Handle change: {}", event);
+        
+        boolean reindex = false;
+        for (ChangeAspect aspect : event.getAspects()) {
+            final Cache cache = aspect.getCacheName() == null ? null : cacheManager.getCache(aspect.getCacheName());
+            if (cache != null) {
+                if (event.isGlobal()) {
+                    cache.clear();
+                } else {
+                    cache.evict(event.getCacheKey());
+                }
+            }
+            reindex = reindex || aspect.isIndexed();
+        }
+
+        // the API responses may contain the changed object anywhere
+        responseCacheService.invalidate();
+
+        if (reindex) {
+            if (event.isGlobal() || event.getType() == MetaDataType.SERIES || event.getType() == MetaDataType.SEASON) {
+                // the refresh of the API index does not detect changes of series and seasons
+                apiIndexScheduler.triggerFacetRebuild();
+            } else {
+                apiIndexScheduler.trigger();
+            }
+        }
+    }
+}
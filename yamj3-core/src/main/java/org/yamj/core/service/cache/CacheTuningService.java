@@ -0,0 +1,179 @@
+/*
+ *      Copyright (c) 2004-2015 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ).
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3
+ *
+ */
+package org.yamj.core.service.cache;
+
+import java.util.*;
+import javax.annotation.PostConstruct;
+import net.sf.ehcache.CacheManager;
+import net.sf.ehcache.Ehcache;
+import net.sf.ehcache.config.CacheConfiguration;
+import net.sf.ehcache.config.MemoryUnit;
+import net.sf.ehcache.statistics.LiveCacheStatistics;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.yamj.core.api.model.CacheStatistics;
+import org.yamj.core.config.ConfigService;
+
+/**
+ * Exposes the cache statistics and applies the cache limits from the configuration
+ * to the running caches.
+ * 
+ * Per cache the keys "yamj3.cache.&lt;name&gt;.maxEntries", "yamj3.cache.&lt;name&gt;.maxBytes"
+ * and "yamj3.cache.&lt;name&gt;.ttl" (seconds) are evaluated; maxBytes only applies to caches
+ * which are sized by bytes and maxEntries only to caches which are sized by entries.
+ * If a key is removed, the initial value of the cache is restored.
+ */
+@Service("cacheTuningService")
+public class CacheTuningService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CacheTuningService.class);
+    public static final String CACHE_PREFIX = "yamj3.cache.";
+
+    private final Map<String, CacheLimits> initialLimits = new HashMap<>();
+
+    @Autowired
+    private CacheManager ehCacheManager;
+    @Autowired
+    private ConfigService configService;
+
+    @PostConstruct
+    public void init() {
+        LOG.trace("Initialize cache tuning service");
+
+        for (String name : ehCacheManager.getCacheNames()) {
+            initialLimits.put(name, new CacheLimits(ehCacheManager.getEhcache(name).getCacheConfiguration()));
+        }
+        applySettings();
+    }
+
+    /**
+     * Apply the configured limits to the running caches.
+     */
+    public synchronized void applySettings() {
+        for (String name : ehCacheManager.getCacheNames()) {
+            final CacheLimits initial = initialLimits.get(name);
+            if (initial == null) {
+                continue;
+            }
+            
+            final CacheConfiguration config = ehCacheManager.getEhcache(name).getCacheConfiguration();
+            final String prefix = CACHE_PREFIX + name;
+            try {
+                if (initial.maxBytes > 0) {
+                    final String value = StringUtils.trimToNull(configService.getProperty(prefix + ".maxBytes"));
+                    final long maxBytes = value == null ? initial.maxBytes : MemoryUnit.parseSizeInBytes(value);
+                    if (maxBytes > 0 && maxBytes != config.getMaxBytesLocalHeap()) {
+                        LOG.info("Set maximal bytes of cache '{}' to {}", name, maxBytes);
+                        config.setMaxBytesLocalHeap(Long.valueOf(maxBytes));
+                    }
+                } else {
+                    final long maxEntries = configService.getLongProperty(prefix + ".maxEntries", initial.maxEntries);
+                    if (maxEntries > 0 && maxEntries != config.getMaxEntriesLocalHeap()) {
+                        LOG.info("Set maximal entries of cache '{}' to {}", name, maxEntries);
+                        config.setMaxEntriesLocalHeap(maxEntries);
+                    }
+                }
+
+                final long timeToLive = configService.getLongProperty(prefix + ".ttl", initial.timeToLive);
+                if (timeToLive >= 0 && timeToLive != config.getTimeToLiveSeconds()) {
+                    LOG.info("Set time to live of cache '{}' to {} seconds", name, timeToLive);
+                    config.setTimeToLiveSeconds(timeToLive);
+                }
+            } catch (Exception ex) {
+                LOG.warn("Failed to apply settings to cache '{}': {}", name, ex.getMessage());
+                LOG.trace("Cache settings error", ex);
+            }
+        }
+    }
+
+    /**
+     * Get the statistics of all caches.
+     */
+    public List<CacheStatistics> getStatistics() {
+        final String[] names = ehCacheManager.getCacheNames();
+        Arrays.sort(names);
+
+        List<CacheStatistics> result = new ArrayList<>(names.length);
+        for (String name : names) {
+            result.add(getStatistics(ehCacheManager.getEhcache(name)));
+        }
+        return result;
+    }
+
+    /**
+     * Get the statistics of a single cache.
+     * 
+     * @return the statistics or null if the cache does not exist
+     */
+    public CacheStatistics getStatistics(String name) {
+        final Ehcache cache = ehCacheManager.getEhcache(name);
+        return cache == null ? null : getStatistics(cache);
+    }
+
+    /**
+     * Reset the statistics of all caches.
+     */
+    public void clearStatistics() {
+        for (String name : ehCacheManager.getCacheNames()) {
+            ehCacheManager.getEhcache(name).clearStatistics();
+        }
+    }
+
+    private static CacheStatistics getStatistics(Ehcache cache) {
+        final CacheConfiguration config = cache.getCacheConfiguration();
+        final LiveCacheStatistics live = cache.getLiveCacheStatistics();
+
+        CacheStatistics stats = new CacheStatistics(cache.getName());
+        stats.setHits(live.getCacheHitCount());
+        stats.setMisses(live.getCacheMissCount());
+        stats.setEvictions(live.getEvictedCount());
+        stats.setExpirations(live.getExpiredCount());
+        stats.setSize(live.getSize());
+        stats.setDiskSize(live.getLocalDiskSize());
+        stats.setAverageGetTime(live.getAverageGetTimeMillis());
+        stats.setMaxEntries(config.getMaxEntriesLocalHeap());
+        stats.setMaxBytes(config.getMaxBytesLocalHeap());
+        stats.setTimeToLive(config.getTimeToLiveSeconds());
+        if (config.getMaxBytesLocalHeap() > 0) {
+            // only cheap for caches which are sized by bytes
+            stats.setHeapBytes(live.getLocalHeapSizeInBytes());
+        }
+        return stats;
+    }
+
+    private static final class CacheLimits {
+
+        private final long maxEntries;
+        private final long maxBytes;
+        private final long timeToLive;
+
+        CacheLimits(CacheConfiguration config) {
+            this.maxEntries = config.getMaxEntriesLocalHeap();
+            this.maxBytes = config.getMaxBytesLocalHeap();
+            this.timeToLive = config.getTimeToLiveSeconds();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ *      Copyright (c) 2004-2015 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ).
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3
+ *
+ */
+package org.yamj.core.service.cache;
+
+import static org.yamj.core.CachingNames.*;
+
+/**
+ * The aspects of a metadata object which may change.
+ */
+public enum ChangeAspect {
+
+    METADATA(null, true),
+    WATCHED(null, true),
+    ARTWORK(null, false),
+    GENRE(API_GENRES, true),
+    STUDIO(API_STUDIOS, true),
+    LIBRARY(API_LIBRARIES, true),
+    COUNTRY(API_COUNTRIES, true),
+    CERTIFICATION(API_CERTIFICATIONS, true),
+    EXTERNAL_ID(API_EXTERNAL_IDS, false),
+    RATING(API_RATINGS, true),
+    AWARD(API_AWARDS, true),
+    BOXED_SET(API_BOXEDSETS, true),
+    TRAILER(API_TRAILERS, false),
+    VIDEO_SOURCE(API_VIDEOSOURCE, true);
+
+    private final String cacheName;
+    private final boolean indexed;
+
+    private ChangeAspect(String cacheName, boolean indexed) {
+        this.cacheName = cacheName;
+        this.indexed = indexed;
+    }
+
+    /**
+     * Get the cache which holds this aspect per metadata object.
+     * 
+     * @return the cache name or null if the aspect is not cached on its own
+     */
+    public String getCacheName() {
+        return cacheName;
+    }
+
+    /**
+     * Determine if the API index projections (index, facets, search) depend on this aspect.
+     */
+    public boolean isIndexed() {
+        return indexed;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ *      Copyright (c) 2004-2015 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ).
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3
+ *
+ */
+package org.yamj.core.service.cache;
+
+import java.util.*;
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+import org.yamj.common.type.MetaDataType;
+
+/**
+ * Change of a metadata object, published by the storage services.
+ * 
+ * An event without type and id concerns all metadata objects, i.e. after
+ * the rename of a genre.
+ */
+public final class ChangeEvent {
+
+    private final MetaDataType type;
+    private final Long id;
+    private final Set<ChangeAspect> aspects;
+
+    private ChangeEvent(MetaDataType type, Long id, Set<ChangeAspect> aspects) {
+        this.type = type;
+        this.id = id;
+        this.aspects = Collections.unmodifiableSet(aspects);
+    }
+
+    /**
+     * Changed aspects of a single metadata object.
+     */
+    public static ChangeEvent of(MetaDataType type, Long id, ChangeAspect first, ChangeAspect... rest) {
+        return new ChangeEvent(type, id, EnumSet.of(first, rest));
+    }
+
+    /**
+     * Metadata object which has been scanned, so all aspects may have changed.
+     */
+    public static ChangeEvent scanned(MetaDataType type, Long id) {
+        return new ChangeEvent(type, id, EnumSet.allOf(ChangeAspect.class));
+    }
+
+    /**
+     * Changed aspects of all metadata objects.
+     */
+    public static ChangeEvent all(ChangeAspect first, ChangeAspect... rest) {
+        return new ChangeEvent(null, null, EnumSet.of(first, rest));
+    }
+
+    public MetaDataType getType() {
+        return type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Set<ChangeAspect> getAspects() {
+        return aspects;
+    }
+
+    public boolean isGlobal() {
+        return type == null || id == null;
+    }
+
+    /**
+     * Get the key of the metadata object in the API caches.
+     */
+    public Object getCacheKey() {
+        // same as the key expression {#type, #id} of the cached API methods
+        return Arrays.<Object>asList(type, id);
+    }
+
+    @Override
+    public String toString() {
+        return ToStringBuilder.reflectionToString(this, ToStringStyle.SHORT_PREFIX_STYLE);
+    }
+}
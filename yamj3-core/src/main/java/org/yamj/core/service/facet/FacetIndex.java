@@ -0,0 +1,123 @@
+/*
+ *      Copyright (c) 2004-2015 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ).
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3
+ *
+ */
+package org.yamj.core.service.facet;
+
+import java.util.*;
+import org.yamj.common.type.MetaDataType;
+
+/**
+ * Immutable snapshot of the facet values of all videos.
+ *
+ * Holds one bitmap over the id space of each meta data type per facet value,
+ * so that filter combinations can be evaluated with bitmap operations.
+ * The ids of videos, seasons and series are database sequences and therefore
+ * dense enough for a plain BitSet.
+ */
+public final class FacetIndex {
+
+    private static final BitSet EMPTY = new BitSet(0);
+
+    private final Map<MetaDataType, TypeIndex> types = new EnumMap<>(MetaDataType.class);
+
+    void addObject(MetaDataType type, long id) {
+        getTypeIndex(type).all.set(toIndex(id));
+    }
+
+    void addValue(MetaDataType type, long id, FacetType facet, String key, boolean counted) {
+        TypeIndex typeIndex = getTypeIndex(type);
+        Map<String, BitSet> values = typeIndex.values.get(facet);
+        if (values == null) {
+            values = new HashMap<>();
+            typeIndex.values.put(facet, values);
+        }
+        BitSet bitSet = values.get(key);
+        if (bitSet == null) {
+            bitSet = new BitSet();
+            values.put(key, bitSet);
+        }
+        bitSet.set(toIndex(id));
+        
+        if (counted) {
+            Set<String> keys = typeIndex.countedKeys.get(facet);
+            if (keys == null) {
+                keys = new HashSet<>();
+                typeIndex.countedKeys.put(facet, keys);
+            }
+            keys.add(key);
+        }
+    }
+
+    private TypeIndex getTypeIndex(MetaDataType type) {
+        TypeIndex typeIndex = types.get(type);
+        if (typeIndex == null) {
+            typeIndex = new TypeIndex();
+            types.put(type, typeIndex);
+        }
+        return typeIndex;
+    }
+
+    /**
+     * Get the ids of all objects of the given type.
+     */
+    public BitSet getAll(MetaDataType type) {
+        TypeIndex typeIndex = types.get(type);
+        return typeIndex == null ? EMPTY : typeIndex.all;
+    }
+
+    /**
+     * Get the ids of the objects of the given type which have the facet value.
+     */
+    public BitSet getValue(MetaDataType type, FacetType facet, String key) {
+        TypeIndex typeIndex = types.get(type);
+        if (typeIndex == null || !typeIndex.values.containsKey(facet)) {
+            return EMPTY;
+        }
+        BitSet bitSet = typeIndex.values.get(facet).get(key);
+        return bitSet == null ? EMPTY : bitSet;
+    }
+
+    /**
+     * Get the keys of the facet values which should be counted; aliases are not counted.
+     */
+    public Set<String> getCountedKeys(MetaDataType type, FacetType facet) {
+        TypeIndex typeIndex = types.get(type);
+        if (typeIndex == null || !typeIndex.countedKeys.containsKey(facet)) {
+            return Collections.emptySet();
+        }
+        return typeIndex.countedKeys.get(facet);
+    }
+
+    private static int toIndex(long id) {
+        if (id < 0 || id > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Id out of range for facet index: " + id);
+        }
+        return (int) id;
+    }
+
+    private static final class TypeIndex {
+
+        private final BitSet all = new BitSet();
+        private final Map<FacetType, Map<String, BitSet>> values = new EnumMap<>(FacetType.class);
+        private final Map<FacetType, Set<String>> countedKeys = new EnumMap<>(FacetType.class);
+    }
+}
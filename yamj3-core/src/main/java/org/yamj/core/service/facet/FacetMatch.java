@@ -0,0 +1,56 @@
+/*
+ *      Copyright (c) 2004-2015 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ).
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3
+ *
+ */
+package org.yamj.core.service.facet;
+
+import java.util.BitSet;
+
+/**
+ * The ids of one meta data type which passed the facet filters.
+ *
+ * Either holds the matching ids or, if fewer, the ids of the snapshot
+ * which didn't match; objects created after the snapshot never match.
+ */
+public final class FacetMatch {
+
+    private final BitSet ids;
+    private final boolean negated;
+    private final int maxId;
+
+    FacetMatch(BitSet ids, boolean negated, int maxId) {
+        this.ids = ids;
+        this.negated = negated;
+        this.maxId = maxId;
+    }
+
+    public BitSet getIds() {
+        return ids;
+    }
+
+    public boolean isNegated() {
+        return negated;
+    }
+
+    public int getMaxId() {
+        return maxId;
+    }
+}
@@ -0,0 +1,338 @@
+/*
+ *      Copyright (c) 2004-2015 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ).
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3
+ *
+ */
+package org.yamj.core.service.facet;
+
+import static org.yamj.common.type.MetaDataType.*;
+
+import java.util.*;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.yamj.common.type.MetaDataType;
+import org.yamj.core.api.model.builder.IndexParams;
+import org.yamj.core.database.dao.FacetDao;
+import org.yamj.core.database.model.type.ResolutionType;
+
+/**
+ * In-memory facet engine for the include/exclude filters of the video index.
+ *
+ * Evaluates the filter combinations as bitmap operations, so that the database
+ * only has to select the matching rows instead of running an EXISTS sub query
+ * for each filter and row.
+ */
+@Service("facetService")
+public class FacetService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(FacetService.class);
+    private static final MetaDataType[] VIDEO_TYPES = new MetaDataType[]{MOVIE, SERIES, SEASON, EPISODE};
+    private static final String COMBINED = "combined";
+
+    @Autowired
+    private FacetDao facetDao;
+
+    @Value("${yamj3.api.facets.enabled:false}")
+    private boolean enabled;
+    @Value("${yamj3.api.facets.maxIds:1000}")
+    private int maxIds;
+
+    private volatile FacetIndex facetIndex;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isReady() {
+        return facetIndex != null;
+    }
+
+    /**
+     * Build a new snapshot of the facet index.
+     */
+    public void rebuildIndex() {
+        if (!enabled) {
+            return;
+        }
+
+        final long start = System.currentTimeMillis();
+        FacetIndex index = new FacetIndex();
+        for (Object[] row : facetDao.getObjects()) {
+            final MetaDataType type = toType(row[0]);
+            if (type != null && row[1] != null) {
+                index.addObject(type, ((Number) row[1]).longValue());
+            }
+        }
+        for (FacetType facet : FacetType.values()) {
+            final List<Object[]> rows = facetDao.getFacetRows(facet);
+            if (facet == FacetType.RESOLUTION) {
+                addResolutions(index, rows);
+            } else if (facet == FacetType.RATING) {
+                addRatings(index, rows);
+            } else {
+                addValues(index, facet, rows);
+            }
+        }
+        this.facetIndex = index;
+        LOG.info("Rebuilt facet index in {} ms", System.currentTimeMillis() - start);
+    }
+
+    private static void addValues(FacetIndex index, FacetType facet, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            final MetaDataType type = toType(row[0]);
+            if (type == null || row[1] == null) {
+                continue;
+            }
+            final long id = ((Number) row[1]).longValue();
+            
+            // the first value column is counted, the others are aliases
+            for (int col = 2; col < row.length; col++) {
+                final String key = toKey(row[col]);
+                if (key != null) {
+                    index.addValue(type, id, facet, key, col == 2);
+                }
+            }
+        }
+    }
+
+    private static void addResolutions(FacetIndex index, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            final MetaDataType type = toType(row[0]);
+            if (type == null || row[1] == null || row[2] == null) {
+                continue;
+            }
+            final long id = ((Number) row[1]).longValue();
+            final int width = ((Number) row[2]).intValue();
+            
+            for (ResolutionType resolution : ResolutionType.values()) {
+                if (width >= resolution.getMinWidth().intValue() && width <= resolution.getMaxWidth().intValue()) {
+                    index.addValue(type, id, FacetType.RESOLUTION, toKey(resolution), resolution != ResolutionType.ALL);
+                }
+            }
+        }
+    }
+
+    private static void addRatings(FacetIndex index, List<Object[]> rows) {
+        // sum and count of the ratings for the combined rating
+        Map<MetaDataType, Map<Long, int[]>> combined = new EnumMap<>(MetaDataType.class);
+        
+        for (Object[] row : rows) {
+            final MetaDataType type = toType(row[0]);
+            if (type == null || row[1] == null || row[2] == null || row[3] == null) {
+                continue;
+            }
+            final Long id = Long.valueOf(((Number) row[1]).longValue());
+            final int rating = ((Number) row[3]).intValue();
+            index.addValue(type, id, FacetType.RATING, toKey(row[2]) + "-" + Math.round(rating / 10d), true);
+
+            Map<Long, int[]> sums = combined.get(type);
+            if (sums == null) {
+                sums = new HashMap<>();
+                combined.put(type, sums);
+            }
+            int[] sum = sums.get(id);
+            if (sum == null) {
+                sum = new int[2];
+                sums.put(id, sum);
+            }
+            sum[0] += rating;
+            sum[1]++;
+        }
+
+        for (Map.Entry<MetaDataType, Map<Long, int[]>> entry : combined.entrySet()) {
+            for (Map.Entry<Long, int[]> sum : entry.getValue().entrySet()) {
+                final double average = (double) sum.getValue()[0] / sum.getValue()[1];
+                index.addValue(entry.getKey(), sum.getKey(), FacetType.RATING, COMBINED + "-" + Math.round(average / 10d), true);
+            }
+        }
+    }
+
+    /**
+     * Determine if the parameters contain any filter of the facet engine.
+     */
+    public boolean hasFilters(IndexParams params) {
+        return !getFilters(params).isEmpty();
+    }
+
+    /**
+     * Get the ids of the given type which match the facet filters.
+     *
+     * @param params the index parameters
+     * @param type the meta data type
+     * @return the match, or null if the index is not ready or too many ids would have to be passed to the database
+     */
+    public FacetMatch match(IndexParams params, MetaDataType type) {
+        final FacetIndex index = this.facetIndex;
+        if (index == null) {
+            return null;
+        }
+
+        final BitSet all = index.getAll(type);
+        final BitSet matching = evaluate(index, getFilters(params), type);
+        if (matching.cardinality() <= maxIds) {
+            return new FacetMatch(matching, false, all.length() - 1);
+        }
+
+        BitSet rejected = (BitSet) all.clone();
+        rejected.andNot(matching);
+        if (rejected.cardinality() <= maxIds) {
+            return new FacetMatch(rejected, true, all.length() - 1);
+        }
+        return null;
+    }
+
+    /**
+     * Count the objects which match the facet filters per facet value.
+     *
+     * The facet filters are evaluated by the index; filters of the list which are
+     * not covered by the facet engine (year, watched, newest, search) must be
+     * applied by passing the ids of the listed objects.
+     *
+     * @param params the index parameters
+     * @param listed the ids per type of the listed objects, or null if the list has no further filters
+     * @return the counts per facet and value, or null if the index is not ready
+     */
+    public Map<String, Map<String, Integer>> countFacets(IndexParams params, Map<MetaDataType, BitSet> listed) {
+        final FacetIndex index = this.facetIndex;
+        if (index == null) {
+            return null;
+        }
+
+        final List<Filter> filters = getFilters(params);
+        final Set<MetaDataType> types = params.getMetaDataTypes();
+        Map<String, Map<String, Integer>> result = new TreeMap<>();
+        for (MetaDataType type : VIDEO_TYPES) {
+            if (!types.contains(type)) {
+                continue;
+            }
+
+            final BitSet matching = evaluate(index, filters, type);
+            if (listed != null) {
+                final BitSet ids = listed.get(type);
+                if (ids == null) {
+                    matching.clear();
+                } else {
+                    matching.and(ids);
+                }
+            }
+
+            for (FacetType facet : FacetType.values()) {
+                Map<String, Integer> counts = result.get(facet.getApiName());
+                if (counts == null) {
+                    counts = new TreeMap<>();
+                    result.put(facet.getApiName(), counts);
+                }
+                
+                for (String key : index.getCountedKeys(type, facet)) {
+                    BitSet bitSet = (BitSet) index.getValue(type, facet, key).clone();
+                    bitSet.and(matching);
+                    final int count = bitSet.cardinality();
+                    if (count > 0) {
+                        Integer previous = counts.get(key);
+                        counts.put(key, previous == null ? count : previous.intValue() + count);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private static BitSet evaluate(FacetIndex index, List<Filter> filters, MetaDataType type) {
+        BitSet result = (BitSet) index.getAll(type).clone();
+        for (Filter filter : filters) {
+            final BitSet value = index.getValue(type, filter.facet, filter.key);
+            if (filter.include) {
+                result.and(value);
+            } else {
+                result.andNot(value);
+            }
+        }
+        return result;
+    }
+
+    private static List<Filter> getFilters(IndexParams params) {
+        List<Filter> filters = new ArrayList<>();
+        if (params.checkGenre()) {
+            filters.add(new Filter(FacetType.GENRE, params.getGenreName(), params.includeGenre()));
+        }
+        if (params.checkStudio()) {
+            filters.add(new Filter(FacetType.STUDIO, params.getStudioName(), params.includeStudio()));
+        }
+        if (params.checkLibrary()) {
+            filters.add(new Filter(FacetType.LIBRARY, StringUtils.strip(params.getLibraryName(), "\"'"), params.includeLibrary()));
+        }
+        if (params.checkCountry()) {
+            filters.add(new Filter(FacetType.COUNTRY, params.getCountryCode(), params.includeCountry()));
+        }
+        if (params.getCertificationId() > 0) {
+            filters.add(new Filter(FacetType.CERTIFICATION, String.valueOf(params.getCertificationId()), params.includeCertification()));
+        }
+        if (params.checkAward()) {
+            filters.add(new Filter(FacetType.AWARD, params.getAwardName(), params.includeAward()));
+        }
+        if (params.checkVideoSource()) {
+            filters.add(new Filter(FacetType.VIDEOSOURCE, params.getVideoSource(), params.includeVideoSource()));
+        }
+        if (params.checkResolution()) {
+            filters.add(new Filter(FacetType.RESOLUTION, toKey(params.getResolution()), params.includeResolution()));
+        }
+        if (params.getRatingSource() != null) {
+            filters.add(new Filter(FacetType.RATING, toKey(params.getRatingSource()) + "-" + params.getRating(), params.includeRating()));
+        }
+        if (params.getBoxSetId() > 0) {
+            filters.add(new Filter(FacetType.BOXSET, String.valueOf(params.getBoxSetId()), params.includeBoxedSet()));
+        }
+        return filters;
+    }
+
+    private static MetaDataType toType(Object value) {
+        return value == null ? null : MetaDataType.fromString(value.toString());
+    }
+
+    private static String toKey(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Number) {
+            return String.valueOf(((Number) value).longValue());
+        }
+        if (value instanceof ResolutionType) {
+            return ((ResolutionType) value).name().toLowerCase();
+        }
+        return StringUtils.lowerCase(StringUtils.trimToNull(value.toString()));
+    }
+
+    private static final class Filter {
+
+        private final FacetType facet;
+        private final String key;
+        private final boolean include;
+
+        public Filter(FacetType facet, String key, boolean include) {
+            this.facet = facet;
+            this.key = key;
+            this.include = include;
+        }
+    }
+}
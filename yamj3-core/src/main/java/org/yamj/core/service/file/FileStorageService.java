@@ -22,6 +22,7 @@
  */
 package org.yamj.core.service.file;
 
+import java.awt.Dimension;
 import java.awt.image.BufferedImage;
 import java.io.*;
 import java.net.MalformedURLException;
@@ -38,7 +39,13 @@ import net.lingala.zip4j.model.FileHeader;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.http.Header;
 import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.util.EntityUtils;
+import org.apache.sanselan.ImageReadException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -48,6 +55,8 @@ import org.yamj.common.tools.PropertyTools;
 import org.yamj.core.api.model.Skin;
 import org.yamj.core.database.model.StageFile;
 import org.yamj.core.service.attachment.AttachmentScannerService;
+import org.yamj.core.tools.image.GraphicTools;
+import org.yamj.core.tools.image.ImageHeaderProbe;
 import org.yamj.plugin.api.model.type.ImageType;
 
 @Service("fileStorageService")
@@ -138,6 +147,80 @@ public class FileStorageService {
         return true;
     }
 
+    /**
+     * Download an image and determine its dimension while the data is streamed into the storage.
+     * 
+     * The download is aborted as soon as the image header turns out to be invalid.
+     *
+     * @param type
+     * @param filename
+     * @param url
+     * @return the dimension of the stored image; null if no content could be retrieved
+     * @throws IOException
+     * @throws ImageReadException if the content is not a valid image
+     */
+    public Dimension storeImage(StorageType type, String filename, URL url) throws IOException, ImageReadException { //NOSONAR
+        LOG.debug("Store image {}; source url: {}", filename, url.toString());
+        
+        final HttpGet httpGet = new HttpGet(url.toString());
+        final HttpResponse response = httpClient.execute(httpGet);
+        final HttpEntity entity = response.getEntity();
+        if (entity == null || response.getStatusLine().getStatusCode() != HttpStatus.SC_OK) {
+            LOG.error("Failed to get content from source url: {} ({})", url, response.getStatusLine());
+            EntityUtils.consumeQuietly(entity);
+            return null;
+        }
+
+        final Header contentType = entity.getContentType();
+        if (contentType != null && StringUtils.startsWithIgnoreCase(contentType.getValue(), "text/")) {
+            httpGet.abort();
+            throw new ImageReadException("Content of '" + url + "' is no image: " + contentType.getValue());
+        }
+        
+        final File storageFile = getFile(type, filename);
+        final ImageHeaderProbe probe = new ImageHeaderProbe();
+        boolean complete = false;
+        try (OutputStream outputStream = new FileOutputStream(storageFile)) {
+            InputStream inputStream = entity.getContent();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, read);
+                if (probe.update(buffer, 0, read) && probe.isInvalid()) {
+                    break;
+                }
+            }
+            complete = !probe.isInvalid();
+        } finally {
+            if (!complete) {
+                // drop the connection and the partial file
+                httpGet.abort();
+                FileUtils.deleteQuietly(storageFile);
+            }
+        }
+
+        if (probe.isInvalid()) {
+            throw new ImageReadException("Image '" + url + "' has invalid dimension " + probe.getDimension());
+        }
+        if (probe.isKnownFormat()) {
+            return probe.getDimension();
+        }
+        
+        // unknown header; let the image readers determine the dimension
+        Dimension dimension;
+        try {
+            dimension = GraphicTools.getDimension(storageFile);
+        } catch (IOException ex) {
+            LOG.trace("Failed to read image dimension", ex);
+            dimension = new Dimension();
+        }
+        if (dimension.width <= 0 || dimension.height <= 0) {
+            FileUtils.deleteQuietly(storageFile);
+            throw new ImageReadException("Image '" + url + "' has no valid dimension");
+        }
+        return dimension;
+    }
+
     public boolean store(StorageType type, String filename, byte[] bytes) throws IOException {
         LOG.debug("Store file {}; uploaded image", filename);
         String storageFileName = getStorageName(type, filename);
@@ -190,8 +273,14 @@ public class FileStorageService {
                 ImageIO.write(bi, "png", outputFile);
             } else {
                 float jpegQuality = (float) quality / 100;
-                BufferedImage bufImage = new BufferedImage(bi.getWidth(), bi.getHeight(), BufferedImage.TYPE_INT_RGB);
-                bufImage.createGraphics().drawImage(bi, 0, 0, null, null);
+                final BufferedImage bufImage;
+                if (bi.getType() == BufferedImage.TYPE_INT_RGB || bi.getType() == BufferedImage.TYPE_3BYTE_BGR) {
+                    // already without alpha channel, so it can be encoded directly
+                    bufImage = bi;
+                } else {
+                    bufImage = new BufferedImage(bi.getWidth(), bi.getHeight(), BufferedImage.TYPE_INT_RGB);
+                    bufImage.createGraphics().drawImage(bi, 0, 0, null, null);
+                }
 
                 writer = ImageIO.getImageWritersByFormatName("jpeg").next();
                 ImageWriteParam iwp = writer.getDefaultWriteParam();
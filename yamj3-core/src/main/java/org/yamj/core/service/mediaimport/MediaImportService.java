@@ -50,6 +50,7 @@ import org.yamj.core.config.ConfigServiceWrapper;
 import org.yamj.core.config.LocaleService;
 import org.yamj.core.database.dao.*;
 import org.yamj.core.database.model.*;
+import org.yamj.core.database.model.dto.QueueDTO;
 import org.yamj.core.database.model.type.FileType;
 import org.yamj.core.database.service.CommonStorageService;
 import org.yamj.core.database.service.MetadataStorageService;
@@ -114,6 +115,37 @@ public class MediaImportService {
         return this.stagingDao.getNextStageFileId(fileType);
     }
 
+    @Transactional(readOnly = true)
+    public List<QueueDTO> getStageDirectoryQueue(final FileType fileType, final int maxResults) {
+        List<Long> ids = this.stagingDao.getNextStageDirectoryIds(fileType, maxResults);
+        List<QueueDTO> queueElements = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            queueElements.add(new QueueDTO(id));
+        }
+        return queueElements;
+    }
+
+    @Transactional
+    public List<Long> claimStageFiles(final FileType fileType, final Long stageDirectoryId, final int maxResults, final Collection<Long> skipIds) {
+        // fetch enough ids to fill the batch if some of them should be skipped
+        List<Long> ids = this.stagingDao.getNextStageFileIds(fileType, stageDirectoryId, maxResults + skipIds.size());
+        ids.removeAll(skipIds);
+        if (ids.isEmpty()) {
+            return ids;
+        }
+        return this.stagingDao.claimStageFiles(ids.size() > maxResults ? ids.subList(0, maxResults) : ids);
+    }
+
+    @Transactional
+    public boolean releaseStageFile(Long id) {
+        return this.stagingDao.releaseStageFile(id);
+    }
+
+    @Transactional
+    public int releaseAllStageFiles() {
+        return this.stagingDao.executeUpdate(StageFile.UPDATE_STATUS_RELEASE_ALL);
+    }
+
     @Transactional
     public void processVideo(long id) {
         StageFile stageFile = stagingDao.getStageFile(id);
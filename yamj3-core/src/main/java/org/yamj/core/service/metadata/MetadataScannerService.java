@@ -102,9 +102,6 @@ public class MetadataScannerService implements IQueueProcessService {
             // update meta data in one transaction
             metadataStorageService.updateScannedMetaData(videoData);
 
-            // evict API caches
-            metadataStorageService.evictApiCaches(MOVIE, videoData.getId());
-
             LOG.debug("Updated movie in database: {}-'{}'", id, videoData.getTitle());
         } catch (Exception error) {
             // NOTE: status will not be changed
@@ -159,15 +156,6 @@ public class MetadataScannerService implements IQueueProcessService {
 
             // update meta data in one transaction
             metadataStorageService.updateScannedMetaData(series);
-
-            // evict API caches
-            metadataStorageService.evictApiCaches(SERIES, series.getId());
-            for (Season season : series.getSeasons()) {
-                metadataStorageService.evictApiCaches(SEASON, season.getId());
-                for (VideoData videoData : season.getVideoDatas()) {
-                    metadataStorageService.evictApiCaches(EPISODE, videoData.getId());
-                }
-            }
                 
             LOG.debug("Updated series in database: {}-'{}'", id, series.getTitle());
         } catch (Exception error) {
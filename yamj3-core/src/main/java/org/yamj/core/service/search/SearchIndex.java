@@ -0,0 +1,297 @@
+/*
+ *      Copyright (c) 2004-2015 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ).
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3
+ *
+ */
+package org.yamj.core.service.search;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import org.yamj.common.type.MetaDataType;
+
+/**
+ * Inverted index of the folded search texts.
+ *
+ * The terms of each field are held in a sorted map, so that a prefix
+ * is looked up as a sub map instead of scanning all the texts. A second
+ * sorted map holds all suffixes of the terms, so that a part inside of a
+ * term or the end of a term is a prefix lookup as well.
+ */
+public class SearchIndex {
+
+    private static final Pattern TOKEN_SPLIT = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<MetaDataType, Map<String, FieldIndex>> fields = new EnumMap<>(MetaDataType.class);
+
+    /**
+     * Set the folded values of a field for an object, replacing the previous values.
+     *
+     * @param type the meta data type
+     * @param id the id of the object
+     * @param field the search field
+     * @param values the folded values; empty to remove the object from the field
+     */
+    public void put(MetaDataType type, int id, String field, Collection<String> values) {
+        lock.writeLock().lock();
+        try {
+            Map<String, FieldIndex> typeFields = fields.get(type);
+            if (typeFields == null) {
+                typeFields = new HashMap<>();
+                fields.put(type, typeFields);
+            }
+            FieldIndex fieldIndex = typeFields.get(field);
+            if (fieldIndex == null) {
+                fieldIndex = new FieldIndex();
+                typeFields.put(field, fieldIndex);
+            }
+            fieldIndex.put(id, values);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove an object from all fields.
+     *
+     * @param type the meta data type
+     * @param id the id of the object
+     */
+    public void remove(MetaDataType type, int id) {
+        lock.writeLock().lock();
+        try {
+            Map<String, FieldIndex> typeFields = fields.get(type);
+            if (typeFields != null) {
+                for (FieldIndex fieldIndex : typeFields.values()) {
+                    fieldIndex.remove(id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove the objects of a type which are not contained in the given ids.
+     *
+     * @param type the meta data type
+     * @param ids the ids of the objects to keep
+     * @return the number of removed objects
+     */
+    public int retain(MetaDataType type, BitSet ids) {
+        lock.writeLock().lock();
+        try {
+            Map<String, FieldIndex> typeFields = fields.get(type);
+            if (typeFields == null) {
+                return 0;
+            }
+
+            BitSet removed = new BitSet();
+            for (FieldIndex fieldIndex : typeFields.values()) {
+                removed.or(fieldIndex.retain(ids));
+            }
+            return removed.cardinality();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Search the objects whose field matches the folded query.
+     *
+     * @param type the meta data type
+     * @param field the search field
+     * @param query the folded query
+     * @param mode the search mode
+     * @return the ids of the matching objects
+     */
+    public BitSet search(MetaDataType type, String field, String query, SearchMode mode) {
+        lock.readLock().lock();
+        try {
+            Map<String, FieldIndex> typeFields = fields.get(type);
+            FieldIndex fieldIndex = typeFields == null ? null : typeFields.get(field);
+            if (fieldIndex == null) {
+                return new BitSet();
+            }
+            return fieldIndex.search(query, mode);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> tokenize(String value) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : TOKEN_SPLIT.split(value)) {
+            if (token.length() > 0) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static final class FieldIndex {
+
+        private final TreeMap<String, BitSet> terms = new TreeMap<>();
+        private final TreeMap<String, BitSet> suffixes = new TreeMap<>();
+        private final Map<Integer, String[]> values = new HashMap<>();
+
+        public void put(int id, Collection<String> newValues) {
+            remove(id);
+            if (newValues == null || newValues.isEmpty()) {
+                return;
+            }
+
+            values.put(Integer.valueOf(id), newValues.toArray(new String[newValues.size()]));
+            for (String value : newValues) {
+                for (String token : tokenize(value)) {
+                    add(terms, token, id);
+                    for (int i = 0; i < token.length(); i++) {
+                        add(suffixes, token.substring(i), id);
+                    }
+                }
+            }
+        }
+
+        private static void add(Map<String, BitSet> map, String key, int id) {
+            BitSet ids = map.get(key);
+            if (ids == null) {
+                ids = new BitSet();
+                map.put(key, ids);
+            }
+            ids.set(id);
+        }
+
+        public void remove(int id) {
+            final String[] oldValues = values.remove(Integer.valueOf(id));
+            if (oldValues == null) {
+                return;
+            }
+
+            for (String value : oldValues) {
+                for (String token : tokenize(value)) {
+                    clear(terms, token, id);
+                    for (int i = 0; i < token.length(); i++) {
+                        clear(suffixes, token.substring(i), id);
+                    }
+                }
+            }
+        }
+
+        private static void clear(Map<String, BitSet> map, String key, int id) {
+            BitSet ids = map.get(key);
+            if (ids != null) {
+                ids.clear(id);
+                if (ids.isEmpty()) {
+                    map.remove(key);
+                }
+            }
+        }
+
+        public BitSet retain(BitSet ids) {
+            BitSet removed = new BitSet();
+            for (Integer id : values.keySet()) {
+                if (!ids.get(id.intValue())) {
+                    removed.set(id.intValue());
+                }
+            }
+            for (int id = removed.nextSetBit(0); id >= 0; id = removed.nextSetBit(id + 1)) {
+                remove(id);
+            }
+            return removed;
+        }
+
+        public BitSet search(String query, SearchMode mode) {
+            final List<String> tokens = tokenize(query);
+
+            BitSet candidates = null;
+            for (int i = 0; i < tokens.size(); i++) {
+                BitSet ids = lookup(tokens.get(i), mode.getTermMatch(i == 0, i == tokens.size() - 1));
+                if (candidates == null) {
+                    candidates = ids;
+                } else {
+                    candidates.and(ids);
+                }
+                if (candidates.isEmpty()) {
+                    return candidates;
+                }
+            }
+
+            if (candidates == null) {
+                // no letters or digits in the query, so every object is a candidate
+                candidates = new BitSet();
+                for (Integer id : values.keySet()) {
+                    candidates.set(id.intValue());
+                }
+            }
+
+            // verify the candidates against the complete values
+            for (int id = candidates.nextSetBit(0); id >= 0; id = candidates.nextSetBit(id + 1)) {
+                if (!matches(values.get(Integer.valueOf(id)), query, mode)) {
+                    candidates.clear(id);
+                }
+            }
+            return candidates;
+        }
+
+        private BitSet lookup(String token, TermMatch termMatch) {
+            switch (termMatch) {
+                case PREFIX:
+                    return lookupPrefix(terms, token);
+                case SUFFIX:
+                    return lookupExact(suffixes, token);
+                case CONTAINS:
+                    // a part of a term is the prefix of one of its suffixes
+                    return lookupPrefix(suffixes, token);
+                default:
+                    return lookupExact(terms, token);
+            }
+        }
+
+        private static BitSet lookupExact(Map<String, BitSet> map, String token) {
+            BitSet result = new BitSet();
+            BitSet ids = map.get(token);
+            if (ids != null) {
+                result.or(ids);
+            }
+            return result;
+        }
+
+        private static BitSet lookupPrefix(TreeMap<String, BitSet> map, String token) {
+            BitSet result = new BitSet();
+            for (BitSet ids : map.subMap(token, true, token + Character.MAX_VALUE, true).values()) {
+                result.or(ids);
+            }
+            return result;
+        }
+
+        private static boolean matches(String[] values, String query, SearchMode mode) {
+            if (values != null) {
+                for (String value : values) {
+                    if (mode.matches(value, query)) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+}
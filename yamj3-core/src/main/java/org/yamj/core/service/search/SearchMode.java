@@ -0,0 +1,83 @@
+/*
+ *      Copyright (c) 2004-2015 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ).
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3
+ *
+ */
+package org.yamj.core.service.search;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * The search modes of the API, with the same semantics as the LIKE pattern of the SQL search.
+ */
+public enum SearchMode {
+
+    ANY,
+    START,
+    END,
+    EXACT;
+
+    public static SearchMode fromString(String mode) {
+        for (SearchMode searchMode : values()) {
+            if (searchMode.name().equalsIgnoreCase(StringUtils.trimToEmpty(mode))) {
+                return searchMode;
+            }
+        }
+        // default to ANY
+        return ANY;
+    }
+
+    /**
+     * Determine how a single token of the query must match the terms of the index.
+     * 
+     * Tokens inside the query are complete terms; only the outer tokens may be a part of a term.
+     */
+    TermMatch getTermMatch(boolean first, boolean last) {
+        switch (this) {
+            case START:
+                return last ? TermMatch.PREFIX : TermMatch.EXACT;
+            case END:
+                return first ? TermMatch.SUFFIX : TermMatch.EXACT;
+            case EXACT:
+                return TermMatch.EXACT;
+            default:
+                if (first && last) {
+                    return TermMatch.CONTAINS;
+                }
+                if (first) {
+                    return TermMatch.SUFFIX;
+                }
+                return last ? TermMatch.PREFIX : TermMatch.EXACT;
+        }
+    }
+
+    boolean matches(String value, String query) {
+        switch (this) {
+            case START:
+                return value.startsWith(query);
+            case END:
+                return value.endsWith(query);
+            case EXACT:
+                return value.equals(query);
+            default:
+                return value.contains(query);
+        }
+    }
+}
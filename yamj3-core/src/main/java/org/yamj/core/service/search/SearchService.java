@@ -0,0 +1,275 @@
+/*
+ *      Copyright (c) 2004-2015 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ).
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3
+ *
+ */
+package org.yamj.core.service.search;
+
+import static org.yamj.common.type.MetaDataType.*;
+
+import java.util.*;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.yamj.common.type.MetaDataType;
+import org.yamj.core.api.options.IOptionsSearch;
+import org.yamj.core.database.dao.SearchDao;
+import org.yamj.core.service.various.IdentifierService;
+
+/**
+ * In-memory full-text search for the search options of the API.
+ *
+ * The texts are folded (transliterated, without accents and in lower case),
+ * so that a search finds the titles and names regardless of their diacritics.
+ */
+@Service("searchService")
+public class SearchService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SearchService.class);
+    private static final int CHUNK_SIZE = 500;
+    private static final String[] VIDEO_FIELDS = new String[]{"title", "title_original", "title_sort", "plot"};
+    private static final String[] PERSON_FIELDS = new String[]{"name", "first_name", "last_name"};
+    private static final String ROLE_FIELD = "role";
+    private static final MetaDataType[] VIDEO_TYPES = new MetaDataType[]{MOVIE, SERIES, SEASON, EPISODE};
+
+    @Autowired
+    private SearchDao searchDao;
+    @Autowired
+    private IdentifierService identifierService;
+
+    @Value("${yamj3.api.search.enabled:false}")
+    private boolean enabled;
+    @Value("${yamj3.api.search.maxIds:10000}")
+    private int maxIds;
+
+    private volatile SearchIndex searchIndex;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isReady() {
+        return searchIndex != null;
+    }
+
+    /**
+     * Build a new search index with all videos and persons.
+     */
+    public void rebuildIndex() {
+        if (!enabled) {
+            return;
+        }
+
+        final long start = System.currentTimeMillis();
+        SearchIndex index = new SearchIndex();
+        addVideos(index, searchDao.getVideoRows(null));
+        addPersons(index, searchDao.getPersonRows(null), searchDao.getRoleRows(null));
+        this.searchIndex = index;
+        LOG.info("Rebuilt search index in {} ms", System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Update the search index with the videos and persons which have been changed or deleted.
+     *
+     * @param since the date of the last refresh
+     */
+    public void refreshIndex(Date since) {
+        final SearchIndex index = this.searchIndex;
+        if (index == null) {
+            rebuildIndex();
+            return;
+        }
+
+        if (removeDeletedVideos(index) > 0) {
+            // the cast of the deleted videos is unknown, so the roles of the persons can't be refreshed
+            rebuildIndex();
+            return;
+        }
+        addVideos(index, searchDao.getVideoRows(since));
+        
+        final List<Long> personIds = searchDao.getChangedPersonIds(since);
+        for (int i = 0; i < personIds.size(); i += CHUNK_SIZE) {
+            final List<Long> ids = personIds.subList(i, Math.min(i + CHUNK_SIZE, personIds.size()));
+            // invalid persons are not loaded again, so remove them in advance
+            for (Long id : ids) {
+                index.remove(PERSON, id.intValue());
+            }
+            addPersons(index, searchDao.getPersonRows(ids), searchDao.getRoleRows(ids));
+        }
+
+        BitSet validPersons = new BitSet();
+        for (Long id : searchDao.getPersonIds()) {
+            validPersons.set(id.intValue());
+        }
+        final int removed = index.retain(PERSON, validPersons);
+        LOG.debug("Refreshed search index for {} persons, removed {} persons", personIds.size(), removed);
+    }
+
+    private int removeDeletedVideos(SearchIndex index) {
+        Map<MetaDataType, BitSet> existing = new EnumMap<>(MetaDataType.class);
+        for (MetaDataType type : VIDEO_TYPES) {
+            existing.put(type, new BitSet());
+        }
+        for (Object[] row : searchDao.getVideoIds()) {
+            final MetaDataType type = row[0] == null ? null : MetaDataType.fromString(row[0].toString());
+            if (type != null && existing.containsKey(type) && row[1] != null) {
+                existing.get(type).set(((Number) row[1]).intValue());
+            }
+        }
+
+        int removed = 0;
+        for (Map.Entry<MetaDataType, BitSet> entry : existing.entrySet()) {
+            removed += index.retain(entry.getKey(), entry.getValue());
+        }
+        return removed;
+    }
+
+    private void addVideos(SearchIndex index, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            final MetaDataType type = row[0] == null ? null : MetaDataType.fromString(row[0].toString());
+            if (type == null || row[1] == null) {
+                continue;
+            }
+            final int id = ((Number) row[1]).intValue();
+            for (int col = 0; col < VIDEO_FIELDS.length; col++) {
+                index.put(type, id, VIDEO_FIELDS[col], fold(row[col + 2]));
+            }
+        }
+    }
+
+    private void addPersons(SearchIndex index, List<Object[]> personRows, List<Object[]> roleRows) {
+        for (Object[] row : personRows) {
+            final int id = ((Number) row[0]).intValue();
+            for (int col = 0; col < PERSON_FIELDS.length; col++) {
+                index.put(PERSON, id, PERSON_FIELDS[col], fold(row[col + 1]));
+            }
+        }
+
+        // the roles are indexed for all jobs and for each job, so that a job filter matches the role of the same job
+        Map<String, Map<Integer, List<String>>> roles = new HashMap<>();
+        for (Object[] row : roleRows) {
+            final String role = identifierService.foldText(row[2] == null ? null : row[2].toString());
+            if (role == null) {
+                continue;
+            }
+            final Integer id = Integer.valueOf(((Number) row[0]).intValue());
+            addRole(roles, ROLE_FIELD, id, role);
+            if (row[1] != null) {
+                addRole(roles, getRoleField(row[1].toString()), id, role);
+            }
+        }
+        for (Map.Entry<String, Map<Integer, List<String>>> field : roles.entrySet()) {
+            for (Map.Entry<Integer, List<String>> entry : field.getValue().entrySet()) {
+                index.put(PERSON, entry.getKey().intValue(), field.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private static void addRole(Map<String, Map<Integer, List<String>>> roles, String field, Integer id, String role) {
+        Map<Integer, List<String>> fieldRoles = roles.get(field);
+        if (fieldRoles == null) {
+            fieldRoles = new HashMap<>();
+            roles.put(field, fieldRoles);
+        }
+        List<String> values = fieldRoles.get(id);
+        if (values == null) {
+            values = new ArrayList<>();
+            fieldRoles.put(id, values);
+        }
+        values.add(role);
+    }
+
+    private static String getRoleField(String job) {
+        return ROLE_FIELD + ":" + job.toUpperCase();
+    }
+
+    private List<String> fold(Object value) {
+        final String folded = identifierService.foldText(value == null ? null : value.toString());
+        if (folded == null) {
+            return Collections.emptyList();
+        }
+        return Collections.singletonList(folded);
+    }
+
+    /**
+     * Search the objects of the given type which match the search options.
+     *
+     * @param type the meta data type
+     * @param options the search options
+     * @return the ids of the matching objects, or null if the search has to be done by the database
+     */
+    public BitSet search(MetaDataType type, IOptionsSearch options) {
+        return search(type, options, null);
+    }
+
+    /**
+     * Search the persons which match the search options.
+     *
+     * A role must be played within one of the given jobs.
+     *
+     * @param options the search options
+     * @param jobs the job filter; null or empty for all jobs
+     * @return the ids of the matching persons, or null if the search has to be done by the database
+     */
+    public BitSet searchPersons(IOptionsSearch options, Collection<String> jobs) {
+        return search(PERSON, options, jobs);
+    }
+
+    private BitSet search(MetaDataType type, IOptionsSearch options, Collection<String> jobs) {
+        final SearchIndex index = this.searchIndex;
+        if (index == null || StringUtils.isBlank(options.getField()) || StringUtils.isBlank(options.getSearch())) {
+            return null;
+        }
+
+        final String field = getField(type, options.getField());
+        if (field == null) {
+            return null;
+        }
+
+        final String query = identifierService.foldText(options.getSearch());
+        final SearchMode mode = SearchMode.fromString(options.getMode());
+        final BitSet ids;
+        if (ROLE_FIELD.equals(field) && jobs != null && !jobs.isEmpty()) {
+            ids = new BitSet();
+            for (String job : jobs) {
+                ids.or(index.search(type, getRoleField(job), query, mode));
+            }
+        } else {
+            ids = index.search(type, field, query, mode);
+        }
+        if (ids.cardinality() > maxIds) {
+            LOG.trace("Too many search results for {}: {}", type, ids.cardinality());
+            return null;
+        }
+        return ids;
+    }
+
+    private static String getField(MetaDataType type, String field) {
+        // the field may be given with the alias of the table
+        final String column = StringUtils.lowerCase(StringUtils.trim(StringUtils.substringAfterLast("." + field, ".")));
+        if (type == PERSON) {
+            return ROLE_FIELD.equals(column) || Arrays.asList(PERSON_FIELDS).contains(column) ? column : null;
+        }
+        return Arrays.asList(VIDEO_FIELDS).contains(column) ? column : null;
+    }
+}
@@ -53,6 +53,8 @@ public class ExecutionTaskInitialization {
         storeExecutionTask("stagingsanity", "stagingsanity", IntervalType.DAYS, 7, new LocalDateTime(2016,1,1,2,30));
         storeExecutionTask("artworksanity", "artworksanity", IntervalType.MONTHLY, -1, new LocalDateTime(2016,1,1,3,30));
         storeExecutionTask("trakttv", "trakttv", IntervalType.DAILY, -1, new LocalDateTime(2016,1,1,4,0));
+        // warm up runs once after every startup
+        storeExecutionTask("warmup", "warmup", IntervalType.ONCE, -1, new LocalDateTime());
     }
     
     private void storeExecutionTask(String name, String taskName, IntervalType interval, int delay, LocalDateTime nextExec) {
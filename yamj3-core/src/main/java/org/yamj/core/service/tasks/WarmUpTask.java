@@ -0,0 +1,281 @@
+/*
+ *      Copyright (c) 2004-2015 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ).
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3
+ *
+ */
+package org.yamj.core.service.tasks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.yamj.common.type.MetaDataType;
+import org.yamj.core.api.model.dto.*;
+import org.yamj.core.api.options.OptionsIndexVideo;
+import org.yamj.core.api.options.OptionsMultiType;
+import org.yamj.core.api.options.OptionsSingleType;
+import org.yamj.core.api.wrapper.ApiWrapperList;
+import org.yamj.core.api.wrapper.ApiWrapperSingle;
+import org.yamj.core.database.model.Studio;
+import org.yamj.core.database.service.JsonApiStorageService;
+
+/**
+ * Task for warming up the caches and the database after a restart.
+ * 
+ * The most requested lookups are loaded once in a low priority background
+ * thread with a pause between the single steps, so that the first requests
+ * of the players must not wait for cold caches. The videos of the first index
+ * pages are loaded with the data items of the skins, which fills the API caches
+ * of the single lookups; the counts and filter lists just warm up the database.
+ */
+@Component
+public class WarmUpTask implements ITask {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WarmUpTask.class);
+    private static final AtomicBoolean RUNNING = new AtomicBoolean(false);
+    // data items requested by the skins
+    private static final List<String> DATA_ITEMS = Arrays.asList("genre", "studio", "country", "certification",
+                    "rating", "award", "externalid", "trailer", "videosource");
+
+    @Value("${yamj3.warmup.enabled:true}")
+    private boolean warmUpEnabled;
+    @Value("${yamj3.warmup.pages:3}")
+    private int warmUpPages;
+    @Value("${yamj3.warmup.perpage:50}")
+    private int warmUpPerPage;
+    @Value("${yamj3.warmup.pause:250}")
+    private long warmUpPause;
+    @Value("${yamj3.warmup.itemPause:20}")
+    private long warmUpItemPause;
+
+    @Autowired
+    private ExecutionTaskService executionTaskService;
+    @Autowired
+    private JsonApiStorageService jsonApiStorageService;
+
+    private volatile int stepsDone = 0;
+    private volatile int stepsTotal = 0;
+    
+    @Override
+    public String getTaskName() {
+        return "warmup";
+    }
+
+    @PostConstruct
+    public void init() {
+        executionTaskService.registerTask(this);
+    }
+
+    @Override
+    public void execute(String options) {
+        if (!warmUpEnabled) {
+            // warm up is disabled
+            return;
+        }
+
+        if (!RUNNING.compareAndSet(false, true)) {
+            LOG.debug("Warm up is already running");
+            return;
+        }
+        
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    warmUp();
+                } finally {
+                    RUNNING.set(false);
+                }
+            }
+        }, "WarmUp");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    public boolean isRunning() {
+        return RUNNING.get();
+    }
+
+    public int getStepsDone() {
+        return stepsDone;
+    }
+
+    public int getStepsTotal() {
+        return stepsTotal;
+    }
+
+    private void warmUp() {
+        LOG.debug("Execute warm up task");
+        final long startTime = System.currentTimeMillis();
+
+        final List<WarmUpStep> steps = buildSteps();
+        stepsDone = 0;
+        stepsTotal = steps.size();
+        
+        for (WarmUpStep step : steps) {
+            try {
+                step.run();
+                LOG.trace("Warm up step {}/{} done: {}", stepsDone+1, stepsTotal, step.name);
+            } catch (Exception ex) {
+                LOG.warn("Warm up step '{}' failed: {}", step.name, ex.getMessage());
+                LOG.trace("Warm up error", ex);
+            }
+            stepsDone++;
+            
+            if (stepsDone % 10 == 0) {
+                LOG.info("Warm up: {} of {} steps done", stepsDone, stepsTotal);
+            }
+
+            try {
+                // throttle the warm up
+                Thread.sleep(warmUpPause);
+            } catch (InterruptedException ex) { //NOSONAR
+                LOG.info("Warm up has been interrupted after {} of {} steps", stepsDone, stepsTotal);
+                return;
+            }
+        }
+
+        LOG.info("Finished warm up task with {} steps after {} ms", stepsTotal, System.currentTimeMillis()-startTime);
+    }
+
+    private List<WarmUpStep> buildSteps() {
+        List<WarmUpStep> steps = new ArrayList<>();
+
+        // counts as shown on the start page
+        for (final MetaDataType type : MetaDataType.values()) {
+            if (type.isRealMetaData()) {
+                steps.add(new WarmUpStep("count " + type.name().toLowerCase()) {
+                    @Override
+                    void run() {
+                        jsonApiStorageService.getCountTimestamp(type);
+                    }
+                });
+            }
+        }
+
+        // filter lists
+        for (final String type : new String[]{"movie", "series", "all"}) {
+            steps.add(new WarmUpStep("alphabetical " + type) {
+                @Override
+                void run() {
+                    OptionsMultiType options = new OptionsMultiType();
+                    options.setType(type);
+                    jsonApiStorageService.getAlphabeticals(options);
+                }
+            });
+            steps.add(new WarmUpStep("years " + type) {
+                @Override
+                void run() {
+                    OptionsMultiType options = new OptionsMultiType();
+                    options.setType(type);
+                    jsonApiStorageService.getYears(new ApiWrapperList<ApiYearDecadeDTO>(options));
+                }
+            });
+            steps.add(new WarmUpStep("decades " + type) {
+                @Override
+                void run() {
+                    OptionsMultiType options = new OptionsMultiType();
+                    options.setType(type);
+                    jsonApiStorageService.getDecades(new ApiWrapperList<ApiYearDecadeDTO>(options));
+                }
+            });
+        }
+        steps.add(new WarmUpStep("genres") {
+            @Override
+            void run() {
+                jsonApiStorageService.getGenres(new ApiWrapperList<ApiGenreDTO>(new OptionsSingleType()));
+            }
+        });
+        steps.add(new WarmUpStep("studios") {
+            @Override
+            void run() {
+                jsonApiStorageService.getStudios(new ApiWrapperList<Studio>(new OptionsSingleType()));
+            }
+        });
+        steps.add(new WarmUpStep("countries") {
+            @Override
+            void run() {
+                jsonApiStorageService.getCountries(new ApiWrapperList<ApiCountryDTO>(new OptionsSingleType()));
+            }
+        });
+        steps.add(new WarmUpStep("certifications") {
+            @Override
+            void run() {
+                jsonApiStorageService.getCertifications(new ApiWrapperList<ApiCertificationDTO>(new OptionsSingleType()));
+            }
+        });
+
+        // first pages of the video index
+        for (final String type : new String[]{"movie", "series", "movie,series"}) {
+            for (int p = 1; p <= warmUpPages; p++) {
+                final int page = p;
+                steps.add(new WarmUpStep("video index " + type + " page " + page) {
+                    @Override
+                    void run() {
+                        OptionsIndexVideo options = new OptionsIndexVideo();
+                        options.setType(type);
+                        options.setPage(page);
+                        options.setPerpage(warmUpPerPage);
+                        options.setDataitems(DATA_ITEMS);
+                        List<ApiVideoDTO> videos = jsonApiStorageService.getVideoList(new ApiWrapperList<ApiVideoDTO>(options), options);
+                        
+                        // the single lookups of the data items are cached per video
+                        for (ApiVideoDTO video : videos) {
+                            OptionsIndexVideo single = new OptionsIndexVideo();
+                            single.setType(video.getVideoType().name());
+                            single.setId(video.getId());
+                            single.setDataitems(DATA_ITEMS);
+                            jsonApiStorageService.getSingleVideo(new ApiWrapperSingle<ApiVideoDTO>(single), single);
+
+                            try {
+                                // throttle the single lookups of a page as well
+                                Thread.sleep(warmUpItemPause);
+                            } catch (InterruptedException ex) { //NOSONAR
+                                // the warm up stops after this step
+                                Thread.currentThread().interrupt();
+                                return;
+                            }
+                        }
+                    }
+                });
+            }
+        }
+        
+        return steps;
+    }
+    
+    private abstract static class WarmUpStep {
+
+        final String name;
+
+        WarmUpStep(String name) {
+            this.name = name;
+        }
+
+        abstract void run();
+    }
+}
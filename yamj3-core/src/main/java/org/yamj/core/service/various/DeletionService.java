@@ -33,6 +33,7 @@ import org.springframework.stereotype.Service;
 import org.yamj.core.config.ConfigService;
 import org.yamj.core.database.model.dto.DeletionDTO;
 import org.yamj.core.database.service.CommonStorageService;
+import org.yamj.core.scheduling.ApiIndexScheduler;
 import org.yamj.core.scheduling.ArtworkScanScheduler;
 import org.yamj.core.service.file.FileStorageService;
 
@@ -52,6 +53,8 @@ public class DeletionService {
     private ConfigService configService;
     @Autowired
     private ArtworkScanScheduler artworkScanScheduler;
+    @Autowired
+    private ApiIndexScheduler apiIndexScheduler;
     
     public void executeAllDeletions() {
         if (DELETION_LOCK.tryLock()) {
@@ -76,6 +79,11 @@ public class DeletionService {
                     LOG.error("Failed to delete stage file ID: "+id, ex);
                 }
             }
+            
+            // the newest files of the remaining videos may have been changed
+            if (!ids.isEmpty()) {
+                apiIndexScheduler.triggerRebuild();
+            }
         } catch (Exception ex) {
             LOG.warn("Failed to retrieve stage files to delete", ex);
         }
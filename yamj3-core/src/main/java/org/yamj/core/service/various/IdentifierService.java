@@ -106,7 +106,27 @@ public class IdentifierService {
         
         return result;
     }
-    
+
+    /**
+     * Fold a text for searching: transliterated, without accents and in lower case.
+     */
+    public String foldText(final String input) {
+        if (StringUtils.isBlank(input)) {
+            return null;
+        }
+
+        String result = input;
+        if (this.transliterationEnabled) {
+            result = transliterator.transliterate(result);
+        }
+
+        // format ß to ss
+        result = result.replaceAll("ß", "ss");
+        // remove all accents from letters
+        result = StringUtils.stripAccents(result);
+        return result.toLowerCase();
+    }
+
     public CreditDTO createCredit(final String source, final JobType jobType, final String name) {
         return createCredit(source, null, jobType, name);
     }
@@ -79,6 +79,8 @@ public class StagingService {
     private String watchedFolderName;
     @Value("${yamj3.folder.name.subtitle:null}")
     private String subtitleFolderName;
+    @Value("${yamj3.database.batchSize:50}")
+    private int batchSize;
 
     @Transactional
     public Library storeLibrary(ImportDTO libraryDTO) {
@@ -118,7 +120,11 @@ public class StagingService {
         // normalize the directory path
         String normalized = FilenameUtils.normalizeNoEndSeparator(stageDirectoryDTO.getPath(), true);
         StageDirectory stageDirectory = stagingDao.getStageDirectory(normalized, library);
-        if (stageDirectory == null) {
+        if (stageDirectory == null && stageDirectoryDTO.isDelta() && stageDirectoryDTO.getStageFiles().isEmpty()) {
+            // nothing to store for an unknown directory
+            LOG.debug("Skipped delta of unknown directory: {}", normalized);
+            return;
+        } else if (stageDirectory == null) {
             // used to set the directory name
             File dirFile = new File(normalized);
 
@@ -150,6 +156,16 @@ public class StagingService {
             }
         }
 
+        // load all stage files of the directory at once
+        final Map<String, StageFile> stageFiles = new HashMap<>();
+        final Map<String, StageFile> stageFilesIgnoreCase = new HashMap<>();
+        for (StageFile stageFile : stagingDao.getStageFiles(stageDirectory)) {
+            final String key = stageFile.getBaseName() + "." + stageFile.getExtension();
+            stageFiles.put(key, stageFile);
+            stageFilesIgnoreCase.put(key.toLowerCase(), stageFile);
+        }
+        
+        final List<StageFile> newStageFiles = new ArrayList<>();
         for (StageFileDTO stageFileDTO : stageDirectoryDTO.getStageFiles()) {
             String baseName = FilenameUtils.getBaseName(stageFileDTO.getFileName());
             String extension = FilenameUtils.getExtension(stageFileDTO.getFileName());
@@ -160,14 +176,20 @@ public class StagingService {
                 continue;
             }
 
-            StageFile stageFile = stagingDao.getStageFile(baseName, extension, stageDirectory);
+            final String key = baseName + "." + extension;
+            StageFile stageFile = stageFiles.get(key);
+            if (stageFile == null) {
+                // database may compare case insensitive
+                stageFile = stageFilesIgnoreCase.get(key.toLowerCase());
+            }
+            
             if (stageFile == null) {
                 // create new stage file entry
                 stageFile = new StageFile();
                 stageFile.setBaseName(baseName);
                 stageFile.setExtension(extension);
                 stageFile.setStageDirectory(stageDirectory);
-                stageFile.setFileType(filenameScanner.determineFileType(extension));
+                stageFile.setFileType(fileType);
                 stageFile.setFullPath(FilenameUtils.concat(stageDirectoryDTO.getPath(), stageFileDTO.getFileName()));
                 stageFile.setStatus(NEW);
 
@@ -175,8 +197,12 @@ public class StagingService {
                 setChangeableValues(stageFile, stageFileDTO);
 
                 LOG.debug("New {} file: {}", stageFile.getFileType().name().toLowerCase(), stageFile.getFullPath());
-                stagingDao.saveEntity(stageFile);
-            } else {
+                newStageFiles.add(stageFile);
+                
+                // same file name must not be stored twice
+                stageFiles.put(key, stageFile);
+                stageFilesIgnoreCase.put(key.toLowerCase(), stageFile);
+            } else if (stageFile.getId() > 0) {
                 Date newDate = getDateWithoutMilliseconds(stageFileDTO.getFileDate());
                 if ((newDate.compareTo(stageFile.getFileDate()) != 0) || (stageFile.getFileSize() != stageFileDTO.getFileSize())) {
 
@@ -193,11 +219,32 @@ public class StagingService {
                         stageFile.setStatus(UPDATED);
                     }
 
+                    // will be written in a JDBC batch on flush
                     LOG.debug("Updated {} file: {}", stageFile.getFileType().name().toLowerCase(), stageFile.getFullPath());
                     stagingDao.updateEntity(stageFile);
                 }
             }
         }
+        
+        if (!newStageFiles.isEmpty()) {
+            stagingDao.insertStageFiles(newStageFiles, batchSize);
+        }
+
+        if (stageDirectoryDTO.getDeletedFiles() != null) {
+            // mark files which have been removed since the last scan
+            for (String fileName : stageDirectoryDTO.getDeletedFiles()) {
+                final String key = FilenameUtils.getBaseName(fileName) + "." + FilenameUtils.getExtension(fileName);
+                StageFile stageFile = stageFiles.get(key);
+                if (stageFile == null) {
+                    stageFile = stageFilesIgnoreCase.get(key.toLowerCase());
+                }
+                if (stageFile != null && stageFile.getId() > 0 && !stageFile.isDeleted()) {
+                    LOG.debug("Deleted {} file: {}", stageFile.getFileType().name().toLowerCase(), stageFile.getFullPath());
+                    stageFile.setStatus(DELETED);
+                    stagingDao.updateEntity(stageFile);
+                }
+            }
+        }
     }
 
     private static void setChangeableValues(StageFile stageFile, StageFileDTO stageFileDTO) {
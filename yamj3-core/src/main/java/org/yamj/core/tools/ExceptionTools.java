@@ -27,8 +27,10 @@ import javax.persistence.OptimisticLockException;
 import javax.persistence.PessimisticLockException;
 import org.hibernate.StaleStateException;
 import org.hibernate.dialect.lock.LockingStrategyException;
+import org.hibernate.exception.ConstraintViolationException;
 import org.hibernate.exception.LockAcquisitionException;
 import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.yamj.api.common.exception.ApiException;
 import org.yamj.api.common.exception.ApiExceptionType;
 
@@ -64,6 +66,10 @@ public final class ExceptionTools {
         }
         return result;
     }
+
+    public static boolean isConstraintViolation(Exception e) {
+        return (e instanceof DataIntegrityViolationException) || (e instanceof ConstraintViolationException);
+    }
     
     public static boolean is404(ApiException ex) {
         return ApiExceptionType.HTTP_404_ERROR.equals(ex.getExceptionType());
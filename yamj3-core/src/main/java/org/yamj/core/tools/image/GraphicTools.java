@@ -45,10 +45,18 @@ public final class GraphicTools {
         throw new UnsupportedOperationException("Utility class cannot be instantiated");
     }
 
-    public static Dimension getDimension(String url) throws IOException {
-        try (InputStream in = new URL(url).openStream();
-             ImageInputStream iis = ImageIO.createImageInputStream(in))
-         {
+    /**
+     * Get the dimension of an image file without decoding the image.
+     *
+     * @param file
+     * @return the dimension; zero size if no image reader is available
+     * @throws IOException
+     */
+    public static Dimension getDimension(File file) throws IOException {
+        try (ImageInputStream iis = ImageIO.createImageInputStream(file)) {
+            if (iis == null) {
+                throw new FileNotFoundException("Image file '" + file.getName() + "' could not be opened");
+            }
 
             final Iterator<ImageReader> readers = ImageIO.getImageReaders(iis);
             if (readers.hasNext()) {
@@ -77,11 +85,24 @@ public final class GraphicTools {
      * @throws ImageReadException
      */
     public static BufferedImage loadJPEGImage(File fileImage) throws IOException, ImageReadException { //NOSONAR
+        return loadJPEGImage(fileImage, 1);
+    }
+
+    /**
+     * Load a JPG image from a file and decode just every n-th pixel
+     *
+     * @param fileImage
+     * @param subsampling
+     * @return
+     * @throws IOException
+     * @throws ImageReadException
+     */
+    public static BufferedImage loadJPEGImage(File fileImage, int subsampling) throws IOException, ImageReadException { //NOSONAR
         if (!fileImage.exists()) {
             throw new FileNotFoundException("Image file '" + fileImage.getName() + "' does not exist");
         }
         JpegReader jr = new JpegReader();
-        BufferedImage bi = jr.readImage(fileImage);
+        BufferedImage bi = jr.readImage(fileImage, subsampling);
         if (bi == null) {
             // null means: the image is invalid and couldn't be loaded
             throw new ImageReadException("Image file '" + fileImage.getName() + "' is invalid");
@@ -89,6 +110,22 @@ public final class GraphicTools {
         return bi;
     }
 
+    /**
+     * Get the largest source subsampling for which the decoded image still covers the target size.
+     *
+     * @param origWidth
+     * @param origHeight
+     * @param width
+     * @param height
+     * @return the subsampling; 1 if the image must be decoded completely
+     */
+    public static int getSubsampling(int origWidth, int origHeight, int width, int height) {
+        if (origWidth <= 0 || origHeight <= 0 || width <= 0 || height <= 0) {
+            return 1;
+        }
+        return Math.max(1, Math.min(origWidth / width, origHeight / height));
+    }
+
     /**
      * Load a JPG image from an URL
      *
@@ -110,7 +147,7 @@ public final class GraphicTools {
     }
 
     /**
-     * Bi-cubic image scaling
+     * Scale the image to the given width and align it at the bottom of the given height
      *
      * @param nMaxWidth
      * @param nMaxHeight
@@ -118,6 +155,10 @@ public final class GraphicTools {
      * @return
      */
     public static BufferedImage scaleToSize(int nMaxWidth, int nMaxHeight, BufferedImage imgSrc) {
+        return scaleToSize(nMaxWidth, nMaxHeight, imgSrc, BufferedImage.TYPE_INT_ARGB);
+    }
+
+    public static BufferedImage scaleToSize(int nMaxWidth, int nMaxHeight, BufferedImage imgSrc, int imageType) {
         /* determine thumbnail size from WIDTH and HEIGHT */
         int imageWidth = imgSrc.getWidth(null);
         int imageHeight = imgSrc.getHeight(null);
@@ -133,25 +174,17 @@ public final class GraphicTools {
             y = nMaxHeight - tempHeight;
         }
 
-        Image temp1 = imgSrc.getScaledInstance(tempWidth, tempHeight, Image.SCALE_SMOOTH);
-        BufferedImage bi = new BufferedImage(nMaxWidth, nMaxHeight, BufferedImage.TYPE_INT_ARGB);
-        bi.createGraphics().drawImage(temp1, 0, y, null);
+        BufferedImage bi = new BufferedImage(nMaxWidth, nMaxHeight, imageType);
+        ImageScaler.scale(imgSrc, tempWidth, tempHeight, bi, 0, y);
         return bi;
     }
 
     public static BufferedImage scaleToSizeStretch(int nMaxWidth, int nMaxHeight, BufferedImage imgSrc) {
-        /* determine thumbnail size from WIDTH and HEIGHT */
-
-        int tempWidth;
-        int tempHeight;
-
-        tempWidth = nMaxWidth;
-        tempHeight = nMaxHeight;
+        return scaleToSizeStretch(nMaxWidth, nMaxHeight, imgSrc, BufferedImage.TYPE_INT_ARGB);
+    }
 
-        Image temp1 = imgSrc.getScaledInstance(tempWidth, tempHeight, Image.SCALE_SMOOTH);
-        BufferedImage bi = new BufferedImage(nMaxWidth, nMaxHeight, BufferedImage.TYPE_INT_ARGB);
-        bi.createGraphics().drawImage(temp1, 0, 0, null);
-        return bi;
+    public static BufferedImage scaleToSizeStretch(int nMaxWidth, int nMaxHeight, BufferedImage imgSrc, int imageType) {
+        return ImageScaler.scale(imgSrc, nMaxWidth, nMaxHeight, imageType);
     }
 
     public static BufferedImage scaleToSizeBestFit(int nMaxWidth, BufferedImage imgSrc) {
@@ -165,13 +198,14 @@ public final class GraphicTools {
         tempWidth = nMaxWidth;
         tempHeight = (int) (((double) imageHeight * (double) nMaxWidth) / imageWidth);
 
-        Image temp1 = imgSrc.getScaledInstance(tempWidth, tempHeight, Image.SCALE_SMOOTH);
-        BufferedImage bi = new BufferedImage(tempWidth, tempHeight, BufferedImage.TYPE_INT_ARGB);
-        bi.createGraphics().drawImage(temp1, 0, 0, null);
-        return bi;
+        return ImageScaler.scale(imgSrc, tempWidth, tempHeight, BufferedImage.TYPE_INT_ARGB);
     }
 
     public static BufferedImage scaleToSizeNormalized(int nMaxWidth, int nMaxHeight, BufferedImage imgSrc) {
+        return scaleToSizeNormalized(nMaxWidth, nMaxHeight, imgSrc, BufferedImage.TYPE_INT_ARGB);
+    }
+
+    public static BufferedImage scaleToSizeNormalized(int nMaxWidth, int nMaxHeight, BufferedImage imgSrc, int imageType) {
         // determine thumbnail size from WIDTH and HEIGHT
         int imageWidth = imgSrc.getWidth(null);
         int imageHeight = imgSrc.getHeight(null);
@@ -190,9 +224,7 @@ public final class GraphicTools {
             tempHeight = nMaxHeight;
         }
 
-        Image temp1 = imgSrc.getScaledInstance(tempWidth, tempHeight, Image.SCALE_SMOOTH);
-        BufferedImage bi = new BufferedImage(tempWidth, tempHeight, BufferedImage.TYPE_INT_ARGB);
-        bi.createGraphics().drawImage(temp1, 0, 0, null);
+        BufferedImage bi = ImageScaler.scale(imgSrc, tempWidth, tempHeight, imageType);
         return cropToSize(nMaxWidth, nMaxHeight, bi);
     }
 
@@ -0,0 +1,172 @@
+/*
+ *      Copyright (c) 2004-2015 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ).
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3
+ *
+ */
+package org.yamj.core.tools.image;
+
+import java.awt.Dimension;
+import java.util.Arrays;
+
+/**
+ * Determines the dimension of an image from the first bytes of its data.
+ * 
+ * The probe is fed with the chunks of a download and reads the dimension from
+ * the PNG IHDR chunk, the GIF screen descriptor or the first JPEG SOF segment,
+ * so that an invalid image can be rejected before it has been fully loaded.
+ */
+public class ImageHeaderProbe {
+
+    private static final int PROBE_LIMIT = 65536;
+    private static final byte[] PNG_SIGNATURE = new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    private byte[] header = new byte[1024];
+    private int length = 0;
+    private boolean done = false;
+    private Dimension dimension;
+
+    /**
+     * Feed the next chunk of image data.
+     *
+     * @param data
+     * @param offset
+     * @param count
+     * @return true if probing has finished
+     */
+    public boolean update(byte[] data, int offset, int count) {
+        if (done) {
+            return true;
+        }
+        
+        final int copy = Math.min(count, PROBE_LIMIT - length);
+        if (length + copy > header.length) {
+            header = Arrays.copyOf(header, Math.min(PROBE_LIMIT, Math.max(header.length * 2, length + copy)));
+        }
+        System.arraycopy(data, offset, header, length, copy);
+        length += copy;
+
+        probe();
+        if (!done && length >= PROBE_LIMIT) {
+            // header too large; dimension stays unknown
+            done = true;
+        }
+        return done;
+    }
+
+    /**
+     * Indicates if the probing has finished.
+     */
+    public boolean isDone() {
+        return done;
+    }
+
+    /**
+     * Indicates if the data belongs to a known image format.
+     */
+    public boolean isKnownFormat() {
+        return dimension != null;
+    }
+    
+    /**
+     * Indicates if a known image format has been detected with an invalid dimension.
+     */
+    public boolean isInvalid() {
+        return dimension != null && (dimension.width <= 0 || dimension.height <= 0);
+    }
+
+    /**
+     * Get the probed dimension; null if the dimension is unknown.
+     */
+    public Dimension getDimension() {
+        return dimension;
+    }
+
+    private void probe() {
+        if (length < 10) {
+            // need more data
+            return;
+        }
+
+        if (startsWith(PNG_SIGNATURE)) {
+            if (length >= 24) {
+                dimension = new Dimension(readInt(16), readInt(20));
+                done = true;
+            }
+        } else if (header[0] == 'G' && header[1] == 'I' && header[2] == 'F') {
+            dimension = new Dimension((header[6] & 0xFF) | (header[7] & 0xFF) << 8, (header[8] & 0xFF) | (header[9] & 0xFF) << 8);
+            done = true;
+        } else if ((header[0] & 0xFF) == 0xFF && (header[1] & 0xFF) == 0xD8) {
+            probeJpeg();
+        } else {
+            // unknown format
+            done = true;
+        }
+    }
+
+    private void probeJpeg() {
+        int pos = 2;
+        while (pos + 9 <= length) {
+            if ((header[pos] & 0xFF) != 0xFF) {
+                // corrupt segment structure
+                dimension = new Dimension();
+                done = true;
+                return;
+            }
+            
+            final int marker = header[pos + 1] & 0xFF;
+            if (marker == 0xFF) {
+                // fill byte
+                pos++;
+            } else if (marker == 0x01 || (marker >= 0xD0 && marker <= 0xD8)) {
+                // stand-alone marker without length
+                pos += 2;
+            } else if (marker >= 0xC0 && marker <= 0xCF && marker != 0xC4 && marker != 0xC8 && marker != 0xCC) {
+                // start of frame: precision, height, width
+                dimension = new Dimension(readShort(pos + 7), readShort(pos + 5));
+                done = true;
+                return;
+            } else if (marker == 0xD9 || marker == 0xDA) {
+                // end of image or start of scan without frame header
+                dimension = new Dimension();
+                done = true;
+                return;
+            } else {
+                pos += 2 + readShort(pos + 2);
+            }
+        }
+    }
+    
+    private boolean startsWith(byte[] signature) {
+        for (int i = 0; i < signature.length; i++) {
+            if (header[i] != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private int readShort(int pos) {
+        return (header[pos] & 0xFF) << 8 | (header[pos + 1] & 0xFF);
+    }
+
+    private int readInt(int pos) {
+        return readShort(pos) << 16 | readShort(pos + 2);
+    }
+}
@@ -0,0 +1,237 @@
+/*
+ *      Copyright (c) 2004-2015 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ).
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3
+ *
+ */
+package org.yamj.core.tools.image;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.WritableRaster;
+import java.util.Arrays;
+
+/**
+ * Area averaging image scaler which works directly on the pixel rows.
+ * 
+ * The result matches the one of Image.SCALE_SMOOTH, but the image is scaled
+ * in two separable passes without the AWT image producer pipeline. The weights
+ * are calculated once per axis and the scratch rows are reused per thread.
+ */
+public final class ImageScaler {
+
+    private static final ThreadLocal<Scratch> SCRATCH = new ThreadLocal<Scratch>() {
+        @Override
+        protected Scratch initialValue() {
+            return new Scratch();
+        }
+    };
+
+    private ImageScaler() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+
+    /**
+     * Scale an image to the given size.
+     *
+     * @param imgSrc the source image
+     * @param width the target width
+     * @param height the target height
+     * @param imageType the type of the target image; TYPE_INT_RGB or TYPE_INT_ARGB
+     * @return the scaled image
+     */
+    public static BufferedImage scale(BufferedImage imgSrc, int width, int height, int imageType) {
+        BufferedImage target = new BufferedImage(width, height, imageType);
+        scale(imgSrc, width, height, target, 0, 0);
+        return target;
+    }
+
+    /**
+     * Scale an image into a region of a target image; the parts outside of the target are clipped.
+     *
+     * @param imgSrc the source image
+     * @param width the width of the scaled image
+     * @param height the height of the scaled image
+     * @param target the target image; must be of type TYPE_INT_RGB or TYPE_INT_ARGB
+     * @param x the left position in the target image
+     * @param y the top position in the target image
+     */
+    public static void scale(BufferedImage imgSrc, int width, int height, BufferedImage target, int x, int y) {
+        if (target.getType() != BufferedImage.TYPE_INT_RGB && target.getType() != BufferedImage.TYPE_INT_ARGB) {
+            throw new IllegalArgumentException("Unsupported target image type " + target.getType());
+        }
+        
+        final int srcWidth = imgSrc.getWidth();
+        final int srcHeight = imgSrc.getHeight();
+        final Axis horizontal = new Axis(srcWidth, width);
+        final Axis vertical = new Axis(srcHeight, height);
+        final boolean alpha = imgSrc.getColorModel().hasAlpha();
+        
+        final Scratch scratch = SCRATCH.get();
+        scratch.ensure(srcWidth, width);
+        final float[] row = scratch.row;
+        final float[] acc = scratch.acc;
+        final int[] out = scratch.out;
+        final WritableRaster raster = target.getRaster();
+        final int visibleWidth = Math.min(width, target.getWidth() - x);
+        final int visibleHeight = Math.min(height, target.getHeight() - y);
+        if (visibleWidth <= 0 || visibleHeight <= 0) {
+            return;
+        }
+        
+        int cachedRow = -1;
+        for (int j = 0; j < visibleHeight; j++) {
+            Arrays.fill(acc, 0, width * 4, 0f);
+            
+            final int first = vertical.start[j];
+            final int offset = vertical.offset[j];
+            for (int k = 0; k < vertical.count[j]; k++) {
+                final int s = first + k;
+                if (s != cachedRow) {
+                    scaleRow(imgSrc, s, alpha, horizontal, scratch);
+                    cachedRow = s;
+                }
+                final float weight = vertical.weights[offset + k];
+                for (int i = 0; i < width * 4; i++) {
+                    acc[i] += row[i] * weight;
+                }
+            }
+
+            for (int i = 0, p = 0; i < visibleWidth; i++, p += 4) {
+                out[i] = clamp(acc[p]) << 24 | clamp(acc[p + 1]) << 16 | clamp(acc[p + 2]) << 8 | clamp(acc[p + 3]);
+            }
+            raster.setDataElements(x, y + j, visibleWidth, 1, out);
+        }
+    }
+
+    /**
+     * Read a source row and scale it horizontally into the scratch row as
+     * separate alpha, red, green and blue values.
+     */
+    private static void scaleRow(BufferedImage imgSrc, int y, boolean alpha, Axis horizontal, Scratch scratch) {
+        final int srcWidth = imgSrc.getWidth();
+        final int[] pixels = scratch.pixels;
+        final int type = imgSrc.getType();
+        
+        if (type == BufferedImage.TYPE_INT_RGB || type == BufferedImage.TYPE_INT_ARGB) {
+            imgSrc.getRaster().getDataElements(0, y, srcWidth, 1, pixels);
+        } else if (type == BufferedImage.TYPE_3BYTE_BGR) {
+            // the data elements are returned in band order: red, green, blue
+            final byte[] bytes = scratch.bytes;
+            imgSrc.getRaster().getDataElements(0, y, srcWidth, 1, bytes);
+            for (int i = 0, b = 0; i < srcWidth; i++, b += 3) {
+                pixels[i] = (bytes[b] & 0xFF) << 16 | (bytes[b + 1] & 0xFF) << 8 | (bytes[b + 2] & 0xFF);
+            }
+        } else {
+            imgSrc.getRGB(0, y, srcWidth, 1, pixels, 0, srcWidth);
+        }
+        
+        final float[] row = scratch.row;
+        for (int i = 0, p = 0; i < horizontal.start.length; i++, p += 4) {
+            float a = 0f;
+            float r = 0f;
+            float g = 0f;
+            float b = 0f;
+            
+            final int first = horizontal.start[i];
+            final int offset = horizontal.offset[i];
+            for (int k = 0; k < horizontal.count[i]; k++) {
+                final int pixel = pixels[first + k];
+                final float weight = horizontal.weights[offset + k];
+                a += (alpha ? pixel >>> 24 : 0xFF) * weight;
+                r += (pixel >> 16 & 0xFF) * weight;
+                g += (pixel >> 8 & 0xFF) * weight;
+                b += (pixel & 0xFF) * weight;
+            }
+            
+            row[p] = a;
+            row[p + 1] = r;
+            row[p + 2] = g;
+            row[p + 3] = b;
+        }
+    }
+
+    private static int clamp(float value) {
+        final int result = (int) (value + 0.5f);
+        if (result < 0) {
+            return 0;
+        }
+        return result > 255 ? 255 : result;
+    }
+
+    /**
+     * The source pixels and their weights for each target pixel of one axis.
+     */
+    private static final class Axis {
+
+        final int[] start;
+        final int[] count;
+        final int[] offset;
+        final float[] weights;
+        
+        Axis(int srcLength, int dstLength) {
+            start = new int[dstLength];
+            count = new int[dstLength];
+            offset = new int[dstLength];
+            
+            final double scale = (double) srcLength / dstLength;
+            weights = new float[dstLength * ((int) Math.ceil(scale) + 1)];
+
+            int pos = 0;
+            for (int i = 0; i < dstLength; i++) {
+                final double lo = i * scale;
+                final double hi = Math.min(srcLength, (i + 1) * scale);
+                final int first = (int) lo;
+                final int last = Math.min(srcLength, (int) Math.ceil(hi));
+                
+                start[i] = first;
+                offset[i] = pos;
+                for (int s = first; s < last; s++) {
+                    // weight is the part of the source pixel covered by the target pixel
+                    final double overlap = Math.min(hi, s + 1) - Math.max(lo, s);
+                    weights[pos++] = (float) (overlap / (hi - lo));
+                }
+                count[i] = pos - offset[i];
+            }
+        }
+    }
+
+    /**
+     * Per thread buffers, which only grow.
+     */
+    private static final class Scratch {
+
+        int[] pixels = new int[0];
+        byte[] bytes = new byte[0];
+        float[] row = new float[0];
+        float[] acc = new float[0];
+        int[] out = new int[0];
+        
+        void ensure(int srcWidth, int width) {
+            if (pixels.length < srcWidth) {
+                pixels = new int[srcWidth];
+                bytes = new byte[srcWidth * 3];
+            }
+            if (out.length < width) {
+                row = new float[width * 4];
+                acc = new float[width * 4];
+                out = new int[width];
+            }
+        }
+    }
+}
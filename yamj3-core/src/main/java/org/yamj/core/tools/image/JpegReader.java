@@ -30,6 +30,7 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import javax.imageio.IIOException;
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
 import javax.imageio.ImageReader;
 import javax.imageio.stream.ImageInputStream;
 import org.apache.sanselan.ImageReadException;
@@ -66,6 +67,19 @@ public class JpegReader {
      * @throws IOException
      */
     public BufferedImage readImage(File file) throws IOException {
+        return readImage(file, 1);
+    }
+
+    /**
+     * Read a JPEG image with source subsampling, so that only every n-th pixel
+     * of each row and column is decoded.
+     *
+     * @param file
+     * @param subsampling the subsampling in both directions; 1 for the full image
+     * @return
+     * @throws IOException
+     */
+    public BufferedImage readImage(File file, int subsampling) throws IOException {
         colorType = COLOR_TYPE_RGB;
         hasAdobeMarker = false;
 
@@ -81,11 +95,15 @@ public class JpegReader {
             while (iter.hasNext()) {
                 ImageReader reader = iter.next();
                 reader.setInput(stream);
+                ImageReadParam param = reader.getDefaultReadParam();
+                if (subsampling > 1) {
+                    param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                }
     
                 try {
-                    image = reader.read(0);
+                    image = reader.read(0, param);
                 } catch (CMMException | IIOException ex) { //NOSONAR
-                    image = readImageCmyk(file, reader);
+                    image = readImageCmyk(file, reader, param);
                 } finally {
                     reader.dispose();
                 }
@@ -104,15 +122,16 @@ public class JpegReader {
      *
      * @param file
      * @param reader
+     * @param param
      * @return
      */
-    private BufferedImage readImageCmyk(File file, ImageReader reader) {
+    private BufferedImage readImageCmyk(File file, ImageReader reader, ImageReadParam param) {
         colorType = COLOR_TYPE_CMYK;
         BufferedImage image;
         try {
             checkAdobeMarker(file);
             ICC_Profile profile = Sanselan.getICCProfile(file);
-            WritableRaster raster = (WritableRaster) reader.readRaster(0, null);
+            WritableRaster raster = (WritableRaster) reader.readRaster(0, param);
 
             if (colorType == COLOR_TYPE_YCCK) {
                 convertYcckToCmyk(raster);
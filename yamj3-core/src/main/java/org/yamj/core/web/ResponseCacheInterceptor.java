@@ -0,0 +1,85 @@
+/*
+ *      Copyright (c) 2004-2015 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ).
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3
+ *
+ */
+package org.yamj.core.web;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+
+/**
+ * Marks the requests of cacheable API methods for the response cache filter
+ * and invalidates the response cache after each modifying API method.
+ */
+@Component
+public class ResponseCacheInterceptor extends HandlerInterceptorAdapter {
+
+    public static final String ATTRIBUTE_CACHEABLE = ResponseCacheInterceptor.class.getName() + ".cacheable";
+
+    @Autowired
+    private ResponseCacheService responseCacheService;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (handler instanceof HandlerMethod && isCacheable((HandlerMethod) handler)) {
+            request.setAttribute(ATTRIBUTE_CACHEABLE, Boolean.TRUE);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) throws Exception {
+        if (handler instanceof HandlerMethod && isModifying((HandlerMethod) handler)) {
+            responseCacheService.invalidate();
+        }
+    }
+
+    private static boolean isCacheable(HandlerMethod handlerMethod) {
+        return handlerMethod.getMethodAnnotation(CacheableResponse.class) != null
+               || AnnotationUtils.findAnnotation(handlerMethod.getBeanType(), CacheableResponse.class) != null;
+    }
+
+    /**
+     * Modifying API methods are mapped to PUT, POST or DELETE, even if they may be called by GET too.
+     */
+    private static boolean isModifying(HandlerMethod handlerMethod) {
+        RequestMapping mapping = handlerMethod.getMethodAnnotation(RequestMapping.class);
+        RequestMethod[] methods = mapping == null ? new RequestMethod[0] : mapping.method();
+        if (methods.length == 0) {
+            mapping = AnnotationUtils.findAnnotation(handlerMethod.getBeanType(), RequestMapping.class);
+            methods = mapping == null ? new RequestMethod[0] : mapping.method();
+        }
+
+        for (RequestMethod method : methods) {
+            if (method == RequestMethod.PUT || method == RequestMethod.POST || method == RequestMethod.DELETE) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
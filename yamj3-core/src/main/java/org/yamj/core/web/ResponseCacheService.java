@@ -0,0 +1,102 @@
+/*
+ *      Copyright (c) 2004-2015 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ).
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3
+ *
+ */
+package org.yamj.core.web;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.stereotype.Service;
+
+/**
+ * Cache for the JSON responses of the read-only API methods.
+ *
+ * All entries belong to a library-wide change version. Every change of the
+ * library increments the version and clears the cache, so that a response
+ * which has been computed while the library changed is never stored.
+ */
+@Service("responseCacheService")
+public class ResponseCacheService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ResponseCacheService.class);
+
+    @Autowired
+    private Cache responseCache;
+
+    @Value("${yamj3.api.responseCache.enabled:false}")
+    private boolean enabled;
+
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Invalidate all cached responses.
+     */
+    public void invalidate() {
+        version.incrementAndGet();
+        if (enabled) {
+            LOG.trace("Invalidate response cache");
+            responseCache.clear();
+        }
+    }
+
+    public CachedResponse get(String key) {
+        return responseCache.get(key, CachedResponse.class);
+    }
+
+    /**
+     * Store a response.
+     *
+     * @param key the normalized request
+     * @param requestVersion the version at the start of the request
+     * @param contentType the content type of the response
+     * @param data the response
+     * @return the cached response, or null if the library has been changed in the meantime
+     */
+    public CachedResponse put(String key, long requestVersion, String contentType, byte[] data) {
+        if (requestVersion != version.get()) {
+            return null;
+        }
+
+        // the weak ETag is derived from the change version and the time of caching
+        final long now = System.currentTimeMillis();
+        final String etag = "W/\"" + Long.toString(requestVersion, 36) + "-" + Long.toString(now, 36) + "\"";
+        CachedResponse cachedResponse = new CachedResponse(etag, now, contentType, data);
+        responseCache.put(key, cachedResponse);
+        if (requestVersion != version.get()) {
+            // changed while storing
+            responseCache.evict(key);
+            return null;
+        }
+        return cachedResponse;
+    }
+}
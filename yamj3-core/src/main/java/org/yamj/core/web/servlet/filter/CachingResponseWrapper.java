@@ -0,0 +1,101 @@
+/*
+ *      Copyright (c) 2004-2015 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ).
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3
+ *
+ */
+package org.yamj.core.web.servlet.filter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import org.yamj.core.web.ResponseCacheInterceptor;
+
+/**
+ * Response wrapper which buffers the response if the request has been marked
+ * as cacheable before the response is written; else the response is passed through.
+ */
+public class CachingResponseWrapper extends HttpServletResponseWrapper {
+
+    private final HttpServletRequest request;
+    private ByteArrayOutputStream output;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    public CachingResponseWrapper(HttpServletRequest request, HttpServletResponse response) {
+        super(response);
+        this.request = request;
+    }
+
+    public boolean isCaching() {
+        if (output == null && Boolean.TRUE.equals(request.getAttribute(ResponseCacheInterceptor.ATTRIBUTE_CACHEABLE))) {
+            output = new ByteArrayOutputStream();
+        }
+        return output != null;
+    }
+
+    public byte[] getData() {
+        if (writer != null) {
+            writer.flush();
+        }
+        return output == null ? new byte[0] : output.toByteArray();
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (!isCaching()) {
+            return super.getOutputStream();
+        }
+        if (outputStream == null) {
+            outputStream = new FilterServletOutputStream(output);
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (!isCaching()) {
+            return super.getWriter();
+        }
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (!isCaching()) {
+            super.flushBuffer();
+        }
+    }
+
+    @Override
+    public void setContentLength(int length) {
+        // the length of a buffered response is set when it is written
+        if (!isCaching()) {
+            super.setContentLength(length);
+        }
+    }
+}
@@ -52,6 +52,11 @@ public class FilterServletOutputStream extends ServletOutputStream {
         stream.write(b, off, len);
     }
 
+    @Override
+    public void flush() throws IOException {
+        stream.flush();
+    }
+
     @Override
     public boolean isReady() {
         // Not sure if this is correct
@@ -24,6 +24,7 @@ package org.yamj.core.web.servlet.filter;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 import javax.servlet.*;
 import javax.servlet.http.HttpServletRequest;
@@ -44,17 +45,17 @@ public class JsonpCallbackFilter implements Filter {
         Map<String, String[]> parms = httpRequest.getParameterMap();
 
         if (parms.containsKey("callback")) {
-            try (OutputStream out = httpResponse.getOutputStream()) {
-                GenericResponseWrapper wrapper = new GenericResponseWrapper(httpResponse);
-    
-                chain.doFilter(request, wrapper);
-    
-                out.write((parms.get("callback")[0] + "(").getBytes());
-                out.write(wrapper.getData());
-                out.write(");".getBytes());
-    
-                wrapper.setContentType("text/javascript;charset=UTF-8");
-            }
+            // the response is wrapped into the callback on the fly, so that it is not buffered
+            httpResponse.setContentType("text/javascript;charset=UTF-8");
+            OutputStream out = httpResponse.getOutputStream();
+            out.write((parms.get("callback")[0] + "(").getBytes(StandardCharsets.UTF_8));
+
+            JsonpResponseWrapper wrapper = new JsonpResponseWrapper(httpResponse);
+            chain.doFilter(request, wrapper);
+            wrapper.flushWriter();
+
+            out.write(");".getBytes(StandardCharsets.UTF_8));
+            out.flush();
         } else {
             chain.doFilter(request, response);
         }
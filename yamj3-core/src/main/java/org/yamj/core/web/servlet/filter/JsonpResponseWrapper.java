@@ -22,55 +22,57 @@
  */
 package org.yamj.core.web.servlet.filter;
 
-import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpServletResponseWrapper;
 
-public class GenericResponseWrapper extends HttpServletResponseWrapper {
+/**
+ * Response wrapper which passes the response through to the JSONP callback.
+ *
+ * The content type of the callback is kept, and closing the stream does not
+ * close the response, so that the callback can be closed afterwards.
+ */
+public class JsonpResponseWrapper extends HttpServletResponseWrapper {
 
-    private ByteArrayOutputStream output;
-    private int contentLength;
-    private String contentType;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
 
-    public GenericResponseWrapper(HttpServletResponse response) {
+    public JsonpResponseWrapper(HttpServletResponse response) {
         super(response);
-        output = new ByteArrayOutputStream();
-    }
-
-    public byte[] getData() {
-        return output.toByteArray();
     }
 
     @Override
-    public ServletOutputStream getOutputStream() {
-        return new FilterServletOutputStream(output);
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            outputStream = new FilterServletOutputStream(super.getOutputStream());
+        }
+        return outputStream;
     }
 
     @Override
-    public PrintWriter getWriter() {
-        return new PrintWriter(getOutputStream(), true);
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+        }
+        return writer;
     }
 
-    @Override
-    public void setContentLength(int length) {
-        this.contentLength = length;
-        super.setContentLength(length);
-    }
-
-    public int getContentLength() {
-        return contentLength;
+    public void flushWriter() {
+        if (writer != null) {
+            writer.flush();
+        }
     }
 
     @Override
     public void setContentType(String type) {
-        this.contentType = type;
-        super.setContentType(type);
+        // keep the content type of the callback
     }
 
     @Override
-    public String getContentType() {
-        return contentType;
+    public void setContentLength(int length) {
+        // the length of the callback differs
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,140 @@
+/*
+ *      Copyright (c) 2004-2015 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ).
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3
+ *
+ */
+package org.yamj.core.web.servlet.filter;
+
+import java.io.IOException;
+import java.util.*;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.yamj.core.web.CachedResponse;
+import org.yamj.core.web.ResponseCacheService;
+
+/**
+ * Serves the responses of the cacheable API methods from the response cache
+ * and answers conditional requests with 304 (Not Modified).
+ *
+ * The filter is registered by a DelegatingFilterProxy, so that it has access to the Spring beans.
+ */
+@Component("responseCacheFilter")
+public class ResponseCacheFilter extends OncePerRequestFilter {
+
+    // parameters which do not change the JSON response
+    private static final Set<String> IGNORED_PARAMETERS = new HashSet<>(Arrays.asList("callback", "_"));
+
+    @Autowired
+    private ResponseCacheService responseCacheService;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain) throws ServletException, IOException {
+        if (!responseCacheService.isEnabled() || !"GET".equals(request.getMethod())) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        final String key = buildKey(request);
+        CachedResponse cachedResponse = responseCacheService.get(key);
+        if (cachedResponse != null) {
+            writeResponse(request, response, cachedResponse);
+            return;
+        }
+
+        final long version = responseCacheService.getVersion();
+        CachingResponseWrapper wrapper = new CachingResponseWrapper(request, response);
+        chain.doFilter(request, wrapper);
+        if (!wrapper.isCaching()) {
+            return;
+        }
+
+        final byte[] data = wrapper.getData();
+        if (wrapper.getStatus() == HttpServletResponse.SC_OK) {
+            cachedResponse = responseCacheService.put(key, version, wrapper.getContentType(), data);
+        }
+        if (cachedResponse == null) {
+            response.getOutputStream().write(data);
+        } else {
+            writeResponse(request, response, cachedResponse);
+        }
+    }
+
+    private static String buildKey(HttpServletRequest request) {
+        StringBuilder sb = new StringBuilder(request.getRequestURI());
+        char separator = '?';
+        for (Map.Entry<String, String[]> entry : new TreeMap<>(request.getParameterMap()).entrySet()) {
+            if (IGNORED_PARAMETERS.contains(entry.getKey())) {
+                continue;
+            }
+            for (String value : entry.getValue()) {
+                sb.append(separator).append(entry.getKey()).append('=').append(value);
+                separator = '&';
+            }
+        }
+        return sb.toString();
+    }
+
+    private static void writeResponse(HttpServletRequest request, HttpServletResponse response, CachedResponse cachedResponse) throws IOException {
+        response.setHeader("ETag", cachedResponse.getEtag());
+        response.setDateHeader("Last-Modified", cachedResponse.getLastModified());
+        response.setHeader("Cache-Control", "no-cache");
+
+        if (isNotModified(request, cachedResponse)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(cachedResponse.getContentType());
+        response.getOutputStream().write(cachedResponse.getData());
+    }
+
+    private static boolean isNotModified(HttpServletRequest request, CachedResponse cachedResponse) {
+        if (request.getParameter("callback") != null) {
+            // JSONP responses are always wrapped into the callback
+            return false;
+        }
+
+        final String ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            for (String etag : StringUtils.split(ifNoneMatch, ',')) {
+                final String trimmed = etag.trim();
+                if ("*".equals(trimmed) || cachedResponse.getEtag().equals(trimmed)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        try {
+            final long ifModifiedSince = request.getDateHeader("If-Modified-Since");
+            // the header has a precision of seconds
+            return ifModifiedSince >= 0 && cachedResponse.getLastModified() / 1000 <= ifModifiedSince / 1000;
+        } catch (IllegalArgumentException ex) { //NOSONAR
+            return false;
+        }
+    }
+}
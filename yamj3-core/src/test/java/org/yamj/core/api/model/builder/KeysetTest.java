@@ -0,0 +1,60 @@
+/*
+ *      Copyright (c) 2004-2015 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ).
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3
+ *
+ */
+package org.yamj.core.api.model.builder;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+
+public class KeysetTest {
+
+    @Test
+    public void testTokenRoundTrip() {
+        Keyset keyset = new Keyset("The Matrix", "MOVIE", 4711L);
+        Keyset parsed = Keyset.fromToken(keyset.toToken());
+        assertNotNull(parsed);
+        assertEquals("The Matrix", parsed.getValue());
+        assertEquals("MOVIE", parsed.getType());
+        assertEquals(4711L, parsed.getId());
+    }
+
+    @Test
+    public void testInvalidToken() {
+        assertNull(Keyset.fromToken(null));
+        assertNull(Keyset.fromToken(""));
+        assertNull(Keyset.fromToken("no-valid-token"));
+    }
+
+    @Test
+    public void testBuildPredicate() {
+        Map<String, Object> parameters = new HashMap<>();
+        Keyset keyset = new Keyset(1999, "SERIES", 12L);
+        String predicate = keyset.buildPredicate(parameters, "videoYear", true, "videoType", "id", true);
+        assertEquals("(videoYear<:keysetValue OR (videoYear=:keysetValue AND (videoType<:keysetType OR (videoType=:keysetType AND id<:keysetId))))", predicate);
+        assertEquals(Long.valueOf(1999L), parameters.get(Keyset.PARAM_VALUE));
+        assertEquals("SERIES", parameters.get(Keyset.PARAM_TYPE));
+        assertEquals(Long.valueOf(12L), parameters.get(Keyset.PARAM_ID));
+    }
+}
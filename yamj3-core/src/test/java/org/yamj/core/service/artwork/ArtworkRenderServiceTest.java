@@ -0,0 +1,219 @@
+/*
+ *      Copyright (c) 2004-2015 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ).
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3
+ *
+ */
+package org.yamj.core.service.artwork;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@SuppressWarnings("all")
+public class ArtworkRenderServiceTest {
+
+    private TestArtworkProcessorService processorService;
+    private ArtworkRenderService renderService;
+    private ExecutorService requests;
+
+    private void init(int threads, int queueSize, long timeout) {
+        processorService = new TestArtworkProcessorService();
+        renderService = new ArtworkRenderService();
+        ReflectionTestUtils.setField(renderService, "artworkProcessorService", processorService);
+        ReflectionTestUtils.setField(renderService, "renderThreads", threads);
+        ReflectionTestUtils.setField(renderService, "queueSize", queueSize);
+        ReflectionTestUtils.setField(renderService, "renderTimeout", timeout);
+        renderService.init();
+        requests = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void destroy() {
+        processorService.releaseAll();
+        renderService.destroy();
+        requests.shutdownNow();
+    }
+
+    @Test
+    public void testConcurrentRequestsRenderOnce() throws Exception {
+        init(2, 10, 5000L);
+
+        List<Future<ImageDTO>> results = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            results.add(request(1L, "poster"));
+        }
+        assertTrue(processorService.started.tryAcquire(5, TimeUnit.SECONDS));
+        // give the other requests the time to join the running rendering
+        processorService.awaitLookups(5);
+        Thread.sleep(100);
+        assertEquals(1, inFlight().size());
+
+        processorService.release(0);
+        for (Future<ImageDTO> result : results) {
+            assertEquals("1/poster", result.get(5, TimeUnit.SECONDS).getResource());
+        }
+        assertEquals(1, processorService.renderings.get());
+        // the entry is released right after the waiting requests
+        awaitInFlight(0);
+    }
+
+    @Test
+    public void testSaturatedPoolRejects() throws Exception {
+        init(1, 1, 5000L);
+
+        // one rendering is running and one is queued
+        Future<ImageDTO> running = request(1L, "poster");
+        assertTrue(processorService.started.tryAcquire(5, TimeUnit.SECONDS));
+        Future<ImageDTO> queued = request(2L, "poster");
+        awaitInFlight(2);
+
+        try {
+            renderService.getImage(3L, "poster");
+            fail("Rendering should have been rejected");
+        } catch (RejectedExecutionException ex) {
+            // expected
+        }
+        assertFalse(inFlight().containsKey("3/poster"));
+        assertEquals(2, inFlight().size());
+
+        processorService.release(0);
+        processorService.release(1);
+        assertEquals("1/poster", running.get(5, TimeUnit.SECONDS).getResource());
+        assertEquals("2/poster", queued.get(5, TimeUnit.SECONDS).getResource());
+        assertEquals(2, processorService.renderings.get());
+        // the entry is released right after the waiting requests
+        awaitInFlight(0);
+    }
+
+    @Test
+    public void testTimeoutReleasesInFlight() throws Exception {
+        init(2, 10, 100L);
+        processorService.store = false;
+
+        try {
+            renderService.getImage(1L, "poster");
+            fail("Rendering should have timed out");
+        } catch (TimeoutException ex) {
+            // expected
+        }
+        assertTrue(inFlight().isEmpty());
+
+        // the next request starts a new rendering
+        ReflectionTestUtils.setField(renderService, "renderTimeout", 5000L);
+        Future<ImageDTO> result = request(1L, "poster");
+        assertTrue(processorService.started.tryAcquire(2, 5, TimeUnit.SECONDS));
+        awaitInFlight(1);
+
+        // the hanging rendering must not release the entry of the new one
+        processorService.release(0);
+        assertTrue(processorService.finished.tryAcquire(5, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        assertEquals(1, inFlight().size());
+
+        processorService.release(1);
+        assertEquals("1/poster", result.get(5, TimeUnit.SECONDS).getResource());
+        assertEquals(2, processorService.renderings.get());
+        // the entry is released right after the waiting requests
+        awaitInFlight(0);
+    }
+
+    private Future<ImageDTO> request(final Long id, final String profileName) {
+        return requests.submit(new Callable<ImageDTO>() {
+            @Override
+            public ImageDTO call() throws Exception {
+                return renderService.getImage(id, profileName);
+            }
+        });
+    }
+
+    private Map<String, ?> inFlight() {
+        return (Map<String, ?>) ReflectionTestUtils.getField(renderService, "renderings");
+    }
+
+    private void awaitInFlight(int size) throws InterruptedException {
+        for (int i = 0; i < 500 && inFlight().size() != size; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(size, inFlight().size());
+    }
+
+    /**
+     * Renders the images only when released by the test.
+     */
+    private static class TestArtworkProcessorService extends ArtworkProcessorService {
+
+        private final AtomicInteger renderings = new AtomicInteger();
+        private final AtomicInteger lookups = new AtomicInteger();
+        private final Semaphore started = new Semaphore(0);
+        private final Semaphore finished = new Semaphore(0);
+        private final CountDownLatch[] released = new CountDownLatch[]{new CountDownLatch(1), new CountDownLatch(1), new CountDownLatch(1)};
+        private final Map<String, ImageDTO> generated = new ConcurrentHashMap<>();
+        private volatile boolean store = true;
+
+        @Override
+        public ImageDTO getGeneratedImage(Long id, String profileName) {
+            lookups.incrementAndGet();
+            return generated.get(id + "/" + profileName);
+        }
+
+        @Override
+        public ImageDTO getImage(Long id, String profileName) {
+            final int rendering = renderings.getAndIncrement();
+            started.release();
+            try {
+                released[rendering].await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+
+            ImageDTO image = new ImageDTO();
+            image.setResource(id + "/" + profileName);
+            if (store) {
+                generated.put(image.getResource(), image);
+            }
+            finished.release();
+            return image;
+        }
+
+        void awaitLookups(int count) throws InterruptedException {
+            for (int i = 0; i < 500 && lookups.get() < count; i++) {
+                Thread.sleep(10);
+            }
+        }
+
+        void release(int rendering) {
+            released[rendering].countDown();
+        }
+
+        void releaseAll() {
+            for (CountDownLatch latch : released) {
+                latch.countDown();
+            }
+        }
+    }
+}
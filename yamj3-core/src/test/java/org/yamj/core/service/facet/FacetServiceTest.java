@@ -0,0 +1,257 @@
+/*
+ *      Copyright (c) 2004-2015 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ).
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3
+ *
+ */
+package org.yamj.core.service.facet;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.yamj.common.type.MetaDataType;
+import org.yamj.core.api.model.builder.IndexParams;
+import org.yamj.core.api.options.OptionsIndexVideo;
+import org.yamj.core.database.dao.FacetDao;
+
+public class FacetServiceTest {
+
+    private FacetService facetService;
+
+    @Before
+    public void setUp() {
+        facetService = new FacetService();
+        ReflectionTestUtils.setField(facetService, "facetDao", new TestFacetDao());
+        ReflectionTestUtils.setField(facetService, "enabled", true);
+        ReflectionTestUtils.setField(facetService, "maxIds", 1000);
+        facetService.rebuildIndex();
+    }
+
+    @Test
+    public void testNotReady() {
+        FacetService service = new FacetService();
+        assertFalse(service.isReady());
+        assertNull(service.match(params("movie", "genre-action", null), MetaDataType.MOVIE));
+        assertNull(service.countFacets(params("movie", null, null), null));
+    }
+
+    @Test
+    public void testHasFilters() {
+        assertFalse(facetService.hasFilters(params("movie", null, null)));
+        assertFalse(facetService.hasFilters(params("movie", "year-2015", null)));
+        assertTrue(facetService.hasFilters(params("movie", "genre-action", null)));
+        assertTrue(facetService.hasFilters(params("movie", null, "resolution-hd")));
+
+        // filters which restrict the facet counts to the listed ids
+        assertFalse(params("movie", "genre-action", null).checkNonFacetFilters());
+        assertTrue(params("movie", "year-2015", null).checkNonFacetFilters());
+        assertTrue(params("movie", null, "newest-30").checkNonFacetFilters());
+    }
+
+    @Test
+    public void testIncludeAndExclude() {
+        FacetMatch match = facetService.match(params("movie", "genre-action", null), MetaDataType.MOVIE);
+        assertFalse(match.isNegated());
+        assertEquals(ids(1, 3), match.getIds());
+
+        match = facetService.match(params("movie", null, "genre-action"), MetaDataType.MOVIE);
+        assertFalse(match.isNegated());
+        assertEquals(ids(2), match.getIds());
+
+        // filters are combined with AND
+        match = facetService.match(params("movie", "genre-action,resolution-fullhd", null), MetaDataType.MOVIE);
+        assertEquals(ids(1), match.getIds());
+        match = facetService.match(params("movie", "genre-drama", "resolution-hd"), MetaDataType.MOVIE);
+        assertEquals(ids(3), match.getIds());
+    }
+
+    @Test
+    public void testAliasAndUnknownValue() {
+        // the target API name is an alias of the genre
+        FacetMatch match = facetService.match(params("movie", "genre-thriller", null), MetaDataType.MOVIE);
+        assertEquals(ids(1), match.getIds());
+
+        match = facetService.match(params("movie", "genre-western", null), MetaDataType.MOVIE);
+        assertTrue(match.getIds().isEmpty());
+    }
+
+    @Test
+    public void testNegatedMatch() {
+        ReflectionTestUtils.setField(facetService, "maxIds", 1);
+
+        // two movies match, but only one is rejected
+        FacetMatch match = facetService.match(params("movie", "genre-drama", null), MetaDataType.MOVIE);
+        assertTrue(match.isNegated());
+        assertEquals(ids(1), match.getIds());
+        assertEquals(3, match.getMaxId());
+
+        // too many ids in both cases, so the database has to evaluate the filters
+        ReflectionTestUtils.setField(facetService, "maxIds", 0);
+        assertNull(facetService.match(params("movie", "genre-drama", null), MetaDataType.MOVIE));
+    }
+
+    @Test
+    public void testRating() {
+        FacetMatch match = facetService.match(params("movie", "rating-8-imdb", null), MetaDataType.MOVIE);
+        assertEquals(ids(1), match.getIds());
+
+        // the combined rating is the average of all sources
+        match = facetService.match(params("movie", "rating-7", null), MetaDataType.MOVIE);
+        assertEquals(ids(1), match.getIds());
+        match = facetService.match(params("movie", "rating-8", null), MetaDataType.MOVIE);
+        assertTrue(match.getIds().isEmpty());
+    }
+
+    @Test
+    public void testSeasonFilters() {
+        // the resolution of a season is aggregated from its episodes
+        FacetMatch match = facetService.match(params("season", "resolution-hd", null), MetaDataType.SEASON);
+        assertEquals(ids(20), match.getIds());
+        match = facetService.match(params("season", null, "resolution-hd"), MetaDataType.SEASON);
+        assertEquals(ids(21), match.getIds());
+        match = facetService.match(params("season", "resolution-all", null), MetaDataType.SEASON);
+        assertEquals(ids(20, 21), match.getIds());
+
+        // the genre of a season is inherited from its series
+        match = facetService.match(params("season", "genre-action", null), MetaDataType.SEASON);
+        assertEquals(ids(20, 21), match.getIds());
+
+        // the rating of a season is the rating of its series
+        match = facetService.match(params("season", "rating-6-imdb", null), MetaDataType.SEASON);
+        assertEquals(ids(20, 21), match.getIds());
+        match = facetService.match(params("season", null, "rating-6-imdb"), MetaDataType.SEASON);
+        assertTrue(match.getIds().isEmpty());
+    }
+
+    @Test
+    public void testCountFacets() {
+        Map<String, Map<String, Integer>> counts = facetService.countFacets(params("movie,series", null, null), null);
+        assertEquals(Integer.valueOf(3), counts.get("genre").get("action"));
+        assertEquals(Integer.valueOf(2), counts.get("genre").get("drama"));
+        // aliases are not counted
+        assertFalse(counts.get("genre").containsKey("thriller"));
+        assertEquals(Integer.valueOf(2), counts.get("resolution").get("hd"));
+        assertEquals(Integer.valueOf(2), counts.get("resolution").get("fullhd"));
+        // the pseudo resolution for all videos is not counted
+        assertFalse(counts.get("resolution").containsKey("all"));
+        // seasons and episodes are not requested, so the series rating is only counted once
+        assertEquals(Integer.valueOf(1), counts.get("rating").get("imdb-8"));
+        assertEquals(Integer.valueOf(1), counts.get("rating").get("imdb-6"));
+    }
+
+    @Test
+    public void testCountFacetsWithFilters() {
+        Map<String, Map<String, Integer>> counts = facetService.countFacets(params("movie", "genre-action", null), null);
+        assertEquals(Integer.valueOf(2), counts.get("genre").get("action"));
+        assertEquals(Integer.valueOf(1), counts.get("genre").get("drama"));
+        assertEquals(Integer.valueOf(1), counts.get("resolution").get("fullhd"));
+        assertFalse(counts.get("resolution").containsKey("hd"));
+
+        counts = facetService.countFacets(params("season", "resolution-hd", null), null);
+        assertEquals(Integer.valueOf(1), counts.get("resolution").get("hd"));
+        assertFalse(counts.get("resolution").containsKey("fullhd"));
+        assertEquals(Integer.valueOf(1), counts.get("genre").get("action"));
+    }
+
+    @Test
+    public void testCountFacetsOfListedIds() {
+        // e.g. a year filter which only matches the third movie
+        Map<MetaDataType, BitSet> listed = new EnumMap<>(MetaDataType.class);
+        listed.put(MetaDataType.MOVIE, ids(3));
+        Map<String, Map<String, Integer>> counts = facetService.countFacets(params("movie,series", "genre-action", null), listed);
+        assertEquals(Integer.valueOf(1), counts.get("genre").get("action"));
+        assertEquals(Integer.valueOf(1), counts.get("genre").get("drama"));
+        // the series is not listed
+        assertFalse(counts.get("rating").containsKey("imdb-6"));
+        assertFalse(counts.get("resolution").containsKey("fullhd"));
+    }
+
+    private static IndexParams params(String type, String include, String exclude) {
+        OptionsIndexVideo options = new OptionsIndexVideo();
+        options.setType(type);
+        options.setInclude(include);
+        options.setExclude(exclude);
+        return new IndexParams(options);
+    }
+
+    private static BitSet ids(int... ids) {
+        BitSet bitSet = new BitSet();
+        for (int id : ids) {
+            bitSet.set(id);
+        }
+        return bitSet;
+    }
+
+    private static Object[] row(Object... values) {
+        return values;
+    }
+
+    /**
+     * Three movies, one series with two seasons of one episode each.
+     */
+    private static class TestFacetDao extends FacetDao {
+
+        @Override
+        public List<Object[]> getObjects() {
+            return Arrays.asList(
+                row("MOVIE", 1L), row("MOVIE", 2L), row("MOVIE", 3L),
+                row("SERIES", 10L), row("SEASON", 20L), row("SEASON", 21L),
+                row("EPISODE", 30L), row("EPISODE", 31L));
+        }
+
+        @Override
+        public List<Object[]> getFacetRows(FacetType facet) {
+            switch (facet) {
+                case GENRE:
+                    return Arrays.asList(
+                        row("MOVIE", 1L, "Action", "Thriller", null),
+                        row("MOVIE", 2L, "Drama", null, null),
+                        row("MOVIE", 3L, "Action", null, null),
+                        row("MOVIE", 3L, "Drama", null, null),
+                        row("SERIES", 10L, "Action", null, null),
+                        row("SEASON", 20L, "Action", null, null),
+                        row("SEASON", 21L, "Action", null, null),
+                        row("EPISODE", 30L, "Action", null, null),
+                        row("EPISODE", 31L, "Action", null, null));
+                case RESOLUTION:
+                    return Arrays.asList(
+                        row("MOVIE", 1L, 1920),
+                        row("MOVIE", 2L, 1280),
+                        row("EPISODE", 30L, 1280),
+                        row("EPISODE", 31L, 1920),
+                        row("SEASON", 20L, 1280),
+                        row("SEASON", 21L, 1920),
+                        row("SERIES", 10L, 1280),
+                        row("SERIES", 10L, 1920));
+                case RATING:
+                    return Arrays.asList(
+                        row("MOVIE", 1L, "imdb", 80),
+                        row("MOVIE", 1L, "tmdb", 60),
+                        row("SERIES", 10L, "imdb", 60),
+                        row("SEASON", 20L, "imdb", 60),
+                        row("SEASON", 21L, "imdb", 60));
+                default:
+                    return Collections.emptyList();
+            }
+        }
+    }
+}
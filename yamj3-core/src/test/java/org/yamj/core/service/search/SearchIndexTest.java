@@ -0,0 +1,98 @@
+/*
+ *      Copyright (c) 2004-2015 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ).
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3
+ *
+ */
+package org.yamj.core.service.search;
+
+import static org.junit.Assert.*;
+import static org.yamj.common.type.MetaDataType.MOVIE;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SearchIndexTest {
+
+    private SearchIndex index;
+
+    @Before
+    public void setUp() {
+        index = new SearchIndex();
+        index.put(MOVIE, 1, "title", Arrays.asList("the matrix reloaded"));
+        index.put(MOVIE, 2, "title", Arrays.asList("matrix"));
+        index.put(MOVIE, 3, "title", Arrays.asList("animatrix"));
+    }
+
+    @Test
+    public void testAny() {
+        // a part inside of a term
+        assertEquals(ids(1, 2, 3), index.search(MOVIE, "title", "atri", SearchMode.ANY));
+        assertEquals(ids(1), index.search(MOVIE, "title", "load", SearchMode.ANY));
+        // the end of the first and the start of the last term
+        assertEquals(ids(1), index.search(MOVIE, "title", "rix rel", SearchMode.ANY));
+        assertEquals(ids(), index.search(MOVIE, "title", "rix the", SearchMode.ANY));
+        assertEquals(ids(), index.search(MOVIE, "title", "neo", SearchMode.ANY));
+    }
+
+    @Test
+    public void testStartEndExact() {
+        assertEquals(ids(1), index.search(MOVIE, "title", "the mat", SearchMode.START));
+        assertEquals(ids(2), index.search(MOVIE, "title", "mat", SearchMode.START));
+        assertEquals(ids(2, 3), index.search(MOVIE, "title", "trix", SearchMode.END));
+        assertEquals(ids(1), index.search(MOVIE, "title", "ix reloaded", SearchMode.END));
+        assertEquals(ids(2), index.search(MOVIE, "title", "matrix", SearchMode.EXACT));
+        assertEquals(ids(), index.search(MOVIE, "title", "matri", SearchMode.EXACT));
+    }
+
+    @Test
+    public void testUnknownField() {
+        assertEquals(ids(), index.search(MOVIE, "plot", "matrix", SearchMode.ANY));
+    }
+
+    @Test
+    public void testReplaceAndRemove() {
+        index.put(MOVIE, 2, "title", Arrays.asList("neo"));
+        assertEquals(ids(1, 3), index.search(MOVIE, "title", "atri", SearchMode.ANY));
+        assertEquals(ids(2), index.search(MOVIE, "title", "eo", SearchMode.ANY));
+
+        index.remove(MOVIE, 3);
+        assertEquals(ids(1), index.search(MOVIE, "title", "atri", SearchMode.ANY));
+        assertEquals(ids(), index.search(MOVIE, "title", "anim", SearchMode.ANY));
+    }
+
+    @Test
+    public void testRetain() {
+        index.put(MOVIE, 3, "plot", Arrays.asList("an animated matrix"));
+        assertEquals(2, index.retain(MOVIE, ids(2, 4)));
+        assertEquals(ids(2), index.search(MOVIE, "title", "atri", SearchMode.ANY));
+        assertEquals(ids(), index.search(MOVIE, "plot", "anim", SearchMode.ANY));
+        assertEquals(0, index.retain(MOVIE, ids(2)));
+    }
+
+    private static BitSet ids(int... ids) {
+        BitSet bitSet = new BitSet();
+        for (int id : ids) {
+            bitSet.set(id);
+        }
+        return bitSet;
+    }
+}
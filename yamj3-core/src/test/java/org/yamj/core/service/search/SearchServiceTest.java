@@ -0,0 +1,226 @@
+/*
+ *      Copyright (c) 2004-2015 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ).
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3
+ *
+ */
+package org.yamj.core.service.search;
+
+import static org.junit.Assert.*;
+import static org.yamj.common.type.MetaDataType.*;
+
+import java.util.*;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.yamj.core.api.options.OptionsId;
+import org.yamj.core.database.dao.SearchDao;
+import org.yamj.core.service.various.IdentifierService;
+
+public class SearchServiceTest {
+
+    private TestSearchDao searchDao;
+    private SearchService searchService;
+
+    @Before
+    public void setUp() {
+        searchDao = new TestSearchDao();
+        searchDao.videos.add(row("MOVIE", 1L, "Amélie", "Le Fabuleux Destin d'Amélie Poulain", null, null));
+        searchDao.videos.add(row("MOVIE", 2L, "The Matrix", null, "Matrix", "Neo is the one"));
+        searchDao.videos.add(row("SERIES", 3L, "Amerika", null, null, null));
+        searchDao.persons.add(row(11L, "Keanu Reeves", "Keanu", "Reeves"));
+        searchDao.persons.add(row(12L, "Hugo Weaving", "Hugo", "Weaving"));
+        searchDao.roles.add(row(11L, "ACTOR", "Neo"));
+        searchDao.roles.add(row(12L, "ACTOR", "Agent Smith"));
+        searchDao.roles.add(row(12L, "WRITER", "Neo"));
+
+        searchService = new SearchService();
+        ReflectionTestUtils.setField(searchService, "searchDao", searchDao);
+        ReflectionTestUtils.setField(searchService, "identifierService", new IdentifierService());
+        ReflectionTestUtils.setField(searchService, "enabled", true);
+        ReflectionTestUtils.setField(searchService, "maxIds", 1000);
+        searchService.rebuildIndex();
+    }
+
+    @Test
+    public void testNotReady() {
+        SearchService service = new SearchService();
+        assertFalse(service.isReady());
+        assertNull(service.search(MOVIE, options("title", "matrix", null)));
+    }
+
+    @Test
+    public void testDiacritics() {
+        assertEquals(ids(1), searchService.search(MOVIE, options("title", "amelie", null)));
+        assertEquals(ids(1), searchService.search(MOVIE, options("vd.title", "AMÉL", "START")));
+        assertEquals(ids(1), searchService.search(MOVIE, options("title_original", "destin d'amelie", null)));
+        assertEquals(ids(3), searchService.search(SERIES, options("title", "ame", null)));
+    }
+
+    @Test
+    public void testFields() {
+        assertEquals(ids(2), searchService.search(MOVIE, options("plot", "one", "END")));
+        assertEquals(ids(2), searchService.search(MOVIE, options("title_sort", "matrix", "EXACT")));
+        // the database has to search fields which are not indexed
+        assertNull(searchService.search(MOVIE, options("video_source", "bluray", null)));
+        assertNull(searchService.search(MOVIE, options("title", " ", null)));
+    }
+
+    @Test
+    public void testMaxIds() {
+        ReflectionTestUtils.setField(searchService, "maxIds", 1);
+        assertEquals(ids(1), searchService.search(MOVIE, options("title", "ame", null)));
+        assertNull(searchService.search(MOVIE, options("title", "e", null)));
+    }
+
+    @Test
+    public void testPersons() {
+        assertEquals(ids(11), searchService.searchPersons(options("name", "reev", null), null));
+        assertEquals(ids(12), searchService.searchPersons(options("p.last_name", "weaving", "EXACT"), null));
+    }
+
+    @Test
+    public void testRoleOfJob() {
+        // the role must be played in the same job
+        assertEquals(ids(11, 12), searchService.searchPersons(options("role", "neo", null), null));
+        assertEquals(ids(11, 12), searchService.searchPersons(options("c.role", "neo", null), Collections.<String>emptySet()));
+        assertEquals(ids(11), searchService.searchPersons(options("role", "neo", null), Collections.singleton("ACTOR")));
+        assertEquals(ids(12), searchService.searchPersons(options("role", "neo", null), Collections.singleton("WRITER")));
+        assertEquals(ids(11, 12), searchService.searchPersons(options("role", "neo", null), Arrays.asList("ACTOR", "WRITER")));
+        assertEquals(ids(), searchService.searchPersons(options("role", "smith", null), Collections.singleton("WRITER")));
+    }
+
+    @Test
+    public void testRefreshChanged() {
+        searchDao.videos.set(1, row("MOVIE", 2L, "Matrix Reloaded", null, null, null));
+        searchDao.changedVideos.add(searchDao.videos.get(1));
+        searchDao.roles.set(0, row(11L, "ACTOR", "Thomas Anderson"));
+        searchDao.changedPersons.add(11L);
+        searchService.refreshIndex(new Date());
+
+        assertEquals(ids(2), searchService.search(MOVIE, options("title", "reloaded", null)));
+        assertEquals(ids(), searchService.search(MOVIE, options("plot", "neo", null)));
+        assertEquals(ids(11), searchService.searchPersons(options("role", "anderson", null), Collections.singleton("ACTOR")));
+        assertEquals(ids(12), searchService.searchPersons(options("role", "neo", null), null));
+    }
+
+    @Test
+    public void testRefreshDeleted() {
+        searchDao.videos.remove(2);
+        searchDao.persons.remove(1);
+        searchService.refreshIndex(new Date());
+
+        assertEquals(ids(), searchService.search(SERIES, options("title", "ame", null)));
+        assertEquals(ids(1), searchService.search(MOVIE, options("title", "ame", null)));
+        assertEquals(ids(11), searchService.searchPersons(options("role", "neo", null), null));
+        assertEquals(ids(), searchService.searchPersons(options("name", "hugo", null), null));
+    }
+
+    @Test
+    public void testRefreshDeletedPerson() {
+        searchDao.persons.remove(0);
+        searchService.refreshIndex(new Date());
+
+        assertEquals(ids(12), searchService.searchPersons(options("role", "neo", null), null));
+        assertEquals(ids(), searchService.searchPersons(options("name", "keanu", null), null));
+        assertEquals(ids(2), searchService.search(MOVIE, options("title", "matrix", null)));
+    }
+
+    private static OptionsId options(String field, String search, String mode) {
+        OptionsId options = new OptionsId();
+        options.setField(field);
+        options.setSearch(search);
+        options.setMode(mode);
+        return options;
+    }
+
+    private static BitSet ids(int... ids) {
+        BitSet bitSet = new BitSet();
+        for (int id : ids) {
+            bitSet.set(id);
+        }
+        return bitSet;
+    }
+
+    private static Object[] row(Object... values) {
+        return values;
+    }
+
+    /**
+     * Holds the rows in memory; the persons are valid and the roles belong to existing persons.
+     */
+    private static class TestSearchDao extends SearchDao {
+
+        private final List<Object[]> videos = new ArrayList<>();
+        private final List<Object[]> changedVideos = new ArrayList<>();
+        private final List<Object[]> persons = new ArrayList<>();
+        private final List<Long> changedPersons = new ArrayList<>();
+        private final List<Object[]> roles = new ArrayList<>();
+
+        @Override
+        public List<Object[]> getVideoRows(Date since) {
+            return since == null ? videos : changedVideos;
+        }
+
+        @Override
+        public List<Object[]> getVideoIds() {
+            List<Object[]> rows = new ArrayList<>();
+            for (Object[] video : videos) {
+                rows.add(row(video[0], video[1]));
+            }
+            return rows;
+        }
+
+        @Override
+        public List<Long> getPersonIds() {
+            List<Long> ids = new ArrayList<>();
+            for (Object[] person : persons) {
+                ids.add((Long) person[0]);
+            }
+            return ids;
+        }
+
+        @Override
+        public List<Long> getChangedPersonIds(Date since) {
+            return changedPersons;
+        }
+
+        @Override
+        public List<Object[]> getPersonRows(Collection<Long> ids) {
+            List<Object[]> rows = new ArrayList<>();
+            for (Object[] person : persons) {
+                if (ids == null || ids.contains(person[0])) {
+                    rows.add(person);
+                }
+            }
+            return rows;
+        }
+
+        @Override
+        public List<Object[]> getRoleRows(Collection<Long> ids) {
+            List<Object[]> rows = new ArrayList<>();
+            for (Object[] role : roles) {
+                if (getPersonIds().contains(role[0]) && (ids == null || ids.contains(role[0]))) {
+                    rows.add(role);
+                }
+            }
+            return rows;
+        }
+    }
+}
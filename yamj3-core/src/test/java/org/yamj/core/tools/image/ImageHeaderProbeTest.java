@@ -0,0 +1,88 @@
+/*
+ *      Copyright (c) 2004-2015 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ).
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3
+ *
+ */
+package org.yamj.core.tools.image;
+
+import static org.junit.Assert.*;
+
+import java.awt.Dimension;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import javax.imageio.ImageIO;
+import org.junit.Test;
+
+@SuppressWarnings("all")
+public class ImageHeaderProbeTest {
+
+    @Test
+    public void testJpeg() throws IOException {
+        ImageHeaderProbe probe = probe(createImage("jpg", 320, 200), 100);
+        assertTrue(probe.isDone());
+        assertFalse(probe.isInvalid());
+        assertEquals(new Dimension(320, 200), probe.getDimension());
+    }
+
+    @Test
+    public void testPng() throws IOException {
+        ImageHeaderProbe probe = probe(createImage("png", 17, 31), 5);
+        assertTrue(probe.isDone());
+        assertEquals(new Dimension(17, 31), probe.getDimension());
+    }
+
+    @Test
+    public void testGif() throws IOException {
+        ImageHeaderProbe probe = probe(createImage("gif", 640, 480), 4096);
+        assertTrue(probe.isDone());
+        assertEquals(new Dimension(640, 480), probe.getDimension());
+    }
+
+    @Test
+    public void testUnknown() {
+        ImageHeaderProbe probe = probe("<html><body>Not found</body></html>".getBytes(), 8);
+        assertTrue(probe.isDone());
+        assertFalse(probe.isKnownFormat());
+        assertFalse(probe.isInvalid());
+    }
+
+    @Test
+    public void testCorruptJpeg() {
+        byte[] data = new byte[]{(byte) 0xFF, (byte) 0xD8, 0x00, 0x01, 0x02, 0x03, 0x04, 0x05, 0x06, 0x07, 0x08, 0x09};
+        ImageHeaderProbe probe = probe(data, data.length);
+        assertTrue(probe.isDone());
+        assertTrue(probe.isInvalid());
+    }
+
+    private static ImageHeaderProbe probe(byte[] data, int chunkSize) {
+        ImageHeaderProbe probe = new ImageHeaderProbe();
+        for (int offset = 0; offset < data.length && !probe.isDone(); offset += chunkSize) {
+            probe.update(data, offset, Math.min(chunkSize, data.length - offset));
+        }
+        return probe;
+    }
+
+    private static byte[] createImage(String format, int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), format, out);
+        return out.toByteArray();
+    }
+}
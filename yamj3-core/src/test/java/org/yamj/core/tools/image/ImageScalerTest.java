@@ -0,0 +1,162 @@
+/*
+ *      Copyright (c) 2004-2015 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ).
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3
+ *
+ */
+package org.yamj.core.tools.image;
+
+import static org.junit.Assert.*;
+
+import java.awt.GradientPaint;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@SuppressWarnings("all")
+public class ImageScalerTest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ImageScalerTest.class);
+
+    @Test
+    public void testDownscaleQuality() {
+        BufferedImage source = createImage(1920, 1080, BufferedImage.TYPE_3BYTE_BGR);
+        BufferedImage scaled = ImageScaler.scale(source, 400, 225, BufferedImage.TYPE_INT_RGB);
+        assertEquals(BufferedImage.TYPE_INT_RGB, scaled.getType());
+        assertEquals(400, scaled.getWidth());
+        assertEquals(225, scaled.getHeight());
+
+        double difference = meanDifference(scaled, reference(source, 400, 225));
+        LOG.info("Mean difference to area averaging of AWT: {}", difference);
+        assertTrue(difference < 0.01);
+    }
+
+    @Test
+    public void testUpscaleQuality() {
+        BufferedImage source = createImage(200, 300, BufferedImage.TYPE_INT_RGB);
+        BufferedImage scaled = ImageScaler.scale(source, 500, 750, BufferedImage.TYPE_INT_ARGB);
+        assertEquals(255, scaled.getRGB(10, 10) >>> 24);
+
+        double difference = meanDifference(scaled, reference(source, 500, 750));
+        LOG.info("Mean difference to area averaging of AWT: {}", difference);
+        assertTrue(difference < 0.01);
+    }
+
+    @Test
+    public void testScaleToSizeClipped() {
+        BufferedImage source = createImage(100, 200, BufferedImage.TYPE_INT_RGB);
+        BufferedImage scaled = GraphicTools.scaleToSize(50, 60, source, BufferedImage.TYPE_INT_RGB);
+        assertEquals(50, scaled.getWidth());
+        assertEquals(60, scaled.getHeight());
+
+        // the scaled image is 100 pixels high, so the bottom is clipped
+        BufferedImage full = ImageScaler.scale(source, 50, 100, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < 60; y++) {
+            for (int x = 0; x < 50; x++) {
+                assertEquals(full.getRGB(x, y), scaled.getRGB(x, y));
+            }
+        }
+    }
+
+    @Test
+    public void testScaleToSizeBottomAligned() {
+        BufferedImage source = createImage(200, 100, BufferedImage.TYPE_INT_RGB);
+        BufferedImage scaled = GraphicTools.scaleToSize(50, 60, source, BufferedImage.TYPE_INT_RGB);
+        assertEquals(50, scaled.getWidth());
+        assertEquals(60, scaled.getHeight());
+
+        // the scaled image is 25 pixels high and aligned to the bottom
+        BufferedImage full = ImageScaler.scale(source, 50, 25, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < 60; y++) {
+            for (int x = 0; x < 50; x++) {
+                if (y < 35) {
+                    assertEquals(0, scaled.getRGB(x, y) & 0xFFFFFF);
+                } else {
+                    assertEquals(full.getRGB(x, y - 35), scaled.getRGB(x, y));
+                }
+            }
+        }
+    }
+
+    @Ignore("Benchmark; just logs the timings")
+    @Test
+    public void testThroughput() {
+        BufferedImage source = createImage(1920, 1080, BufferedImage.TYPE_3BYTE_BGR);
+        // warm up
+        for (int i = 0; i < 3; i++) {
+            ImageScaler.scale(source, 1280, 720, BufferedImage.TYPE_INT_RGB);
+            reference(source, 1280, 720);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            ImageScaler.scale(source, 1280, 720, BufferedImage.TYPE_INT_RGB);
+        }
+        long scaler = (System.nanoTime() - start) / 5000000L;
+        
+        start = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            reference(source, 1280, 720);
+        }
+        long awt = (System.nanoTime() - start) / 5000000L;
+        
+        LOG.info("Scaling 1920x1080 to 1280x720: {} ms with image scaler, {} ms with AWT", scaler, awt);
+    }
+
+    private static BufferedImage createImage(int width, int height, int type) {
+        BufferedImage image = new BufferedImage(width, height, type);
+        Graphics2D g = image.createGraphics();
+        g.setPaint(new GradientPaint(0, 0, Color.RED, width, height, Color.BLUE));
+        g.fillRect(0, 0, width, height);
+        Random random = new Random(42);
+        for (int i = 0; i < 200; i++) {
+            g.setColor(new Color(random.nextInt(0xFFFFFF)));
+            g.fillOval(random.nextInt(width), random.nextInt(height), 5 + random.nextInt(width / 4), 5 + random.nextInt(height / 4));
+        }
+        g.dispose();
+        return image;
+    }
+
+    private static BufferedImage reference(BufferedImage source, int width, int height) {
+        Image scaled = source.getScaledInstance(width, height, Image.SCALE_SMOOTH);
+        BufferedImage result = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        result.createGraphics().drawImage(scaled, 0, 0, null);
+        return result;
+    }
+
+    private static double meanDifference(BufferedImage image1, BufferedImage image2) {
+        long sum = 0;
+        for (int y = 0; y < image1.getHeight(); y++) {
+            for (int x = 0; x < image1.getWidth(); x++) {
+                int p1 = image1.getRGB(x, y);
+                int p2 = image2.getRGB(x, y);
+                sum += Math.abs((p1 >> 16 & 0xFF) - (p2 >> 16 & 0xFF));
+                sum += Math.abs((p1 >> 8 & 0xFF) - (p2 >> 8 & 0xFF));
+                sum += Math.abs((p1 & 0xFF) - (p2 & 0xFF));
+            }
+        }
+        return (double) sum / (image1.getWidth() * image1.getHeight() * 3);
+    }
+}
@@ -24,12 +24,20 @@ package org.yamj.filescanner;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
-import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.concurrent.ConcurrentUtils;
@@ -53,10 +61,11 @@ import org.yamj.common.type.DirectoryType;
 import org.yamj.common.type.ExitType;
 import org.yamj.common.type.StatusType;
 import org.yamj.common.util.KeywordMap;
-import org.yamj.filescanner.comparator.FileTypeComparator;
 import org.yamj.filescanner.model.*;
 import org.yamj.filescanner.service.SystemInfoCore;
 import org.yamj.filescanner.tools.DirectoryEnding;
+import org.yamj.filescanner.tools.SnapshotTools;
+import org.yamj.filescanner.tools.WatchListener;
 import org.yamj.filescanner.tools.Watcher;
 
 /**
@@ -70,7 +79,6 @@ public class ScannerManagementImpl implements ScannerManagement {
 
     /*
      * TODO: choose between watcher process and simple re-scan
-     * TODO: determine what files have changed between scans
      */
     private static final Logger LOG = LoggerFactory.getLogger(ScannerManagementImpl.class);
     // The default watched status
@@ -81,11 +89,17 @@ public class ScannerManagementImpl implements ScannerManagement {
     private SystemInfoCore pingCore;
     @Autowired
     private GitHubService githubService;
+    @Autowired
+    private SnapshotTools snapshotTools;
     // ImportDTO constants
     private static final String DEFAULT_CLIENT = PropertyTools.getProperty("filescanner.default.client", "FileScanner");
     private static final String DEFAULT_PLAYER_PATH = PropertyTools.getProperty("filescanner.default.playerpath", "");
     private static final String DEFAULT_SPLIT = ",|;";
     private static final String FILE_MJBIGNORE = ".mjbignore";
+    // Number of threads to scan the directories in parallel
+    private static final int SCAN_THREADS = Math.max(1, PropertyTools.getIntProperty("filescanner.scan.threads", 4));
+    // Time in milliseconds to wait for further events of a watched directory
+    private static final long WATCH_DEBOUNCE = Math.max(0, PropertyTools.getIntProperty("filescanner.watch.debounce", 2000));
     // Date check
     private static final int MAX_INSTALL_AGE = PropertyTools.getIntProperty("filescanner.installation.maxdays", 1);
     // Map of filenames & extensions that cause scanning of a directory to stop or a filename to be ignored
@@ -205,6 +219,7 @@ public class ScannerManagementImpl implements ScannerManagement {
         // Send all libraries to be scanned
         ExitType status = ExitType.SUCCESS;
         for (Library library : libraryCollection.getLibraries()) {
+            library.setSnapshot(snapshotTools.read(library));
             library.getStatistics().setTime(TimeType.START);
             status = scan(library);
             library.getStatistics().setTime(TimeType.END);
@@ -231,6 +246,11 @@ public class ScannerManagementImpl implements ScannerManagement {
             }
         } while (!allDone);
 
+        // Remember what has been sent, so that the next run only sends the changes
+        for (Library library : libraryCollection.getLibraries()) {
+            saveSnapshot(library);
+        }
+
         if (LOG.isInfoEnabled()) {
             LOG.info(StringUtils.repeat("*", DIVIDER_LINE_LENGTH));
             LOG.info("Completed initial sending of all libraries ({} total)", libraryCollection.size());
@@ -245,9 +265,10 @@ public class ScannerManagementImpl implements ScannerManagement {
         if (watchEnabled) {
             Watcher wd;
             try {
-                wd = new Watcher();
-            } catch (UnsatisfiedLinkError ule) { //NOSONAR
+                wd = new Watcher(new LibraryWatchListener(), WATCH_DEBOUNCE);
+            } catch (IOException | UnsupportedOperationException ex) {
                 LOG.warn("Watching is not possible on this system; therefore watch service will not be used");
+                LOG.trace("Watch service error", ex);
                 wd = null;
             }
 
@@ -298,153 +319,262 @@ public class ScannerManagementImpl implements ScannerManagement {
             return ExitType.NO_DIRECTORY;
         }
 
-        scanDir(library, baseDirectory);
+        final ForkJoinPool scanPool = new ForkJoinPool(SCAN_THREADS);
+        try {
+            Path basePath = baseDirectory.toPath();
+            scanPool.invoke(new ScanDirectoryTask(library, basePath, Files.readAttributes(basePath, BasicFileAttributes.class), true));
+        } catch (IOException ex) {
+            LOG.info("Failed to read directory '{}'", baseDirectory.getAbsolutePath());
+            LOG.trace("IO error", ex);
+            return ExitType.NO_DIRECTORY;
+        } finally {
+            scanPool.shutdown();
+        }
+
+        // Send the directories which have been removed since the last scan
+        for (StageDirectoryDTO stageDir : library.getSnapshot().getRemovedDirectories()) {
+            LOG.info("Directory '{}' has been removed since last scan", library.getRelativeDir(stageDir.getPath()));
+            library.addDirectory(stageDir);
+            queueForSending(library, stageDir);
+        }
 
         library.getStatistics().setTime(TimeType.SCANNING_END);
         return status;
     }
 
     /**
-     * Scan a directory (and recursively any other directories contained
+     * Scan a directory and recursively all sub directories in parallel.
      *
-     * @param library
-     * @param parentDto
-     * @param directory
+     * Each entry of a directory is read with one attribute read only, which
+     * is much faster than the single checks of java.io.File on network shares.
      */
-    private StageDirectoryDTO scanDir(Library library, File directory) {
-        DirectoryType dirType = DirectoryEnding.check(directory);
-        StageDirectoryDTO stageDir;
-
-        LOG.info("Scanning directory '{}', detected type - {}", library.getRelativeDir(directory), dirType);
-
-        if (dirType == DirectoryType.BLURAY || dirType == DirectoryType.DVD) {
-            // Don't scan BLURAY or DVD structures
-            LOG.info("Skipping directory '{}' as its a {} type", directory.getAbsolutePath(), dirType);
-            library.getStatistics().increment(dirType == DirectoryType.BLURAY ? StatType.BLURAY : StatType.DVD);
-            stageDir = null;
-        } else if (DIR_EXCLUSIONS.containsKey(directory.getName().toLowerCase())) {
-            LOG.info("Skipping directory '{}' as its in the exclusion list.", directory.getAbsolutePath());
-            stageDir = null;
-        } else {
-            try {
-                if (FileUtils.directoryContains(directory, new File(directory, FILE_MJBIGNORE))) {
-                    LOG.debug("Exclusion file '{}' found, skipping scanning of directory {}.", FILE_MJBIGNORE, directory.getName());
-                    return null;
+    private class ScanDirectoryTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+        private final Library library;
+        private final Path directory;
+        private final BasicFileAttributes attributes;
+        private final boolean recursive;
+
+        public ScanDirectoryTask(Library library, Path directory, BasicFileAttributes attributes, boolean recursive) {
+            this.library = library;
+            this.directory = directory;
+            this.attributes = attributes;
+            this.recursive = recursive;
+        }
+
+        @Override
+        protected void compute() {
+            final String dirName = directory.getFileName() == null ? directory.toString() : directory.getFileName().toString();
+            final DirectoryType dirType = DirectoryEnding.check(directory.toFile());
+            LOG.info("Scanning directory '{}', detected type - {}", library.getRelativeDir(directory.toFile()), dirType);
+
+            if (dirType == DirectoryType.BLURAY || dirType == DirectoryType.DVD) {
+                // Don't scan BLURAY or DVD structures
+                LOG.info("Skipping directory '{}' as its a {} type", directory, dirType);
+                library.getStatistics().increment(dirType == DirectoryType.BLURAY ? StatType.BLURAY : StatType.DVD);
+                return;
+            }
+            if (DIR_EXCLUSIONS.containsKey(dirName.toLowerCase())) {
+                LOG.info("Skipping directory '{}' as its in the exclusion list.", directory);
+                return;
+            }
+
+            // Read all entries with their attributes at once
+            final Map<Path, BasicFileAttributes> files = new LinkedHashMap<>();
+            final Map<Path, BasicFileAttributes> directories = new LinkedHashMap<>();
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+                for (Path entry : stream) {
+                    try {
+                        BasicFileAttributes attrs = Files.readAttributes(entry, BasicFileAttributes.class);
+                        if (attrs.isRegularFile()) {
+                            files.put(entry, attrs);
+                        } else if (attrs.isDirectory()) {
+                            directories.put(entry, attrs);
+                        }
+                    } catch (IOException ex) {
+                        LOG.trace("Failed to read attributes of '{}'", entry, ex);
+                    }
                 }
             } catch (IOException ex) {
-                LOG.trace("Failed to seach for '{}' in the directory {}", FILE_MJBIGNORE, directory.getName());
+                LOG.warn("Failed to read directory '{}': {}", directory, ex.getMessage());
                 LOG.trace("IO error", ex);
+                return;
             }
 
-            stageDir = new StageDirectoryDTO();
-            stageDir.setPath(directory.getAbsolutePath());
-            stageDir.setDate(directory.lastModified());
-
-            library.getStatistics().increment(StatType.DIRECTORY);
-
-            File[] files = directory.listFiles();
-            if (files == null) {
-                return stageDir;
-            }
-            
-            final List<File> currentFileList = Arrays.asList(files);
-            final FileTypeComparator comp = new FileTypeComparator(false);
-            Collections.sort(currentFileList, comp);
-
             /*
              * We need to scan the directory and look for any of the exclusion filenames.
              *
              * We then build a list of those excluded extensions, so that when we scan the filename list we can exclude the unwanted files.
              */
             List<String> exclusions = new ArrayList<>();
-            for (File file : currentFileList) {
-                if (!file.isFile()) {
-                    // First directory we find, we can stop (because we sorted the files first)
-                    break;
+            for (Path file : files.keySet()) {
+                final String filename = file.getFileName().toString();
+                if (FILE_MJBIGNORE.equals(filename)) {
+                    LOG.debug("Exclusion file '{}' found, skipping scanning of directory {}.", FILE_MJBIGNORE, dirName);
+                    return;
                 }
                 
-                final String lcFilename = file.getName().toLowerCase();
+                final String lcFilename = filename.toLowerCase();
                 if (DIR_EXCLUSIONS.containsKey(lcFilename)) {
                     if (CollectionUtils.isEmpty(DIR_EXCLUSIONS.get(lcFilename))) {
                         // Because the value is null or empty we exclude the whole directory, so quit now.
-                        LOG.debug("Exclusion file '{}' found, skipping scanning of directory {}.", lcFilename, file.getParent());
+                        LOG.debug("Exclusion file '{}' found, skipping scanning of directory {}.", lcFilename, directory);
                         // All files to be excluded, so quit
-                        return null;
+                        return;
                     }
 
                     // We found a match, so add it to our local copy
                     LOG.debug("Exclusion file '{}' found, will exclude all {} file types", lcFilename, DIR_EXCLUSIONS.get(lcFilename).toString());
                     exclusions.addAll(DIR_EXCLUSIONS.get(lcFilename));
-                    // Skip to the next file, theres no need of further processing
                 }
             }
 
+            StageDirectoryDTO stageDir = new StageDirectoryDTO();
+            stageDir.setPath(directory.toFile().getAbsolutePath());
+            stageDir.setDate(attributes.lastModifiedTime().toMillis());
+            library.getStatistics().increment(StatType.DIRECTORY);
+
             // Create a precompiled Matcher for use later (Doesn't matter what the values are)
             Matcher matcher = Pattern.compile(FILE_MJBIGNORE).matcher(FILE_MJBIGNORE);
 
             // Scan the directory properly
-            for (File file : currentFileList) {
-                if (!file.isFile()) {
-                    // First directory we find, we can stop (because we sorted the files first)
-                    break;
-                }
-
-                boolean excluded = false;
-                String lcFilename = file.getName().toLowerCase();
+            for (Map.Entry<Path, BasicFileAttributes> entry : files.entrySet()) {
+                final String filename = entry.getKey().getFileName().toString();
+                final String lcFilename = filename.toLowerCase();
                 if (exclusions.contains(FilenameUtils.getExtension(lcFilename)) || DIR_EXCLUSIONS.containsKey(lcFilename)) {
-                    LOG.debug("File name '{}' excluded because it's listed in the exlusion list for this directory", file.getName());
+                    LOG.debug("File name '{}' excluded because it's listed in the exlusion list for this directory", filename);
                     continue;
                 }
 
                 // Process the DIR_IGNORE_FILES
+                boolean excluded = false;
                 for (Pattern pattern : DIR_IGNORE_FILES) {
                     matcher.reset(lcFilename).usePattern(pattern);
                     if (matcher.matches()) {
                         // Found the file pattern, so skip the file
-                        LOG.debug("File name '{}' excluded because it matches exlusion pattern '{}'", file.getName(), pattern.pattern());
+                        LOG.debug("File name '{}' excluded because it matches exlusion pattern '{}'", filename, pattern.pattern());
                         excluded = true;
                         break;
                     }
                 }
 
                 if (!excluded) {
-                    stageDir.addStageFile(scanFile(file));
+                    stageDir.addStageFile(scanFile(filename, entry.getValue()));
                     library.getStatistics().increment(StatType.FILE);
                 }
             }
 
-            library.addDirectory(stageDir);
-            queueForSending(library, stageDir);
+            // The directory must be queued before the sub directories, so that the parent is known in the core
+            synchronized (library) {
+                if (library.getSnapshot().prepareDelta(stageDir)) {
+                    library.addDirectory(stageDir);
+                    queueForSending(library, stageDir);
+                } else {
+                    LOG.debug("Directory '{}' is unchanged since last scan", library.getRelativeDir(stageDir.getPath()));
+                    library.getStatistics().increment(StatType.UNCHANGED);
+                }
+            }
 
-            // Resort the files with directories first
-            comp.setDirectoriesFirst(true);
-            Collections.sort(currentFileList, comp);
+            if (!recursive) {
+                return;
+            }
 
-            // Now scan the directories
-            for (File scanDir : currentFileList) {
-                if (!scanDir.isDirectory()) {
-                    // First file we find, we can stop (because we are sorted directories first)
-                    break;
+            // Now scan the directories in parallel
+            List<ScanDirectoryTask> tasks = new ArrayList<>(directories.size());
+            for (Map.Entry<Path, BasicFileAttributes> entry : directories.entrySet()) {
+                tasks.add(new ScanDirectoryTask(library, entry.getKey(), entry.getValue(), true));
+            }
+            invokeAll(tasks);
+        }
+    }
+
+    /**
+     * Re-scans the directories reported by the watcher.
+     *
+     * Only the changed directory (or the tree of a new directory) is scanned
+     * and queued, so the LibrarySendScheduler sends just the affected deltas.
+     */
+    private class LibraryWatchListener implements WatchListener {
+
+        private final ForkJoinPool watchPool = new ForkJoinPool(SCAN_THREADS);
+
+        @Override
+        public boolean isWatched(Path directory) {
+            final DirectoryType dirType = DirectoryEnding.check(directory.toFile());
+            if (dirType == DirectoryType.BLURAY || dirType == DirectoryType.DVD) {
+                return false;
+            }
+
+            final Path fileName = directory.getFileName();
+            if (fileName != null && DIR_EXCLUSIONS.containsKey(fileName.toString().toLowerCase())) {
+                return false;
+            }
+
+            // the scan skips directories with an exclusion file for all files
+            for (Map.Entry<String, List<String>> entry : DIR_EXCLUSIONS.entrySet()) {
+                if (CollectionUtils.isEmpty(entry.getValue()) && Files.exists(directory.resolve(entry.getKey()))) {
+                    return false;
                 }
-                
-                if (scanDir(library, scanDir) == null) {
-                    LOG.info("Not adding directory '{}', no files found or all excluded", scanDir.getAbsolutePath());
+            }
+            return true;
+        }
+
+        @Override
+        public void directoryChanged(Path directory, boolean recursive) {
+            final Library library = findLibrary(directory);
+            if (library == null) {
+                LOG.debug("No library found for changed directory '{}'", directory);
+                return;
+            }
+
+            // take over what has been sent since the last change
+            saveSnapshot(library);
+
+            BasicFileAttributes attributes = null;
+            try {
+                attributes = Files.readAttributes(directory, BasicFileAttributes.class);
+            } catch (IOException ex) { //NOSONAR
+                // directory has been deleted
+            }
+
+            if (attributes != null && attributes.isDirectory()) {
+                LOG.info("Directory '{}' has been changed", library.getRelativeDir(directory.toFile()));
+                watchPool.invoke(new ScanDirectoryTask(library, directory, attributes, recursive));
+            } else {
+                for (StageDirectoryDTO stageDir : library.getSnapshot().getRemovedDirectories(directory.toFile().getAbsolutePath())) {
+                    LOG.info("Directory '{}' has been removed", library.getRelativeDir(stageDir.getPath()));
+                    synchronized (library) {
+                        library.addDirectory(stageDir);
+                        queueForSending(library, stageDir);
+                    }
+                }
+            }
+        }
+
+        private Library findLibrary(Path directory) {
+            for (Library library : libraryCollection.getLibraries()) {
+                if (library.isWatch() && directory.startsWith(Paths.get(library.getImportDTO().getBaseDirectory()))) {
+                    return library;
                 }
             }
+            return null;
         }
-        return stageDir;
     }
 
     /**
      * Scan an individual file
      *
-     * @param library
-     * @param parentDto
-     * @param file
+     * @param filename
+     * @param attributes
      */
-    private static StageFileDTO scanFile(File file) {
-        LOG.info("Scanning file '{}'", file.getName());
-        return new StageFileDTO(file);
+    private static StageFileDTO scanFile(String filename, BasicFileAttributes attributes) {
+        LOG.info("Scanning file '{}'", filename);
+        StageFileDTO stageFile = new StageFileDTO();
+        stageFile.setFileName(filename);
+        stageFile.setFileSize(attributes.size());
+        stageFile.setFileDate(attributes.lastModifiedTime().toMillis());
+        return stageFile;
     }
 
     /**
@@ -480,6 +610,31 @@ public class ScannerManagementImpl implements ScannerManagement {
         }
     }
 
+    /**
+     * Take over the snapshots of the directories which have been sent
+     * successfully and save the snapshot of the library.
+     *
+     * @param library
+     */
+    private void saveSnapshot(Library library) {
+        LibrarySnapshot snapshot = library.getSnapshot();
+        List<Map.Entry<String, Future<StatusType>>> entries;
+        synchronized (library) {
+            entries = new ArrayList<>(library.getDirectoryStatus().entrySet());
+        }
+
+        for (Map.Entry<String, Future<StatusType>> entry : entries) {
+            try {
+                if (entry.getValue().isDone() && entry.getValue().get() == StatusType.DONE) {
+                    snapshot.commit(entry.getKey());
+                }
+            } catch (InterruptedException | ExecutionException ex) { //NOSONAR
+                LOG.trace("Failed to get sending status of '{}'", entry.getKey(), ex);
+            }
+        }
+        snapshotTools.save(library, snapshot);
+    }
+
     /**
      * Add the file to the library for sending to the core
      *
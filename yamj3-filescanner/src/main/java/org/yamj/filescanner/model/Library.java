@@ -31,6 +31,7 @@ import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.concurrent.ConcurrentUtils;
+import org.yamj.common.dto.ImportBatchDTO;
 import org.yamj.common.dto.ImportDTO;
 import org.yamj.common.dto.StageDirectoryDTO;
 import org.yamj.common.type.StatusType;
@@ -52,6 +53,7 @@ public class Library implements Serializable {
     private Map<String, StageDirectoryDTO> directories;
     private Map<String, Future<StatusType>> directoryStatus;
     private ImportDTO importDTO;
+    private LibrarySnapshot snapshot;
     private final AtomicBoolean scanningComplete;
     private final AtomicBoolean sendingComplete;
 
@@ -65,6 +67,7 @@ public class Library implements Serializable {
         this.directories = new HashMap<>(1);
         this.directoryStatus = new LinkedHashMap<>(1);
         importDTO = new ImportDTO();
+        this.snapshot = new LibrarySnapshot();
         this.scanningComplete = new AtomicBoolean(false);
         this.sendingComplete = new AtomicBoolean(false);
     }
@@ -133,7 +136,7 @@ public class Library implements Serializable {
      *
      * @param stageDir
      */
-    public void addDirectory(StageDirectoryDTO stageDir) {
+    public synchronized void addDirectory(StageDirectoryDTO stageDir) {
         this.directories.put(stageDir.getPath(), stageDir);
         addDirectoryStatus(stageDir.getPath());
     }
@@ -143,7 +146,7 @@ public class Library implements Serializable {
      *
      * @param stageDir
      */
-    public void removeDirectory(StageDirectoryDTO stageDir) {
+    public synchronized void removeDirectory(StageDirectoryDTO stageDir) {
         this.directories.remove(stageDir.getPath());
         removeDirectoryStatus(stageDir.getPath());
     }
@@ -153,7 +156,7 @@ public class Library implements Serializable {
      *
      * @param stageDirPath
      */
-    public void removeDirectory(String stageDirPath) {
+    public synchronized void removeDirectory(String stageDirPath) {
         this.directories.remove(stageDirPath);
         removeDirectoryStatus(stageDirPath);
     }
@@ -164,7 +167,7 @@ public class Library implements Serializable {
      * @param stageDirPath
      * @return
      */
-    public StageDirectoryDTO getDirectory(String stageDirPath) {
+    public synchronized StageDirectoryDTO getDirectory(String stageDirPath) {
         return directories.get(stageDirPath);
     }
 
@@ -202,6 +205,19 @@ public class Library implements Serializable {
         return newImportDto;
     }
 
+    /**
+     * Creates an empty ImportBatchDTO for the library
+     *
+     * @return
+     */
+    public ImportBatchDTO getImportBatch() {
+        ImportBatchDTO importBatch = new ImportBatchDTO();
+        importBatch.setBaseDirectory(importDTO.getBaseDirectory());
+        importBatch.setClient(importDTO.getClient());
+        importBatch.setPlayerPath(importDTO.getPlayerPath());
+        return importBatch;
+    }
+
     /**
      * Get the collection of statuses
      *
@@ -226,7 +242,7 @@ public class Library implements Serializable {
      * @param path
      * @param status
      */
-    public void addDirectoryStatus(String path, Future<StatusType> status) {
+    public synchronized void addDirectoryStatus(String path, Future<StatusType> status) {
         this.directoryStatus.put(path, status);
     }
 
@@ -237,7 +253,7 @@ public class Library implements Serializable {
      *
      * @param path
      */
-    public void addDirectoryStatus(String path) {
+    public synchronized void addDirectoryStatus(String path) {
         if (directoryStatus.containsKey(path)) {
             // Set to updated
             addDirectoryStatus(path, ConcurrentUtils.constantFuture(StatusType.UPDATED));
@@ -253,7 +269,7 @@ public class Library implements Serializable {
      * @param path
      * @return
      */
-    public Future<StatusType> findDirectoryStatus(String path) {
+    public synchronized Future<StatusType> findDirectoryStatus(String path) {
         if (directoryStatus.containsKey(path)) {
             return directoryStatus.get(path);
         }
@@ -266,7 +282,7 @@ public class Library implements Serializable {
      *
      * @param path
      */
-    public void removeDirectoryStatus(String path) {
+    public synchronized void removeDirectoryStatus(String path) {
         this.directoryStatus.remove(path);
     }
 
@@ -296,6 +312,24 @@ public class Library implements Serializable {
         return absolutePath;
     }
 
+    /**
+     * Get the snapshot of the last successful sending
+     *
+     * @return
+     */
+    public LibrarySnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Set the snapshot of the last successful sending
+     *
+     * @param snapshot
+     */
+    public void setSnapshot(LibrarySnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
     public boolean isScanningComplete() {
         return scanningComplete.get();
     }
@@ -0,0 +1,235 @@
+/*
+ *      Copyright (c) 2004-2015 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ).
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3
+ *
+ */
+package org.yamj.filescanner.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.*;
+import org.apache.commons.io.FilenameUtils;
+import org.yamj.common.dto.StageDirectoryDTO;
+import org.yamj.common.dto.StageFileDTO;
+
+/**
+ * Snapshot of the scanned directories of a library.
+ *
+ * Holds the date of each directory and the date and size of each file of the
+ * last successful sending, so that a scan only needs to send the directories
+ * which have been changed since then.
+ */
+public class LibrarySnapshot implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private final Map<String, DirectorySnapshot> directories = new HashMap<>();
+    // snapshots which are waiting for the directory to be sent
+    private transient Map<String, DirectorySnapshot> pending = new HashMap<>();
+    private transient Set<String> scanned = new HashSet<>();
+
+    private synchronized void writeObject(ObjectOutputStream out) throws IOException {
+        // no commit while the snapshot is written
+        out.defaultWriteObject();
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        this.pending = new HashMap<>();
+        this.scanned = new HashSet<>();
+    }
+
+    /**
+     * Compare the scanned directory with the snapshot.
+     *
+     * If the directory is known, the stage directory will be reduced to a delta
+     * which contains only the changed files and the names of the deleted files.
+     *
+     * @param stageDir the scanned stage directory
+     * @return true if the directory has to be sent, false if it is unchanged
+     */
+    public synchronized boolean prepareDelta(StageDirectoryDTO stageDir) {
+        final DirectorySnapshot current = new DirectorySnapshot(stageDir);
+        scanned.add(stageDir.getPath());
+
+        final DirectorySnapshot previous = directories.get(stageDir.getPath());
+        if (previous == null) {
+            // new directory, so send it completely
+            pending.put(stageDir.getPath(), current);
+            return true;
+        }
+        if (previous.equals(current)) {
+            return false;
+        }
+
+        Iterator<StageFileDTO> iter = stageDir.getStageFiles().iterator();
+        while (iter.hasNext()) {
+            StageFileDTO stageFile = iter.next();
+            if (Arrays.equals(previous.getFile(stageFile.getFileName()), current.getFile(stageFile.getFileName()))) {
+                iter.remove();
+            }
+        }
+        for (String fileName : previous.getFileNames()) {
+            if (current.getFile(fileName) == null) {
+                stageDir.addDeletedFile(fileName);
+            }
+        }
+        stageDir.setDelta(true);
+
+        pending.put(stageDir.getPath(), current);
+        return true;
+    }
+
+    /**
+     * Get the deltas for the directories which have been removed since the last scan.
+     *
+     * A directory is only treated as removed if its parent directory has been scanned,
+     * so that a not available library or sub directory will not delete anything.
+     * The known sub directories of a removed directory are removed with it.
+     *
+     * @return the list of deltas
+     */
+    public synchronized List<StageDirectoryDTO> getRemovedDirectories() {
+        Set<String> removedPaths = new HashSet<>();
+        for (String path : directories.keySet()) {
+            if (!scanned.contains(path) && scanned.contains(FilenameUtils.getFullPathNoEndSeparator(path))) {
+                removedPaths.add(path);
+            }
+        }
+
+        List<StageDirectoryDTO> removed = new ArrayList<>();
+        for (String removedPath : removedPaths) {
+            removed.addAll(getRemovedDirectories(removedPath));
+        }
+        return removed;
+    }
+
+    /**
+     * Get the deltas for a removed directory and all its known sub directories.
+     *
+     * @param removedPath the path of the removed directory
+     * @return the list of deltas
+     */
+    public synchronized List<StageDirectoryDTO> getRemovedDirectories(String removedPath) {
+        final String prefix = removedPath + File.separator;
+        List<StageDirectoryDTO> removed = new ArrayList<>();
+        for (Map.Entry<String, DirectorySnapshot> entry : directories.entrySet()) {
+            final String path = entry.getKey();
+            if (path.equals(removedPath) || path.startsWith(prefix)) {
+                removed.add(prepareRemoval(path, entry.getValue()));
+            }
+        }
+        return removed;
+    }
+
+    private StageDirectoryDTO prepareRemoval(String path, DirectorySnapshot snapshot) {
+        StageDirectoryDTO stageDir = new StageDirectoryDTO();
+        stageDir.setPath(path);
+        stageDir.setDate(snapshot.getDate());
+        stageDir.setDelta(true);
+        for (String fileName : snapshot.getFileNames()) {
+            stageDir.addDeletedFile(fileName);
+        }
+
+        // directory will be removed from snapshot after sending
+        pending.put(path, null);
+        return stageDir;
+    }
+
+    /**
+     * Take over the snapshot of a directory which has been sent successfully.
+     *
+     * @param path the path of the directory
+     */
+    public synchronized void commit(String path) {
+        if (!pending.containsKey(path)) {
+            return;
+        }
+
+        final DirectorySnapshot snapshot = pending.remove(path);
+        if (snapshot == null) {
+            directories.remove(path);
+        } else {
+            directories.put(path, snapshot);
+        }
+    }
+
+    public synchronized int size() {
+        return directories.size();
+    }
+
+    /**
+     * Snapshot of a single directory.
+     */
+    public static class DirectorySnapshot implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+        private final long date;
+        // file name to date and size of the file
+        private final Map<String, long[]> files;
+
+        public DirectorySnapshot(StageDirectoryDTO stageDir) {
+            this.date = stageDir.getDate();
+            this.files = new HashMap<>(stageDir.getStageFiles().size());
+            for (StageFileDTO stageFile : stageDir.getStageFiles()) {
+                files.put(stageFile.getFileName(), new long[]{stageFile.getFileDate(), stageFile.getFileSize()});
+            }
+        }
+
+        public long getDate() {
+            return date;
+        }
+
+        public Set<String> getFileNames() {
+            return files.keySet();
+        }
+
+        public long[] getFile(String fileName) {
+            return files.get(fileName);
+        }
+
+        @Override
+        public int hashCode() {
+            return (int) (date ^ (date >>> 32)) + 31 * files.size();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof DirectorySnapshot)) {
+                return false;
+            }
+            DirectorySnapshot other = (DirectorySnapshot) obj;
+            if (date != other.date || files.size() != other.files.size()) {
+                return false;
+            }
+            for (Map.Entry<String, long[]> entry : files.entrySet()) {
+                if (!Arrays.equals(entry.getValue(), other.files.get(entry.getKey()))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ *      Copyright (c) 2004-2015 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ).
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3
+ *
+ */
+package org.yamj.filescanner.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.remoting.httpinvoker.SimpleHttpInvokerRequestExecutor;
+
+/**
+ * HTTP invoker request executor which sends the invocations gzip compressed.
+ *
+ * The stage directories contain many similar paths and file names, so they
+ * compress very well.
+ */
+public class GzipHttpInvokerRequestExecutor extends SimpleHttpInvokerRequestExecutor {
+
+    private static final String ENCODING_GZIP = "gzip";
+
+    @Override
+    protected void prepareConnection(HttpURLConnection connection, int contentLength) throws IOException {
+        super.prepareConnection(connection, contentLength);
+        connection.setRequestProperty("Content-Encoding", ENCODING_GZIP);
+    }
+
+    @Override
+    protected OutputStream decorateOutputStream(OutputStream os) throws IOException {
+        return new GZIPOutputStream(os);
+    }
+}
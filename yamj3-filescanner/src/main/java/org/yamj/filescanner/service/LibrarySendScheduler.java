@@ -22,10 +22,15 @@
  */
 package org.yamj.filescanner.service;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
@@ -36,10 +41,10 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContext;
 import org.springframework.core.task.TaskRejectedException;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
+import org.yamj.common.dto.ImportBatchDTO;
 import org.yamj.common.dto.StageDirectoryDTO;
 import org.yamj.common.tools.PropertyTools;
 import org.yamj.common.type.StatusType;
@@ -55,6 +60,14 @@ public class LibrarySendScheduler {
     private static final int RETRY_MAX = PropertyTools.getIntProperty("filescanner.send.retry", 5);
     private final AtomicInteger runningCount = new AtomicInteger(0);
     private final AtomicInteger retryCount = new AtomicInteger(0);
+    // Number of directories sent to the core with one request
+    private static final int BATCH_SIZE = Math.max(1, PropertyTools.getIntProperty("filescanner.send.batchSize", 50));
+    // Number of batches which may be sent or waiting for sending at the same time
+    private static final int MAX_PENDING_BATCHES = Math.max(1, PropertyTools.getIntProperty("filescanner.send.pendingBatches", 4));
+    // Time in milliseconds to wait before directories in error are sent again
+    private static final long RETRY_DELAY = PropertyTools.getIntProperty("filescanner.send.retryDelay", 15000);
+    private final Semaphore pendingBatches = new Semaphore(MAX_PENDING_BATCHES);
+    private volatile long retryTime = 0;
 
     @Autowired
     private LibraryCollection libraryCollection;
@@ -79,8 +92,14 @@ public class LibrarySendScheduler {
         yamjExecutor.shutdown();
     }
 
-    @Async
-    @Scheduled(initialDelay = 10000, fixedDelay = 15000)
+    /**
+     * Send the queued directories of all libraries in batches.
+     *
+     * Runs continuously with a short delay. Only a limited number of batches
+     * may be pending at the same time; further directories wait until a batch
+     * has been completed by the core.
+     */
+    @Scheduled(initialDelay = 10000, fixedDelayString = "${filescanner.send.delay:1000}")
     public void sendLibraries() { //NOSONAR
         if (retryCount.get() > RETRY_MAX) {
             LOG.info("Maximum number of retries ({}) exceeded. No further processing attempted.", Integer.valueOf(RETRY_MAX));
@@ -90,43 +109,64 @@ public class LibrarySendScheduler {
             return;
         }
 
-        LOG.info("There are {} libraries to process, there have been {} consecutive failed attempts to send.", libraryCollection.size(), retryCount.get());
-        LOG.info("There are {} items currently queued to be sent to core.", runningCount.get());
+        final boolean retryAllowed = System.currentTimeMillis() >= retryTime;
+        boolean failed = false;
 
         for (Library library : libraryCollection.getLibraries()) {
             library.getStatistics().setTime(TimeType.SENDING_START);
-            LOG.info("  {} has {} directories and the file scanner has {} scanning.",
-                    library.getImportDTO().getBaseDirectory(),
-                    library.getDirectories().size(),
-                    library.isScanningComplete() ? "finished" : "not finished");
 
             try {
-                for (Map.Entry<String, Future<StatusType>> entry : library.getDirectoryStatus().entrySet()) {
-                    LOG.info("    {}: {}", entry.getKey(), entry.getValue().isDone() ? entry.getValue().get() : "Being processed");
-
-                    if (checkStatus(library, entry.getValue(), entry.getKey())) {
-                        if (retryCount.get() > 0) {
-                            LOG.debug("Successfully sent file to server, resetting retry count to 0 from {}.", retryCount.getAndSet(0));
-                        } else {
-                            LOG.debug("Successfully sent file to server.");
-                            retryCount.set(0);
+                // the scanner may still add directories while sending
+                final List<Map.Entry<String, Future<StatusType>>> entries;
+                synchronized (library) {
+                    entries = new ArrayList<>(library.getDirectoryStatus().entrySet());
+                }
+
+                boolean allSent = true;
+                List<String> batch = new ArrayList<>(BATCH_SIZE);
+                for (Map.Entry<String, Future<StatusType>> entry : entries) {
+                    if (!entry.getValue().isDone()) {
+                        // still being sent
+                        continue;
+                    }
+
+                    final StatusType processingStatus = entry.getValue().get();
+                    if (processingStatus == StatusType.ERROR) {
+                        failed = true;
+                        if (!retryAllowed) {
+                            allSent = false;
+                            continue;
+                        }
+                        LOG.debug("    Resending '{}' to core for processing (was in error status).", entry.getKey());
+                    } else if (processingStatus != StatusType.NEW && processingStatus != StatusType.UPDATED) {
+                        continue;
+                    }
+
+                    batch.add(entry.getKey());
+                    if (batch.size() >= BATCH_SIZE) {
+                        if (!sendToCore(library, batch)) {
+                            // back-pressure: wait until pending batches have been processed by the core
+                            allSent = false;
+                            break;
                         }
-                    } else {
-                        // Make sure this is set to false
-                        library.setSendingComplete(false);
-                        LOG.warn("Failed to send a file, this was failed attempt #{}. Waiting until next run...", retryCount.incrementAndGet());
-                        return;
+                        batch = new ArrayList<>(BATCH_SIZE);
                     }
                 }
+                if (allSent && !batch.isEmpty()) {
+                    allSent = sendToCore(library, batch);
+                }
 
                 // Don't stop sending until the scanning is completed and there are no running tasks
-                if (library.isScanningComplete() && runningCount.get() <= 0) {
-                    // When we reach this point we should have completed the library sending
-                    LOG.info("Sending complete for {}", library.getImportDTO().getBaseDirectory());
-                    library.setSendingComplete(true);
-                    library.getStatistics().setTime(TimeType.SENDING_END);
+                if (allSent && library.isScanningComplete() && runningCount.get() <= 0) {
+                    if (!library.isSendingComplete()) {
+                        // When we reach this point we should have completed the library sending
+                        LOG.info("Sending complete for {}", library.getImportDTO().getBaseDirectory());
+                        library.setSendingComplete(true);
+                        library.getStatistics().setTime(TimeType.SENDING_END);
+                    }
                 } else {
-                    LOG.info("  {}: Scanning and/or sending ({} left) is not complete. Waiting for more files to send.", library.getImportDTO().getBaseDirectory(), runningCount.get());
+                    library.setSendingComplete(false);
+                    LOG.debug("  {}: Scanning and/or sending ({} left) is not complete. Waiting for more files to send.", library.getImportDTO().getBaseDirectory(), runningCount.get());
                 }
             } catch (InterruptedException ex) { //NOSONAR
                 LOG.info("Interrupted error: {}", ex.getMessage());
@@ -134,76 +174,114 @@ public class LibrarySendScheduler {
                 LOG.warn("Execution error", ex);
             }
         }
-    }
 
-    private boolean checkStatus(Library library, Future<StatusType> statusType, String directory) throws InterruptedException, ExecutionException {
-        boolean sendStatus;
-
-        
-        if (statusType.isDone()) {
-            StatusType processingStatus = statusType.get();
-            
-            if (processingStatus == StatusType.NEW) {
-                LOG.info("    Sending '{}' to core for processing.", directory);
-                sendStatus = sendToCore(library, directory);
-            } else if (processingStatus == StatusType.UPDATED) {
-                LOG.info("    Sending updated '{}' to core for processing.", directory);
-                sendStatus = sendToCore(library, directory);
-            } else if (processingStatus == StatusType.ERROR) {
-                LOG.info("    Resending '{}' to core for processing (was in error status).", directory);
-                sendStatus = sendToCore(library, directory);
-            } else if (processingStatus == StatusType.DONE) {
-                LOG.info("    Completed: '{}'", directory);
-                sendStatus = true;
-            } else {
-                LOG.warn("    Unknown processing status {} for {}", processingStatus, directory);
-                // Assume this is correct, so we don't get stuck
-                sendStatus = true;
+        if (!failed) {
+            if (retryCount.get() > 0) {
+                LOG.debug("Successfully sent files to server, resetting retry count to 0 from {}.", retryCount.getAndSet(0));
             }
-        } else {
-            LOG.warn("    Still being procesed {}", directory);
-            sendStatus = false;
+        } else if (retryAllowed) {
+            LOG.warn("Failed to send files, this was failed attempt #{}. Waiting {}ms until next attempt...", retryCount.incrementAndGet(), RETRY_DELAY);
+            retryTime = System.currentTimeMillis() + RETRY_DELAY;
         }
-        return sendStatus;
     }
 
     /**
-     * Send the directory to the core.
+     * Send a batch of directories to the core.
      *
-     * Will get the StageDirectoryDTO from the library for sending.
+     * Will get the StageDirectoryDTOs from the library for sending.
      *
      * @param library
-     * @param sendDir
+     * @param sendDirs
+     * @return false if the batch could not be queued
      */
-    private boolean sendToCore(Library library, String sendDir) {
-        StageDirectoryDTO stageDto = library.getDirectory(sendDir);
-        boolean sentOk = false;
-
-        if (stageDto == null) {
-            LOG.warn("StageDirectoryDTO for '{}' is null!", sendDir);
-            // We do not want to send this again.
-            library.addDirectoryStatus(sendDir, ConcurrentUtils.constantFuture(StatusType.INVALID));
+    private boolean sendToCore(Library library, List<String> sendDirs) {
+        if (!pendingBatches.tryAcquire()) {
+            LOG.debug("{} batches are pending. Directories will be sent later.", MAX_PENDING_BATCHES);
+            return false;
+        }
+
+        final ImportBatchDTO importBatch = library.getImportBatch();
+        final List<String> batchDirs = new ArrayList<>(sendDirs.size());
+        for (String sendDir : sendDirs) {
+            StageDirectoryDTO stageDto = library.getDirectory(sendDir);
+            if (stageDto == null) {
+                LOG.warn("StageDirectoryDTO for '{}' is null!", sendDir);
+                // We do not want to send this again.
+                library.addDirectoryStatus(sendDir, ConcurrentUtils.constantFuture(StatusType.INVALID));
+            } else {
+                importBatch.addStageDirectory(stageDto);
+                batchDirs.add(sendDir);
+            }
+        }
+        if (batchDirs.isEmpty()) {
+            pendingBatches.release();
             return true;
         }
 
-        LOG.info("Sending #{}: {}", runningCount.incrementAndGet(), sendDir);
+        LOG.info("Sending batch of {} directories ({} in progress): {}", batchDirs.size(), runningCount.addAndGet(batchDirs.size()), library.getImportDTO().getBaseDirectory());
 
         ApplicationContext appContext = ApplicationContextProvider.getApplicationContext();
         SendToCore stc = (SendToCore) appContext.getBean("sendToCore");
-        stc.setImportDto(library.getImportDTO(stageDto));
+        stc.setImportBatch(importBatch);
         stc.setCounter(runningCount);
-        FutureTask<StatusType> task = new FutureTask<>(stc);
+        FutureTask<List<StatusType>> task = new FutureTask<List<StatusType>>(stc) {
+            @Override
+            protected void done() {
+                pendingBatches.release();
+            }
+        };
 
         try {
             yamjExecutor.submit(task);
-            library.addDirectoryStatus(stageDto.getPath(), task);
-            sentOk = true;
+            for (int i = 0; i < batchDirs.size(); i++) {
+                library.addDirectoryStatus(batchDirs.get(i), new BatchStatusFuture(task, i));
+            }
+            return true;
         } catch (TaskRejectedException ex) {
-            LOG.warn("Send queue full. '{}' will be sent later.", stageDto.getPath());
+            LOG.warn("Send queue full. {} directories will be sent later.", batchDirs.size());
             LOG.trace("Exception: ", ex);
-            library.addDirectoryStatus(stageDto.getPath(), ConcurrentUtils.constantFuture(StatusType.NEW));
+            pendingBatches.release();
+            runningCount.addAndGet(-batchDirs.size());
+            return false;
+        }
+    }
+
+    /**
+     * The status of a single directory within a sent batch.
+     */
+    private static class BatchStatusFuture implements Future<StatusType> {
+
+        private final Future<List<StatusType>> batch;
+        private final int index;
+
+        public BatchStatusFuture(Future<List<StatusType>> batch, int index) {
+            this.batch = batch;
+            this.index = index;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            return batch.cancel(mayInterruptIfRunning);
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return batch.isCancelled();
+        }
+
+        @Override
+        public boolean isDone() {
+            return batch.isDone();
+        }
+
+        @Override
+        public StatusType get() throws InterruptedException, ExecutionException {
+            return batch.get().get(index);
+        }
+
+        @Override
+        public StatusType get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            return batch.get(timeout, unit).get(index);
         }
-        
-        return sentOk;
     }
 }
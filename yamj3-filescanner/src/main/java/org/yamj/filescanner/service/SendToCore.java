@@ -22,6 +22,9 @@
  */
 package org.yamj.filescanner.service;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.slf4j.Logger;
@@ -32,16 +35,16 @@ import org.springframework.context.annotation.Scope;
 import org.springframework.remoting.RemoteAccessException;
 import org.springframework.remoting.RemoteConnectFailureException;
 import org.springframework.stereotype.Service;
-import org.yamj.common.dto.ImportDTO;
+import org.yamj.common.dto.ImportBatchDTO;
 import org.yamj.common.remote.service.FileImportService;
 import org.yamj.common.type.StatusType;
 
 @Service
 @Scope(BeanDefinition.SCOPE_PROTOTYPE)
-public class SendToCore implements Callable<StatusType> {
+public class SendToCore implements Callable<List<StatusType>> {
 
     private static final Logger LOG = LoggerFactory.getLogger(SendToCore.class);
-    private ImportDTO importDto;
+    private ImportBatchDTO importBatch;
     private AtomicInteger runningCount;
 
     @Autowired
@@ -51,39 +54,49 @@ public class SendToCore implements Callable<StatusType> {
         // empty initialization
     }
 
-    public SendToCore(ImportDTO importDto) {
-        this.importDto = importDto;
+    public SendToCore(ImportBatchDTO importBatch) {
+        this.importBatch = importBatch;
     }
 
-    public void setImportDto(ImportDTO importDto) {
-        this.importDto = importDto;
+    public void setImportBatch(ImportBatchDTO importBatch) {
+        this.importBatch = importBatch;
     }
 
     public void setCounter(AtomicInteger runningCount) {
           this.runningCount = runningCount;
     }
 
+    /**
+     * Send the batch to the core.
+     *
+     * @return the status of each directory in the order of the batch
+     */
     @Override
-    public StatusType call() {
-        StatusType status;
-        String displayPath = importDto.getStageDirectory().getPath();
+    public List<StatusType> call() {
+        final int size = importBatch.getStageDirectories().size();
+        final String displayPath = importBatch.getBaseDirectory();
+        List<StatusType> status;
         try {
-            LOG.debug("Sending: {}", displayPath);
-            fileImportService.importScanned(importDto);
-            LOG.debug("{}: Successfully queued", displayPath);
-            status = StatusType.DONE;
+            LOG.debug("Sending {} directories of {}", size, displayPath);
+            status = fileImportService.importScanned(importBatch);
+            LOG.debug("{}: Successfully queued {} directories", displayPath, size);
         } catch (RemoteConnectFailureException ex) {
             LOG.error("{}: Failed to connect to the core server: {}", displayPath, ex.getMessage());
             LOG.trace("Exception:", ex);
-            status = StatusType.ERROR;
+            status = Collections.nCopies(size, StatusType.ERROR);
         } catch (RemoteAccessException ex) {
             LOG.error("{}: Failed to send object to the core server: {}", displayPath, ex.getMessage());
             LOG.trace("Exception:", ex);
-            status = StatusType.ERROR;
+            status = Collections.nCopies(size, StatusType.ERROR);
+        }
+
+        if (status == null || status.size() != size) {
+            LOG.warn("{}: Invalid response from core server, batch will be sent again", displayPath);
+            status = Collections.nCopies(size, StatusType.ERROR);
         }
 
         // Whether or not the message was sent, quit
-        LOG.info("{}: Exiting with status {}, remaining threads: {}", displayPath, status, runningCount.decrementAndGet());
-        return status;
+        LOG.info("{}: Exiting batch of {} directories, remaining directories: {}", displayPath, size, runningCount.addAndGet(-size));
+        return new ArrayList<>(status);
     }
 }
@@ -0,0 +1,109 @@
+/*
+ *      Copyright (c) 2004-2015 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ).
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3
+ *
+ */
+package org.yamj.filescanner.tools;
+
+import java.io.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.yamj.common.tools.PropertyTools;
+import org.yamj.filescanner.model.Library;
+import org.yamj.filescanner.model.LibrarySnapshot;
+
+/**
+ * Reads and saves the snapshots of the libraries.
+ */
+@Service
+public class SnapshotTools {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SnapshotTools.class);
+    private static final boolean SNAPSHOT_ENABLED = PropertyTools.getBooleanProperty("filescanner.snapshot.enabled", true);
+    private static final String SNAPSHOT_DIRECTORY = PropertyTools.getProperty("filescanner.snapshot.directory",
+                    System.getProperty("yamj3.home", ".") + File.separator + "snapshot");
+
+    public boolean isEnabled() {
+        return SNAPSHOT_ENABLED;
+    }
+
+    /**
+     * Read the snapshot of the library from disk.
+     *
+     * @param library
+     * @return the snapshot; an empty snapshot if none exists or snapshots are disabled
+     */
+    public LibrarySnapshot read(Library library) {
+        File snapshotFile = getSnapshotFile(library);
+        if (!SNAPSHOT_ENABLED || !snapshotFile.exists()) {
+            return new LibrarySnapshot();
+        }
+
+        LOG.debug("Reading snapshot '{}'", snapshotFile.getAbsolutePath());
+        try (ObjectInputStream is = new ObjectInputStream(new GZIPInputStream(new BufferedInputStream(new FileInputStream(snapshotFile))))) {
+            return (LibrarySnapshot) is.readObject();
+        } catch (IOException | ClassNotFoundException | ClassCastException ex) {
+            LOG.warn("Failed to read snapshot '{}', library will be sent completely: {}", snapshotFile.getAbsolutePath(), ex.getMessage());
+            LOG.trace("Error reading snapshot", ex);
+        }
+        return new LibrarySnapshot();
+    }
+
+    /**
+     * Save the snapshot of the library to disk.
+     *
+     * @param library
+     * @param snapshot
+     */
+    public void save(Library library, LibrarySnapshot snapshot) {
+        if (!SNAPSHOT_ENABLED) {
+            return;
+        }
+
+        File snapshotFile = getSnapshotFile(library);
+        File tempFile = new File(snapshotFile.getPath() + ".tmp");
+        snapshotFile.getParentFile().mkdirs();
+        
+        LOG.info("Saving snapshot with {} directories to '{}'", snapshot.size(), snapshotFile.getAbsolutePath());
+        try (ObjectOutputStream os = new ObjectOutputStream(new GZIPOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile))))) {
+            os.writeObject(snapshot);
+        } catch (IOException ex) {
+            LOG.warn("Failed to save snapshot '{}': {}", snapshotFile.getAbsolutePath(), ex.getMessage());
+            LOG.trace("Error saving snapshot", ex);
+            tempFile.delete();
+            return;
+        }
+        
+        // the old snapshot is only replaced if the new one has been written completely
+        if (snapshotFile.exists() && !snapshotFile.delete()) {
+            LOG.warn("Failed to replace snapshot '{}'", snapshotFile.getAbsolutePath());
+        } else if (!tempFile.renameTo(snapshotFile)) {
+            LOG.warn("Failed to rename snapshot '{}'", tempFile.getAbsolutePath());
+        }
+    }
+
+    private static File getSnapshotFile(Library library) {
+        String name = library.getImportDTO().getClient() + "_" + library.getImportDTO().getBaseDirectory();
+        return new File(SNAPSHOT_DIRECTORY, name.replaceAll("[^a-zA-Z0-9\\-]", "_") + ".snapshot");
+    }
+}
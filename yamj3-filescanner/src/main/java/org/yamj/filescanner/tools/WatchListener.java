@@ -0,0 +1,49 @@
+/*
+ *      Copyright (c) 2004-2015 YAMJ Members
+ *      https://github.com/organizations/YAMJ/teams
+ *
+ *      This file is part of the Yet Another Media Jukebox (YAMJ).
+ *
+ *      YAMJ is free software: you can redistribute it and/or modify
+ *      it under the terms of the GNU General Public License as published by
+ *      the Free Software Foundation, either version 3 of the License, or
+ *      any later version.
+ *
+ *      YAMJ is distributed in the hope that it will be useful,
+ *      but WITHOUT ANY WARRANTY; without even the implied warranty of
+ *      MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ *      GNU General Public License for more details.
+ *
+ *      You should have received a copy of the GNU General Public License
+ *      along with YAMJ.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ *      Web: https://github.com/YAMJ/yamj-v3
+ *
+ */
+package org.yamj.filescanner.tools;
+
+import java.nio.file.Path;
+
+/**
+ * Listener for the changes detected by the {@link Watcher}
+ */
+public interface WatchListener {
+
+    /**
+     * Check if the directory and its sub directories should be watched
+     *
+     * @param directory
+     * @return
+     */
+    boolean isWatched(Path directory);
+
+    /**
+     * Called once the events of a directory have settled.
+     *
+     * The directory may not exist anymore if it has been deleted.
+     *
+     * @param directory the changed directory
+     * @param recursive true if the sub directories have to be scanned too
+     */
+    void directoryChanged(Path directory, boolean recursive);
+}
@@ -22,61 +22,55 @@
  */
 package org.yamj.filescanner.tools;
 
-import static name.pachler.nio.file.StandardWatchEventKind.ENTRY_CREATE;
-import static name.pachler.nio.file.StandardWatchEventKind.ENTRY_DELETE;
-import static name.pachler.nio.file.StandardWatchEventKind.ENTRY_MODIFY;
-import static name.pachler.nio.file.ext.ExtendedWatchEventModifier.FILE_TREE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
-import name.pachler.nio.file.*;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Watches directory trees for changes.
+ *
+ * Every sub directory is registered with the standard WatchService, so this
+ * works on all platforms. New directories are registered as they appear. The
+ * events are collected per directory and the listener is notified once no
+ * more events occurred for the debounce time.
+ */
 public class Watcher {
 
     private static final Logger LOG = LoggerFactory.getLogger(Watcher.class);
     private final WatchService watcherService;
+    private final WatchListener listener;
+    private final long debounceMillis;
     private final Map<WatchKey, Path> keys = new HashMap<>();
+    // all registered directories; kept after their key has been cancelled to recognize their deletion
+    private final Set<Path> registeredDirectories = new HashSet<>();
+    // directories with pending events and the time of the last event
+    private final Map<Path, Long> changedDirectories = new HashMap<>();
+    // directories which have been created or deleted and must be handled recursively
+    private final Set<Path> recursiveDirectories = new HashSet<>();
     private boolean trace = false;
-    @SuppressWarnings("rawtypes")
-    private static final WatchEvent.Kind[] STANDARD_EVENTS = {ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE};
     // keep watching the directories
-    private boolean watchEnabled = true;
+    private volatile boolean watchEnabled = true;
 
     /**
      * Creates a WatchService
-     */
-    public Watcher() {
-       this.watcherService = FileSystems.getDefault().newWatchService();
-    }
-
-    /**
-     * Creates a WatchService and registers the given directory
-     *
-     * @param dir
-     * @throws java.io.IOException
-     */
-    public Watcher(Path dir) {
-        this();
-        addDirectory(dir);
-    }
-
-    /**
-     * Creates a WatchService and registers the given directory
      *
-     * @param dir
-     * @throws java.io.IOException
+     * @param listener the listener to notify about changed directories
+     * @param debounceMillis the time to wait for further events of a directory
+     * @throws IOException
      */
-    public Watcher(String dir) {
-        this();
-        addDirectory(dir);
-    }
-
-    @SuppressWarnings("unchecked")
-    private static <T> WatchEvent<T> cast(WatchEvent<?> event) {
-        return (WatchEvent<T>) event;
+    public Watcher(WatchListener listener, long debounceMillis) throws IOException {
+        this.watcherService = FileSystems.getDefault().newWatchService();
+        this.listener = listener;
+        this.debounceMillis = debounceMillis;
     }
 
     /**
@@ -89,17 +83,46 @@ public class Watcher {
     }
 
     /**
-     * Add directory to the watch list
+     * Add directory and all sub directories to the watch list
      *
      * @param dir
      */
     public final void addDirectory(Path dir) {
-        register(dir);
+        registerTree(dir);
 
         // enable trace after initial registration
         this.trace = true;
     }
 
+    /**
+     * Register the given directory and all watched sub directories with the WatchService
+     *
+     * @param start
+     */
+    private void registerTree(Path start) {
+        try {
+            Files.walkFileTree(start, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                    if (!listener.isWatched(dir)) {
+                        LOG.debug("Skip watching of '{}'", dir);
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    register(dir);
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException ex) {
+                    LOG.trace("Failed to visit '{}'", file, ex);
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException ex) {
+            LOG.error("Failed to register directory tree '{}'", start, ex);
+        }
+    }
+
     /**
      * Register the given directory with the WatchService
      *
@@ -108,12 +131,13 @@ public class Watcher {
     private void register(Path dir) {
         WatchKey key = null;
         try {
-            key = dir.register(watcherService, STANDARD_EVENTS, FILE_TREE);
+            key = dir.register(watcherService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
         } catch (UnsupportedOperationException ex) {
             LOG.warn("File watching not supported: {}", ex.getMessage());
             LOG.trace("Exception:", ex);
         } catch (IOException ex) {
-            LOG.error("IO Error:", ex);
+            LOG.warn("Failed to watch directory '{}': {}", dir, ex.getMessage());
+            LOG.trace("IO Error:", ex);
         }
 
         if (key != null) {
@@ -126,6 +150,7 @@ public class Watcher {
                 }
             }
             keys.put(key, dir);
+            registeredDirectories.add(dir);
         }
     }
 
@@ -135,11 +160,15 @@ public class Watcher {
     public void processEvents() {
         while (watchEnabled) {
 
-            // wait for key to be signaled
+            // wait for key to be signaled; only wait for the debounce time if changes are pending
             WatchKey key;
             try {
-                key = watcherService.take();
-            } catch (InterruptedException ex) {
+                if (changedDirectories.isEmpty()) {
+                    key = watcherService.take();
+                } else {
+                    key = watcherService.poll(debounceMillis, TimeUnit.MILLISECONDS);
+                }
+            } catch (InterruptedException ex) { //NOSONAR
                 continue;
             } catch (ClosedWatchServiceException ex) {
                 LOG.info("Watch service closed, terminating.");
@@ -148,41 +177,107 @@ public class Watcher {
                 break;
             }
 
-            Path dir = keys.get(key);
-            if (dir == null) {
-                LOG.warn("WatchKey not recognized!!");
-                continue;
+            if (key != null && !processKey(key)) {
+                // all directories are inaccessible
+                break;
             }
 
-            for (WatchEvent<?> event : key.pollEvents()) {
-                @SuppressWarnings("rawtypes")
-                WatchEvent.Kind kind = event.kind();
+            notifyListener();
+        }
+    }
 
-                // TBD - provide example of how OVERFLOW event is handled
-                if (kind == StandardWatchEventKind.OVERFLOW) {
-                    LOG.info("Too many watched events!");
-                    continue;
-                }
+    /**
+     * Collect the events of the key.
+     *
+     * @param key
+     * @return false if no directory is watched anymore
+     */
+    private boolean processKey(WatchKey key) {
+        Path dir = keys.get(key);
+        if (dir == null) {
+            LOG.warn("WatchKey not recognized!!");
+            return true;
+        }
 
-                // Context for directory entry event is the file name of entry
-                WatchEvent<Path> ev = cast(event);
-                Path name = ev.context();
-                Path child = dir.resolve(name);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            WatchEvent.Kind<?> kind = event.kind();
+
+            if (kind == OVERFLOW) {
+                // events have been lost, so check the whole directory
+                LOG.info("Too many watched events for '{}'", dir);
+                markChanged(dir);
+                continue;
+            }
 
-                // print out event
-                LOG.info("{}: {}", event.kind().name(), child);
+            // Context for directory entry event is the file name of entry
+            Path child = dir.resolve((Path) event.context());
+            LOG.debug("{}: {}", kind.name(), child);
 
+            if (kind == ENTRY_CREATE && Files.isDirectory(child, LinkOption.NOFOLLOW_LINKS)) {
+                // files may already exist before the new directory has been registered
+                registerTree(child);
+                recursiveDirectories.add(child);
+                markChanged(child);
+            } else if (kind == ENTRY_DELETE && registeredDirectories.remove(child)) {
+                // a watched directory has been deleted; its key may already be cancelled
+                unregisterTree(child);
+                recursiveDirectories.add(child);
+                markChanged(child);
+            } else {
+                markChanged(dir);
             }
+        }
 
-            // reset key and remove from set if directory no longer accessible
-            boolean valid = key.reset();
-            if (!valid) {
-                keys.remove(key);
+        // reset key and remove from set if directory no longer accessible
+        if (!key.reset()) {
+            keys.remove(key);
+            return !keys.isEmpty();
+        }
+        return true;
+    }
 
-                // all directories are inaccessible
-                if (keys.isEmpty()) {
-                    break;
-                }
+    /**
+     * Forget the registered sub directories of a deleted directory
+     *
+     * @param dir
+     */
+    private void unregisterTree(Path dir) {
+        Iterator<Path> iter = registeredDirectories.iterator();
+        while (iter.hasNext()) {
+            if (iter.next().startsWith(dir)) {
+                iter.remove();
+            }
+        }
+    }
+
+    private void markChanged(Path dir) {
+        changedDirectories.put(dir, System.currentTimeMillis());
+    }
+
+    /**
+     * Notify the listener about all directories which didn't change for the debounce time
+     */
+    private void notifyListener() {
+        final long settled = System.currentTimeMillis() - debounceMillis;
+        
+        // sorted to notify parent directories before their children
+        SortedSet<Path> notify = new TreeSet<>();
+        Iterator<Map.Entry<Path, Long>> iter = changedDirectories.entrySet().iterator();
+        while (iter.hasNext()) {
+            Map.Entry<Path, Long> entry = iter.next();
+            if (entry.getValue() <= settled) {
+                notify.add(entry.getKey());
+                iter.remove();
+            }
+        }
+
+        for (Path dir : notify) {
+            boolean recursive = recursiveDirectories.remove(dir);
+            try {
+                listener.directoryChanged(dir, recursive);
+            } catch (Exception ex) {
+                LOG.warn("Failed to process changed directory '{}': {}", dir, ex.getMessage());
+                LOG.trace("Exception:", ex);
             }
         }
     }
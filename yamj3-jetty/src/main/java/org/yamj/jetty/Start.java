@@ -31,12 +31,16 @@ import java.io.IOException;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.SystemUtils;
 import org.apache.log4j.PropertyConfigurator;
 import org.eclipse.jetty.server.Handler;
 import org.eclipse.jetty.server.Server;
 import org.eclipse.jetty.server.handler.DefaultHandler;
 import org.eclipse.jetty.server.handler.HandlerList;
 import org.eclipse.jetty.server.handler.ResourceHandler;
+import org.eclipse.jetty.servlet.DefaultServlet;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.eclipse.jetty.servlet.ServletHolder;
 import org.eclipse.jetty.util.thread.QueuedThreadPool;
 import org.eclipse.jetty.webapp.WebAppContext;
 import org.slf4j.Logger;
@@ -57,6 +61,12 @@ public final class Start {
     private static final String WAR_FILE_SNAPSHOT = "yamj3-core-3.0-SNAPSHOT.war";
     private static final String RESOURCES_DIR = "./resources/";
     private static final String SKINS_DIR = "skins/";
+    private static final String[] STORAGE_DIRS = {"artwork", "photo", "trailer"};
+    // regenerated images keep their file name, so clients have to revalidate with the ETag
+    private static final String STORAGE_CACHE_CONTROL = "public, max-age=600";
+    private static final String STORAGE_MAX_CACHE_SIZE = String.valueOf(64 * 1024 * 1024);
+    private static final String STORAGE_MAX_CACHED_FILE_SIZE = String.valueOf(1024 * 1024);
+    private static final String STORAGE_MAX_CACHED_FILES = "2048";
     private static final String[] DEFAULT_WELCOME_PAGES = {"yamj.html", "yamj3.html", "index.html"};
     private static final String SERVER_ERROR = "Server error";
 
@@ -160,8 +170,17 @@ public final class Start {
             FileUtils.forceMkdir(new File(skinDir));
             LOG.info("Skins directory: {}", skinDir);
 
+            // Serve the storage directories with range requests, conditional GETs and mapped buffers
+            Handler[] handlerArray = new Handler[STORAGE_DIRS.length + 3];
+            handlerArray[0] = webapp;
+            for (int i = 0; i < STORAGE_DIRS.length; i++) {
+                handlerArray[i + 1] = createStorageContext(STORAGE_DIRS[i]);
+            }
+            handlerArray[STORAGE_DIRS.length + 1] = resourceDirHandler;
+            handlerArray[STORAGE_DIRS.length + 2] = new DefaultHandler();
+
             HandlerList handlers = new HandlerList();
-            handlers.setHandlers(new Handler[]{webapp, resourceDirHandler, new DefaultHandler()});
+            handlers.setHandlers(handlerArray);
             server.setHandler(handlers);
 
             if (server.getThreadPool() instanceof QueuedThreadPool) {
@@ -189,6 +208,40 @@ public final class Start {
         }
     }
 
+    /**
+     * Create the context serving a storage directory of the core.
+     *
+     * Small files are cached and written directly to the socket channel; larger files like trailers are streamed
+     * and support byte ranges for seeking. The cache uses memory mapped buffers except on Windows, where a mapped
+     * file is locked and could not be regenerated or deleted by the core anymore.
+     *
+     * @param storageDir
+     * @return
+     * @throws IOException
+     */
+    private static ServletContextHandler createStorageContext(String storageDir) throws IOException {
+        String resourceBase = FilenameUtils.concat(RESOURCES_DIR, storageDir);
+        FileUtils.forceMkdir(new File(resourceBase));
+
+        ServletHolder holder = new ServletHolder(DefaultServlet.class);
+        holder.setInitParameter("acceptRanges", "true");
+        holder.setInitParameter("dirAllowed", "true");
+        holder.setInitParameter("etags", "true");
+        holder.setInitParameter("gzip", "false");
+        holder.setInitParameter("useFileMappedBuffer", String.valueOf(!SystemUtils.IS_OS_WINDOWS));
+        holder.setInitParameter("maxCacheSize", STORAGE_MAX_CACHE_SIZE);
+        holder.setInitParameter("maxCachedFileSize", STORAGE_MAX_CACHED_FILE_SIZE);
+        holder.setInitParameter("maxCachedFiles", STORAGE_MAX_CACHED_FILES);
+        holder.setInitParameter("cacheControl", STORAGE_CACHE_CONTROL);
+
+        ServletContextHandler context = new ServletContextHandler(ServletContextHandler.NO_SESSIONS);
+        context.setContextPath("/" + storageDir);
+        context.setResourceBase(resourceBase);
+        context.addServlet(holder, "/");
+        LOG.info("Storage directory: {}", resourceBase);
+        return context;
+    }
+
     /**
      * Print the parse descriptions
      *